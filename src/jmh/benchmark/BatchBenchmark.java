@@ -0,0 +1,78 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.BatchEvaluator;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+
+/**
+ * Evaluates one formula over a column of values, row by row with a Frame and chunk by chunk
+ * with a BatchEvaluator on one or on all cores
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    @Param({ "x^4+x^3+x^2+x+1", "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))" })
+    public String equation;
+
+    @Param({ "65536" })
+    public int rows;
+
+    @Param({ "true", "false" })
+    public boolean complex;
+
+    private double[] re, im, outRe, outIm;
+    private Frame frame;
+    private BatchEvaluator batch;
+
+    @Setup
+    public void setUp() throws Exception {
+        re = new double[rows];
+        im = new double[rows];
+        outRe = new double[rows];
+        outIm = new double[rows];
+        for(int i = 0; i < rows; i++) {
+            re[i] = Math.cos(i * 1e-3);
+            im[i] = complex ? Math.sin(i * 1e-3) : 0.0;
+        }
+        CompiledExpression expression = CompiledExpression.compile(equation);
+        frame = expression.newFrame();
+        batch = expression.newBatch();
+        batch.bind("x", re, complex ? im : null);
+    }
+
+    @Benchmark
+    public double[] rowByRow() throws Exception {
+        double[] out = new double[2];
+        for(int i = 0; i < rows; i++) {
+            frame.setVariable(0, re[i], im[i]);
+            frame.evaluateInto(out);
+            outRe[i] = out[0];
+            outIm[i] = out[1];
+        }
+        return outRe;
+    }
+
+    @Benchmark
+    public double[] columns() throws Exception {
+        batch.evaluate(outRe, outIm);
+        return outRe;
+    }
+
+    @Benchmark
+    public double[] columnsParallel() throws Exception {
+        batch.evaluateParallel(outRe, outIm);
+        return outRe;
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.BigComplex;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+
+/**
+ * Cost of arbitrary-precision evaluation against the double path, for one compiled expression
+ * evaluated with a Frame and at 16, 34 and 50 digits, and for a polynomial evaluated with exact
+ * decimal arithmetic.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigComplexBenchmark {
+    private static final MathContext DIGITS_50 = new MathContext(50);
+
+    private final double[] out = new double[2];
+    private CompiledExpression expression, polynomial;
+    private Frame frame;
+    private Map<String, BigComplex> values;
+
+    @Setup
+    public void setUp() throws Exception {
+        expression = CompiledExpression.compile("sin(x)*exp(-x/2) + 2*pi*x^3");
+        polynomial = CompiledExpression.compile("0.25*x^4 - 1.5*x^3 + x^2 - 0.1*x + 7");
+        frame = expression.newFrame();
+        frame.setVariable("x", 0.7, -0.2);
+        values = Map.of("x", new BigComplex(new BigDecimal("0.7"), new BigDecimal("-0.2")));
+    }
+
+    @Benchmark
+    public double[] doublePath() throws Exception {
+        frame.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public BigComplex decimal64() throws Exception {
+        return expression.evaluate(values, MathContext.DECIMAL64);
+    }
+
+    @Benchmark
+    public BigComplex decimal128() throws Exception {
+        return expression.evaluate(values, MathContext.DECIMAL128);
+    }
+
+    @Benchmark
+    public BigComplex digits50() throws Exception {
+        return expression.evaluate(values, DIGITS_50);
+    }
+
+    @Benchmark
+    public BigComplex exactPolynomial() throws Exception {
+        return polynomial.evaluate(values, MathContext.UNLIMITED);
+    }
+}
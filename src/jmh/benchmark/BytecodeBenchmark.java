@@ -0,0 +1,68 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.Backend;
+import evaluator.CompiledExpression;
+import evaluator.CompiledFunction;
+import evaluator.Frame;
+
+/**
+ * Compares the interpreter with the classes generated by the BYTECODE backend
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BytecodeBenchmark {
+    @Param({ "x^4+x^3+x^2+x+1", "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))", "(x*x-1)/(x*x+1)+2*x/(x-3)" })
+    public String equation;
+
+    private Frame interpreter, bytecode;
+    private CompiledFunction function;
+    private final double[] variables = new double[2], out = new double[2];
+    private double x;
+
+    @Setup
+    public void setUp() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile(equation);
+        interpreter = expression.newFrame();
+        interpreter.setRealFastPath(false);
+        CompiledExpression generated = expression.withBackend(Backend.BYTECODE);
+        bytecode = generated.newFrame();
+        function = generated.getFunction();
+    }
+
+    @Benchmark
+    public double interpreter() throws Exception {
+        x = x > 10.0 ? 0.5 : x + 0.25;
+        interpreter.setVariable(0, x, 0.5);
+        interpreter.evaluateInto(out);
+        return out[0];
+    }
+
+    @Benchmark
+    public double bytecodeFrame() throws Exception {
+        x = x > 10.0 ? 0.5 : x + 0.25;
+        bytecode.setVariable(0, x, 0.5);
+        bytecode.evaluateInto(out);
+        return out[0];
+    }
+
+    @Benchmark
+    public double bytecodeFunction() {
+        x = x > 10.0 ? 0.5 : x + 0.25;
+        variables[0] = x;
+        variables[1] = 0.5;
+        function.evaluate(variables, out);
+        return out[0];
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+
+/**
+ * Cost of every operation of the Complex record, including its String representation
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplexBenchmark {
+    public Complex a = new Complex(Math.cos(2.0 * Math.PI / 5.0), Math.sin(2.0 * Math.PI / 5.0));
+    public Complex b = new Complex(2.2593, -3.4868);
+    public double power = 2.5;
+    public int precision = 4;
+
+    @Benchmark public Complex add() { return a.add(b); }
+    @Benchmark public Complex subtract() { return a.subtract(b); }
+    @Benchmark public Complex multiply() { return a.multiply(b); }
+    @Benchmark public Complex multiplyScalar() { return a.multiply(power); }
+    @Benchmark public Complex divide() { return a.divide(b); }
+    @Benchmark public double mod() { return a.mod(); }
+    @Benchmark public double arg() { return a.arg(); }
+    @Benchmark public Complex conjugate() { return a.conjugate(); }
+    @Benchmark public Complex powReal() { return a.pow(power); }
+    @Benchmark public Complex powComplex() { return a.pow(b); }
+    @Benchmark public Complex reciprocal() { return a.reciprocal(); }
+    @Benchmark public Complex exp() { return a.exp(); }
+    @Benchmark public Complex sin() { return a.sin(); }
+    @Benchmark public Complex cos() { return a.cos(); }
+    @Benchmark public Complex log() { return a.log(10); }
+    @Benchmark public Complex ln() { return a.log(Math.E); }
+    @Benchmark public String toStringPrecision() { return b.toString(precision); }
+    @Benchmark public String toStringDefault() { return a.toString(); }
+}
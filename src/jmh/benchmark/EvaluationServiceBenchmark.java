@@ -0,0 +1,101 @@
+package benchmark;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationService;
+import evaluator.ExpressionCache;
+import evaluator.LatencyHistogram;
+
+/**
+ * Load generator for the EvaluationService: every operation submits a burst of 10,000 requests over
+ * three equations and waits for all of them, so the throughput is 10,000 requests per operation time.
+ * Batch sizes of 1, 64 and 256 are compared against dispatching each request to a virtual thread of
+ * its own, which does not depend on the batch size, and the 50th and 99th percentile of the request
+ * latency is reported at the end of each trial.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationServiceBenchmark {
+    private static final int REQUESTS = 10_000;
+    private static final String[] EQUATIONS = { "x^2 + sin(y)", "sqrt(x*y) - 1/x", "exp(-x)*cos(y)" };
+
+    @Param({ "1", "64", "256" })
+    public int batchSize;
+
+    private final CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+    private final LatencyHistogram directLatency = new LatencyHistogram();
+    private EvaluationService service;
+    private ExecutorService direct;
+    private CompiledExpression[] expressions;
+    private Map<String, Complex>[] values;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        ExpressionCache cache = new ExpressionCache(16);
+        service = new EvaluationService(cache, null, batchSize, Duration.ofNanos(100_000), REQUESTS);
+        direct = Executors.newVirtualThreadPerTaskExecutor();
+        expressions = new CompiledExpression[EQUATIONS.length];
+        for(int k = 0; k < EQUATIONS.length; k++) expressions[k] = cache.get(EQUATIONS[k]);
+        values = new Map[REQUESTS];
+        for(int i = 0; i < REQUESTS; i++)
+            values[i] = Map.of("x", new Complex(1 + i * 1e-4, 0), "y", new Complex(0.5, 0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        report("service", service.getLatency());
+        report("direct", directLatency);
+        service.close();
+        direct.close();
+    }
+
+    @Benchmark
+    public Object service() {
+        for(int i = 0; i < REQUESTS; i++) futures[i] = service.submit(expressions[i % expressions.length], values[i]);
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    @Benchmark
+    public Object perRequestDispatch() {
+        for(int i = 0; i < REQUESTS; i++) {
+            CompiledExpression expression = expressions[i % expressions.length];
+            Map<String, Complex> row = values[i];
+            long start = System.nanoTime();
+            futures[i] = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return expression.evaluate(row);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    directLatency.record(System.nanoTime() - start);
+                }
+            }, direct).exceptionally(e -> null);
+        }
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    private void report(String name, LatencyHistogram latency) {
+        if(latency.getCount() == 0) return;
+        System.out.printf("%n%s, batch size %d: %d requests, p50 %d ns, p99 %d ns%n", name, batchSize,
+                latency.getCount(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+
+/**
+ * Parsing and evaluation of the README and test formulas, through the interpreter, the cached compiled
+ * form and a Frame. Run with <b>-prof gc</b> to get the allocation rate, the sample mode reports latency
+ * percentiles.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    @Param({
+        "(1+i)^(2-i)+2^-i",
+        "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))",
+        "-1.3+e^(2.3-1.2)-sin(pi)",
+        "3^-1+2^-2",
+        "1.2+(4.5-2.2/0.5+(3.45-2.22))+3.5-2.1",
+        "x^4+x^3+x^2+x+1",
+        "sin(2*x)-2*sin(x)*cos(x)",
+        "2 + (  log(5) -   log(3)  )    /  log(4)"
+    })
+    public String equation;
+
+    private ExpressionEvaluator evaluator, cached;
+    private Frame frame;
+    private final double[] out = new double[2];
+
+    @Setup
+    public void setUp() throws Exception {
+        evaluator = new ExpressionEvaluator();
+        // fifth root of unity, as in the tests
+        evaluator.setVariable("x", new Complex(Math.cos(2.0 * Math.PI / 5.0), Math.sin(2.0 * Math.PI / 5.0)));
+        frame = CompiledExpression.compile(equation).newFrame();
+        frame.setVariable("x", evaluator.getVariable("x"));
+        cached = new ExpressionEvaluator();
+        cached.setVariable("x", evaluator.getVariable("x"));
+        cached.setCache(new ExpressionCache(16));
+    }
+
+    @Benchmark
+    public CompiledExpression compile() throws Exception {
+        return CompiledExpression.compile(equation);
+    }
+
+    @Benchmark
+    public Complex complexEvaluator() throws Exception {
+        return evaluator.complexEvaluator(equation, false);
+    }
+
+    // compiled once through the default cache of the evaluator and run as written
+    @Benchmark
+    public String evaluateEquation() throws Exception {
+        return evaluator.evaluateEquation(equation, 4, false);
+    }
+
+    // the interpreter parses the equation on every call, the cached compiled form only evaluates it
+    @Benchmark
+    public Complex cached() throws Exception {
+        return cached.evaluate(equation);
+    }
+
+    @Benchmark
+    public double[] frame() throws Exception {
+        frame.evaluateInto(out);
+        return out;
+    }
+}
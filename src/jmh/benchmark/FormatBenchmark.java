@@ -0,0 +1,91 @@
+package benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import complex.ComplexFormat;
+
+/**
+ * ComplexFormat against the String.format round trips Complex.toString(int) used to make,
+ * and the parser of complex literals against Double.parseDouble
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+    @Param({ "2", "4", "8" })
+    public int precision;
+
+    public Complex value = new Complex(2.2593417, -3.4868125);
+    public String text = "(2.2593 - 3.4868i)", number = "2.2593417";
+
+    private ComplexFormat format;
+    private final StringBuilder sb = new StringBuilder(64);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+
+    @Setup
+    public void setUp() {
+        format = new ComplexFormat(precision);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        // Complex.toString(int) before ComplexFormat
+        double t_real = Double.parseDouble(String.format("%." + precision + "f", value.real()));
+        double t_imaginary = Double.parseDouble(String.format("%." + precision + "f", value.imaginary()));
+        if (t_real == 0.0 && t_imaginary == 0.0)
+            return String.format("%." + precision + "f", t_real);
+        if (t_real == 0.0)
+            return value.imaginary() + "i";
+        if (t_imaginary == 0.0)
+            return Double.toString(t_real);
+        if (t_imaginary == 1.0)
+            return "(" + t_real + " + i)";
+        String imaginary_part = value.imaginary() < 0.0 ? String.format("- %." + precision + "fi", -value.imaginary())
+                : String.format("+ %." + precision + "fi", value.imaginary());
+        return "(" + t_real + " " + imaginary_part + ")";
+    }
+
+    @Benchmark
+    public String toStringPrecision() {
+        return value.toString(precision);
+    }
+
+    @Benchmark
+    public StringBuilder formatStringBuilder() {
+        sb.setLength(0);
+        return format.format(value.real(), value.imaginary(), sb);
+    }
+
+    @Benchmark
+    public ByteBuffer formatByteBuffer() {
+        buffer.clear();
+        format.format(value.real(), value.imaginary(), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Complex parse() {
+        return ComplexFormat.parse(text);
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return ComplexFormat.parseDouble(number);
+    }
+
+    @Benchmark
+    public double javaParseDouble() {
+        return Double.parseDouble(number);
+    }
+}
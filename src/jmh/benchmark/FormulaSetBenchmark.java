@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.CompiledExpression;
+import evaluator.FormulaFrame;
+import evaluator.FormulaSet;
+import evaluator.Frame;
+
+/**
+ * Cost of evaluating a row of 100 related formulas of three variables, each formula with its own
+ * Frame against one FormulaSet that binds the variables once and shares the subexpressions the
+ * formulas have in common.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaSetBenchmark {
+    private static final int FORMULAS = 100;
+
+    private final double[] out = new double[2 * FORMULAS];
+    private Frame[] frames;
+    private FormulaFrame set;
+    private double x;
+
+    @Setup
+    public void setUp() throws Exception {
+        String[] equations = new String[FORMULAS];
+        for(int k = 0; k < FORMULAS; k++)
+            equations[k] = switch (k % 4) {
+                case 0 -> "sin(x)*" + (k + 1) + " + x^2*y";
+                case 1 -> "x^2*y - cos(y)/" + (k + 1);
+                case 2 -> "sqrt(x^2 + y^2) * " + (k + 1) + " - z";
+                default -> "sin(x)*cos(y) + exp(-z/" + (k + 1) + ")";
+            };
+        frames = new Frame[FORMULAS];
+        for(int k = 0; k < FORMULAS; k++) frames[k] = CompiledExpression.compile(equations[k]).newFrame();
+        set = FormulaSet.compile(equations).newFrame();
+    }
+
+    @Benchmark
+    public double[] separateFrames() throws Exception {
+        x += 1e-3;
+        for(int k = 0; k < FORMULAS; k++) {
+            Frame frame = frames[k];
+            frame.setVariable("x", x);
+            frame.setVariable("y", 0.5 - x);
+            frame.setVariable("z", 2.0);
+            frame.evaluateInto(out, 2 * k);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] formulaSet() throws Exception {
+        x += 1e-3;
+        set.setVariable("x", x);
+        set.setVariable("y", 0.5 - x);
+        set.setVariable("z", 2.0);
+        set.evaluateInto(out);
+        return out;
+    }
+}
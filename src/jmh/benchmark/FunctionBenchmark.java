@@ -0,0 +1,91 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+import evaluator.FunctionRegistry;
+import evaluator.MathFunction;
+
+/**
+ * Cost of calling functions: the built-in instructions against the same functions registered
+ * under other names and called through their kernels, <b>sqrt</b> against a power of 0.5, and the
+ * direct tangent against the quotient of sine and cosine it replaced.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+    private final double[] out = new double[2];
+    private final Complex z = new Complex(0.7, -1.3);
+    private Frame builtIn, registered, sqrt, power;
+
+    @Setup
+    public void setUp() throws Exception {
+        // the formulas of the built-in sine and cosine
+        FunctionRegistry functions = FunctionRegistry.standard().with(MathFunction.of("s", 1, (r, offset, count, target) -> {
+            double a = r[offset], b = r[offset + 1];
+            r[target] = Math.sin(a) * Math.cosh(b);
+            r[target + 1] = Math.cos(a) * Math.sinh(b);
+        })).with(MathFunction.of("c", 1, (r, offset, count, target) -> {
+            double a = r[offset], b = r[offset + 1];
+            r[target] = Math.cos(a) * Math.cosh(b);
+            r[target + 1] = -Math.sin(a) * Math.sinh(b);
+        }));
+        builtIn = frame(CompiledExpression.compile("sin(x)*cos(y)"));
+        registered = frame(CompiledExpression.compile("s(x)*c(y)", functions));
+        sqrt = frame(CompiledExpression.compile("sqrt(x*y)"));
+        power = frame(CompiledExpression.compile("(x*y)^0.5"));
+    }
+
+    private static Frame frame(CompiledExpression expression) {
+        Frame frame = expression.newFrame();
+        frame.setVariable("x", 0.7, 0.2);
+        frame.setVariable("y", 1.3, -0.4);
+        return frame;
+    }
+
+    @Benchmark
+    public double[] builtIn() throws Exception {
+        builtIn.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] registered() throws Exception {
+        registered.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] sqrt() throws Exception {
+        sqrt.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] powerHalf() throws Exception {
+        power.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public Complex tan() {
+        return z.tan();
+    }
+
+    @Benchmark
+    public Complex tanQuotient() {
+        return z.sin().divide(z.cos());
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+import evaluator.GradientFrame;
+
+/**
+ * Value and gradient of an equation of 4 variables, by central finite differences on a Frame,
+ * by one Frame per symbolic derivative and by the forward-mode GradientFrame.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradientBenchmark {
+    public String equation = "sin(x*y)+z^2*w-ln(x+w)/y+tan(z)*x";
+
+    private final double[] at = { 0.7, 1.3, -0.4, 2.1 }, out = new double[10];
+    private Frame frame;
+    private Frame[] derivatives;
+    private GradientFrame gradient;
+
+    @Setup
+    public void setUp() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile(equation);
+        frame = frame(expression);
+        List<CompiledExpression> symbolic = expression.gradient();
+        derivatives = new Frame[symbolic.size()];
+        for(int i = 0; i < derivatives.length; i++) derivatives[i] = frame(symbolic.get(i));
+        gradient = expression.newGradientFrame();
+        for(int i = 0; i < at.length; i++) gradient.setVariable(i, at[i], 0.0);
+    }
+
+    private Frame frame(CompiledExpression expression) {
+        Frame frame = expression.newFrame();
+        // complex arithmetic everywhere, as the gradient frame uses
+        frame.setRealFastPath(false);
+        for(int i = 0; i < at.length; i++) frame.setVariable(i, at[i], 0.0);
+        return frame;
+    }
+
+    @Benchmark
+    public double[] finiteDifferences() throws Exception {
+        frame.evaluateInto(out, 0);
+        double h = 1e-6;
+        double[] point = new double[2];
+        for(int i = 0; i < at.length; i++) {
+            frame.setVariable(i, at[i] + h, 0.0);
+            frame.evaluateInto(point, 0);
+            double re = point[0], im = point[1];
+            frame.setVariable(i, at[i] - h, 0.0);
+            frame.evaluateInto(point, 0);
+            out[2 * i + 2] = (re - point[0]) / (2 * h);
+            out[2 * i + 3] = (im - point[1]) / (2 * h);
+            frame.setVariable(i, at[i], 0.0);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] symbolic() throws Exception {
+        frame.evaluateInto(out, 0);
+        for(int i = 0; i < derivatives.length; i++) derivatives[i].evaluateInto(out, 2 * i + 2);
+        return out;
+    }
+
+    @Benchmark
+    public double[] dual() throws Exception {
+        gradient.evaluateInto(out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+import evaluator.GridEvaluator;
+
+/**
+ * Sampling <b>f(z)</b> over a grid of the complex plane and iterating <b>z^2+c</b> from each of its
+ * points, one point at a time through <b>complexEvaluator</b> and a Frame, against the GridEvaluator
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridBenchmark {
+    @Param({ "512" })
+    public int size;
+
+    public String equation = "sin(z)/(z^2+1)";
+
+    private GridEvaluator.Region region;
+    private ExpressionEvaluator evaluator;
+    private Frame frame, mandelbrotFrame;
+    private GridEvaluator grid, mandelbrot;
+    private GridEvaluator.Escape escape = new GridEvaluator.Escape("z", new Complex(0.0, 0.0), 256, 2.0);
+    private double[] re, im;
+    private int[] iterations;
+
+    @Setup
+    public void setUp() throws Exception {
+        region = new GridEvaluator.Region(-2.0, -1.25, 0.75, 1.25, size, size);
+        evaluator = new ExpressionEvaluator();
+        CompiledExpression expression = CompiledExpression.compile(equation);
+        frame = expression.newFrame();
+        grid = expression.newGrid("z");
+        CompiledExpression iteration = CompiledExpression.compile("z^2+c");
+        mandelbrotFrame = iteration.newFrame();
+        mandelbrot = iteration.newGrid("c");
+        re = new double[size * size];
+        im = new double[size * size];
+        iterations = new int[size * size];
+    }
+
+    @Benchmark
+    public double[] pointsEvaluator() throws Exception {
+        for(int row = 0, i = 0; row < size; row++)
+            for(int column = 0; column < size; column++, i++) {
+                evaluator.setVariable("z", new Complex(region.real(column), region.imaginary(row)));
+                re[i] = evaluator.complexEvaluator(equation, false).real();
+            }
+        return re;
+    }
+
+    @Benchmark
+    public double[] pointsFrame() throws Exception {
+        double[] out = new double[2];
+        for(int row = 0, i = 0; row < size; row++)
+            for(int column = 0; column < size; column++, i++) {
+                frame.setVariable(0, region.real(column), region.imaginary(row));
+                frame.evaluateInto(out);
+                re[i] = out[0];
+                im[i] = out[1];
+            }
+        return re;
+    }
+
+    @Benchmark
+    public double[] grid() throws Exception {
+        grid.evaluate(region, re, im);
+        return re;
+    }
+
+    @Benchmark
+    public int[] mandelbrotFrame() throws Exception {
+        double[] out = new double[2];
+        int z = mandelbrotFrame.getBindings().getSlot("z"), c = mandelbrotFrame.getBindings().getSlot("c");
+        for(int row = 0, i = 0; row < size; row++)
+            for(int column = 0; column < size; column++, i++) {
+                mandelbrotFrame.setVariable(c, region.real(column), region.imaginary(row));
+                out[0] = out[1] = 0.0;
+                int n = 0;
+                while(n < escape.maxIterations()) {
+                    mandelbrotFrame.setVariable(z, out[0], out[1]);
+                    mandelbrotFrame.evaluateInto(out);
+                    n++;
+                    if(!(out[0] * out[0] + out[1] * out[1] <= 4.0)) break;
+                }
+                iterations[i] = n;
+            }
+        return iterations;
+    }
+
+    @Benchmark
+    public int[] mandelbrotGrid() throws Exception {
+        mandelbrot.iterate(region, escape, iterations, null, null);
+        return iterations;
+    }
+}
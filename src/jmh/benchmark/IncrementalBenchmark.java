@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.FormulaGraph;
+import evaluator.Frame;
+import evaluator.IncrementalFrame;
+
+/**
+ * A simulation tick changing one variable of a formula over dozens and evaluating it again, with a
+ * Frame recomputing everything against an IncrementalFrame and a FormulaGraph splitting the formula
+ * into one formula per group of 8 terms summed by a last one.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalBenchmark {
+    @Param({ "8", "32", "128" })
+    public int variables;
+
+    private Frame frame;
+    private IncrementalFrame incremental;
+    private FormulaGraph graph;
+    private String[] names;
+    private int tick;
+
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder equation = new StringBuilder(), total = new StringBuilder();
+        graph = new FormulaGraph();
+        for(int group = 0; group * 8 < variables; group++) {
+            StringBuilder terms = new StringBuilder();
+            for(int i = group * 8; i < Math.min(variables, group * 8 + 8); i++)
+                terms.append(i == group * 8 ? "" : "+").append("sin(v").append(i).append(")^2*cos(v").append(i).append("/3)");
+            equation.append(group == 0 ? "" : "+").append(terms);
+            total.append(group == 0 ? "" : "+").append("g").append(group);
+            graph.define("g" + group, terms.toString());
+        }
+        graph.define("total", total.toString());
+        CompiledExpression expression = CompiledExpression.compile(equation.toString());
+        frame = expression.newFrame();
+        incremental = expression.newIncrementalFrame();
+        names = new String[variables];
+        for(int i = 0; i < variables; i++) {
+            names[i] = "v" + i;
+            frame.setVariable("v" + i, i, 0.0);
+            incremental.setVariable("v" + i, i, 0.0);
+            graph.setVariable("v" + i, i);
+        }
+        // the real fast path is turned off so that all three run the same complex arithmetic
+        frame.setRealFastPath(false);
+    }
+
+    @Benchmark
+    public Complex full() throws Exception {
+        int slot = tick++ % variables;
+        frame.setVariable(slot, tick, 0.0);
+        return frame.evaluate();
+    }
+
+    @Benchmark
+    public Complex incremental() throws Exception {
+        int slot = tick++ % variables;
+        incremental.setVariable(slot, tick, 0.0);
+        return incremental.evaluate();
+    }
+
+    @Benchmark
+    public Complex graph() throws Exception {
+        tick++;
+        graph.setVariable(names[tick % variables], tick);
+        return graph.evaluate("total");
+    }
+}
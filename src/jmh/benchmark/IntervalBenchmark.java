@@ -0,0 +1,68 @@
+package benchmark;
+
+import java.math.MathContext;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.BigComplex;
+import complex.Complex;
+import complex.ComplexInterval;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+
+/**
+ * Cost of certifying a result with interval arithmetic against the double path and against
+ * evaluating every result at DECIMAL128, for one compiled expression whose enclosure is narrow
+ * enough to certify without escalating.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalBenchmark {
+    private final double[] out = new double[2];
+    private CompiledExpression expression;
+    private Frame frame;
+    private Map<String, Complex> values;
+    private Map<String, ComplexInterval> intervals;
+    private Map<String, BigComplex> decimals;
+
+    @Setup
+    public void setUp() throws Exception {
+        expression = CompiledExpression.compile("sin(x)*exp(-x/2) + 2*pi*x^3");
+        frame = expression.newFrame();
+        frame.setVariable("x", 0.7, -0.2);
+        values = Map.of("x", new Complex(0.7, -0.2));
+        intervals = Map.of("x", ComplexInterval.of(0.7, -0.2));
+        decimals = Map.of("x", BigComplex.valueOf(new Complex(0.7, -0.2)));
+    }
+
+    @Benchmark
+    public double[] doublePath() throws Exception {
+        frame.evaluateInto(out);
+        return out;
+    }
+
+    @Benchmark
+    public ComplexInterval enclose() throws Exception {
+        return expression.enclose(intervals);
+    }
+
+    @Benchmark
+    public Complex certified() throws Exception {
+        return expression.evaluateCertified(values, 1e-12, MathContext.DECIMAL128);
+    }
+
+    @Benchmark
+    public BigComplex decimal128() throws Exception {
+        return expression.evaluate(decimals, MathContext.DECIMAL128);
+    }
+}
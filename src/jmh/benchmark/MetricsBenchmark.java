@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.Bindings;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationMetrics;
+import evaluator.InstrumentedExpression;
+
+/**
+ * Overhead of EvaluationMetrics on the evaluation of compiled equations, timing every evaluation
+ * and with the default sampling of timed and profiled evaluations.
+ * Run with <b>-t 4</b> to check that concurrent threads do not contend on the metrics.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    @Param({ "x^4+x^3+x^2+x+1", "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))", "(x*x-1)/(x*x+1)+2*x/(x-3)" })
+    public String equation;
+
+    private CompiledExpression expression;
+    private InstrumentedExpression counted, timed, sampled;
+
+    @State(Scope.Thread)
+    public static class Values {
+        Bindings bindings;
+
+        @Setup
+        public void setUp(MetricsBenchmark benchmark) {
+            bindings = benchmark.expression.bindings();
+            bindings.setVariable("x", 0.3, 0.95);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        expression = CompiledExpression.compile(equation);
+        // every evaluation timed against the default sampling
+        counted = new EvaluationMetrics(0, 0).instrument(expression);
+        timed = new EvaluationMetrics(1, 0).instrument(expression);
+        sampled = new EvaluationMetrics().instrument(expression);
+    }
+
+    @Benchmark
+    public Complex plain(Values values) throws Exception {
+        return expression.evaluate(values.bindings);
+    }
+
+    @Benchmark
+    public Complex counted(Values values) throws Exception {
+        return counted.evaluate(values.bindings);
+    }
+
+    @Benchmark
+    public Complex timed(Values values) throws Exception {
+        return timed.evaluate(values.bindings);
+    }
+
+    @Benchmark
+    public Complex sampled(Values values) throws Exception {
+        return sampled.evaluate(values.bindings);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+
+/**
+ * Compares equations compiled with constant folding and common subexpression elimination
+ * against the same equations evaluated operation by operation as written
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimizerBenchmark {
+    @Param({ "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))", "sin(2*x)-2*sin(x)*cos(x)",
+            "-1.3+e^(2.3-1.2)-sin(pi)+2*pi*x", "x^4+x^3+x^2+x+1" })
+    public String equation;
+
+    private Frame optimized, plain;
+    private final double[] out = new double[2];
+    private double x;
+
+    @Setup
+    public void setUp() throws Exception {
+        optimized = CompiledExpression.compile(equation).newFrame();
+        plain = CompiledExpression.compile(equation, false).newFrame();
+        // complex arithmetic throughout, so that the saving is not hidden by the real fast path
+        optimized.setRealFastPath(false);
+        plain.setRealFastPath(false);
+    }
+
+    @Benchmark
+    public double optimized() throws Exception {
+        x = x > 10.0 ? 0.5 : x + 0.25;
+        optimized.setVariable(0, x, 0.5);
+        optimized.evaluateInto(out);
+        return out[0];
+    }
+
+    @Benchmark
+    public double plain() throws Exception {
+        x = x > 10.0 ? 0.5 : x + 0.25;
+        plain.setVariable(0, x, 0.5);
+        plain.evaluateInto(out);
+        return out[0];
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+
+/**
+ * Compares the real fast path of a Frame with complex arithmetic on formulas whose variables are real
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealFastPathBenchmark {
+    @Param({ "x^4+x^3+x^2+x+1", "4^(x+1) - 4^(x-1)", "sin(2*x)-2*sin(x)*cos(x)", "ln(x)*log(x)+x^0.5" })
+    public String equation;
+
+    private Frame real, complex;
+    private final double[] out = new double[2];
+    private double x;
+
+    @Setup
+    public void setUp() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile(equation);
+        real = expression.newFrame();
+        complex = expression.newFrame();
+        complex.setRealFastPath(false);
+    }
+
+    @Benchmark
+    public double realFastPath() throws Exception {
+        x = x > 100.0 ? 0.5 : x + 0.25;
+        real.setVariable(0, x, 0.0);
+        real.evaluateInto(out);
+        return out[0];
+    }
+
+    @Benchmark
+    public double complexArithmetic() throws Exception {
+        x = x > 100.0 ? 0.5 : x + 0.25;
+        complex.setVariable(0, x, 0.0);
+        complex.evaluateInto(out);
+        return out[0];
+    }
+}
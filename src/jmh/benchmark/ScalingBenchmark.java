@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionEvaluator;
+
+/**
+ * Cost of parsing and of the verbose interpreter over formulas of growing length, both of
+ * which should grow linearly with the number of terms
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+    @Param({ "10", "100", "1000", "10000" })
+    public int terms;
+
+    private String equation;
+    private ExpressionEvaluator evaluator;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() {
+        // 1+2*x^2-3/x+4*x^2-5/x ... mixes every precedence level
+        StringBuilder sb = new StringBuilder("1");
+        for(int i = 1; i < terms; i++)
+            sb.append(i % 2 == 0 ? '+' : '-').append(i).append(i % 2 == 0 ? "*x^2" : "/x");
+        equation = sb.toString();
+        Map<String, Complex> variables = new HashMap<>();
+        variables.put("x", new Complex(0.3, 0.1));
+        evaluator = new ExpressionEvaluator(variables);
+        // the verbose interpreter prints every step, which is not what is measured here
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public CompiledExpression compile() throws Exception {
+        return CompiledExpression.compile(equation);
+    }
+
+    @Benchmark
+    public Complex verboseInterpreter() throws Exception {
+        return evaluator.complexEvaluator(equation, true);
+    }
+}
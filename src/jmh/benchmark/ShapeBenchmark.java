@@ -0,0 +1,96 @@
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+
+/**
+ * Parsing and evaluation cost of generated formulas of growing size: deep nesting of functions,
+ * long flat sums and formulas referencing many variables
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeBenchmark {
+    @Param({ "nested", "sum", "variables" })
+    public String shape;
+
+    @Param({ "8", "64", "512" })
+    public int size;
+
+    private String equation;
+    private ExpressionEvaluator evaluator, cached;
+    private Frame frame;
+    private final double[] out = new double[2];
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Complex> variables = new HashMap<>();
+        StringBuilder sb = new StringBuilder();
+        switch (shape) {
+            case "nested" -> {
+                // sin(cos(x+tan(x+sin(cos(x+tan(x ... )))))
+                String[] functions = { "sin(", "cos(x+", "tan(x+" };
+                for(int i = 0; i < size; i++) sb.append(functions[i % functions.length]);
+                sb.append('x');
+                sb.append(")".repeat(size));
+                variables.put("x", new Complex(0.3, 0.1));
+            }
+            case "sum" -> {
+                for(int i = 0; i < size; i++) sb.append(i == 0 ? "" : i % 2 == 0 ? "+" : "-").append("x*").append(i);
+                variables.put("x", new Complex(0.3, 0.1));
+            }
+            case "variables" -> {
+                for(int i = 0; i < size; i++) {
+                    sb.append(i == 0 ? "" : "+").append("a").append(i).append("*b").append(i);
+                    variables.put("a" + i, new Complex(i, 1.0));
+                    variables.put("b" + i, new Complex(1.0, -i));
+                }
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+        equation = sb.toString();
+        evaluator = new ExpressionEvaluator(variables);
+        cached = new ExpressionEvaluator(variables);
+        cached.setCache(new ExpressionCache(16));
+        frame = CompiledExpression.compile(equation).newFrame();
+        frame.getBindings().setVariables(variables);
+    }
+
+    @Benchmark
+    public CompiledExpression compile() throws Exception {
+        return CompiledExpression.compile(equation);
+    }
+
+    @Benchmark
+    public Complex complexEvaluator() throws Exception {
+        return evaluator.complexEvaluator(equation, false);
+    }
+
+    // the interpreter parses the equation on every call, the cached compiled form only evaluates it
+    @Benchmark
+    public Complex cached() throws Exception {
+        return cached.evaluate(equation);
+    }
+
+    @Benchmark
+    public double[] frame() throws Exception {
+        frame.evaluateInto(out);
+        return out;
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.ExpressionEvaluator;
+import evaluator.StreamEvaluator;
+
+/**
+ * Throughput of the StreamEvaluator over generated files of equations and CSV rows, against reading
+ * the same file line by line into Strings. Files of several GB are generated with <b>-p megabytes=4096</b>,
+ * the time per operation divided into the size gives the throughput.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamBenchmark {
+    @Param({ "64" })
+    public int megabytes;
+
+    private final String[] equations = {
+            "x^2+3*x-1", "sin(x)*cos(x)+1", "(1+i)^2-x/3", "ln(x+2)-e^x", "2*pi*x^2"
+    };
+
+    private Path lines, csv, output;
+    private Map<String, Complex> variables;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        variables = new HashMap<>();
+        variables.put("x", new Complex(0.3, 0.1));
+        lines = Files.createTempFile("equations", ".txt");
+        csv = Files.createTempFile("rows", ".csv");
+        output = Files.createTempFile("results", ".txt");
+        long size = megabytes * (1L << 20);
+        try(BufferedWriter writer = Files.newBufferedWriter(lines)) {
+            for(long written = 0, i = 0; written < size; i++) {
+                String equation = equations[(int) (i % equations.length)];
+                writer.write(equation);
+                writer.newLine();
+                written += equation.length() + 1;
+            }
+        }
+        try(BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("equation,a,b");
+            writer.newLine();
+            // long runs of the same equation, as a CSV exported from a sweep usually has
+            for(long written = 0, i = 0; written < size; i++) {
+                String row = (i / 100_000 % 2 == 0 ? "a^2+3*a*b-1" : "sin(a)*b") + "," + (i % 1000) * 0.25 + "," + (i % 7) * 0.5;
+                writer.write(row);
+                writer.newLine();
+                written += row.length() + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(lines);
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public long streamLines() throws IOException {
+        return new StreamEvaluator(variables).evaluateLines(lines, output);
+    }
+
+    @Benchmark
+    public long streamCsv() throws IOException {
+        return new StreamEvaluator(variables).evaluateCsv(csv, output);
+    }
+
+    @Benchmark
+    public long readerLines() throws IOException {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(variables);
+        long count = 0;
+        try(BufferedReader reader = Files.newBufferedReader(lines);
+            OutputStream out = Files.newOutputStream(output)) {
+            for(String line = reader.readLine(); line != null; line = reader.readLine(), count++) {
+                try {
+                    out.write(evaluator.evaluateEquation(line, 4, false).getBytes());
+                } catch (Exception e) {
+                    out.write(String.valueOf(e.getMessage()).getBytes());
+                }
+                out.write('\n');
+            }
+        }
+        return count;
+    }
+}
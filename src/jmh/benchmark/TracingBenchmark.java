@@ -0,0 +1,96 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationListener;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+import evaluator.PrintStreamListener;
+import evaluator.RingBufferListener;
+import evaluator.SamplingListener;
+
+/**
+ * Cost of the listeners on compiled frames and on the step-by-step interpreter, against the same
+ * evaluation without one. Run with <b>-t 4</b> to see the PrintStream serialize the threads.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingBenchmark {
+    public String equation = "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))";
+
+    private ExpressionEvaluator evaluator;
+    private CompiledExpression expression;
+    private RingBufferListener ring;
+    private EvaluationListener sampled, printing;
+
+    @State(Scope.Thread)
+    public static class Frames {
+        Frame none, ring, sampled;
+
+        @Setup
+        public void setUp(TracingBenchmark benchmark) {
+            none = frame(benchmark, EvaluationListener.NONE);
+            ring = frame(benchmark, benchmark.ring);
+            sampled = frame(benchmark, benchmark.sampled);
+        }
+
+        private static Frame frame(TracingBenchmark benchmark, EvaluationListener listener) {
+            Frame frame = benchmark.expression.newFrame();
+            frame.setVariable("x", 0.3, 0.95);
+            frame.setListener(listener);
+            return frame;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Complex> variables = new HashMap<>();
+        variables.put("x", new Complex(0.3, 0.95));
+        evaluator = new ExpressionEvaluator(variables);
+        expression = CompiledExpression.compile(equation);
+        ring = new RingBufferListener(4096);
+        sampled = new SamplingListener(ring, 100);
+        printing = new PrintStreamListener(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    public Complex frameNone(Frames frames) throws Exception {
+        return frames.none.evaluate();
+    }
+
+    @Benchmark
+    public Complex frameRingBuffer(Frames frames) throws Exception {
+        return frames.ring.evaluate();
+    }
+
+    @Benchmark
+    public Complex frameSampled(Frames frames) throws Exception {
+        return frames.sampled.evaluate();
+    }
+
+    @Benchmark
+    public Complex stepRingBuffer() throws Exception {
+        return evaluator.complexEvaluator(equation, ring);
+    }
+
+    @Benchmark
+    public Complex stepPrintStream() throws Exception {
+        return evaluator.complexEvaluator(equation, printing);
+    }
+}
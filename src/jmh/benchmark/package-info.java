@@ -0,0 +1,5 @@
+/**
+ * JMH benchmarks of the Evaluator and Complex classes
+ */
+
+package benchmark;
@@ -0,0 +1,314 @@
+package complex;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Complex number of arbitrary precision, with the operations of ComplexInterface. Every operation
+ * takes the MathContext its result is rounded to, elementary functions are computed with guard
+ * digits so that they are accurate to within a few units in its last place. Decimal values such as <b>0.1</b> are
+ * represented exactly, and addition, subtraction and multiplication are exact under
+ * <b>MathContext.UNLIMITED</b>. Values that have no finite result, such as a division by zero or
+ * the logarithm of zero, throw ArithmeticException instead of giving an infinity or NaN.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public record BigComplex(BigDecimal real, BigDecimal imaginary) {
+    public static final BigComplex ZERO = new BigComplex(BigDecimal.ZERO, BigDecimal.ZERO);
+    public static final BigComplex ONE = new BigComplex(BigDecimal.ONE, BigDecimal.ZERO);
+
+    public BigComplex {
+        if(real == null || imaginary == null) throw new IllegalArgumentException("Invalid value: null");
+    }
+
+    /**
+     * @param real Real value
+     * @return The real value as a BigComplex
+     */
+    public static BigComplex valueOf(BigDecimal real) {
+        return new BigComplex(real, BigDecimal.ZERO);
+    }
+
+    /**
+     * @param value A Complex number
+     * @return The number with the decimal values its parts print as, so that <b>0.1</b> becomes exactly
+     *         one tenth rather than the binary value nearest to it
+     * @throws ArithmeticException If a part is infinite or NaN
+     */
+    public static BigComplex valueOf(Complex value) {
+        return new BigComplex(decimal(value.real()), decimal(value.imaginary()));
+    }
+
+    /**
+     * @param value A double value
+     * @return The decimal value the double prints as
+     * @throws ArithmeticException If the value is infinite or NaN
+     */
+    public static BigDecimal decimal(double value) {
+        if(Double.isNaN(value) || Double.isInfinite(value)) throw new ArithmeticException("Result is not finite: " + value);
+        return value == 0 ? BigDecimal.ZERO : new BigDecimal(Double.toString(value));
+    }
+
+    /**
+     * @param mc Precision of the constant
+     * @return <b>pi</b> rounded to the precision, cached at the widest precision computed so far
+     */
+    public static BigDecimal pi(MathContext mc) {
+        return BigMath.pi(mc);
+    }
+
+    /**
+     * @param mc Precision of the constant
+     * @return <b>e</b> rounded to the precision, cached at the widest precision computed so far
+     */
+    public static BigDecimal e(MathContext mc) {
+        return BigMath.e(mc);
+    }
+
+    /**
+     * @return The number rounded to the nearest doubles
+     */
+    public Complex toComplex() {
+        return new Complex(real.doubleValue(), imaginary.doubleValue());
+    }
+
+    /**
+     * @return Whether both parts are zero
+     */
+    public boolean isZero() {
+        return real.signum() == 0 && imaginary.signum() == 0;
+    }
+
+    public BigComplex add(BigComplex other, MathContext mc) {
+        return new BigComplex(real.add(other.real, mc), imaginary.add(other.imaginary, mc));
+    }
+
+    public BigComplex subtract(BigComplex other, MathContext mc) {
+        return new BigComplex(real.subtract(other.real, mc), imaginary.subtract(other.imaginary, mc));
+    }
+
+    public BigComplex negate() {
+        return new BigComplex(real.negate(), imaginary.negate());
+    }
+
+    public BigComplex multiply(BigComplex other, MathContext mc) {
+        if(imaginary.signum() == 0 && other.imaginary.signum() == 0)
+            return valueOf(real.multiply(other.real, mc));
+        // the products are exact, so each part is rounded once
+        return new BigComplex(real.multiply(other.real).subtract(imaginary.multiply(other.imaginary)).round(mc),
+                real.multiply(other.imaginary).add(imaginary.multiply(other.real)).round(mc));
+    }
+
+    /**
+     * @param number Scalar multiplicand
+     * @return Scalar product of a number and the BigComplex number
+     */
+    public BigComplex multiply(BigDecimal number, MathContext mc) {
+        return new BigComplex(real.multiply(number, mc), imaginary.multiply(number, mc));
+    }
+
+    /**
+     * @throws ArithmeticException If the divisor is zero
+     */
+    public BigComplex divide(BigComplex other, MathContext mc) {
+        if(other.isZero()) throw new ArithmeticException("Division by zero");
+        if(other.imaginary.signum() == 0)
+            return new BigComplex(real.divide(other.real, mc), imaginary.divide(other.real, mc));
+        BigDecimal denominator = other.real.multiply(other.real).add(other.imaginary.multiply(other.imaginary));
+        return new BigComplex(real.multiply(other.real).add(imaginary.multiply(other.imaginary)).divide(denominator, mc),
+                imaginary.multiply(other.real).subtract(real.multiply(other.imaginary)).divide(denominator, mc));
+    }
+
+    /**
+     * @throws ArithmeticException If the number is zero
+     */
+    public BigComplex reciprocal(MathContext mc) {
+        return ONE.divide(this, mc);
+    }
+
+    /**
+     * @return Distance from the origin, exact for a real number
+     */
+    public BigDecimal mod(MathContext mc) {
+        if(imaginary.signum() == 0) return real.abs(mc);
+        if(real.signum() == 0) return imaginary.abs(mc);
+        return real.multiply(real).add(imaginary.multiply(imaginary)).sqrt(mc);
+    }
+
+    /**
+     * @return Argument in (-pi, pi], <b>0</b> for zero
+     */
+    public BigDecimal arg(MathContext mc) {
+        return BigMath.atan2(imaginary, real, mc);
+    }
+
+    public BigComplex conjugate() {
+        return new BigComplex(real, imaginary.negate());
+    }
+
+    /**
+     * @return The number raised to an integer power by repeated squaring
+     * @throws ArithmeticException If zero is raised to a negative power
+     */
+    public BigComplex pow(int power, MathContext mc) {
+        if(imaginary.signum() == 0) {
+            if(power < 0 && real.signum() == 0) throw new ArithmeticException("Division by zero");
+            return valueOf(real.pow(power, mc));
+        }
+        MathContext work = power == 0 ? mc : new MathContext(mc.getPrecision() == 0 ? 0
+                : mc.getPrecision() + 2 * Integer.toString(Math.abs(power)).length(), mc.getRoundingMode());
+        BigComplex result = ONE, base = this;
+        for(long n = Math.abs((long) power); n > 0; n >>= 1) {
+            if((n & 1) != 0) result = result.multiply(base, work);
+            if(n > 1) base = base.multiply(base, work);
+        }
+        if(power < 0) return result.reciprocal(mc);
+        return result.round(mc);
+    }
+
+    /**
+     * @return The number raised to a BigComplex power, by squaring for an integer power and as
+     *         <b>exp(power * ln(z))</b> otherwise
+     * @throws ArithmeticException If zero is raised to a power whose real part is not positive
+     */
+    public BigComplex pow(BigComplex power, MathContext mc) {
+        if(power.isZero()) return ONE;
+        if(power.imaginary.signum() == 0 && BigMath.isSmallInteger(power.real))
+            return pow(power.real.intValue(), mc);
+        if(isZero()) {
+            if(power.real.signum() > 0) return ZERO;
+            throw new ArithmeticException("Division by zero");
+        }
+        MathContext work = BigMath.work(mc);
+        return ln(work).multiply(power, work).exp(mc);
+    }
+
+    public BigComplex exp(MathContext mc) {
+        if(imaginary.signum() == 0) return valueOf(BigMath.exp(real, mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal modulus = BigMath.expWork(real, work);
+        BigDecimal[] sinCos = BigMath.sinCos(imaginary, work);
+        return new BigComplex(modulus.multiply(sinCos[1], mc), modulus.multiply(sinCos[0], mc));
+    }
+
+    public BigComplex sin(MathContext mc) {
+        if(imaginary.signum() == 0) return valueOf(BigMath.sin(real, mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal[] sinCos = BigMath.sinCos(real, work), sinhCosh = BigMath.sinhCosh(imaginary, work);
+        return new BigComplex(sinCos[0].multiply(sinhCosh[1], mc), sinCos[1].multiply(sinhCosh[0], mc));
+    }
+
+    public BigComplex cos(MathContext mc) {
+        if(imaginary.signum() == 0) return valueOf(BigMath.cos(real, mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal[] sinCos = BigMath.sinCos(real, work), sinhCosh = BigMath.sinhCosh(imaginary, work);
+        return new BigComplex(sinCos[1].multiply(sinhCosh[1], mc), sinCos[0].multiply(sinhCosh[0], mc).negate());
+    }
+
+    /**
+     * @return Tangent, by the same direct formula as <b>Complex.tan</b>
+     * @throws ArithmeticException At a pole of the tangent
+     */
+    public BigComplex tan(MathContext mc) {
+        MathContext work = BigMath.work(mc);
+        BigDecimal[] sinCos = BigMath.sinCos(real, work);
+        BigDecimal sin = sinCos[0], cos = sinCos[1];
+        if(imaginary.signum() == 0) {
+            if(cos.signum() == 0) throw new ArithmeticException("Division by zero");
+            return valueOf(sin.divide(cos, mc));
+        }
+        BigDecimal[] sinhCosh = BigMath.sinhCosh(imaginary, work);
+        BigDecimal sinh = sinhCosh[0], cosh = sinhCosh[1];
+        BigDecimal denominator = cos.multiply(cos).add(sinh.multiply(sinh), work);
+        return new BigComplex(sin.multiply(cos).divide(denominator, mc), sinh.multiply(cosh).divide(denominator, mc));
+    }
+
+    public BigComplex sinh(MathContext mc) {
+        if(imaginary.signum() == 0) return valueOf(BigMath.sinh(real, mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal[] sinCos = BigMath.sinCos(imaginary, work), sinhCosh = BigMath.sinhCosh(real, work);
+        return new BigComplex(sinhCosh[0].multiply(sinCos[1], mc), sinhCosh[1].multiply(sinCos[0], mc));
+    }
+
+    public BigComplex cosh(MathContext mc) {
+        if(imaginary.signum() == 0) return valueOf(BigMath.cosh(real, mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal[] sinCos = BigMath.sinCos(imaginary, work), sinhCosh = BigMath.sinhCosh(real, work);
+        return new BigComplex(sinhCosh[1].multiply(sinCos[1], mc), sinhCosh[0].multiply(sinCos[0], mc));
+    }
+
+    /**
+     * @return Principal square root, whose real part is never negative, a negative real number has its
+     *         root on the positive imaginary axis
+     */
+    public BigComplex sqrt(MathContext mc) {
+        if(isZero()) return ZERO;
+        if(imaginary.signum() == 0)
+            return real.signum() > 0 ? valueOf(real.sqrt(mc)) : new BigComplex(BigDecimal.ZERO, real.negate().sqrt(mc));
+        MathContext work = BigMath.work(mc);
+        BigDecimal two = BigDecimal.valueOf(2);
+        BigDecimal t = real.abs().add(mod(work)).divide(two, work).sqrt(work);
+        if(real.signum() >= 0)
+            return new BigComplex(t.round(mc), imaginary.divide(t.multiply(two), mc));
+        return new BigComplex(imaginary.abs().divide(t.multiply(two), mc), imaginary.signum() < 0 ? t.negate(mc) : t.round(mc));
+    }
+
+    /**
+     * @return Natural logarithm <b>ln|z| + i arg(z)</b>
+     * @throws ArithmeticException If the number is zero
+     */
+    public BigComplex ln(MathContext mc) {
+        if(isZero()) throw new ArithmeticException("Logarithm of zero");
+        MathContext work = BigMath.work(mc);
+        return new BigComplex(BigMath.ln(mod(work), mc), arg(mc));
+    }
+
+    /**
+     * @param base Base of the logarithm
+     * @return Logarithm of the number, with the same convention as <b>Complex.log</b>: in base 10 the
+     *         imaginary part is the argument itself
+     * @throws ArithmeticException If the number is zero
+     */
+    public BigComplex log(BigDecimal base, MathContext mc) {
+        if(isZero()) throw new ArithmeticException("Logarithm of zero");
+        MathContext work = BigMath.work(mc);
+        BigDecimal lnBase = BigMath.ln(base, work), lnMod = BigMath.ln(mod(work), work);
+        if(base.compareTo(BigDecimal.TEN) == 0) return new BigComplex(lnMod.divide(lnBase, mc), arg(mc));
+        return new BigComplex(lnMod.divide(lnBase, mc), arg(work).divide(lnBase, mc));
+    }
+
+    /**
+     * @return The number with both parts rounded to a MathContext
+     */
+    public BigComplex round(MathContext mc) {
+        return new BigComplex(real.round(mc), imaginary.round(mc));
+    }
+
+    /**
+     * @param other Another number
+     * @return Whether both parts are numerically equal, whatever their scale, unlike <b>equals</b>
+     */
+    public boolean isEqualTo(BigComplex other) {
+        return real.compareTo(other.real) == 0 && imaginary.compareTo(other.imaginary) == 0;
+    }
+
+    /**
+     * @return String representation in the layout of <b>Complex.toString</b>, with every digit of the parts
+     */
+    @Override
+    public String toString() {
+        if(isZero()) return "0";
+        if(real.signum() == 0) return text(imaginary) + "i";
+        if(imaginary.signum() == 0) return text(real);
+        return "(" + text(real) + (imaginary.signum() < 0 ? " - " : " + ") + text(imaginary.abs()) + "i)";
+    }
+
+    // trailing zeros dropped, written without an exponent unless the value is very large or small
+    private static String text(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        int exponent = stripped.precision() - stripped.scale() - 1;
+        return exponent >= -7 && exponent < 40 ? stripped.toPlainString() : stripped.toString();
+    }
+}
@@ -0,0 +1,300 @@
+package complex;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Elementary functions of BigDecimal values for BigComplex. Every function works with a few guard
+ * digits beyond the requested precision and rounds its result to it. The constants <b>pi</b>,
+ * <b>e</b> and <b>ln(10)</b> are cached at the widest precision computed so far and rounded down to
+ * the requested one, since they are needed by every argument reduction.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class BigMath {
+    private static final int GUARD_DIGITS = 10;
+    private static final BigDecimal TWO = BigDecimal.valueOf(2), HALF = new BigDecimal("0.5");
+    private static final BigInteger MAX_POWER = BigInteger.valueOf(999_999_999), FIVE = BigInteger.valueOf(5);
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+    private static final Map<Integer, BigInteger> FIVE_POWERS = new ConcurrentHashMap<>();
+    // constants at their working precision, keyed by it
+    private static final ConcurrentSkipListMap<Integer, BigDecimal> PI = new ConcurrentSkipListMap<>(),
+            E = new ConcurrentSkipListMap<>(), LN_10 = new ConcurrentSkipListMap<>();
+
+    private BigMath() {}
+
+    /**
+     * @return <b>pi</b> rounded to the precision, by Machin's formula <b>16 atan(1/5) - 4 atan(1/239)</b>
+     */
+    static BigDecimal pi(MathContext mc) {
+        return constant(PI, mc, work -> {
+            BigDecimal a = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(5), work), work);
+            BigDecimal b = atanSeries(BigDecimal.ONE.divide(BigDecimal.valueOf(239), work), work);
+            return a.multiply(BigDecimal.valueOf(16)).subtract(b.multiply(BigDecimal.valueOf(4)), work);
+        });
+    }
+
+    /**
+     * @return <b>e</b> rounded to the precision
+     */
+    static BigDecimal e(MathContext mc) {
+        return constant(E, mc, work -> expSeries(BigDecimal.ONE, work));
+    }
+
+    private static BigDecimal ln10(MathContext mc) {
+        return constant(LN_10, mc, work -> lnNewton(BigDecimal.TEN, work));
+    }
+
+    /**
+     * Rounds a cached constant to the precision, computing it first if no value at least as wide as its
+     * working precision is cached. Narrower values are dropped once a wider one is cached, as rounding
+     * the wider one gives the same result.
+     */
+    private static BigDecimal constant(ConcurrentSkipListMap<Integer, BigDecimal> cache, MathContext mc,
+                                       Function<MathContext, BigDecimal> compute) {
+        MathContext work = work(mc);
+        Map.Entry<Integer, BigDecimal> cached = cache.ceilingEntry(work.getPrecision());
+        if(cached != null) return cached.getValue().round(mc);
+        BigDecimal value = compute.apply(work);
+        cache.putIfAbsent(work.getPrecision(), value);
+        cache.headMap(work.getPrecision()).clear();
+        return value.round(mc);
+    }
+
+    /**
+     * @return <b>e^x</b>
+     */
+    static BigDecimal exp(BigDecimal x, MathContext mc) {
+        return expWork(x, work(mc)).round(mc);
+    }
+
+    /**
+     * @param work Working context of the caller, to which no guard digits are added
+     * @return <b>e^x</b>, as <b>e</b> raised to the integer part of <b>x</b> times the series of its fraction
+     *         when <b>|x|</b> exceeds 1
+     */
+    static BigDecimal expWork(BigDecimal x, MathContext work) {
+        if(x.signum() == 0) return BigDecimal.ONE;
+        if(x.abs().compareTo(BigDecimal.ONE) <= 0) return expSeries(x, work);
+        BigDecimal whole = x.setScale(0, RoundingMode.FLOOR);
+        // the integer power loses a digit per order of magnitude of the exponent
+        MathContext wide = new MathContext(work.getPrecision() + whole.precision(), RoundingMode.HALF_EVEN);
+        return expSeries(x.subtract(whole), work).multiply(e(wide).pow(whole.intValueExact(), wide), work);
+    }
+
+    /**
+     * @return Natural logarithm of a positive <b>x</b>, split as <b>ln(m) + k ln(10)</b> with <b>m</b> in [0.1, 1)
+     * @throws ArithmeticException If <b>x</b> is not positive
+     */
+    static BigDecimal ln(BigDecimal x, MathContext mc) {
+        if(x.signum() <= 0) throw new ArithmeticException("Logarithm of a non-positive number: " + x);
+        if(x.compareTo(BigDecimal.ONE) == 0) return BigDecimal.ZERO;
+        MathContext work = work(mc);
+        int k = x.precision() - x.scale();
+        BigDecimal m = x.movePointLeft(k), result = lnNewton(m, work);
+        if(k != 0) {
+            MathContext wide = new MathContext(work.getPrecision() + String.valueOf(Math.abs(k)).length(), RoundingMode.HALF_EVEN);
+            result = result.add(ln10(wide).multiply(BigDecimal.valueOf(k)), wide);
+        }
+        return result.round(mc);
+    }
+
+    static BigDecimal sin(BigDecimal x, MathContext mc) {
+        MathContext work = widen(work(mc), x);
+        return sinSeries(reduce(x, work), work).round(mc);
+    }
+
+    static BigDecimal cos(BigDecimal x, MathContext mc) {
+        MathContext work = widen(work(mc), x);
+        return cosSeries(reduce(x, work), work).round(mc);
+    }
+
+    static BigDecimal sinh(BigDecimal x, MathContext mc) {
+        return sinhCosh(x, work(mc))[0].round(mc);
+    }
+
+    static BigDecimal cosh(BigDecimal x, MathContext mc) {
+        return sinhCosh(x, work(mc))[1].round(mc);
+    }
+
+    /**
+     * @param work Working context of the caller, to which no guard digits are added
+     * @return Sine and cosine of <b>x</b>, sharing the reduction of the argument
+     */
+    static BigDecimal[] sinCos(BigDecimal x, MathContext work) {
+        MathContext wide = widen(work, x);
+        BigDecimal reduced = reduce(x, wide);
+        return new BigDecimal[] { sinSeries(reduced, wide), cosSeries(reduced, wide) };
+    }
+
+    /**
+     * @param work Working context of the caller, to which no guard digits are added
+     * @return Hyperbolic sine and cosine of <b>x</b>, from a single exponential
+     */
+    static BigDecimal[] sinhCosh(BigDecimal x, MathContext work) {
+        BigDecimal ex = expWork(x, work), inverse = BigDecimal.ONE.divide(ex, work);
+        return new BigDecimal[] { ex.subtract(inverse).multiply(HALF), ex.add(inverse).multiply(HALF) };
+    }
+
+    /**
+     * @return Angle of the point <b>(x, y)</b> in (-pi, pi], <b>0</b> at the origin as <b>Math.atan2</b> gives
+     */
+    static BigDecimal atan2(BigDecimal y, BigDecimal x, MathContext mc) {
+        MathContext work = work(mc);
+        if(x.signum() == 0) {
+            if(y.signum() == 0) return BigDecimal.ZERO;
+            BigDecimal half = pi(work).divide(TWO, work);
+            return (y.signum() > 0 ? half : half.negate()).round(mc);
+        }
+        BigDecimal angle = atan(y.divide(x, work), work);
+        if(x.signum() > 0) return angle.round(mc);
+        return (y.signum() >= 0 ? angle.add(pi(work)) : angle.subtract(pi(work))).round(mc);
+    }
+
+    static BigDecimal atan(BigDecimal x, MathContext mc) {
+        MathContext work = work(mc);
+        if(x.abs().compareTo(BigDecimal.ONE) > 0) {
+            // atan(x) = sign(x) pi/2 - atan(1/x)
+            BigDecimal half = pi(work).divide(TWO, work);
+            BigDecimal inverse = atan(BigDecimal.ONE.divide(x, work), work);
+            return (x.signum() > 0 ? half.subtract(inverse) : half.negate().subtract(inverse)).round(mc);
+        }
+        // atan(x) = 2 atan(x / (1 + sqrt(1 + x^2))), twice, brings x under tan(pi/16)
+        BigDecimal reduced = x;
+        for(int i = 0; i < 2; i++)
+            reduced = reduced.divide(BigDecimal.ONE.add(BigDecimal.ONE.add(reduced.multiply(reduced)).sqrt(work)), work);
+        return atanSeries(reduced, work).multiply(BigDecimal.valueOf(4)).round(mc);
+    }
+
+    /**
+     * @return Working context of a function, <b>GUARD_DIGITS</b> digits wider than the requested one
+     * @throws IllegalArgumentException If the precision is unlimited, which no transcendental result has
+     */
+    static MathContext work(MathContext mc) {
+        if(mc.getPrecision() == 0) throw new IllegalArgumentException("Invalid precision: 0");
+        return new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+    }
+
+    // reducing a large argument modulo 2 pi cancels as many digits as its integer part has
+    private static MathContext widen(MathContext work, BigDecimal x) {
+        int digits = Math.max(0, x.precision() - x.scale());
+        return digits == 0 ? work : new MathContext(work.getPrecision() + digits, RoundingMode.HALF_EVEN);
+    }
+
+    // x - 2 pi round(x / 2 pi), in [-pi, pi]
+    private static BigDecimal reduce(BigDecimal x, MathContext work) {
+        BigDecimal twoPi = pi(work).multiply(TWO);
+        if(x.abs().compareTo(pi(work)) <= 0) return x;
+        BigDecimal turns = x.divide(twoPi, work).setScale(0, RoundingMode.HALF_EVEN);
+        return x.subtract(twoPi.multiply(turns), work);
+    }
+
+    // 1 + x + x^2/2! + ..., for |x| at most 1
+    private static BigDecimal expSeries(BigDecimal x, MathContext work) {
+        int bits = bits(work.getPrecision());
+        BigInteger one = BigInteger.ONE.shiftLeft(bits), a = fixed(x, bits), term = one, sum = one;
+        for(int n = 1; term.signum() != 0; n++) {
+            term = term.multiply(a).shiftRight(bits).divide(BigInteger.valueOf(n));
+            sum = sum.add(term);
+        }
+        return decimal(sum, bits, work);
+    }
+
+    // Halley's iteration on e^y = x, each step triples the correct digits of the double estimate
+    private static BigDecimal lnNewton(BigDecimal x, MathContext work) {
+        BigDecimal y = new BigDecimal(Math.log(x.doubleValue()));
+        BigDecimal epsilon = BigDecimal.ONE.movePointLeft(work.getPrecision() - 2);
+        while(true) {
+            BigDecimal ey = expSeriesReduced(y, work);
+            BigDecimal step = x.subtract(ey).multiply(TWO).divide(x.add(ey), work);
+            y = y.add(step, work);
+            if(step.abs().compareTo(epsilon) <= 0) return y;
+        }
+    }
+
+    // e^y for the small |y| of lnNewton, halved until below 1/2 and squared back
+    private static BigDecimal expSeriesReduced(BigDecimal y, MathContext work) {
+        int halvings = 0;
+        BigDecimal reduced = y;
+        while(reduced.abs().compareTo(BigDecimal.valueOf(0.5)) > 0) {
+            reduced = reduced.divide(TWO, work);
+            halvings++;
+        }
+        BigDecimal result = expSeries(reduced, work);
+        for(int i = 0; i < halvings; i++) result = result.multiply(result, work);
+        return result;
+    }
+
+    private static BigDecimal sinSeries(BigDecimal x, MathContext work) {
+        int bits = bits(scale(x, work));
+        BigInteger a = fixed(x, bits), x2 = a.multiply(a).shiftRight(bits), term = a, sum = a;
+        for(long n = 2; term.signum() != 0; n += 2) {
+            term = term.multiply(x2).shiftRight(bits).divide(BigInteger.valueOf(n * (n + 1))).negate();
+            sum = sum.add(term);
+        }
+        return decimal(sum, bits, work);
+    }
+
+    private static BigDecimal cosSeries(BigDecimal x, MathContext work) {
+        int bits = bits(work.getPrecision());
+        BigInteger one = BigInteger.ONE.shiftLeft(bits), a = fixed(x, bits), x2 = a.multiply(a).shiftRight(bits),
+                term = one, sum = one;
+        for(long n = 1; term.signum() != 0; n += 2) {
+            term = term.multiply(x2).shiftRight(bits).divide(BigInteger.valueOf(n * (n + 1))).negate();
+            sum = sum.add(term);
+        }
+        return decimal(sum, bits, work);
+    }
+
+    // x - x^3/3 + x^5/5 - ..., for |x| well below 1
+    private static BigDecimal atanSeries(BigDecimal x, MathContext work) {
+        int bits = bits(scale(x, work));
+        BigInteger a = fixed(x, bits), x2 = a.multiply(a).shiftRight(bits), power = a, sum = a;
+        for(long n = 3; power.signum() != 0; n += 2) {
+            power = power.multiply(x2).shiftRight(bits).negate();
+            sum = sum.add(power.divide(BigInteger.valueOf(n)));
+        }
+        return decimal(sum, bits, work);
+    }
+
+    /*
+     * The series are summed in binary fixed point, as integers scaled by 2^bits, so that every term
+     * costs a multiplication, a shift and a division by a small integer instead of a rounding to a
+     * MathContext. A series whose sum is about as small as its argument keeps as many more digits as
+     * the argument has leading zeros.
+     */
+    private static int scale(BigDecimal x, MathContext work) {
+        return work.getPrecision() + Math.max(0, x.scale() - x.precision());
+    }
+
+    private static int bits(int digits) {
+        return (int) Math.ceil(digits * LOG2_10) + 2;
+    }
+
+    private static BigInteger fixed(BigDecimal x, int bits) {
+        return x.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(bits))).setScale(0, RoundingMode.HALF_EVEN).unscaledValue();
+    }
+
+    // n / 2^bits is exactly n 5^bits / 10^bits
+    private static BigDecimal decimal(BigInteger n, int bits, MathContext work) {
+        return new BigDecimal(n.multiply(FIVE_POWERS.computeIfAbsent(bits, FIVE::pow)), bits).round(work);
+    }
+
+    /**
+     * @return Whether a value is an integer small enough for <b>BigDecimal.pow</b>, so that a power of it can be
+     *         taken by squaring
+     */
+    static boolean isSmallInteger(BigDecimal x) {
+        if(x.signum() == 0) return true;
+        BigDecimal stripped = x.stripTrailingZeros();
+        return stripped.scale() <= 0 && stripped.abs().toBigInteger().compareTo(MAX_POWER) <= 0;
+    }
+}
@@ -120,6 +120,44 @@ public record Complex(double real, double imaginary) implements complex.ComplexI
         return new Complex(Math.cos(real) * Math.cosh(imaginary), -Math.sin(real) * Math.sinh(imaginary));
     }
 
+    /**
+     * @return Tangent of the Complex number, computed directly rather than as the quotient of its sine
+     *         and cosine
+     */
+    public Complex tan() {
+        double sin = Math.sin(real), cos = Math.cos(real), sinh = Math.sinh(imaginary), cosh = Math.cosh(imaginary);
+        double denominator = cos * cos + sinh * sinh;
+        return new Complex(sin * cos / denominator, sinh * cosh / denominator);
+    }
+
+    /**
+     * @return Hyperbolic sine of the Complex number
+     */
+    public Complex sinh() {
+        return new Complex(Math.sinh(real) * Math.cos(imaginary), Math.cosh(real) * Math.sin(imaginary));
+    }
+
+    /**
+     * @return Hyperbolic cosine of the Complex number
+     */
+    public Complex cosh() {
+        return new Complex(Math.cosh(real) * Math.cos(imaginary), Math.sinh(real) * Math.sin(imaginary));
+    }
+
+    /**
+     * @return Principal square root of the Complex number, whose real part is never negative, a
+     *         negative real number has its root on the positive imaginary axis whatever the sign of
+     *         its imaginary zero
+     */
+    public Complex sqrt() {
+        if(real == 0 && imaginary == 0)
+            return new Complex(0.0, imaginary);
+        double t = Math.sqrt((Math.abs(real) + mod()) / 2);
+        if(real >= 0)
+            return new Complex(t, imaginary / (2 * t));
+        return new Complex(Math.abs(imaginary) / (2 * t), imaginary < 0 ? -t : t);
+    }
+
     /**
      * @param base Base in which the Log will be computed
      * @return Log of the Complex number
@@ -141,24 +179,10 @@ public record Complex(double real, double imaginary) implements complex.ComplexI
     /**
      * @param precision Precision of fractional part of the real and imaginary
      *                  values
-     * @return String representation of the Complex number
+     * @return String representation of the Complex number, see ComplexFormat
      */
     public String toString(int precision) {
-        double t_real = Double.parseDouble(String.format("%." + precision + "f", real));
-        double t_imaginary = Double.parseDouble(String.format("%." + precision + "f", imaginary));
-
-        if (t_real == 0.0 && t_imaginary == 0.0)
-            return String.format("%." + precision + "f", t_real);
-        if (t_real == 0.0)
-            return imaginary + "i";
-        if (t_imaginary == 0.0)
-            return Double.toString(t_real);
-        if (t_imaginary == 1.0)
-            return "(" + t_real + " + i)";
-        String real_part = String.format("%." + precision + "f", real);
-        String imaginary_part = imaginary < 0.0 ? String.format("- %.2fi", -imaginary)
-                : String.format("+ %." + precision + "fi", imaginary);
-        return "(" + t_real + " " + imaginary_part + ")";
+        return ComplexFormat.format(real, imaginary, precision);
     }
 
     @Override
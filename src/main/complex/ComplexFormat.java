@@ -0,0 +1,298 @@
+package complex;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Writes Complex numbers the way <b>Complex.toString(int)</b> does, straight into a StringBuilder,
+ * an Appendable or a ByteBuffer, and reads them back. The fractional digits are computed with
+ * integer arithmetic, the rare values too large or too close to a rounding tie for it to be exact
+ * are handed to <b>String.format</b>. Writing to an Appendable or a ByteBuffer goes through an internal
+ * buffer, so those methods must be called by one thread at a time, the others are thread-safe.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class ComplexFormat {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // largest scaled value whose rounding to an integer is computed without String.format
+    private static final double MAX_SCALED = 1e15;
+    // largest precision whose power of ten fits in a long
+    private static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final StringBuilder scratch = new StringBuilder(64);
+
+    /**
+     * @param precision Precision of fractional part of the real and imaginary values
+     */
+    public ComplexFormat(int precision) {
+        this.precision = checkPrecision(precision);
+    }
+
+    /**
+     * @return Precision of fractional part of the real and imaginary values
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @param value The Complex number
+     * @return String representation of the Complex number, the same as <b>value.toString(precision)</b>
+     */
+    public String format(Complex value) {
+        return format(value.real(), value.imaginary(), precision);
+    }
+
+    /**
+     * Appends a Complex number without allocating
+     * @param real Real part of the number
+     * @param imaginary Imaginary part of the number
+     * @param out Builder the number is appended to
+     * @return The builder
+     */
+    public StringBuilder format(double real, double imaginary, StringBuilder out) {
+        return append(out, real, imaginary, precision);
+    }
+
+    /**
+     * Appends a Complex number
+     * @param real Real part of the number
+     * @param imaginary Imaginary part of the number
+     * @param out Appendable the number is appended to
+     * @throws IOException If the Appendable fails
+     */
+    public void format(double real, double imaginary, Appendable out) throws IOException {
+        scratch.setLength(0);
+        out.append(append(scratch, real, imaginary, precision));
+    }
+
+    /**
+     * Writes a Complex number as ASCII bytes at the position of a buffer
+     * @param real Real part of the number
+     * @param imaginary Imaginary part of the number
+     * @param out Buffer the number is written to
+     * @throws BufferOverflowException If the buffer has no room for the number, nothing is written then
+     */
+    public void format(double real, double imaginary, ByteBuffer out) {
+        scratch.setLength(0);
+        append(scratch, real, imaginary, precision);
+        int length = scratch.length();
+        if(out.remaining() < length) throw new BufferOverflowException();
+        for(int i = 0; i < length; i++) out.put((byte) scratch.charAt(i));
+    }
+
+    /**
+     * @param real Real part of the number
+     * @param imaginary Imaginary part of the number
+     * @param precision Precision of fractional part of the real and imaginary values
+     * @return String representation of the Complex number
+     */
+    static String format(double real, double imaginary, int precision) {
+        return append(new StringBuilder(24), real, imaginary, checkPrecision(precision)).toString();
+    }
+
+    private static StringBuilder append(StringBuilder out, double real, double imaginary, int precision) {
+        double roundedReal = round(real, precision), roundedImaginary = round(imaginary, precision);
+        if(roundedReal == 0.0 && roundedImaginary == 0.0) return appendFixed(out, roundedReal, precision);
+        if(roundedReal == 0.0) return out.append(imaginary).append('i');
+        if(roundedImaginary == 0.0) return out.append(roundedReal);
+        if(roundedImaginary == 1.0) return out.append('(').append(roundedReal).append(" + i)");
+        out.append('(').append(roundedReal).append(imaginary < 0.0 ? " - " : " + ");
+        return appendFixed(out, Math.abs(imaginary), precision).append("i)");
+    }
+
+    /**
+     * Appends a value with a fixed number of fractional digits, as <b>%.nf</b> does
+     */
+    private static StringBuilder appendFixed(StringBuilder out, double value, int precision) {
+        if(Double.isNaN(value) || Double.isInfinite(value)) return out.append(value);
+        long units = units(value, precision);
+        if(units < 0) return out.append(String.format(Locale.ROOT, "%." + precision + "f", value));
+        if(Double.doubleToRawLongBits(value) < 0) out.append('-');
+        long power = (long) POWERS_OF_TEN[precision];
+        out.append(units / power);
+        if(precision == 0) return out;
+        out.append('.');
+        long fraction = units % power;
+        for(long digit = power / 10; digit > 1 && fraction < digit; digit /= 10) out.append('0');
+        return out.append(fraction);
+    }
+
+    /**
+     * Rounds a value to a number of fractional digits, as formatting and parsing it back does
+     */
+    private static double round(double value, int precision) {
+        if(Double.isNaN(value) || Double.isInfinite(value)) return value;
+        long units = units(value, precision);
+        if(units < 0) return Double.parseDouble(String.format(Locale.ROOT, "%." + precision + "f", value));
+        // units and the power of ten are exact, so is the quotient once rounded
+        double rounded = units / POWERS_OF_TEN[precision];
+        return Double.doubleToRawLongBits(value) < 0 ? -rounded : rounded;
+    }
+
+    /**
+     * @return Magnitude of a value in units of the last fractional digit, rounded half up,
+     * or <b>-1</b> if it can not be computed exactly
+     */
+    private static long units(double value, int precision) {
+        if(precision > MAX_PRECISION) return -1;
+        double scaled = Math.abs(value) * POWERS_OF_TEN[precision];
+        if(!(scaled < MAX_SCALED)) return -1;
+        double floor = Math.floor(scaled), fraction = scaled - floor;
+        // the formatter rounds the shortest decimal digits of the value rather than its binary value,
+        // both round the same way unless the value is within a few ulps of a tie
+        if(Math.abs(fraction - 0.5) <= 4 * Math.ulp(scaled)) return -1;
+        return (long) floor + (fraction > 0.5 ? 1 : 0);
+    }
+
+    private static int checkPrecision(int precision) {
+        if(precision < 0) throw new IllegalArgumentException("Invalid precision: " + precision);
+        return precision;
+    }
+
+    /**
+     * Reads a Complex number such as <b>2.5</b>, <b>-3i</b>, <b>1-2.5i</b> or <b>(1.5 - 2.00i)</b>,
+     * which covers everything <b>format</b> writes
+     * @param text Text of the number, surrounding whitespace is ignored
+     * @return The Complex number
+     * @throws NumberFormatException If the text is not a Complex number
+     */
+    public static Complex parse(CharSequence text) {
+        int from = 0, to = text.length();
+        while(from < to && text.charAt(from) <= ' ') from++;
+        while(to > from && text.charAt(to - 1) <= ' ') to--;
+        if(from < to && text.charAt(from) == '(') {
+            if(text.charAt(to - 1) != ')') throw invalid(text);
+            from++;
+            to--;
+        }
+        double real = 0.0, imaginary = 0.0;
+        boolean any = false, hasReal = false, hasImaginary = false;
+        int i = from;
+        while(true) {
+            while(i < to && text.charAt(i) <= ' ') i++;
+            if(i == to) break;
+            boolean negative = false;
+            char c = text.charAt(i);
+            if(c == '+' || c == '-') {
+                negative = c == '-';
+                i++;
+                while(i < to && text.charAt(i) <= ' ') i++;
+            } else if(any) throw invalid(text);
+            int start = i;
+            i = numberEnd(text, i, to);
+            double value = i == start ? 1.0 : parseDouble(text, start, i);
+            if(negative) value = -value;
+            if(i < to && text.charAt(i) == 'i') {
+                if(hasImaginary) throw invalid(text);
+                hasImaginary = true;
+                imaginary = value;
+                i++;
+            } else {
+                if(i == start || hasReal || hasImaginary) throw invalid(text);
+                hasReal = true;
+                real = value;
+            }
+            any = true;
+        }
+        if(!any) throw invalid(text);
+        return new Complex(real, imaginary);
+    }
+
+    /**
+     * Reads a decimal number. Numbers with at most 15 significant digits and a decimal exponent
+     * of at most 22 are exact in a double, as are the powers of ten they are scaled by, so a single
+     * multiplication or division yields the correctly rounded value without building a String.
+     * Every other number is handed to <b>Double.parseDouble</b>.
+     * @param text Text of the number, surrounding whitespace is ignored
+     * @return Value of the number
+     * @throws NumberFormatException If the text is not a number
+     */
+    public static double parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+
+    private static double parseDouble(CharSequence text, int from, int to) {
+        while(from < to && text.charAt(from) <= ' ') from++;
+        while(to > from && text.charAt(to - 1) <= ' ') to--;
+        int i = from;
+        boolean negative = false;
+        if(i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) negative = text.charAt(i++) == '-';
+
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false, point = false;
+        for(; i < to; i++) {
+            char c = text.charAt(i);
+            if(c >= '0' && c <= '9') {
+                any = true;
+                if(mantissa == 0 && c == '0') {
+                    // leading zeros are not significant
+                    if(point) exponent--;
+                    continue;
+                }
+                if(++digits > 15) return slow(text, from, to);
+                mantissa = mantissa * 10 + (c - '0');
+                if(point) exponent--;
+            } else if(c == '.' && !point) point = true;
+            else break;
+        }
+        if(!any) return slow(text, from, to);
+        if(i < to) {
+            char c = text.charAt(i);
+            if(c != 'e' && c != 'E') return slow(text, from, to);
+            i++;
+            boolean negativeExponent = false;
+            if(i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) negativeExponent = text.charAt(i++) == '-';
+            if(i == to) return slow(text, from, to);
+            int e = 0;
+            for(; i < to; i++) {
+                c = text.charAt(i);
+                if(c < '0' || c > '9' || e > 1000) return slow(text, from, to);
+                e = e * 10 + (c - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        double value;
+        if(mantissa == 0) value = 0.0;
+        else if(exponent < -22 || exponent > 22) return slow(text, from, to);
+        else value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    private static double slow(CharSequence text, int from, int to) {
+        return Double.parseDouble(text.subSequence(from, to).toString());
+    }
+
+    // end of the unsigned number starting at an index, NaN and Infinity included
+    private static int numberEnd(CharSequence text, int i, int to) {
+        if(startsWith(text, i, to, "NaN")) return i + 3;
+        if(startsWith(text, i, to, "Infinity")) return i + 8;
+        while(i < to && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) i++;
+        if(i < to && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if(i < to && (text.charAt(i) == '+' || text.charAt(i) == '-')) i++;
+            while(i < to && Character.isDigit(text.charAt(i))) i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(CharSequence text, int i, int to, String word) {
+        if(to - i < word.length()) return false;
+        for(int j = 0; j < word.length(); j++)
+            if(text.charAt(i + j) != word.charAt(j)) return false;
+        return true;
+    }
+
+    private static NumberFormatException invalid(CharSequence text) {
+        return new NumberFormatException("Invalid complex number: " + text);
+    }
+}
@@ -0,0 +1,230 @@
+package complex;
+
+/**
+ * Rectangle of the complex plane, a real and an imaginary Interval, with the operations of
+ * ComplexInterface in interval arithmetic: the result of an operation contains the exact result
+ * for any operands within the operand rectangles. A rectangle whose imaginary part is exactly zero
+ * is kept on the real axis by the functions that map reals to reals. Enclosures only widen, and a
+ * wide one is always correct, <b>ENTIRE</b> encloses operations such as a division by a rectangle
+ * containing zero.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public record ComplexInterval(Interval real, Interval imaginary) {
+    public static final ComplexInterval ENTIRE = new ComplexInterval(Interval.ENTIRE, Interval.ENTIRE);
+    public static final ComplexInterval ONE = new ComplexInterval(Interval.ONE, Interval.ZERO);
+    private static final Interval PI = new Interval(Math.PI, Math.nextUp(Math.PI));
+    private static final Interval ARGUMENTS = PI.negate().hull(PI);
+
+    public ComplexInterval {
+        if(real == null || imaginary == null) throw new IllegalArgumentException("Invalid interval: null");
+    }
+
+    /**
+     * @param value A Complex number
+     * @return The rectangle holding only the number
+     */
+    public static ComplexInterval of(Complex value) {
+        return new ComplexInterval(Interval.of(value.real()), Interval.of(value.imaginary()));
+    }
+
+    /**
+     * @param real Real part of the number
+     * @param imaginary Imaginary part of the number
+     * @return The rectangle holding only the number
+     */
+    public static ComplexInterval of(double real, double imaginary) {
+        return new ComplexInterval(Interval.of(real), Interval.of(imaginary));
+    }
+
+    /**
+     * @return Whether the number lies within the rectangle
+     */
+    public boolean contains(Complex value) {
+        return real.contains(value.real()) && imaginary.contains(value.imaginary());
+    }
+
+    /**
+     * @return Larger of the widths of the real and imaginary parts
+     */
+    public double width() {
+        return Math.max(real.width(), imaginary.width());
+    }
+
+    /**
+     * @return Centre of the rectangle
+     */
+    public Complex midpoint() {
+        return new Complex(real.midpoint(), imaginary.midpoint());
+    }
+
+    /**
+     * @return Whether the imaginary part is exactly zero
+     */
+    public boolean isReal() {
+        return imaginary.lo() == 0 && imaginary.hi() == 0;
+    }
+
+    public ComplexInterval add(ComplexInterval other) {
+        return new ComplexInterval(real.add(other.real), imaginary.add(other.imaginary));
+    }
+
+    public ComplexInterval subtract(ComplexInterval other) {
+        return new ComplexInterval(real.subtract(other.real), imaginary.subtract(other.imaginary));
+    }
+
+    public ComplexInterval negate() {
+        return new ComplexInterval(real.negate(), imaginary.negate());
+    }
+
+    public ComplexInterval conjugate() {
+        return new ComplexInterval(real, imaginary.negate());
+    }
+
+    public ComplexInterval multiply(ComplexInterval other) {
+        if(isReal() && other.isReal()) return new ComplexInterval(real.multiply(other.real), Interval.ZERO);
+        return new ComplexInterval(real.multiply(other.real).subtract(imaginary.multiply(other.imaginary)),
+                real.multiply(other.imaginary).add(imaginary.multiply(other.real)));
+    }
+
+    /**
+     * @return Quotient of the rectangles, <b>ENTIRE</b> if the divisor contains zero
+     * @throws ArithmeticException If the divisor is exactly zero, as the double path does
+     */
+    public ComplexInterval divide(ComplexInterval other) {
+        if(other.real.isPoint() && other.imaginary.isPoint() && other.real.lo() == 0 && other.imaginary.lo() == 0)
+            throw new ArithmeticException("Division by zero");
+        if(other.isReal())
+            return new ComplexInterval(real.divide(other.real), isReal() ? Interval.ZERO : imaginary.divide(other.real));
+        Interval denominator = other.real.sqr().add(other.imaginary.sqr());
+        return new ComplexInterval(real.multiply(other.real).add(imaginary.multiply(other.imaginary)).divide(denominator),
+                imaginary.multiply(other.real).subtract(real.multiply(other.imaginary)).divide(denominator));
+    }
+
+    public ComplexInterval reciprocal() {
+        return ONE.divide(this);
+    }
+
+    /**
+     * @return Distances of the rectangle from the origin
+     */
+    public Interval mod() {
+        if(isReal()) return real.lo() >= 0 ? real : real.hi() <= 0 ? real.negate() : new Interval(0.0, Math.max(-real.lo(), real.hi()));
+        return real.sqr().add(imaginary.sqr()).sqrt();
+    }
+
+    /**
+     * @return Arguments of the rectangle in [-pi, pi], all of them if it reaches the origin or the
+     *         negative real axis, where the argument jumps
+     */
+    public Interval arg() {
+        if(real.lo() < 0 && imaginary.contains(0.0)) return ARGUMENTS;
+        if(real.contains(0.0) && imaginary.contains(0.0)) return ARGUMENTS;
+        // away from the origin and the cut the argument is extreme at corners of the rectangle, atan2 is
+        // within 2 ulps of the exact result
+        double a = Math.atan2(imaginary.lo(), real.lo()), b = Math.atan2(imaginary.lo(), real.hi());
+        double c = Math.atan2(imaginary.hi(), real.lo()), d = Math.atan2(imaginary.hi(), real.hi());
+        return new Interval(Interval.down(Math.min(Math.min(a, b), Math.min(c, d)), 2),
+                Interval.up(Math.max(Math.max(a, b), Math.max(c, d)), 2));
+    }
+
+    public ComplexInterval exp() {
+        Interval modulus = real.exp();
+        if(isReal()) return new ComplexInterval(modulus, Interval.ZERO);
+        return new ComplexInterval(modulus.multiply(imaginary.cos()), modulus.multiply(imaginary.sin()));
+    }
+
+    public ComplexInterval sin() {
+        if(isReal()) return new ComplexInterval(real.sin(), Interval.ZERO);
+        return new ComplexInterval(real.sin().multiply(imaginary.cosh()), real.cos().multiply(imaginary.sinh()));
+    }
+
+    public ComplexInterval cos() {
+        if(isReal()) return new ComplexInterval(real.cos(), Interval.ZERO);
+        return new ComplexInterval(real.cos().multiply(imaginary.cosh()), real.sin().multiply(imaginary.sinh()).negate());
+    }
+
+    /**
+     * @return Tangent as the quotient of the sine and cosine, <b>ENTIRE</b> near a pole
+     */
+    public ComplexInterval tan() {
+        ComplexInterval cos = cos();
+        if(cos.real.contains(0.0) && cos.imaginary.contains(0.0)) return ENTIRE;
+        return sin().divide(cos);
+    }
+
+    public ComplexInterval sinh() {
+        if(isReal()) return new ComplexInterval(real.sinh(), Interval.ZERO);
+        return new ComplexInterval(real.sinh().multiply(imaginary.cos()), real.cosh().multiply(imaginary.sin()));
+    }
+
+    public ComplexInterval cosh() {
+        if(isReal()) return new ComplexInterval(real.cosh(), Interval.ZERO);
+        return new ComplexInterval(real.cosh().multiply(imaginary.cos()), real.sinh().multiply(imaginary.sin()));
+    }
+
+    /**
+     * @return Principal square roots, as the root of the modulus times the half-angle
+     */
+    public ComplexInterval sqrt() {
+        if(isReal() && real.lo() >= 0) return new ComplexInterval(real.sqrt(), Interval.ZERO);
+        Interval root = mod().sqrt(), half = arg().multiply(Interval.of(0.5));
+        return new ComplexInterval(root.multiply(half.cos()), root.multiply(half.sin()));
+    }
+
+    /**
+     * @return Natural logarithms <b>ln|z| + i arg(z)</b>, unbounded below if the rectangle reaches zero
+     */
+    public ComplexInterval ln() {
+        if(isReal() && real.lo() > 0) return new ComplexInterval(real.log(), Interval.ZERO);
+        return new ComplexInterval(mod().log(), arg());
+    }
+
+    /**
+     * @param base Base of the logarithm
+     * @return Logarithms with the same convention as <b>Complex.log</b>: in base 10 the imaginary part is the
+     *         argument itself
+     */
+    public ComplexInterval log(double base) {
+        Interval argument = isReal() && real.lo() > 0 ? Interval.ZERO : arg();
+        if(base == 10) return new ComplexInterval(mod().log10(), argument);
+        Interval lnBase = Interval.of(base).log();
+        return new ComplexInterval(mod().log().divide(lnBase), argument.divide(lnBase));
+    }
+
+    /**
+     * @return The rectangle raised to an integer power by repeated squaring
+     */
+    public ComplexInterval pow(int power) {
+        ComplexInterval result = ONE, base = this;
+        for(long n = Math.abs((long) power); n > 0; n >>= 1) {
+            if((n & 1) != 0) result = result == ONE ? base : result.multiply(base);
+            if(n > 1) base = base.multiply(base);
+        }
+        return power < 0 ? result.reciprocal() : result;
+    }
+
+    /**
+     * @return The rectangle raised to a power, by squaring for a small integer, in polar form for another
+     *         real number and as <b>exp(power * ln(z))</b> otherwise
+     */
+    public ComplexInterval pow(ComplexInterval power) {
+        if(power.isReal() && power.real.isPoint()) {
+            double p = power.real.lo();
+            if(p == 0) return ONE;
+            if(p == Math.rint(p) && Math.abs(p) <= 64 && (p > 0 || mod().lo() > 0)) return pow((int) p);
+            if(isReal() && real.lo() >= 0) return new ComplexInterval(real.pow(p), Interval.ZERO);
+            Interval modulus = mod().pow(p), angle = arg().multiply(power.real);
+            return new ComplexInterval(modulus.multiply(angle.cos()), modulus.multiply(angle.sin()));
+        }
+        if(mod().lo() == 0) return ENTIRE;
+        return ln().multiply(power).exp();
+    }
+
+    @Override
+    public String toString() {
+        return real + " + " + imaginary + "i";
+    }
+}
@@ -0,0 +1,274 @@
+package complex;
+
+/**
+ * Closed interval of real numbers whose bounds are rounded outwards, so that an operation on
+ * intervals contains the exact result of the operation for any operands within them. The bounds of
+ * the basic operations are rounded in the right direction from the error term of the rounded
+ * result, so exact results such as <b>2 * 3</b> stay points, except near the subnormal range where
+ * the error term underflows and they are rounded outwards regardless. The results of library
+ * functions are widened by one ulp more than their documented error: two for most of them, three for
+ * <b>atan2</b> and four for <b>sinh</b> and <b>cosh</b>. A bound may be infinite, <b>ENTIRE</b> is the
+ * result of an operation without a bounded enclosure, such as a division by an interval containing zero.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public record Interval(double lo, double hi) {
+    public static final Interval ENTIRE = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    public static final Interval ZERO = new Interval(0.0, 0.0);
+    public static final Interval ONE = new Interval(1.0, 1.0);
+    // an extremum of sin or cos this close to a bound, relative to the bound, is taken to lie inside
+    private static final double MARGIN = 1e-12;
+    // below this magnitude the error term of a product or quotient may be lost to underflow
+    private static final double TINY = 0x1p-968;
+
+    public Interval {
+        if(!(lo <= hi)) throw new IllegalArgumentException("Invalid interval: [" + lo + ", " + hi + "]");
+    }
+
+    /**
+     * @param value A real number
+     * @return The interval holding only the number
+     */
+    public static Interval of(double value) {
+        return new Interval(value, value);
+    }
+
+    /**
+     * @return Whether the number lies within the interval
+     */
+    public boolean contains(double value) {
+        return lo <= value && value <= hi;
+    }
+
+    /**
+     * @return Whether the interval holds a single number
+     */
+    public boolean isPoint() {
+        return lo == hi;
+    }
+
+    /**
+     * @return Width of the interval, rounded up
+     */
+    public double width() {
+        return addUp(hi, -lo);
+    }
+
+    /**
+     * @return Middle of the interval, <b>0</b> for <b>ENTIRE</b> and the finite bound of a half-bounded interval
+     */
+    public double midpoint() {
+        if(Double.isInfinite(lo) && Double.isInfinite(hi)) return lo == hi ? lo : 0.0;
+        if(Double.isInfinite(lo)) return hi;
+        if(Double.isInfinite(hi)) return lo;
+        return lo / 2 + hi / 2;
+    }
+
+    /**
+     * @return Smallest interval containing both intervals
+     */
+    public Interval hull(Interval other) {
+        return new Interval(Math.min(lo, other.lo), Math.max(hi, other.hi));
+    }
+
+    public Interval negate() {
+        return new Interval(-hi, -lo);
+    }
+
+    public Interval add(Interval other) {
+        return bounded(addDown(lo, other.lo), addUp(hi, other.hi));
+    }
+
+    public Interval subtract(Interval other) {
+        return bounded(addDown(lo, -other.hi), addUp(hi, -other.lo));
+    }
+
+    public Interval multiply(Interval other) {
+        if(isPoint() && other.isPoint()) return bounded(mulDown(lo, other.lo), mulUp(lo, other.lo));
+        double a = mulDown(lo, other.lo), b = mulDown(lo, other.hi), c = mulDown(hi, other.lo), d = mulDown(hi, other.hi);
+        double e = mulUp(lo, other.lo), f = mulUp(lo, other.hi), g = mulUp(hi, other.lo), h = mulUp(hi, other.hi);
+        return bounded(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(e, f), Math.max(g, h)));
+    }
+
+    /**
+     * @return Quotient of the intervals, <b>ENTIRE</b> if the divisor contains zero
+     */
+    public Interval divide(Interval other) {
+        if(other.contains(0.0)) return ENTIRE;
+        double a = divDown(lo, other.lo), b = divDown(lo, other.hi), c = divDown(hi, other.lo), d = divDown(hi, other.hi);
+        double e = divUp(lo, other.lo), f = divUp(lo, other.hi), g = divUp(hi, other.lo), h = divUp(hi, other.hi);
+        return bounded(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(e, f), Math.max(g, h)));
+    }
+
+    /**
+     * @return Squares of the numbers in the interval, which unlike <b>multiply(this)</b> is never negative
+     */
+    Interval sqr() {
+        if(lo >= 0) return bounded(mulDown(lo, lo), mulUp(hi, hi));
+        if(hi <= 0) return bounded(mulDown(hi, hi), mulUp(lo, lo));
+        return new Interval(0.0, Math.max(mulUp(lo, lo), mulUp(hi, hi)));
+    }
+
+    /**
+     * @return Square roots of the non-negative part of the interval
+     */
+    Interval sqrt() {
+        return new Interval(lo <= 0 ? 0.0 : sqrtDown(lo), hi <= 0 ? 0.0 : sqrtUp(hi));
+    }
+
+    Interval exp() {
+        return new Interval(Math.max(0.0, down(Math.exp(lo))), up(Math.exp(hi)));
+    }
+
+    /**
+     * @return Natural logarithms of the non-negative part of the interval, unbounded below if it reaches zero
+     */
+    Interval log() {
+        return new Interval(lo <= 0 ? Double.NEGATIVE_INFINITY : down(Math.log(lo)),
+                hi <= 0 ? Double.NEGATIVE_INFINITY : up(Math.log(hi)));
+    }
+
+    Interval log10() {
+        return new Interval(lo <= 0 ? Double.NEGATIVE_INFINITY : down(Math.log10(lo)),
+                hi <= 0 ? Double.NEGATIVE_INFINITY : up(Math.log10(hi)));
+    }
+
+    Interval sinh() {
+        return new Interval(down(Math.sinh(lo), 3), up(Math.sinh(hi), 3));
+    }
+
+    Interval cosh() {
+        if(lo >= 0) return new Interval(Math.max(1.0, down(Math.cosh(lo), 3)), up(Math.cosh(hi), 3));
+        if(hi <= 0) return new Interval(Math.max(1.0, down(Math.cosh(hi), 3)), up(Math.cosh(lo), 3));
+        return new Interval(1.0, up(Math.max(Math.cosh(lo), Math.cosh(hi)), 3));
+    }
+
+    /**
+     * @return Powers of the non-negative part of the interval to a real exponent
+     */
+    Interval pow(double exponent) {
+        if(exponent == 0) return ONE;
+        double a = Math.pow(Math.max(lo, 0.0), exponent), b = Math.pow(Math.max(hi, 0.0), exponent);
+        return exponent > 0 ? new Interval(Math.max(0.0, down(a)), up(b)) : new Interval(Math.max(0.0, down(b)), up(a));
+    }
+
+    // sin has its maxima at (2k + 1/2) pi and its minima at (2k - 1/2) pi
+    Interval sin() {
+        return periodic(Math.sin(lo), Math.sin(hi), 0.5);
+    }
+
+    // cos has its maxima at 2k pi and its minima at (2k + 1) pi
+    Interval cos() {
+        return periodic(Math.cos(lo), Math.cos(hi), 0.0);
+    }
+
+    /**
+     * Range of sin or cos over the interval: the values at the bounds, and 1 or -1 wherever a maximum
+     * or a minimum <b>(k + phase) pi</b> lies within it, for <b>k</b> even or odd respectively
+     */
+    private Interval periodic(double a, double b, double phase) {
+        if(!(hi - lo < 6.0)) return new Interval(-1.0, 1.0);
+        double min = Math.max(-1.0, down(Math.min(a, b))), max = Math.min(1.0, up(Math.max(a, b)));
+        double margin = MARGIN * (1 + Math.max(Math.abs(lo), Math.abs(hi)));
+        if(margin > 0.25) return new Interval(-1.0, 1.0);
+        long first = (long) Math.ceil(lo / Math.PI - phase - margin), last = (long) Math.floor(hi / Math.PI - phase + margin);
+        for(long k = first; k <= last; k++) {
+            if((k & 1) == 0) max = 1.0;
+            else min = -1.0;
+        }
+        return new Interval(min, max);
+    }
+
+    // an invalid pair of bounds comes from inf - inf or 0 * inf, whose enclosure is every number
+    private static Interval bounded(double lo, double hi) {
+        return lo <= hi ? new Interval(lo, hi) : ENTIRE;
+    }
+
+    // the error of a rounded sum by two-sum, of a product or quotient by fma, gives the direction to round in
+    static double addDown(double a, double b) {
+        double s = a + b, bb = s - a, error = (a - (s - bb)) + (b - bb);
+        if(Double.isInfinite(s)) return s > 0 && Double.isFinite(a) && Double.isFinite(b) ? Double.MAX_VALUE : s;
+        return error < 0 ? Math.nextDown(s) : s;
+    }
+
+    static double addUp(double a, double b) {
+        double s = a + b, bb = s - a, error = (a - (s - bb)) + (b - bb);
+        if(Double.isInfinite(s)) return s < 0 && Double.isFinite(a) && Double.isFinite(b) ? -Double.MAX_VALUE : s;
+        return error > 0 ? Math.nextUp(s) : s;
+    }
+
+    static double mulDown(double a, double b) {
+        if(a == 0 || b == 0) return 0.0;
+        double p = a * b;
+        if(Math.abs(p) < TINY) return Math.nextDown(p);
+        return Math.fma(a, b, -p) < 0 ? Math.nextDown(p) : p;
+    }
+
+    static double mulUp(double a, double b) {
+        if(a == 0 || b == 0) return 0.0;
+        double p = a * b;
+        if(Math.abs(p) < TINY) return Math.nextUp(p);
+        return Math.fma(a, b, -p) > 0 ? Math.nextUp(p) : p;
+    }
+
+    // a - q b has the sign of b (a / b - q)
+    static double divDown(double a, double b) {
+        if(a == 0) return 0.0;
+        double q = a / b, remainder = Math.fma(-q, b, a);
+        if(Double.isInfinite(q)) return q > 0 ? Double.MAX_VALUE : q;
+        if(Math.abs(q) < TINY || Math.abs(a) < TINY) return Math.nextDown(q);
+        return remainder != 0 && (remainder < 0) == (b > 0) ? Math.nextDown(q) : q;
+    }
+
+    static double divUp(double a, double b) {
+        if(a == 0) return 0.0;
+        double q = a / b, remainder = Math.fma(-q, b, a);
+        if(Double.isInfinite(q)) return q < 0 ? -Double.MAX_VALUE : q;
+        if(Math.abs(q) < TINY || Math.abs(a) < TINY) return Math.nextUp(q);
+        return remainder != 0 && (remainder > 0) == (b > 0) ? Math.nextUp(q) : q;
+    }
+
+    static double sqrtDown(double a) {
+        double r = Math.sqrt(a);
+        return Math.fma(r, r, -a) > 0 ? Math.nextDown(r) : r;
+    }
+
+    static double sqrtUp(double a) {
+        double r = Math.sqrt(a);
+        return Math.fma(r, r, -a) < 0 ? Math.nextUp(r) : r;
+    }
+
+    // most library functions are within an ulp of the exact result
+    static double down(double x) {
+        return down(x, 1);
+    }
+
+    static double up(double x) {
+        return up(x, 1);
+    }
+
+    /**
+     * Lower bound of the exact value of a library function, one step more than its error as the ulp
+     * below a power of two is half the one above
+     * @param x Result of the function
+     * @param ulps Documented error of the function in ulps, rounded up
+     */
+    static double down(double x, int ulps) {
+        if(Double.isInfinite(x)) return x > 0 ? Double.MAX_VALUE : x;
+        for(int step = 0; step <= ulps; step++) x = Math.nextDown(x);
+        return x;
+    }
+
+    static double up(double x, int ulps) {
+        if(Double.isInfinite(x)) return x < 0 ? -Double.MAX_VALUE : x;
+        for(int step = 0; step <= ulps; step++) x = Math.nextUp(x);
+        return x;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lo + ", " + hi + "]";
+    }
+}
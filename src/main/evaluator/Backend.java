@@ -0,0 +1,21 @@
+package evaluator;
+
+/**
+ * Ways of running a CompiledExpression, selected per expression with <b>CompiledExpression.withBackend</b>
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public enum Backend {
+    /**
+     * Register code run instruction by instruction, with the real fast path. The default backend.
+     */
+    INTERPRETER,
+    /**
+     * A class generated for the expression whose single method evaluates it as straight-line double
+     * arithmetic, which the JIT compiles, register-allocates and inlines as a whole. Generating and
+     * loading the class costs far more than compiling, so it pays off for formulas evaluated very often.
+     */
+    BYTECODE
+}
@@ -0,0 +1,250 @@
+package evaluator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates a CompiledExpression over columns of variable values. Inputs and outputs are
+ * struct-of-arrays, one array of real parts and one of imaginary parts per variable, and every
+ * instruction is executed over a whole chunk of rows at a time so that the loops can be vectorized.
+ * A batch evaluator keeps its scratch buffers between calls and must be used by one thread at a time,
+ * the <b>evaluateParallel</b> methods spread a call over several threads with their own scratch buffers.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class BatchEvaluator {
+    /**
+     * Number of rows processed per instruction when no chunk size is given
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private final CompiledExpression expression;
+    private final Program program;
+    private final int chunkSize;
+    private final double[][] re, im;
+    private final double[][] columnsRe, columnsIm;
+    private boolean realFastPath = true;
+
+    BatchEvaluator(CompiledExpression expression, Program program, int chunkSize) {
+        if(chunkSize <= 0) throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        this.expression = expression;
+        this.program = program;
+        this.chunkSize = chunkSize;
+        this.re = new double[program.registers()][chunkSize];
+        this.im = new double[program.registers()][chunkSize];
+        this.columnsRe = new double[program.variables][];
+        this.columnsIm = new double[program.variables][];
+        for(int i = 0; i < program.constants.length / 2; i++) {
+            Arrays.fill(re[program.variables + i], program.constants[2 * i]);
+            Arrays.fill(im[program.variables + i], program.constants[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Binds a column of values to a variable by its slot index
+     * @param slot Slot index of the variable, see <b>CompiledExpression.getSlot</b>
+     * @param real Real parts of the values
+     * @param imaginary Imaginary parts of the values, <b>null</b> for a real column
+     */
+    public void bind(int slot, double[] real, double[] imaginary) {
+        if(imaginary != null && imaginary.length != real.length)
+            throw new IllegalArgumentException("Columns of different length for " + expression.getVariables().get(slot));
+        columnsRe[slot] = real;
+        columnsIm[slot] = imaginary;
+    }
+
+    /**
+     * Binds a column of values to a variable by its name, variables not used by the equation are ignored
+     * @param variable Name of the variable
+     * @param real Real parts of the values
+     * @param imaginary Imaginary parts of the values, <b>null</b> for a real column
+     */
+    public void bind(String variable, double[] real, double[] imaginary) {
+        int slot = expression.getSlot(variable);
+        if(slot >= 0) bind(slot, real, imaginary);
+    }
+
+    /**
+     * Enables or disables the real fast path, see <b>Frame.setRealFastPath</b>.
+     * Chunks that leave the real numbers are evaluated again with complex arithmetic.
+     * @param enabled Whether the real fast path may be used
+     */
+    public void setRealFastPath(boolean enabled) {
+        this.realFastPath = enabled;
+    }
+
+    /**
+     * @return Number of rows of the bound columns, <b>-1</b> if the equation has no variable
+     */
+    public int rows() {
+        int rows = -1;
+        for(double[] column: columnsRe)
+            if(column != null) rows = rows < 0 ? column.length : Math.min(rows, column.length);
+        return rows;
+    }
+
+    /**
+     * Evaluates every row of the bound columns
+     * @param outReal Receives the real part of the result of each row
+     * @param outImaginary Receives the imaginary part of the result of each row, may be <b>null</b>
+     * @throws Exception If a variable is not bound or the equation divides by zero
+     */
+    public void evaluate(double[] outReal, double[] outImaginary) throws Exception {
+        int rows = rows();
+        evaluate(0, rows < 0 ? outReal.length : rows, outReal, outImaginary);
+    }
+
+    /**
+     * Evaluates the rows <b>from</b> (inclusive) to <b>to</b> (exclusive) of the bound columns
+     * and writes the results to the same rows of the output arrays
+     * @param from First row to be evaluated
+     * @param to Row after the last one to be evaluated
+     * @param outReal Receives the real part of the result of each row
+     * @param outImaginary Receives the imaginary part of the result of each row, may be <b>null</b>
+     * @throws Exception If a variable is not bound or the equation divides by zero
+     */
+    public void evaluate(int from, int to, double[] outReal, double[] outImaginary) throws Exception {
+        evaluate(from, to, outReal, outImaginary, checkColumns());
+    }
+
+    /**
+     * Evaluates every row of the bound columns on the common ForkJoinPool
+     * @param outReal Receives the real part of the result of each row
+     * @param outImaginary Receives the imaginary part of the result of each row, may be <b>null</b>
+     * @throws Exception If a variable is not bound or the equation divides by zero
+     */
+    public void evaluateParallel(double[] outReal, double[] outImaginary) throws Exception {
+        evaluateParallel(outReal, outImaginary, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates every row of the bound columns on a ForkJoinPool. The rows are split recursively
+     * into slices and every worker thread evaluates its slices with its own scratch buffers,
+     * so the bound columns are only ever read and each output row is written by a single task.
+     * @param outReal Receives the real part of the result of each row
+     * @param outImaginary Receives the imaginary part of the result of each row, may be <b>null</b>
+     * @param pool Pool running the slices
+     * @throws Exception If a variable is not bound or the equation divides by zero
+     */
+    public void evaluateParallel(double[] outReal, double[] outImaginary, ForkJoinPool pool) throws Exception {
+        boolean real = checkColumns();
+        int rows = rows() < 0 ? outReal.length : rows();
+        int threshold = Math.max(chunkSize * 8, rows / (pool.getParallelism() * 8) + 1);
+        pool.invoke(new Slice(new ConcurrentHashMap<>(), 0, rows, threshold, outReal, outImaginary, real));
+    }
+
+    /**
+     * Evaluates every row of the bound columns on a caller supplied executor
+     * @param outReal Receives the real part of the result of each row
+     * @param outImaginary Receives the imaginary part of the result of each row, may be <b>null</b>
+     * @param executor Executor running the slices
+     * @param parallelism Number of threads the executor is expected to run concurrently
+     * @throws Exception If a variable is not bound or the equation divides by zero
+     */
+    public void evaluateParallel(double[] outReal, double[] outImaginary, Executor executor, int parallelism) throws Exception {
+        boolean real = checkColumns();
+        int rows = rows() < 0 ? outReal.length : rows();
+        int slices = Math.max(1, Math.min(parallelism * 4, rows / chunkSize));
+        Map<Thread, BatchEvaluator> workers = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[slices];
+        for(int i = 0; i < slices; i++) {
+            int from = (int) ((long) rows * i / slices), to = (int) ((long) rows * (i + 1) / slices);
+            futures[i] = CompletableFuture.runAsync(
+                    () -> worker(workers).evaluate(from, to, outReal, outImaginary, real), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * @return Whether the real fast path can be used for the bound columns
+     * @throws Exception If a variable is not bound
+     */
+    private boolean checkColumns() throws Exception {
+        boolean real = realFastPath && program.isReal();
+        for(int slot = 0; slot < program.variables; slot++) {
+            if(columnsRe[slot] == null) throw new Exception("Symbol not found: " + expression.getVariables().get(slot));
+            if(columnsIm[slot] != null) real = false;
+        }
+        return real;
+    }
+
+    /**
+     * @return Scratch evaluator of the current thread, sharing the bound columns of this one
+     */
+    private BatchEvaluator worker(Map<Thread, BatchEvaluator> workers) {
+        return workers.computeIfAbsent(Thread.currentThread(), thread -> {
+            BatchEvaluator worker = new BatchEvaluator(expression, program, chunkSize);
+            System.arraycopy(columnsRe, 0, worker.columnsRe, 0, columnsRe.length);
+            System.arraycopy(columnsIm, 0, worker.columnsIm, 0, columnsIm.length);
+            return worker;
+        });
+    }
+
+    private void evaluate(int from, int to, double[] outReal, double[] outImaginary, boolean real) {
+        for(int start = from; start < to; start += chunkSize) {
+            int n = Math.min(chunkSize, to - start);
+            if(real && runReal(start, n)) {
+                System.arraycopy(re[program.result], 0, outReal, start, n);
+                if(outImaginary != null) Arrays.fill(outImaginary, start, start + n, 0.0);
+                continue;
+            }
+            for(int slot = 0; slot < program.variables; slot++) {
+                System.arraycopy(columnsRe[slot], start, re[slot], 0, n);
+                if(columnsIm[slot] != null) System.arraycopy(columnsIm[slot], start, im[slot], 0, n);
+                else Arrays.fill(im[slot], 0, n, 0.0);
+            }
+            BatchKernels.run(program, re, im, n);
+            System.arraycopy(re[program.result], 0, outReal, start, n);
+            if(outImaginary != null) System.arraycopy(im[program.result], 0, outImaginary, start, n);
+        }
+    }
+
+    private boolean runReal(int start, int n) {
+        for(int slot = 0; slot < program.variables; slot++)
+            System.arraycopy(columnsRe[slot], start, re[slot], 0, n);
+        return BatchKernels.runReal(program, re, n);
+    }
+
+    private final class Slice extends RecursiveAction {
+        private final Map<Thread, BatchEvaluator> workers;
+        private final int from, to, threshold;
+        private final double[] outReal, outImaginary;
+        private final boolean real;
+
+        Slice(Map<Thread, BatchEvaluator> workers, int from, int to, int threshold,
+                double[] outReal, double[] outImaginary, boolean real) {
+            this.workers = workers;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.outReal = outReal;
+            this.outImaginary = outImaginary;
+            this.real = real;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= threshold) {
+                worker(workers).evaluate(from, to, outReal, outImaginary, real);
+                return;
+            }
+            // split on a chunk boundary so that no chunk is cut in two
+            int middle = from + ((to - from) / 2 / chunkSize) * chunkSize;
+            invokeAll(new Slice(workers, from, middle, threshold, outReal, outImaginary, real),
+                    new Slice(workers, middle, to, threshold, outReal, outImaginary, real));
+        }
+    }
+}
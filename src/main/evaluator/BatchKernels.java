@@ -0,0 +1,230 @@
+package evaluator;
+
+/**
+ * Column-wise counterparts of the Kernels. Each kernel applies one operation to the first
+ * <b>n</b> elements of struct-of-arrays operands, keeping the loop bodies branch-free where
+ * possible so that the JIT can unroll and vectorize them.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class BatchKernels {
+    private BatchKernels() {}
+
+    /**
+     * Runs a program over a chunk of values
+     * @param program The program to be run
+     * @param re Real parts of every register, variable and constant registers already filled
+     * @param im Imaginary parts of every register, variable and constant registers already filled
+     * @param n Number of values in the chunk
+     */
+    static void run(Program program, double[][] re, double[][] im, int n) {
+        int target = program.base();
+        for(int i = 0; i < program.opcodes.length; i++, target++) {
+            int x = program.left[i], y = program.right[i];
+            double[] ar = re[x], ai = im[x], br = re[y], bi = im[y], tr = re[target], ti = im[target];
+            switch (program.opcodes[i]) {
+                case Program.NEGATE -> {
+                    for(int k = 0; k < n; k++) { tr[k] = ar[k] * -1.0; ti[k] = ai[k] * -1.0; }
+                }
+                case Program.ADD -> {
+                    for(int k = 0; k < n; k++) { tr[k] = ar[k] + br[k]; ti[k] = ai[k] + bi[k]; }
+                }
+                case Program.SUBTRACT -> {
+                    for(int k = 0; k < n; k++) { tr[k] = ar[k] - br[k]; ti[k] = ai[k] - bi[k]; }
+                }
+                case Program.MULTIPLY -> {
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k], c = br[k], d = bi[k];
+                        tr[k] = a * c - b * d;
+                        ti[k] = a * d + b * c;
+                    }
+                }
+                case Program.DIVIDE -> {
+                    checkDivisor(br, bi, n);
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k], c = br[k], d = bi[k];
+                        double denominator = c * c + d * d;
+                        tr[k] = (a * c + b * d) / denominator;
+                        ti[k] = (b * c - a * d) / denominator;
+                    }
+                }
+                case Program.POWER -> pow(ar, ai, br, bi, tr, ti, n);
+                case Program.POWER_INT -> {
+                    int exponent = (int) br[0];
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        // multiply in the powers of two of the base, lowest first as in Kernels.powInt
+                        boolean first = true;
+                        double real = 0, imaginary = 0;
+                        for(int e = exponent; e > 0; e >>= 1) {
+                            if((e & 1) != 0) {
+                                if(first) {
+                                    real = a;
+                                    imaginary = b;
+                                    first = false;
+                                } else {
+                                    double t = real * a - imaginary * b;
+                                    imaginary = real * b + imaginary * a;
+                                    real = t;
+                                }
+                            }
+                            if(e > 1) {
+                                double t = a * a - b * b;
+                                b = a * b + b * a;
+                                a = t;
+                            }
+                        }
+                        tr[k] = real;
+                        ti[k] = imaginary;
+                    }
+                }
+                case Program.SIN -> {
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        tr[k] = Math.sin(a) * Math.cosh(b);
+                        ti[k] = Math.cos(a) * Math.sinh(b);
+                    }
+                }
+                case Program.COS -> {
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        tr[k] = Math.cos(a) * Math.cosh(b);
+                        ti[k] = -Math.sin(a) * Math.sinh(b);
+                    }
+                }
+                case Program.TAN -> {
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        double sin = Math.sin(a), cos = Math.cos(a), sinh = Math.sinh(b), cosh = Math.cosh(b);
+                        double denominator = cos * cos + sinh * sinh;
+                        tr[k] = sin * cos / denominator;
+                        ti[k] = sinh * cosh / denominator;
+                    }
+                }
+                case Program.LOG -> {
+                    double base = Math.log10(10);
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        tr[k] = Math.log10(Math.sqrt(a * a + b * b));
+                        ti[k] = Math.atan2(b, a) / base;
+                    }
+                }
+                case Program.LN -> {
+                    double base = Math.log(Math.E);
+                    for(int k = 0; k < n; k++) {
+                        double a = ar[k], b = ai[k];
+                        tr[k] = Math.log(Math.sqrt(a * a + b * b)) / base;
+                        ti[k] = Math.atan2(b, a) / base;
+                    }
+                }
+                case Program.CALL -> call(program.functions[y].kernel, program.arguments[y], re, im, tr, ti, n);
+                default -> throw new IllegalStateException("Invalid opcode: " + program.opcodes[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs a real program over a chunk of real values
+     * @param program The program to be run, <b>isReal()</b> must hold
+     * @param re Values of every register, variable and constant registers already filled
+     * @param n Number of values in the chunk
+     * @return <b>false</b> if any value of the chunk leaves the real numbers, in which case
+     * the chunk must be run again with <b>run</b>
+     */
+    static boolean runReal(Program program, double[][] re, int n) {
+        int target = program.base();
+        for(int i = 0; i < program.opcodes.length; i++, target++) {
+            double[] a = re[program.left[i]], b = re[program.right[i]], t = re[target];
+            switch (program.opcodes[i]) {
+                case Program.NEGATE -> { for(int k = 0; k < n; k++) t[k] = a[k] * -1.0; }
+                case Program.ADD -> { for(int k = 0; k < n; k++) t[k] = a[k] + b[k]; }
+                case Program.SUBTRACT -> { for(int k = 0; k < n; k++) t[k] = a[k] - b[k]; }
+                case Program.MULTIPLY -> { for(int k = 0; k < n; k++) t[k] = a[k] * b[k]; }
+                case Program.DIVIDE -> {
+                    for(int k = 0; k < n; k++)
+                        if(b[k] == 0.0) throw new ArithmeticException("Division by zero");
+                    for(int k = 0; k < n; k++) t[k] = a[k] / b[k];
+                }
+                case Program.POWER -> {
+                    for(int k = 0; k < n; k++) {
+                        double x = a[k], y = b[k];
+                        if(y == 0.0) t[k] = 1.0;
+                        else if(Program.isNegative(x) && y != Math.rint(y)) return false;
+                        else t[k] = Math.pow(x, y);
+                    }
+                }
+                case Program.POWER_INT -> {
+                    int exponent = (int) b[0];
+                    if(exponent == 2) for(int k = 0; k < n; k++) t[k] = a[k] * a[k];
+                    else for(int k = 0; k < n; k++) t[k] = Kernels.powInt(a[k], exponent);
+                }
+                case Program.SIN -> { for(int k = 0; k < n; k++) t[k] = Math.sin(a[k]); }
+                case Program.COS -> { for(int k = 0; k < n; k++) t[k] = Math.cos(a[k]); }
+                case Program.TAN -> { for(int k = 0; k < n; k++) t[k] = Math.tan(a[k]); }
+                case Program.LOG -> {
+                    for(int k = 0; k < n; k++) if(Program.isNegative(a[k])) return false;
+                    for(int k = 0; k < n; k++) t[k] = Math.log10(a[k]);
+                }
+                case Program.LN -> {
+                    for(int k = 0; k < n; k++) if(Program.isNegative(a[k])) return false;
+                    for(int k = 0; k < n; k++) t[k] = Math.log(a[k]);
+                }
+                case Program.CALL -> {
+                    MathFunction.RealKernel kernel = program.functions[program.right[i]].realKernel;
+                    int[] registers = program.arguments[program.right[i]];
+                    double[] values = new double[registers.length];
+                    for(int k = 0; k < n; k++) {
+                        for(int j = 0; j < registers.length; j++) values[j] = re[registers[j]][k];
+                        if(Double.isNaN(t[k] = kernel.apply(values, 0, registers.length))) return false;
+                    }
+                }
+                default -> throw new IllegalStateException("Invalid opcode: " + program.opcodes[i]);
+            }
+        }
+        return true;
+    }
+
+    // the kernel of a function sees one lane at a time, with its arguments gathered side by side
+    private static void call(MathFunction.Kernel kernel, int[] registers, double[][] re, double[][] im,
+                             double[] tr, double[] ti, int n) {
+        int count = registers.length, target = 2 * count;
+        double[] values = new double[target + 2];
+        for(int k = 0; k < n; k++) {
+            for(int j = 0; j < count; j++) {
+                values[2 * j] = re[registers[j]][k];
+                values[2 * j + 1] = im[registers[j]][k];
+            }
+            kernel.apply(values, 0, count, target);
+            tr[k] = values[target];
+            ti[k] = values[target + 1];
+        }
+    }
+
+    private static void pow(double[] ar, double[] ai, double[] br, double[] bi, double[] tr, double[] ti, int n) {
+        double lnBase = Math.log(Math.E);
+        for(int k = 0; k < n; k++) {
+            double a = ar[k], b = ai[k], c = br[k], d = bi[k];
+            if(c == 0 && d == 0) {
+                tr[k] = 1;
+                ti[k] = 0;
+            } else if(d == 0) {
+                double modulus = Math.pow(Math.sqrt(a * a + b * b), c);
+                double argument = c * Math.atan2(b, a);
+                tr[k] = modulus * Math.cos(argument);
+                ti[k] = modulus * Math.sin(argument);
+            } else {
+                double p = Math.log(Math.sqrt(a * a + b * b)) / lnBase, q = Math.atan2(b, a) / lnBase;
+                double expReal = Math.exp(p * c - q * d), imaginary = p * d + q * c;
+                tr[k] = expReal * Math.cos(imaginary);
+                ti[k] = expReal * Math.sin(imaginary);
+            }
+        }
+    }
+
+    private static void checkDivisor(double[] re, double[] im, int n) {
+        for(int k = 0; k < n; k++)
+            if(re[k] == 0.0 && im[k] == 0.0) throw new ArithmeticException("Division by zero");
+    }
+}
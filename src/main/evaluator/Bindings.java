@@ -0,0 +1,123 @@
+package evaluator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import complex.Complex;
+
+/**
+ * Values of the variables of a CompiledExpression, stored by the slot indices resolved when the
+ * equation was compiled. Bindings are passed to the expression on every call, so one compiled
+ * expression can be shared by any number of threads, each with its own bindings.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class Bindings {
+    final String[] names;
+    final double[] values;
+    final boolean[] bound;
+
+    Bindings(String[] names) {
+        this.names = names;
+        this.values = new double[names.length * 2];
+        this.bound = new boolean[names.length];
+    }
+
+    /**
+     * @return Names of the variables in the order of their slot indices
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @param variable Name of the variable
+     * @return Slot index of the variable or <b>-1</b> if the equation does not reference it
+     */
+    public int getSlot(String variable) {
+        for(int i = 0; i < names.length; i++)
+            if(names[i].equals(variable)) return i;
+        return -1;
+    }
+
+    /**
+     * Setter for a variable by its slot index
+     * @param slot Slot index of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(int slot, double real, double imaginary) {
+        values[2 * slot] = real;
+        values[2 * slot + 1] = imaginary;
+        bound[slot] = true;
+    }
+
+    /**
+     * Setter for a variable by its name, variables not used by the equation are ignored
+     * @param variable Name of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        int slot = getSlot(variable);
+        if(slot >= 0) setVariable(slot, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable holding a real value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, double value) {
+        setVariable(variable, value, 0.0);
+    }
+
+    /**
+     * Setter for a variable holding a Complex value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        setVariable(variable, value.real(), value.imaginary());
+    }
+
+    /**
+     * Setter for every variable of the equation found in a Map Object
+     * @param variables Map Object of the variables
+     */
+    public void setVariables(Map<String, Complex> variables) {
+        for(int i = 0; i < names.length; i++) {
+            Complex value = variables.get(names[i]);
+            if(value != null) setVariable(i, value.real(), value.imaginary());
+        }
+    }
+
+    /**
+     * Getter to get individual variables
+     * @param variable Name of the variable
+     * @return Complex number representing the value of the variable, <b>null</b> if it is not set
+     */
+    public Complex getVariable(String variable) {
+        int slot = getSlot(variable);
+        if(slot < 0 || !bound[slot]) return null;
+        return new Complex(values[2 * slot], values[2 * slot + 1]);
+    }
+
+    /**
+     * Unsets every variable
+     */
+    public void clear() {
+        Arrays.fill(bound, false);
+    }
+
+    /**
+     * @param variables Names of the variables of an expression
+     * @return Whether these bindings were created for an expression with the same variables
+     */
+    boolean matches(String[] variables) {
+        return names == variables || Arrays.equals(names, variables);
+    }
+}
@@ -0,0 +1,98 @@
+package evaluator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view of a range of bytes as characters, one byte per character (ISO-8859-1),
+ * so that the Parser can read an equation straight out of an input buffer. The view can be
+ * moved to another range without allocating.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class ByteSequence implements CharSequence {
+    private ByteBuffer buffer;
+    private int start, length;
+
+    /**
+     * Points the view at a range of a buffer
+     * @param buffer Buffer holding the bytes
+     * @param from Index of the first byte
+     * @param to Index after the last byte
+     * @return This view
+     */
+    ByteSequence set(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.start = from;
+        this.length = to - from;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(start + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return text(start + from, start + to);
+    }
+
+    /**
+     * @param bytes Bytes to be compared
+     * @return Whether the view holds exactly these bytes
+     */
+    boolean contentEquals(byte[] bytes) {
+        return bytes != null && contentEquals(bytes, bytes.length);
+    }
+
+    /**
+     * @param bytes Array whose first bytes are compared
+     * @param count Number of bytes compared, the view never equals a negative count
+     * @return Whether the view holds exactly the first <b>count</b> bytes of the array
+     */
+    boolean contentEquals(byte[] bytes, int count) {
+        if(count != length) return false;
+        for(int i = 0; i < length; i++)
+            if(buffer.get(start + i) != bytes[i]) return false;
+        return true;
+    }
+
+    /**
+     * @return Copy of the bytes of the view
+     */
+    byte[] toBytes() {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+
+    /**
+     * Copies the bytes of the view to the front of an array, reusing it if it is long enough
+     * @param bytes Array to be reused
+     * @return The array holding the bytes, a new one if the given one was too short
+     */
+    byte[] copyTo(byte[] bytes) {
+        if(bytes.length < length) bytes = new byte[Math.max(length, 2 * bytes.length)];
+        buffer.get(start, bytes, 0, length);
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return text(start, start + length);
+    }
+
+    private String text(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,382 @@
+package evaluator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Backend turning a Program into a hidden class implementing CompiledFunction. Every register
+ * becomes a pair of double locals and every instruction is inlined as the same double arithmetic
+ * as its kernel, so both backends produce the same bits. Only the general complex power and the
+ * division by zero check call back into the Kernels, which keeps the generated method free of
+ * branches and therefore of stack map frames. Programs calling a function through its kernel,
+ * rather than a built-in instruction, are left to the interpreter.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class BytecodeGenerator {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final int MAX_LENGTH = 65535;
+    // HotSpot never JIT compiles a method longer than this, see -XX:-DontCompileHugeMethods
+    private static final int MAX_CODE_LENGTH = 8000;
+    private static final String MATH = "java/lang/Math", KERNELS = "evaluator/Kernels";
+
+    // locals 0 to 3 hold this, the variables, out and offset
+    private static final int FIRST_REGISTER = 4;
+
+    private static final int ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13, LDC2_W = 0x14,
+            ILOAD_3 = 0x1d, DLOAD = 0x18, ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, DALOAD = 0x31,
+            DSTORE = 0x39, DASTORE = 0x52, IADD = 0x60, DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f,
+            DNEG = 0x77, RETURN = 0xb1, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, WIDE = 0xc4;
+
+    private final Program program;
+    private final int scratch;
+    private final Map<String, Integer> pool = new HashMap<>();
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream(), codeBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constants = new DataOutputStream(poolBytes), code = new DataOutputStream(codeBytes);
+    private int poolCount = 1, stack, maxStack;
+
+    private BytecodeGenerator(Program program) {
+        this.program = program;
+        this.scratch = FIRST_REGISTER + 4 * program.registers();
+    }
+
+    /**
+     * Generates and loads the class of a program
+     * @param program The program to be compiled
+     * @return A new instance of the generated class or <b>null</b> if the program is too large
+     * for a method the JIT compiles or calls a function through its kernel, in which case it has
+     * to be interpreted
+     */
+    static CompiledFunction generate(Program program) {
+        try {
+            byte[] bytes = new BytecodeGenerator(program).generate();
+            if(bytes == null) return null;
+            MethodHandles.Lookup lookup = LOOKUP.defineHiddenClass(bytes, true);
+            return (CompiledFunction) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to load generated class", e);
+        }
+    }
+
+    private byte[] generate() throws IOException {
+        if(program.functions.length > 0) return null;
+        // 6 scratch doubles after the registers
+        int maxLocals = scratch + 12;
+        if(maxLocals > MAX_LENGTH) return null;
+
+        for(int slot = 0; slot < program.variables; slot++)
+            for(int part = 0; part < 2; part++) {
+                op(ALOAD_1, 1);
+                push(2 * slot + part);
+                op(DALOAD, 0);
+                store(local(slot, part));
+            }
+        int target = program.base();
+        for(int i = 0; i < program.opcodes.length; i++, target++) {
+            instruction(program.opcodes[i], program.left[i], program.right[i], target);
+            if(codeBytes.size() > MAX_CODE_LENGTH) return null;
+        }
+        for(int part = 0; part < 2; part++) {
+            op(ALOAD_2, 1);
+            op(ILOAD_3, 1);
+            if(part == 1) {
+                push(1);
+                op(IADD, -1);
+            }
+            load(program.result, part);
+            op(DASTORE, -4);
+        }
+        op(RETURN, 0);
+        if(codeBytes.size() > MAX_CODE_LENGTH || poolCount > MAX_LENGTH - 16) return null;
+
+        int thisClass = classRef("evaluator/GeneratedExpression"), superClass = classRef("java/lang/Object");
+        int function = classRef("evaluator/CompiledFunction");
+        int init = utf8("<init>"), initType = utf8("()V"), evaluate = utf8("evaluate"), evaluateType = utf8("([D[DI)V");
+        int codeName = utf8("Code"), superInit = methodRef("java/lang/Object", "<init>", "()V");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(61);
+        out.writeShort(poolCount);
+        poolBytes.writeTo(out);
+        out.writeShort(0x0030); // final, super
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(function);
+        out.writeShort(0);
+        out.writeShort(2);
+        method(out, init, initType, codeName, 1, 1, new byte[] {
+                (byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (superInit >> 8), (byte) superInit, (byte) RETURN });
+        method(out, evaluate, evaluateType, codeName, maxStack, maxLocals, codeBytes.toByteArray());
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    private static void method(DataOutputStream out, int name, int type, int codeName, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(type);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private void instruction(int opcode, int x, int y, int target) throws IOException {
+        int real = local(target, 0), imaginary = local(target, 1);
+        switch (opcode) {
+            case Program.NEGATE -> {
+                load(x, 0); constant(-1.0); op(DMUL, -2); store(real);
+                load(x, 1); constant(-1.0); op(DMUL, -2); store(imaginary);
+            }
+            case Program.ADD, Program.SUBTRACT -> {
+                int operation = opcode == Program.ADD ? DADD : DSUB;
+                load(x, 0); load(y, 0); op(operation, -2); store(real);
+                load(x, 1); load(y, 1); op(operation, -2); store(imaginary);
+            }
+            case Program.MULTIPLY -> {
+                load(x, 0); load(y, 0); op(DMUL, -2); load(x, 1); load(y, 1); op(DMUL, -2); op(DSUB, -2); store(real);
+                load(x, 0); load(y, 1); op(DMUL, -2); load(x, 1); load(y, 0); op(DMUL, -2); op(DADD, -2); store(imaginary);
+            }
+            case Program.DIVIDE -> {
+                load(y, 0); load(y, 1); call(KERNELS, "checkDivisor", "(DD)V", -4);
+                int denominator = scratch;
+                load(y, 0); load(y, 0); op(DMUL, -2); load(y, 1); load(y, 1); op(DMUL, -2); op(DADD, -2); store(denominator);
+                load(x, 0); load(y, 0); op(DMUL, -2); load(x, 1); load(y, 1); op(DMUL, -2); op(DADD, -2);
+                dload(denominator); op(DDIV, -2); store(real);
+                load(x, 1); load(y, 0); op(DMUL, -2); load(x, 0); load(y, 1); op(DMUL, -2); op(DSUB, -2);
+                dload(denominator); op(DDIV, -2); store(imaginary);
+            }
+            case Program.POWER -> {
+                // the kernel leaves the result in out, where it is picked up again
+                load(x, 0); load(x, 1); load(y, 0); load(y, 1); op(ALOAD_2, 1); op(ILOAD_3, 1);
+                call(KERNELS, "pow", "(DDDD[DI)V", -10);
+                op(ALOAD_2, 1); op(ILOAD_3, 1); op(DALOAD, 0); store(real);
+                op(ALOAD_2, 1); op(ILOAD_3, 1); push(1); op(IADD, -1); op(DALOAD, 0); store(imaginary);
+            }
+            case Program.POWER_INT -> integerPower(x, (int) program.constants[2 * (y - program.variables)], real, imaginary);
+            case Program.SIN -> {
+                load(x, 0); math("sin"); load(x, 1); math("cosh"); op(DMUL, -2); store(real);
+                load(x, 0); math("cos"); load(x, 1); math("sinh"); op(DMUL, -2); store(imaginary);
+            }
+            case Program.COS -> {
+                load(x, 0); math("cos"); load(x, 1); math("cosh"); op(DMUL, -2); store(real);
+                load(x, 0); math("sin"); op(DNEG, 0); load(x, 1); math("sinh"); op(DMUL, -2); store(imaginary);
+            }
+            case Program.TAN -> {
+                int sin = scratch, cos = scratch + 2, sinh = scratch + 4, cosh = scratch + 6, denominator = scratch + 8;
+                load(x, 0); math("sin"); store(sin);
+                load(x, 0); math("cos"); store(cos);
+                load(x, 1); math("sinh"); store(sinh);
+                load(x, 1); math("cosh"); store(cosh);
+                dload(cos); dload(cos); op(DMUL, -2); dload(sinh); dload(sinh); op(DMUL, -2); op(DADD, -2); store(denominator);
+                dload(sin); dload(cos); op(DMUL, -2); dload(denominator); op(DDIV, -2); store(real);
+                dload(sinh); dload(cosh); op(DMUL, -2); dload(denominator); op(DDIV, -2); store(imaginary);
+            }
+            case Program.LOG -> {
+                modulus(x); math("sqrt"); math("log10"); store(real);
+                load(x, 1); load(x, 0); call(MATH, "atan2", "(DD)D", -2); constant(Math.log10(10)); op(DDIV, -2); store(imaginary);
+            }
+            case Program.LN -> {
+                double lnBase = Math.log(Math.E);
+                modulus(x); math("sqrt"); math("log"); constant(lnBase); op(DDIV, -2); store(real);
+                load(x, 1); load(x, 0); call(MATH, "atan2", "(DD)D", -2); constant(lnBase); op(DDIV, -2); store(imaginary);
+            }
+            default -> throw new IllegalStateException("Invalid opcode: " + opcode);
+        }
+    }
+
+    /**
+     * Unrolls the repeated squaring of <b>Kernels.powInt</b> for a known exponent
+     */
+    private void integerPower(int x, int exponent, int real, int imaginary) throws IOException {
+        int a = scratch, b = scratch + 2, resultReal = scratch + 4, resultImaginary = scratch + 6, t = scratch + 8;
+        load(x, 0); store(a);
+        load(x, 1); store(b);
+        boolean first = true;
+        for(int e = exponent; e > 0; e >>= 1) {
+            if((e & 1) != 0) {
+                if(first) {
+                    dload(a); store(resultReal);
+                    dload(b); store(resultImaginary);
+                    first = false;
+                } else {
+                    dload(resultReal); dload(a); op(DMUL, -2); dload(resultImaginary); dload(b); op(DMUL, -2); op(DSUB, -2); store(t);
+                    dload(resultReal); dload(b); op(DMUL, -2); dload(resultImaginary); dload(a); op(DMUL, -2); op(DADD, -2);
+                    store(resultImaginary);
+                    dload(t); store(resultReal);
+                }
+            }
+            if(e > 1) {
+                dload(a); dload(a); op(DMUL, -2); dload(b); dload(b); op(DMUL, -2); op(DSUB, -2); store(t);
+                dload(a); dload(b); op(DMUL, -2); dload(b); dload(a); op(DMUL, -2); op(DADD, -2); store(b);
+                dload(t); store(a);
+            }
+        }
+        dload(resultReal); store(real);
+        dload(resultImaginary); store(imaginary);
+    }
+
+    // a * a + b * b of a register
+    private void modulus(int x) throws IOException {
+        load(x, 0); load(x, 0); op(DMUL, -2); load(x, 1); load(x, 1); op(DMUL, -2); op(DADD, -2);
+    }
+
+    private int local(int register, int part) {
+        return FIRST_REGISTER + 4 * register + 2 * part;
+    }
+
+    /**
+     * Pushes the real (<b>part = 0</b>) or imaginary (<b>part = 1</b>) part of a register
+     */
+    private void load(int register, int part) throws IOException {
+        int constant = register - program.variables;
+        if(constant >= 0 && register < program.base()) constant(program.constants[2 * constant + part]);
+        else dload(local(register, part));
+    }
+
+    private void dload(int local) throws IOException {
+        variable(DLOAD, local);
+        grow(2);
+    }
+
+    private void store(int local) throws IOException {
+        variable(DSTORE, local);
+        grow(-2);
+    }
+
+    private void variable(int opcode, int local) throws IOException {
+        if(local <= 0xff) {
+            code.writeByte(opcode);
+            code.writeByte(local);
+        } else {
+            code.writeByte(WIDE);
+            code.writeByte(opcode);
+            code.writeShort(local);
+        }
+    }
+
+    private void constant(double value) throws IOException {
+        code.writeByte(LDC2_W);
+        code.writeShort(doubleConstant(value));
+        grow(2);
+    }
+
+    private void push(int value) throws IOException {
+        if(value <= 5) code.writeByte(ICONST_0 + value);
+        else if(value <= Byte.MAX_VALUE) {
+            code.writeByte(BIPUSH);
+            code.writeByte(value);
+        } else if(value <= Short.MAX_VALUE) {
+            code.writeByte(SIPUSH);
+            code.writeShort(value);
+        } else {
+            code.writeByte(LDC_W);
+            code.writeShort(intConstant(value));
+        }
+        grow(1);
+    }
+
+    private void math(String name) throws IOException {
+        call(MATH, name, "(D)D", 0);
+    }
+
+    private void call(String owner, String name, String descriptor, int delta) throws IOException {
+        code.writeByte(INVOKESTATIC);
+        code.writeShort(methodRef(owner, name, descriptor));
+        grow(delta);
+    }
+
+    private void op(int opcode, int delta) throws IOException {
+        code.writeByte(opcode);
+        grow(delta);
+    }
+
+    private void grow(int delta) {
+        stack += delta;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private int utf8(String value) throws IOException {
+        Integer index = pool.get("U" + value);
+        if(index != null) return index;
+        constants.writeByte(1);
+        constants.writeUTF(value);
+        return add("U" + value, 1);
+    }
+
+    private int classRef(String name) throws IOException {
+        Integer index = pool.get("C" + name);
+        if(index != null) return index;
+        int utf8 = utf8(name);
+        constants.writeByte(7);
+        constants.writeShort(utf8);
+        return add("C" + name, 1);
+    }
+
+    private int methodRef(String owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + "." + name + descriptor;
+        Integer index = pool.get(key);
+        if(index != null) return index;
+        int ownerIndex = classRef(owner), nameAndType = nameAndType(name, descriptor);
+        constants.writeByte(10);
+        constants.writeShort(ownerIndex);
+        constants.writeShort(nameAndType);
+        return add(key, 1);
+    }
+
+    private int nameAndType(String name, String descriptor) throws IOException {
+        Integer index = pool.get("N" + name + descriptor);
+        if(index != null) return index;
+        int nameIndex = utf8(name), descriptorIndex = utf8(descriptor);
+        constants.writeByte(12);
+        constants.writeShort(nameIndex);
+        constants.writeShort(descriptorIndex);
+        return add("N" + name + descriptor, 1);
+    }
+
+    private int doubleConstant(double value) throws IOException {
+        String key = "D" + Double.doubleToRawLongBits(value);
+        Integer index = pool.get(key);
+        if(index != null) return index;
+        constants.writeByte(6);
+        constants.writeLong(Double.doubleToRawLongBits(value));
+        // a double takes up 2 entries of the constant pool
+        return add(key, 2);
+    }
+
+    private int intConstant(int value) throws IOException {
+        Integer index = pool.get("I" + value);
+        if(index != null) return index;
+        constants.writeByte(3);
+        constants.writeInt(value);
+        return add("I" + value, 1);
+    }
+
+    private int add(String key, int size) {
+        int index = poolCount;
+        poolCount += size;
+        pool.put(key, index);
+        return index;
+    }
+}
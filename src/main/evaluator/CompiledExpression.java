@@ -0,0 +1,437 @@
+package evaluator;
+
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Arrays;
+import complex.BigComplex;
+import complex.Complex;
+import complex.ComplexInterval;
+
+/**
+ * Immutable, thread-safe form of an equation that is parsed once and can be evaluated
+ * any number of times against different values of its variables
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class CompiledExpression {
+    private final String equation;
+    private final String[] variables;
+    private final Node root;
+    private final Program program;
+    private final CompiledFunction function;
+    // the tree as parsed, whose constants are not folded in double precision
+    private final Node source;
+    // the program of the unfolded tree, lowered on first use
+    private volatile Program unfolded;
+    private volatile Exact exact;
+    private volatile ComplexInterval[] intervals;
+
+    // the registers of the unfolded program with its constants loaded at the last precision used
+    private record Exact(MathContext mathContext, BigComplex[] registers) {}
+
+    private CompiledExpression(String equation, Node root, String[] variables, boolean optimize) {
+        this.variables = variables;
+        this.source = root;
+        this.root = optimize ? Optimizer.optimize(root) : root;
+        // derived expressions have no text of their own and are printed from their tree
+        this.equation = equation == null ? NodePrinter.print(this.root) : equation;
+        this.program = Program.lower(this.root, variables.length, optimize);
+        this.function = null;
+    }
+
+    private CompiledExpression(CompiledExpression expression, CompiledFunction function) {
+        this.equation = expression.equation;
+        this.variables = expression.variables;
+        this.root = expression.root;
+        this.program = expression.program;
+        this.function = function;
+        this.source = expression.source;
+        this.unfolded = expression.unfolded;
+        this.exact = expression.exact;
+        this.intervals = expression.intervals;
+    }
+
+    /**
+     * Parses an equation into its compiled form. Constant subtrees are folded and identities
+     * removed before the equation is lowered, see <b>getOptimizedForm</b>, and repeated
+     * subexpressions such as the two <b>tan(x)</b> of <b>sin(x+tan(x))-tan(x)</b> are evaluated once.
+     * @param equation String representation of the equation
+     * @return Compiled form of the equation
+     * @throws Exception If the equation is malformed
+     */
+    public static CompiledExpression compile(String equation) throws Exception {
+        return compile(equation, true);
+    }
+
+    /**
+     * Parses an equation into its compiled form
+     * @param equation String representation of the equation
+     * @param optimize Whether constant folding, simplification and common subexpression elimination
+     * are applied, without them every operation of the equation is evaluated as written
+     * @return Compiled form of the equation
+     * @throws Exception If the equation is malformed
+     */
+    public static CompiledExpression compile(String equation, boolean optimize) throws Exception {
+        Parser parser = new Parser(equation);
+        Node root = parser.parse();
+        return new CompiledExpression(equation, root, parser.variables(), optimize);
+    }
+
+    /**
+     * Parses an equation calling the functions of a registry into its compiled form. Each call is
+     * resolved to its function here, evaluating the equation never looks a function up by name.
+     * @param equation String representation of the equation
+     * @param functions Functions the equation may call
+     * @return Compiled form of the equation
+     * @throws Exception If the equation is malformed or calls a function the registry does not hold
+     */
+    public static CompiledExpression compile(String equation, FunctionRegistry functions) throws Exception {
+        Parser parser = new Parser(equation, functions);
+        Node root = parser.parse();
+        return new CompiledExpression(equation, root, parser.variables(), true);
+    }
+
+    /**
+     * @return The equation this expression was compiled from
+     */
+    public String getEquation() {
+        return equation;
+    }
+
+    /**
+     * Selects the backend running this equation. The backends agree to the last bit on complex
+     * arithmetic, the interpreter may use the real fast path where the generated class does not.
+     * Equations too large for a generated method the JIT would compile, and equations calling a
+     * function other than <b>sin</b>, <b>cos</b>, <b>tan</b>, <b>log</b> and <b>ln</b>, stay with the interpreter.
+     * @param backend The backend to be used
+     * @return An expression of the same equation run by the given backend, this one if it already is
+     */
+    public CompiledExpression withBackend(Backend backend) {
+        if(backend == getBackend()) return this;
+        if(backend == Backend.INTERPRETER) return new CompiledExpression(this, null);
+        CompiledFunction generated = BytecodeGenerator.generate(program);
+        return generated == null ? this : new CompiledExpression(this, generated);
+    }
+
+    /**
+     * @return The backend running this equation
+     */
+    public Backend getBackend() {
+        return function == null ? Backend.INTERPRETER : Backend.BYTECODE;
+    }
+
+    /**
+     * Getter for the generated class of the <b>BYTECODE</b> backend, which takes the values of the
+     * variables as a plain array and skips the checks of Bindings and Frame in the hottest loops
+     * @return The generated function or <b>null</b> for the interpreter
+     */
+    public CompiledFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @return The equation as it is evaluated after constant folding and simplification,
+     * for example <b>2*pi*x^2</b> becomes <b>6.283185307179586*x^2</b>
+     */
+    public String getOptimizedForm() {
+        return NodePrinter.print(root);
+    }
+
+    /**
+     * @return Number of instructions run per evaluation, a subexpression shared by several parts of the
+     * equation counting once
+     */
+    public int getInstructionCount() {
+        return program.opcodes.length;
+    }
+
+    /**
+     * @return Names of the variables referenced by the equation, in order of appearance
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    /**
+     * Evaluates an equation that does not reference any variable
+     * @return Resultant Complex number
+     * @throws Exception If the equation references a variable or divides by zero
+     */
+    public Complex evaluate() throws Exception {
+        return evaluate(Map.of());
+    }
+
+    /**
+     * Evaluates the equation against the given values of its variables
+     * @param values Map Object representing variables to be used while evaluating
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(Map<String, Complex> values) throws Exception {
+        Bindings bindings = bindings();
+        if(values != null) bindings.setVariables(values);
+        return evaluate(bindings);
+    }
+
+    /**
+     * Evaluates the equation against per-call bindings. Nothing is shared between calls,
+     * so any number of threads can evaluate the same expression concurrently.
+     * @param bindings Values of the variables, created by <b>bindings()</b>
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(Bindings bindings) throws Exception {
+        return new Frame(bindings, program, function).evaluate();
+    }
+
+    /**
+     * Evaluates every operation of the equation as parsed, in complex arithmetic, without the folding,
+     * simplifications and real fast path that can change the last bits of the result. This is the
+     * arithmetic of <b>ExpressionEvaluator.complexEvaluator</b>, whose results it matches to the last bit.
+     * @param values Map Object representing variables to be used while evaluating
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    Complex evaluateAsWritten(Map<String, Complex> values) throws Exception {
+        Bindings bindings = bindings();
+        if(values != null) bindings.setVariables(values);
+        Frame frame = new Frame(bindings, unfolded(), null);
+        frame.setRealFastPath(false);
+        return frame.evaluate();
+    }
+
+    /**
+     * Evaluates the equation at arbitrary precision. The equation is run as parsed rather than in its
+     * optimized form, so that constants such as <b>0.1</b> or <b>2*pi</b> are not first folded in
+     * double precision, and <b>pi</b> and <b>e</b> take their value at the precision. The program and
+     * its constants are built once for the last MathContext used, so repeated evaluations at one
+     * precision only compute the instructions.
+     * @param values Values of the variables
+     * @param mathContext Precision every operation is rounded to, <b>MathContext.UNLIMITED</b> for exact
+     * arithmetic in equations that only add, subtract and multiply
+     * @return Resultant BigComplex number, rounded to the precision
+     * @throws Exception If a variable is missing
+     * @throws ArithmeticException If the equation divides by zero, takes the logarithm of zero or calls a
+     * function without an arbitrary-precision implementation, see <b>MathFunction.withBigKernel</b>
+     */
+    public BigComplex evaluate(Map<String, BigComplex> values, MathContext mathContext) throws Exception {
+        Program program = unfolded();
+        BigComplex[] r = exact(program, mathContext).registers.clone();
+        for(int slot = 0; slot < variables.length; slot++) {
+            BigComplex value = values == null ? null : values.get(variables[slot]);
+            if(value == null) throw new Exception("Symbol not found: " + variables[slot]);
+            r[slot] = value;
+        }
+        program.runBig(r, mathContext);
+        return r[program.result].round(mathContext);
+    }
+
+    private Program unfolded() {
+        Program program = unfolded;
+        if(program == null) unfolded = program = source == root ? this.program : Program.lower(source, variables.length);
+        return program;
+    }
+
+    private Exact exact(Program program, MathContext mathContext) {
+        Exact exact = this.exact;
+        if(exact != null && exact.mathContext.equals(mathContext)) return exact;
+        BigComplex[] registers = new BigComplex[program.registers()];
+        program.loadBig(registers, mathContext);
+        return this.exact = new Exact(mathContext, registers);
+    }
+
+    /**
+     * Evaluates the equation in interval arithmetic. Like evaluation at arbitrary precision the equation
+     * is run as parsed, and the result encloses the exact value of the equation as written, with
+     * <b>0.1</b> meaning one tenth and <b>pi</b> the true constant, for any values of the variables within
+     * their rectangles. The enclosure costs a few times a double evaluation, and its width bounds the
+     * rounding error of the result, see <b>evaluateCertified</b>.
+     * @param values Rectangles enclosing the values of the variables
+     * @return Rectangle enclosing the result, <b>ComplexInterval.ENTIRE</b> if no bounded one is found, such
+     * as for a division by a rectangle containing zero or a call of a function without an interval
+     * implementation, see <b>MathFunction.withIntervalKernel</b>
+     * @throws Exception If a variable is missing
+     * @throws ArithmeticException If the equation divides by exactly zero
+     */
+    public ComplexInterval enclose(Map<String, ComplexInterval> values) throws Exception {
+        Program program = unfolded();
+        ComplexInterval[] r = intervals;
+        if(r == null) {
+            r = new ComplexInterval[program.registers()];
+            program.loadInterval(r);
+            intervals = r;
+        }
+        r = r.clone();
+        for(int slot = 0; slot < variables.length; slot++) {
+            ComplexInterval value = values == null ? null : values.get(variables[slot]);
+            if(value == null) throw new Exception("Symbol not found: " + variables[slot]);
+            r[slot] = value;
+        }
+        program.runInterval(r);
+        return r[program.result];
+    }
+
+    /**
+     * Evaluates the equation with a guaranteed error bound. The result is enclosed in interval arithmetic,
+     * and when the enclosure is narrow enough its midpoint is returned, which is within the tolerance of
+     * the exact value; only when it is too wide, because of cancellation or a function the intervals
+     * cannot follow, is the equation evaluated again at the fallback precision.
+     * @param values Values of the variables
+     * @param tolerance Largest error accepted, relative to the magnitude of the result or absolute below one
+     * @param fallback Precision of the evaluation of the rare results whose enclosure is too wide
+     * @return Resultant Complex number, within the tolerance of the exact value unless the fallback is too
+     * coarse for it
+     * @throws Exception If a variable is missing
+     * @throws ArithmeticException If the equation divides by zero, or the fallback cannot evaluate it
+     */
+    public Complex evaluateCertified(Map<String, Complex> values, double tolerance, MathContext fallback) throws Exception {
+        if(!(tolerance > 0)) throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+        Map<String, ComplexInterval> intervals = new HashMap<>();
+        if(values != null) values.forEach((name, value) -> intervals.put(name, ComplexInterval.of(value)));
+        ComplexInterval enclosure = enclose(intervals);
+        Complex midpoint = enclosure.midpoint();
+        if(enclosure.width() <= tolerance * Math.max(1.0, midpoint.mod())) return midpoint;
+        Map<String, BigComplex> exact = new HashMap<>();
+        if(values != null) values.forEach((name, value) -> exact.put(name, BigComplex.valueOf(value)));
+        return evaluate(exact, fallback).toComplex();
+    }
+
+    /**
+     * Evaluates the equation against per-call bindings, reporting every instruction to a listener,
+     * see <b>Frame.setListener</b>
+     * @param bindings Values of the variables, created by <b>bindings()</b>
+     * @param listener Listener receiving every instruction
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(Bindings bindings, EvaluationListener listener) throws Exception {
+        Frame frame = new Frame(bindings, program, function);
+        frame.setListener(listener);
+        return frame.evaluate();
+    }
+
+    /**
+     * Evaluates the equation against per-call bindings with the arithmetic of <b>evaluate(Bindings)</b>,
+     * reporting every instruction to a profiler, see <b>Frame.profile</b>
+     */
+    Complex profile(Bindings bindings, EvaluationListener listener) throws Exception {
+        return new Frame(bindings, program, function).profile(bindings, listener);
+    }
+
+    /**
+     * Creates empty bindings whose slots match the variables of this equation
+     * @return New Bindings, to be filled by the caller
+     */
+    public Bindings bindings() {
+        return new Bindings(variables);
+    }
+
+    /**
+     * Creates a register file for evaluating this equation repeatedly without allocating
+     * @return A new Frame, to be used by a single thread at a time
+     */
+    public Frame newFrame() {
+        return new Frame(bindings(), program, function);
+    }
+
+    /**
+     * Differentiates the equation symbolically, for example the derivative of <b>x^3+2*x</b> with
+     * respect to <b>x</b> is <b>3*x^2+2</b>. The derivative keeps the variables of this equation in
+     * the same slots, so the same Bindings evaluate both, and can be differentiated again.
+     * @param variable Name of the variable
+     * @return Compiled derivative, <b>0</b> if the equation does not reference the variable
+     * @throws ArithmeticException If the equation calls a function without a derivative, such as <b>abs</b>,
+     * on an argument depending on the variable
+     */
+    public CompiledExpression derivative(String variable) {
+        return new CompiledExpression(null, Differentiator.derive(root, getSlot(variable)), variables, true);
+    }
+
+    /**
+     * @return Compiled derivatives with respect to every variable, in the order of their slot indices,
+     * see <b>derivative</b>
+     */
+    public List<CompiledExpression> gradient() {
+        List<CompiledExpression> gradient = new ArrayList<>(variables.length);
+        for(int slot = 0; slot < variables.length; slot++)
+            gradient.add(new CompiledExpression(null, Differentiator.derive(root, slot), variables, true));
+        return Collections.unmodifiableList(gradient);
+    }
+
+    /**
+     * Creates a register file evaluating the equation together with its derivatives with respect to
+     * every variable in a single pass
+     * @return A new GradientFrame, to be used by a single thread at a time
+     */
+    public GradientFrame newGradientFrame() {
+        return new GradientFrame(variables, program);
+    }
+
+    /**
+     * Creates a register file that keeps the value of every subexpression and only recomputes the
+     * ones depending on the variables changed since the previous evaluation
+     * @return A new IncrementalFrame, to be used by a single thread at a time
+     */
+    public IncrementalFrame newIncrementalFrame() {
+        return new IncrementalFrame(variables, program);
+    }
+
+    /**
+     * Creates an evaluator for columns of variable values
+     * @return A new BatchEvaluator processing <b>BatchEvaluator.DEFAULT_CHUNK_SIZE</b> rows at a time
+     */
+    public BatchEvaluator newBatch() {
+        return newBatch(BatchEvaluator.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an evaluator for columns of variable values
+     * @param chunkSize Number of rows processed by each instruction at a time
+     * @return A new BatchEvaluator, to be used by a single thread at a time
+     */
+    public BatchEvaluator newBatch(int chunkSize) {
+        return new BatchEvaluator(this, program, chunkSize);
+    }
+
+    /**
+     * Creates an evaluator sampling the equation over grids of the complex plane
+     * @param variable Variable taking the value of each point of the grid, such as <b>z</b>
+     * @return A new GridEvaluator processing <b>BatchEvaluator.DEFAULT_CHUNK_SIZE</b> points at a time
+     * @throws IllegalArgumentException If the equation does not reference the variable
+     */
+    public GridEvaluator newGrid(String variable) {
+        return newGrid(variable, BatchEvaluator.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an evaluator sampling the equation over grids of the complex plane
+     * @param variable Variable taking the value of each point of the grid, such as <b>z</b>
+     * @param chunkSize Number of points processed by each instruction at a time
+     * @return A new GridEvaluator
+     * @throws IllegalArgumentException If the equation does not reference the variable or the chunk size is not positive
+     */
+    public GridEvaluator newGrid(String variable, int chunkSize) {
+        return new GridEvaluator(this, program, variable, chunkSize);
+    }
+
+    /**
+     * @param variable Name of the variable
+     * @return Slot index of the variable or <b>-1</b> if the equation does not reference it
+     */
+    public int getSlot(String variable) {
+        for(int i = 0; i < variables.length; i++)
+            if(variables[i].equals(variable)) return i;
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return equation;
+    }
+}
@@ -0,0 +1,34 @@
+package evaluator;
+
+/**
+ * Equation compiled into a class of its own by the <b>BYTECODE</b> backend, see
+ * <b>CompiledExpression.withBackend</b>. Implementations keep no state and can be called
+ * from any number of threads at once.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+@FunctionalInterface
+public interface CompiledFunction {
+    /**
+     * Evaluates the equation
+     * @param variables Value of every variable, slot <b>n</b> keeping its real part at index <b>2n</b>
+     * and its imaginary part at index <b>2n+1</b>
+     * @param out Receives the real part of the result at <b>out[offset]</b> and the imaginary part at <b>out[offset + 1]</b>
+     * @param offset Index of the real part of the result in <b>out</b>
+     * @throws ArithmeticException If the equation divides by zero
+     */
+    void evaluate(double[] variables, double[] out, int offset);
+
+    /**
+     * Evaluates the equation and writes the result to <b>out[0]</b> and <b>out[1]</b>
+     * @param variables Value of every variable, slot <b>n</b> keeping its real part at index <b>2n</b>
+     * and its imaginary part at index <b>2n+1</b>
+     * @param out Array receiving the result
+     * @throws ArithmeticException If the equation divides by zero
+     */
+    default void evaluate(double[] variables, double[] out) {
+        evaluate(variables, out, 0);
+    }
+}
@@ -0,0 +1,141 @@
+package evaluator;
+
+import java.util.List;
+import complex.Complex;
+
+/**
+ * Symbolic differentiation of a syntax tree with respect to one variable, by the sum, product,
+ * quotient, power and chain rules. Terms known to be <b>0</b> or <b>1</b> are dropped while the
+ * derivative is built, constants are left for the Optimizer to fold, and the subexpressions it shares
+ * with the equation, such as <b>cos(x)</b> in the derivative of <b>tan(x)</b>, are lowered once.
+ * Other functions are differentiated by their own derivative, see <b>MathFunction.withDerivative</b>.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class Differentiator {
+    private static final Node ZERO = new Node.Constant(0.0, 0.0), ONE = new Node.Constant(1.0, 0.0);
+    // log is differentiated as the logarithm in base 10, which it is for positive real arguments
+    private static final Node LN_10 = new Node.Constant(Math.log(10), 0.0);
+
+    private Differentiator() {}
+
+    /**
+     * @param node Root of the syntax tree
+     * @param slot Slot index of the variable, a slot the equation does not reference gives <b>0</b>
+     * @return Root of the syntax tree of the derivative, to be simplified by the Optimizer
+     */
+    static Node derive(Node node, int slot) {
+        return switch (node) {
+            case Node.Constant constant -> ZERO;
+            case Node.Variable variable -> variable.slot() == slot ? ONE : ZERO;
+            case Node.Negate negate -> negate(derive(negate.operand(), slot));
+            case Node.Call call -> chain(call, slot);
+            case Node.IntegerPower power -> multiply(multiply(new Node.Constant(power.exponent(), 0.0),
+                    power(power.base(), power.exponent() - 1)), derive(power.base(), slot));
+            case Node.Binary binary -> {
+                // along the left spine, as the Optimizer does, so that long sums do not overflow the stack
+                List<Node.Binary> spine = Optimizer.spine(binary);
+                Node left = spine.getLast().left(), dLeft = derive(left, slot);
+                for(int i = spine.size() - 1; i >= 0; i--) {
+                    Node.Binary b = spine.get(i);
+                    dLeft = binary(b.operator(), left, dLeft, b.right(), derive(b.right(), slot));
+                    left = b;
+                }
+                yield dLeft;
+            }
+        };
+    }
+
+    private static Node binary(char operator, Node left, Node dLeft, Node right, Node dRight) {
+        return switch (operator) {
+            case '+' -> add(dLeft, dRight);
+            case '-' -> subtract(dLeft, dRight);
+            case '*' -> add(multiply(dLeft, right), multiply(left, dRight));
+            case '/' -> isZero(dRight) ? divide(dLeft, right)
+                    : divide(subtract(multiply(dLeft, right), multiply(left, dRight)), power(right, 2));
+            // a constant exponent keeps the derivative defined at a base of 0
+            case '^' -> isZero(dRight)
+                    ? multiply(multiply(right, new Node.Binary('^', left, subtract(right, ONE))), dLeft)
+                    : multiply(new Node.Binary('^', left, right),
+                            add(multiply(dRight, new Node.Call(MathFunction.LN, List.of(left))), divide(multiply(right, dLeft), left)));
+            default -> throw new ArithmeticException("Invalid operator: " + operator);
+        };
+    }
+
+    private static Node chain(Node.Call call, int slot) {
+        MathFunction function = call.function();
+        List<Node> arguments = call.arguments();
+        if(arguments.size() != 1) {
+            // a function of several arguments, such as max, is only differentiable where all of them are constant
+            for(Node argument: arguments)
+                if(!isZero(derive(argument, slot))) throw new ArithmeticException("Function not differentiable: " + function);
+            return ZERO;
+        }
+        Node argument = arguments.getFirst(), dArgument = derive(argument, slot);
+        if(isZero(dArgument)) return ZERO;
+        return switch (function.opcode) {
+            case Program.SIN -> multiply(new Node.Call(MathFunction.COS, arguments), dArgument);
+            case Program.COS -> negate(multiply(new Node.Call(MathFunction.SIN, arguments), dArgument));
+            case Program.TAN -> divide(dArgument, power(new Node.Call(MathFunction.COS, arguments), 2));
+            case Program.LN -> divide(dArgument, argument);
+            case Program.LOG -> divide(dArgument, multiply(argument, LN_10));
+            default -> {
+                Node derivative = function.derivative(argument);
+                if(derivative == null) throw new ArithmeticException("Function not differentiable: " + function);
+                yield multiply(derivative, dArgument);
+            }
+        };
+    }
+
+    private static Node add(Node x, Node y) {
+        if(isZero(x)) return y;
+        if(isZero(y)) return x;
+        return new Node.Binary('+', x, y);
+    }
+
+    private static Node subtract(Node x, Node y) {
+        if(isZero(y)) return x;
+        if(isZero(x)) return negate(y);
+        return new Node.Binary('-', x, y);
+    }
+
+    private static Node multiply(Node x, Node y) {
+        if(isZero(x) || isZero(y)) return ZERO;
+        if(isOne(x)) return y;
+        if(isOne(y)) return x;
+        // constants are pulled together, so that the second derivative of x^3 is 6*x rather than 3*(2*x)
+        if(x instanceof Node.Constant a && y instanceof Node.Binary b && b.operator() == '*'
+                && b.left() instanceof Node.Constant c) {
+            Complex product = new Complex(a.real(), a.imaginary()).multiply(new Complex(c.real(), c.imaginary()));
+            return multiply(new Node.Constant(product.real(), product.imaginary()), b.right());
+        }
+        return new Node.Binary('*', x, y);
+    }
+
+    private static Node divide(Node x, Node y) {
+        if(isZero(x)) return ZERO;
+        if(isOne(y)) return x;
+        return new Node.Binary('/', x, y);
+    }
+
+    private static Node negate(Node x) {
+        return isZero(x) ? ZERO : new Node.Negate(x);
+    }
+
+    private static Node power(Node base, int exponent) {
+        if(exponent == 0) return ONE;
+        if(exponent == 1) return base;
+        if(exponent <= Optimizer.MAX_INTEGER_POWER) return new Node.IntegerPower(base, exponent);
+        return new Node.Binary('^', base, new Node.Constant(exponent, 0.0));
+    }
+
+    private static boolean isZero(Node node) {
+        return node instanceof Node.Constant c && c.real() == 0.0 && c.imaginary() == 0.0;
+    }
+
+    private static boolean isOne(Node node) {
+        return node instanceof Node.Constant c && c.real() == 1.0 && c.imaginary() == 0.0;
+    }
+}
@@ -0,0 +1,52 @@
+package evaluator;
+
+/**
+ * Receives every step of an evaluation, with operands and results passed as primitives so that
+ * nothing is allocated for a listener to be called. Every method does nothing by default, so a
+ * listener only overrides the events it needs, and <b>NONE</b> costs nothing once the JIT has
+ * inlined its empty methods. A division by zero is reported with a NaN result right before it fails.
+ * Listeners shared between evaluations on different threads must be thread-safe.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public interface EvaluationListener {
+    /**
+     * Listener ignoring every event
+     */
+    EvaluationListener NONE = new EvaluationListener() {};
+
+    /**
+     * Called before the part of an equation between parentheses is evaluated, only by the
+     * step-by-step interpreter of <b>ExpressionEvaluator</b>
+     * @param equation The whole equation
+     * @param from Index of the first character of the sub-equation
+     * @param to Index after the last character of the sub-equation
+     */
+    default void onSubEquation(CharSequence equation, int from, int to) {}
+
+    /**
+     * Called after a binary operation
+     * @param operator One of the operators <b>+ - * / ^</b>
+     * @param leftReal Real part of the first operand
+     * @param leftImaginary Imaginary part of the first operand
+     * @param rightReal Real part of the second operand
+     * @param rightImaginary Imaginary part of the second operand
+     * @param resultReal Real part of the result
+     * @param resultImaginary Imaginary part of the result
+     */
+    default void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                             double rightImaginary, double resultReal, double resultImaginary) {}
+
+    /**
+     * Called after a function is applied. Compiled equations report their unary minus as the function <b>-</b>.
+     * @param function Name of the function as written in an equation
+     * @param argumentReal Real part of the argument
+     * @param argumentImaginary Imaginary part of the argument
+     * @param resultReal Real part of the result
+     * @param resultImaginary Imaginary part of the result
+     */
+    default void onFunction(String function, double argumentReal, double argumentImaginary,
+                            double resultReal, double resultImaginary) {}
+}
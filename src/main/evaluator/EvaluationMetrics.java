@@ -0,0 +1,248 @@
+package evaluator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import complex.Complex;
+
+/**
+ * Opt-in metrics of evaluations, kept per equation. Every evaluation is counted, a random sample of
+ * them is timed into a LatencyHistogram, as reading the clock can cost as much as evaluating a short
+ * equation, and a smaller sample is profiled, timing each instruction the compiled equation runs to
+ * find out which operators and functions the time goes to. Profiled evaluations run one instruction at a
+ * time with the arithmetic of the others, the real fast path included, and are left out of the latency. Metrics are
+ * collected without locks and can be read as a snapshot or over JMX.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class EvaluationMetrics implements EvaluationMetricsMXBean {
+    /**
+     * Average number of evaluations per timed evaluation when none is given
+     */
+    public static final int DEFAULT_TIMING_PERIOD = 16;
+
+    /**
+     * Average number of evaluations per profiled evaluation when none is given
+     */
+    public static final int DEFAULT_PROFILE_PERIOD = 1024;
+
+    /**
+     * Number of equations whose metrics are kept apart, the metrics of further equations are merged
+     */
+    public static final int MAX_EXPRESSIONS = ExpressionCache.DEFAULT_CAPACITY;
+
+    private static final String OTHER = "<other>";
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final Map<String, ExpressionMetrics> expressions = new ConcurrentHashMap<>();
+    private volatile int timingPeriod, profilePeriod;
+    private ObjectName name;
+
+    /**
+     * Default constructor, timing one evaluation in <b>DEFAULT_TIMING_PERIOD</b> and profiling
+     * one in <b>DEFAULT_PROFILE_PERIOD</b>
+     */
+    public EvaluationMetrics() {
+        this(DEFAULT_TIMING_PERIOD, DEFAULT_PROFILE_PERIOD);
+    }
+
+    /**
+     * @param timingPeriod Average number of evaluations per timed evaluation, <b>1</b> times all of them
+     * and <b>0</b> none
+     * @param profilePeriod Average number of evaluations per profiled evaluation, <b>0</b> turns profiling off
+     */
+    public EvaluationMetrics(int timingPeriod, int profilePeriod) {
+        setTimingPeriod(timingPeriod);
+        setProfilePeriod(profilePeriod);
+    }
+
+    /**
+     * Wraps a compiled equation so that its evaluations are measured
+     * @param expression The compiled equation
+     * @return The instrumented equation
+     */
+    public InstrumentedExpression instrument(CompiledExpression expression) {
+        return new InstrumentedExpression(expression, this, metrics(ExpressionCache.normalize(expression.getEquation())));
+    }
+
+    /**
+     * @param equation String representation of the equation
+     * @return Metrics of the equation or <b>null</b> if it was never evaluated
+     */
+    public ExpressionMetrics getMetrics(String equation) {
+        return expressions.get(ExpressionCache.normalize(equation));
+    }
+
+    ExpressionMetrics metrics(String equation) {
+        ExpressionMetrics metrics = expressions.get(equation);
+        if(metrics != null) return metrics;
+        // merging the metrics of equations beyond the limit keeps the memory bounded
+        if(expressions.size() >= MAX_EXPRESSIONS) equation = OTHER;
+        return expressions.computeIfAbsent(equation, ExpressionMetrics::new);
+    }
+
+    Complex evaluate(CompiledExpression expression, Map<String, Complex> values) throws Exception {
+        Bindings bindings = expression.bindings();
+        if(values != null) bindings.setVariables(values);
+        return evaluate(expression, metrics(ExpressionCache.normalize(expression.getEquation())), bindings);
+    }
+
+    Complex evaluate(CompiledExpression expression, ExpressionMetrics metrics, Bindings bindings) throws Exception {
+        metrics.evaluated();
+        int profile = profilePeriod, timing = timingPeriod;
+        try {
+            if(profile > 0 && ThreadLocalRandom.current().nextInt(profile) == 0)
+                return expression.profile(bindings, new Profiler(metrics));
+            if(timing == 0 || timing > 1 && ThreadLocalRandom.current().nextInt(timing) != 0)
+                return expression.evaluate(bindings);
+            long start = System.nanoTime();
+            Complex result = expression.evaluate(bindings);
+            metrics.getLatency().record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            metrics.failed();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<ExpressionMetrics.Snapshot> getExpressions() {
+        List<ExpressionMetrics.Snapshot> snapshots = new ArrayList<>();
+        for(ExpressionMetrics metrics: expressions.values()) snapshots.add(metrics.snapshot());
+        snapshots.sort(Comparator.comparingDouble(ExpressionMetrics.Snapshot::estimatedTotalNanos).reversed());
+        return snapshots;
+    }
+
+    @Override
+    public List<ExpressionMetrics.OperatorCost> getOperatorCosts() {
+        Map<String, long[]> totals = new HashMap<>();
+        for(ExpressionMetrics metrics: expressions.values())
+            for(ExpressionMetrics.OperatorCost cost: metrics.getOperatorCosts()) {
+                long[] total = totals.computeIfAbsent(cost.symbol(), symbol -> new long[2]);
+                total[0] += cost.count();
+                total[1] += cost.totalNanos();
+            }
+        List<ExpressionMetrics.OperatorCost> costs = new ArrayList<>();
+        totals.forEach((symbol, total) -> costs.add(new ExpressionMetrics.OperatorCost(symbol, total[0], total[1])));
+        costs.sort(Comparator.comparingLong(ExpressionMetrics.OperatorCost::totalNanos).reversed());
+        return costs;
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        long count = 0;
+        for(ExpressionMetrics metrics: expressions.values()) count += metrics.getEvaluationCount();
+        return count;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+        for(ExpressionMetrics metrics: expressions.values()) count += metrics.getErrorCount();
+        return count;
+    }
+
+    @Override
+    public int getTimingPeriod() {
+        return timingPeriod;
+    }
+
+    @Override
+    public void setTimingPeriod(int timingPeriod) {
+        if(timingPeriod < 0) throw new IllegalArgumentException("Invalid period: " + timingPeriod);
+        this.timingPeriod = timingPeriod;
+    }
+
+    @Override
+    public int getProfilePeriod() {
+        return profilePeriod;
+    }
+
+    @Override
+    public void setProfilePeriod(int profilePeriod) {
+        if(profilePeriod < 0) throw new IllegalArgumentException("Invalid period: " + profilePeriod);
+        this.profilePeriod = profilePeriod;
+    }
+
+    @Override
+    public void reset() {
+        expressions.clear();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, under <b>evaluator:type=EvaluationMetrics,id=N</b>
+     * @return Name of the registered MBean, the same one if already registered
+     * @throws JMException If the registration fails
+     */
+    public synchronized ObjectName register() throws JMException {
+        if(name == null) {
+            ObjectName objectName = new ObjectName("evaluator:type=EvaluationMetrics,id=" + INSTANCES.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            name = objectName;
+        }
+        return name;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server if they were registered
+     * @throws JMException If the removal fails
+     */
+    public synchronized void unregister() throws JMException {
+        if(name == null) return;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        name = null;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationMetrics[expressions=" + expressions.size() + ", evaluations=" + getEvaluationCount()
+                + ", errors=" + getErrorCount() + ", timingPeriod=" + timingPeriod + ", profilePeriod=" + profilePeriod + "]";
+    }
+
+    /**
+     * Charges the time elapsed since the previous instruction, or since the start, to each instruction
+     */
+    private static final class Profiler implements EvaluationListener {
+        private final ExpressionMetrics metrics;
+        private long last = System.nanoTime();
+
+        Profiler(ExpressionMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        private void charge(String symbol) {
+            long now = System.nanoTime();
+            metrics.cost(symbol, now - last);
+            last = now;
+        }
+
+        @Override
+        public void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                                double rightImaginary, double resultReal, double resultImaginary) {
+            charge(switch (operator) {
+                case '+' -> "+";
+                case '-' -> "-";
+                case '*' -> "*";
+                case '/' -> "/";
+                case '^' -> "^";
+                default -> String.valueOf(operator);
+            });
+        }
+
+        @Override
+        public void onFunction(String function, double argumentReal, double argumentImaginary,
+                               double resultReal, double resultImaginary) {
+            charge(function);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package evaluator;
+
+import java.util.List;
+
+/**
+ * Management interface of EvaluationMetrics, exposed over JMX once the metrics are registered
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public interface EvaluationMetricsMXBean {
+    /**
+     * @return Metrics of every equation, the ones that took the most time first
+     */
+    List<ExpressionMetrics.Snapshot> getExpressions();
+
+    /**
+     * @return Cost of every operator and function over all equations, most expensive first
+     */
+    List<ExpressionMetrics.OperatorCost> getOperatorCosts();
+
+    /**
+     * @return Number of evaluations of all equations
+     */
+    long getEvaluationCount();
+
+    /**
+     * @return Number of evaluations of all equations that failed
+     */
+    long getErrorCount();
+
+    /**
+     * @return Average number of evaluations per timed evaluation, <b>0</b> when timing is off
+     */
+    int getTimingPeriod();
+
+    /**
+     * @param timingPeriod Average number of evaluations per timed evaluation, <b>0</b> turns timing off
+     */
+    void setTimingPeriod(int timingPeriod);
+
+    /**
+     * @return Average number of evaluations per profiled evaluation, <b>0</b> when profiling is off
+     */
+    int getProfilePeriod();
+
+    /**
+     * @param profilePeriod Average number of evaluations per profiled evaluation, <b>0</b> turns profiling off
+     */
+    void setProfilePeriod(int profilePeriod);
+
+    /**
+     * Forgets every measurement
+     */
+    void reset();
+}
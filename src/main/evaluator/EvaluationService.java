@@ -0,0 +1,335 @@
+package evaluator;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import complex.Complex;
+
+/**
+ * Asynchronous, thread-safe evaluation of single requests, one equation and its variables each, for
+ * callers such as a network service whose cost would otherwise be dominated by dispatching every
+ * request on its own. Requests for the same compiled equation are queued together and evaluated as one
+ * BatchEvaluator batch as soon as a batch is full, or once the oldest request has waited for the
+ * linger time. Batches run on an executor, by default one virtual thread per batch. The number of
+ * pending requests is bounded, a request beyond the bound is rejected at once rather than queued, so
+ * callers learn that the service is saturated without blocking. A failing request, such as one missing
+ * a variable or dividing by zero, only fails its own future.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class EvaluationService implements AutoCloseable {
+    /**
+     * Largest number of requests evaluated as one batch when no batch size is given
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    /**
+     * Longest time a request waits for its batch to fill when no linger time is given
+     */
+    public static final Duration DEFAULT_LINGER = Duration.ofNanos(200_000);
+    /**
+     * Largest number of pending requests when no bound is given
+     */
+    public static final int DEFAULT_MAX_PENDING = 65_536;
+
+    private final ExpressionCache cache;
+    private final Executor executor;
+    // the executor created by the service, shut down when it is closed
+    private final ExecutorService owned;
+    private final ScheduledExecutorService timer;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final Map<CompiledExpression, Lane> lanes = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder(), batches = new LongAdder(), rejected = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile boolean closed;
+
+    private record Request(Map<String, Complex> values, CompletableFuture<Complex> future, long start) {}
+
+    // the queue of one equation, with a flag set while a timer is due to flush it
+    private static final class Lane {
+        final CompiledExpression expression;
+        final String[] variables;
+        final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();
+
+        Lane(CompiledExpression expression) {
+            this.expression = expression;
+            this.variables = expression.getVariables().toArray(new String[0]);
+        }
+    }
+
+    // scratch buffers of a batch, reused by the batches of one lane, a request is cleared once completed
+    private static final class Worker {
+        final BatchEvaluator batch;
+        final Frame frame;
+        final Request[] requests;
+        // index of the request evaluated in each row
+        final int[] rows;
+        final double[][] re, im;
+        final double[] outReal, outImaginary;
+
+        Worker(CompiledExpression expression, int batchSize) {
+            int variables = expression.getVariables().size();
+            this.batch = expression.newBatch(batchSize);
+            this.frame = expression.newFrame();
+            this.requests = new Request[batchSize];
+            this.rows = new int[batchSize];
+            this.re = new double[variables][batchSize];
+            this.im = new double[variables][batchSize];
+            this.outReal = new double[batchSize];
+            this.outImaginary = new double[batchSize];
+        }
+    }
+
+    /**
+     * Creates a service compiling equations with an ExpressionCache of its own and evaluating batches of up
+     * to <b>DEFAULT_BATCH_SIZE</b> requests on virtual threads
+     */
+    public EvaluationService() {
+        this(new ExpressionCache(ExpressionCache.DEFAULT_CAPACITY), null, DEFAULT_BATCH_SIZE, DEFAULT_LINGER, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * @param cache Cache compiling the equations of requests given as text
+     * @param executor Executor running the batches, <b>null</b> for a virtual thread per batch
+     * @param batchSize Largest number of requests evaluated as one batch, <b>1</b> to evaluate each on its own
+     * @param linger Longest time a request waits for its batch to fill
+     * @param maxPending Largest number of requests submitted but not yet completed
+     */
+    public EvaluationService(ExpressionCache cache, Executor executor, int batchSize, Duration linger, int maxPending) {
+        if(batchSize <= 0) throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        if(linger == null || linger.isNegative()) throw new IllegalArgumentException("Invalid linger time: " + linger);
+        if(maxPending <= 0) throw new IllegalArgumentException("Invalid number of pending requests: " + maxPending);
+        this.cache = cache;
+        this.owned = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.executor = executor == null ? owned : executor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("evaluation-service-timer").daemon().factory());
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+    }
+
+    /**
+     * Submits an equation for evaluation
+     * @param equation String representation of the equation, compiled through the cache of the service
+     * @param values Values of the variables
+     * @return Future completed with the result, or exceptionally if the equation is malformed or cannot be
+     * evaluated, or with a RejectedExecutionException if the service is saturated or closed
+     */
+    public CompletableFuture<Complex> submit(String equation, Map<String, Complex> values) {
+        CompiledExpression expression;
+        try {
+            expression = cache.get(equation);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(expression, values);
+    }
+
+    /**
+     * Submits a compiled equation for evaluation. The future is completed on the thread that evaluated its
+     * batch, so dependent stages doing more than a little work should use the <b>async</b> methods.
+     * @param expression The compiled equation
+     * @param values Values of the variables
+     * @return Future completed with the result, or exceptionally if a variable is missing or the equation
+     * divides by zero, or with a RejectedExecutionException if the service is saturated or closed
+     */
+    public CompletableFuture<Complex> submit(CompiledExpression expression, Map<String, Complex> values) {
+        long start = System.nanoTime();
+        if(closed) return CompletableFuture.failedFuture(new RejectedExecutionException("Service closed"));
+        if(!pending.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending requests: " + maxPending));
+        }
+        requests.increment();
+        CompletableFuture<Complex> future = new CompletableFuture<>();
+        Lane lane = lanes.computeIfAbsent(expression, Lane::new);
+        lane.queue.add(new Request(values == null ? Map.of() : values, future, start));
+        int size = lane.size.incrementAndGet();
+        if(size % batchSize == 0) dispatch(lane, false);
+        if(batchSize > 1) schedule(lane);
+        return future;
+    }
+
+    /**
+     * @return Number of requests submitted but not yet completed
+     */
+    public int getPendingCount() {
+        return maxPending - pending.availablePermits();
+    }
+
+    /**
+     * @return Number of requests accepted since the service was created
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return Number of batches evaluated since the service was created
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return Number of requests rejected because the service was saturated
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return Histogram of the time from the submission of each request to its completion
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Stops accepting requests and flushes the pending ones. If the service created its executor, waits
+     * until they are completed and shuts it down, a caller supplied executor is left running them.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for(Lane lane: lanes.values()) dispatch(lane, true);
+        timer.shutdown();
+        if(owned != null) owned.close();
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationService[requests=" + getRequestCount() + ", batches=" + getBatchCount()
+                + ", pending=" + getPendingCount() + ", rejected=" + getRejectedCount() + "]";
+    }
+
+    // any request arriving while no timer is due starts one, so none waits longer than the linger time
+    private void schedule(Lane lane) {
+        if(lane.scheduled.get() || !lane.scheduled.compareAndSet(false, true)) return;
+        try {
+            timer.schedule(() -> {
+                lane.scheduled.set(false);
+                dispatch(lane, true);
+            }, lingerNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // the service is closing and flushes every lane itself
+            lane.scheduled.set(false);
+            dispatch(lane, true);
+        }
+    }
+
+    private void dispatch(Lane lane, boolean all) {
+        try {
+            executor.execute(() -> drain(lane, all));
+        } catch (RejectedExecutionException e) {
+            drain(lane, all);
+        }
+    }
+
+    /**
+     * Evaluates one batch of a lane, or every queued request of it when flushed by its timer. A lane left
+     * empty is removed unless a timer is due to flush it, which then removes it, and a request added to
+     * it meanwhile is still flushed by its own timer. Every request taken from the queue is completed,
+     * with the failure if the batch fails unexpectedly, so that none hangs or holds its permit.
+     */
+    private void drain(Lane lane, boolean all) {
+        Worker worker = lane.idle.poll();
+        if(worker == null) worker = new Worker(lane.expression, batchSize);
+        try {
+            do {
+                int n = 0;
+                for(Request request; n < batchSize && (request = lane.queue.poll()) != null; n++) worker.requests[n] = request;
+                if(n == 0) break;
+                lane.size.addAndGet(-n);
+                batches.increment();
+                Throwable failure = null;
+                try {
+                    evaluate(lane, worker, n);
+                } catch (Throwable e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    for(int k = 0; k < n; k++)
+                        if(worker.requests[k] != null) complete(worker, k, null, failure);
+                }
+            } while(all);
+        } finally {
+            lane.idle.add(worker);
+            if(lane.size.get() == 0 && !lane.scheduled.get()) lanes.remove(lane.expression, lane);
+        }
+    }
+
+    private void evaluate(Lane lane, Worker worker, int n) {
+        String[] variables = lane.variables;
+        // requests missing a variable, or mapping it to null, fail on their own, the others get a row each
+        int rows = 0;
+        for(int k = 0; k < n; k++) {
+            Request request = worker.requests[k];
+            String missing = null;
+            for(String variable: variables)
+                if(request.values.get(variable) == null) {
+                    missing = variable;
+                    break;
+                }
+            if(missing != null) complete(worker, k, null, new Exception("Symbol not found: " + missing));
+            else worker.rows[rows++] = k;
+        }
+        for(int slot = 0; slot < variables.length; slot++) {
+            boolean real = true;
+            for(int row = 0; row < rows; row++) {
+                Complex value = worker.requests[worker.rows[row]].values.get(variables[slot]);
+                worker.re[slot][row] = value.real();
+                worker.im[slot][row] = value.imaginary();
+                real &= value.imaginary() == 0.0;
+            }
+            worker.batch.bind(slot, worker.re[slot], real ? null : worker.im[slot]);
+        }
+        try {
+            worker.batch.evaluate(0, rows, worker.outReal, worker.outImaginary);
+        } catch (Exception e) {
+            // one row failed the batch, every row is evaluated again on its own to fail only that one
+            for(int row = 0; row < rows; row++) {
+                for(int slot = 0; slot < variables.length; slot++)
+                    worker.frame.setVariable(slot, worker.re[slot][row], worker.im[slot][row]);
+                try {
+                    complete(worker, worker.rows[row], worker.frame.evaluate(), null);
+                } catch (Exception error) {
+                    complete(worker, worker.rows[row], null, error);
+                }
+            }
+            return;
+        }
+        for(int row = 0; row < rows; row++)
+            complete(worker, worker.rows[row], new Complex(worker.outReal[row], worker.outImaginary[row]), null);
+    }
+
+    private void complete(Worker worker, int k, Complex result, Throwable error) {
+        Request request = worker.requests[k];
+        worker.requests[k] = null;
+        latency.record(System.nanoTime() - request.start);
+        pending.release();
+        if(error != null) request.future.completeExceptionally(error);
+        else request.future.complete(result);
+    }
+}
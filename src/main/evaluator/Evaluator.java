@@ -12,10 +12,24 @@ import java.util.List;
 
 public interface Evaluator {
 
-    // List of terminal symbols in decreasing order of precedence
+    /**
+     * List of terminal symbols in decreasing order of precedence
+     * @deprecated No longer used by the evaluator, which classifies operators without boxing each character
+     */
+    @Deprecated
     List<Character> terminalSymbols = new ArrayList<>(){{
         add('^'); add('/'); add('*'); add('-'); add('+');
     }};
 
     String evaluateEquation(String equation,int precision, boolean verbose) throws Exception;
+
+    /**
+     * Parses an equation into its compiled form, see <b>CompiledExpression.compile</b>
+     * @param equation String representation of the equation
+     * @return Immutable compiled form of the equation
+     * @throws Exception If the equation is malformed
+     */
+    default CompiledExpression compile(String equation) throws Exception {
+        return CompiledExpression.compile(equation);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package evaluator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of compiled equations keyed by their normalized text.
+ * Entries are split over independently locked segments, each evicting its least recently
+ * used entry once full, so concurrent lookups of different equations rarely contend.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class ExpressionCache {
+    /**
+     * Capacity of the caches created by the evaluators that have not been given one
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final FunctionRegistry functions;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of compiled equations kept by the cache
+     */
+    public ExpressionCache(int capacity) {
+        this(capacity, FunctionRegistry.standard());
+    }
+
+    /**
+     * @param capacity Maximum number of compiled equations kept by the cache
+     * @param functions Functions the cached equations may call
+     */
+    public ExpressionCache(int capacity, FunctionRegistry functions) {
+        if(capacity <= 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.capacity = capacity;
+        this.functions = functions;
+        int count = Math.min(16, Integer.highestOneBit(capacity));
+        this.segments = new Segment[count];
+        for(int i = 0; i < count; i++)
+            segments[i] = new Segment((capacity + count - 1 - i) / count);
+    }
+
+    /**
+     * Returns the compiled form of an equation, compiling and caching it on a miss
+     * @param equation String representation of the equation
+     * @return Compiled form of the equation
+     * @throws Exception If the equation is malformed, in which case nothing is cached
+     */
+    public CompiledExpression get(String equation) throws Exception {
+        if(equation == null) throw new Exception("Empty equation");
+        String key = normalize(equation);
+        Segment segment = segments[(key.hashCode() & 0x7fffffff) % segments.length];
+        CompiledExpression expression;
+        synchronized (segment) {
+            expression = segment.get(key);
+        }
+        if(expression != null) {
+            hits.increment();
+            return expression;
+        }
+        misses.increment();
+        // compiled outside the lock, a concurrent miss on the same key may compile it twice
+        expression = CompiledExpression.compile(key, functions);
+        synchronized (segment) {
+            CompiledExpression existing = segment.putIfAbsent(key, expression);
+            return existing != null ? existing : expression;
+        }
+    }
+
+    /**
+     * @return Number of lookups that found a compiled equation
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that had to compile the equation
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of compiled equations removed to make room for new ones
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Maximum number of compiled equations kept by the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Functions the cached equations may call
+     */
+    public FunctionRegistry getFunctions() {
+        return functions;
+    }
+
+    /**
+     * @return Number of compiled equations currently in the cache
+     */
+    public int size() {
+        int size = 0;
+        for(Segment segment: segments)
+            synchronized (segment) {
+                size += segment.size();
+            }
+        return size;
+    }
+
+    /**
+     * Removes every compiled equation, the counters are kept
+     */
+    public void clear() {
+        for(Segment segment: segments)
+            synchronized (segment) {
+                segment.clear();
+            }
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionCache[size=" + size() + ", capacity=" + capacity + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * Normalizes the whitespace of an equation, which never changes its meaning: leading, trailing
+     * and whitespace next to an operator or a parenthesis is dropped, other runs become a single space
+     * @param equation String representation of the equation
+     * @return The normalized equation, the same instance if it already was normalized
+     */
+    static String normalize(String equation) {
+        int length = equation.length();
+        boolean normal = true;
+        for(int i = 0; i < length && normal; i++) {
+            char c = equation.charAt(i);
+            if(Character.isWhitespace(c))
+                normal = c == ' ' && i > 0 && i < length - 1 && !isSymbol(equation.charAt(i - 1))
+                        && !isSymbol(equation.charAt(i + 1)) && !Character.isWhitespace(equation.charAt(i + 1));
+        }
+        if(normal) return equation;
+
+        StringBuilder sb = new StringBuilder(length);
+        boolean space = false;
+        for(int i = 0; i < length; i++) {
+            char c = equation.charAt(i);
+            if(Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if(space && !sb.isEmpty() && !isSymbol(sb.charAt(sb.length() - 1)) && !isSymbol(c))
+                sb.append(' ');
+            space = false;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isSymbol(char c) {
+        return c == '(' || c == ')' || Parser.precedence(c) != 0;
+    }
+
+    private final class Segment extends LinkedHashMap<String, CompiledExpression> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+            if(size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+}
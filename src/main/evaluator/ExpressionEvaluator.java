@@ -1,6 +1,8 @@
 package evaluator;
 
 import java.util.*;
+import java.math.MathContext;
+import complex.BigComplex;
 import complex.Complex;
 
 /**
@@ -12,6 +14,9 @@ import complex.Complex;
 
 public class ExpressionEvaluator implements Evaluator {
     private Map<String, Complex> variables;
+    private FunctionRegistry functions = FunctionRegistry.standard();
+    private ExpressionCache cache = new ExpressionCache(ExpressionCache.DEFAULT_CAPACITY);
+    private EvaluationMetrics metrics;
 
     /**
      * Default constructor
@@ -63,28 +68,81 @@ public class ExpressionEvaluator implements Evaluator {
     public void removeVariable(String variable){
         this.variables.remove(variable);
     }
+    /**
+     * Setter for the cache of compiled equations used by <b>evaluateEquation</b> and the <b>evaluate</b>
+     * methods taking an equation. The interpreter behind <b>complexEvaluator</b> never uses it. The
+     * evaluator takes the functions of the cache.
+     * @param cache_ Cache of compiled equations, one of <b>ExpressionCache.DEFAULT_CAPACITY</b> equations by
+     * default, <b>null</b> to compile the equation on every call
+     */
+    public void setCache(ExpressionCache cache_){
+        this.cache = cache_;
+        if(cache_ != null) this.functions = cache_.getFunctions();
+    }
+    /**
+     * Getter for the cache of compiled equations
+     * @return Cache of compiled equations used by this evaluator or <b>null</b> if there is none
+     */
+    public ExpressionCache getCache(){
+        return this.cache;
+    }
+    /**
+     * Setter for the functions an equation may call. The compiled form of an equation depends on them,
+     * so a cache holding equations compiled with other functions is replaced by an empty one of the same capacity.
+     * @param functions_ Registry of the functions, <b>FunctionRegistry.standard()</b> by default
+     */
+    public void setFunctions(FunctionRegistry functions_){
+        this.functions = functions_;
+        if(cache != null && cache.getFunctions() != functions_) this.cache = new ExpressionCache(cache.getCapacity(), functions_);
+    }
+    /**
+     * Getter for the functions an equation may call
+     * @return Registry of the functions of this evaluator
+     */
+    public FunctionRegistry getFunctions(){
+        return this.functions;
+    }
+    /**
+     * Setter for the metrics recording the evaluations of compiled equations made by the <b>evaluate</b>
+     * methods taking an equation, which are not measured by default
+     * @param metrics_ Metrics recording every evaluation, <b>null</b> to stop measuring
+     */
+    public void setMetrics(EvaluationMetrics metrics_){
+        this.metrics = metrics_;
+    }
+    /**
+     * Getter for the metrics recording the evaluations
+     * @return Metrics recording every evaluation or <b>null</b> if they are not measured
+     */
+    public EvaluationMetrics getMetrics(){
+        return this.metrics;
+    }
     /**
      * Computes a binary operation between 2 operands and returns a Complex number as the result
      * @param operand1 First operand
      * @param operand2 Second operand
      * @param operator The operator ot be used
-     * @param verbose Whether or not to show the computation
+     * @param listener Listener receiving the operation
      * @return Resultant Complex number
      * @throws Exception
      */
-    private Complex compute(Complex operand1, Complex operand2, char operator, boolean verbose) throws Exception {
-        if(verbose)
-            System.out.println("Evaluating : " + operand1 + " " + operator + " " + operand2);
-        if(operator == '/' && operand2.equals(new Complex(0.0, 0.0)))
+    private Complex compute(Complex operand1, Complex operand2, char operator, EvaluationListener listener) throws Exception {
+        if(operator == '/' && operand2.equals(new Complex(0.0, 0.0))) {
+            listener.onOperation(operator, operand1.real(), operand1.imaginary(), 0.0, 0.0, Double.NaN, Double.NaN);
             throw new ArithmeticException("Division by zero");
+        }
+        Complex result;
         switch (operator) {
-            case '+': return operand1.add(operand2);
-            case '-': return operand1.subtract(operand2);
-            case '*': return operand1.multiply(operand2);
-            case '/': return operand1.divide(operand2);
-            case '^': return operand1.pow(operand2);
+            case '+': result = operand1.add(operand2); break;
+            case '-': result = operand1.subtract(operand2); break;
+            case '*': result = operand1.multiply(operand2); break;
+            case '/': result = operand1.divide(operand2); break;
+            case '^': result = operand1.pow(operand2); break;
             default: throw new ArithmeticException("Invalid operator: " + operator);
         }
+        listener.onOperation(operator, operand1.real(), operand1.imaginary(), operand2.real(), operand2.imaginary(),
+                result.real(), result.imaginary());
+        return result;
     }
     /**
      * Computes a Complex operand from a given String
@@ -101,145 +159,292 @@ public class ExpressionEvaluator implements Evaluator {
             String t = variable.substring(0, variable.length() - 1);
             if(t.equals("pi")) return new Complex(0.0, Math.PI);
             if(t.equals("e")) return new Complex(0.0, Math.E);
-            return new Complex(0.0, Double.parseDouble(t));
-        }
-        try{
-            return new Complex(Double.parseDouble(variable), 0.0);
-        }catch (Exception e){
-            if(variables != null && variables.containsKey(variable))
-                return variables.get(variable);
-            else throw new Exception("Symbol not found: " + variable);
+            Double value = Parser.number(t);
+            if(value != null) return new Complex(0.0, value);
+        } else {
+            Double value = Parser.number(variable);
+            if(value != null) return new Complex(value, 0.0);
         }
+        if(variables != null && variables.containsKey(variable))
+            return variables.get(variable);
+        else throw new Exception("Symbol not found: " + variable);
     }
     /**
-     * The function that connects all the modules together and computes the result 
+     * The function that connects all the modules together and computes the result
      * @param equation String repesentation of the equation
-     * @param verbose Whether or not to show the computation
+     * @param verbose Whether or not to show the computation on <b>System.out</b>
      * @return Resultant Complex number
      * @throws Exception
      */
     public Complex complexEvaluator(String equation, boolean verbose) throws Exception {
+        return complexEvaluator(equation, verbose ? new PrintStreamListener(System.out) : EvaluationListener.NONE);
+    }
+    /**
+     * Computes the result, reporting every step to a listener. The equation is evaluated step by step
+     * as written, sub-equations included.
+     * @param equation String repesentation of the equation
+     * @param listener Listener receiving every step of the computation
+     * @return Resultant Complex number
+     * @throws Exception
+     */
+    public Complex complexEvaluator(String equation, EvaluationListener listener) throws Exception {
         if (equation == null || equation.isEmpty())
             throw new Exception("Empty equation");
-        
-        List<Complex> operands = new ArrayList<>();
-        List<Character> operators = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
+        int[] spans = new int[equation.length() + 1];
+        int[] match = matchParentheses(equation, spans);
+        return complexEvaluator(equation, 0, equation.length(), match, spans, spans[equation.length()] + 1, listener);
+    }
+    /**
+     * Pairs every parenthesis of the equation and counts the operators of every span in a single pass
+     * @param equation String repesentation of the equation
+     * @param spans Receives, at the index of every opening parenthesis, the number of operators directly
+     * inside it, nested spans excluded, and at the index after the equation the number outside any parenthesis
+     * @return Index of the matching closing parenthesis for every opening one
+     * @throws Exception If a parenthesis is not matched
+     */
+    private static int[] matchParentheses(String equation, int[] spans) throws Exception {
+        int[] match = new int[equation.length()], open = new int[equation.length()];
+        // counts[d] is the number of operators seen so far in the innermost span open at depth d
+        int[] counts = new int[equation.length() + 1];
+        int depth = 0;
+        for(int i = 0; i < equation.length(); i++) {
+            char c = equation.charAt(i);
+            if(c == '(') {
+                open[depth++] = i;
+                counts[depth] = 0;
+            } else if(c == ')') {
+                if(depth == 0) throw new Exception("Invalid parenthesis sequence");
+                match[open[--depth]] = i;
+                spans[open[depth]] = counts[depth + 1];
+            } else if(Parser.precedence(c) != 0) counts[depth]++;
+        }
+        if(depth != 0) throw new Exception("Invalid parenthesis sequence");
+        spans[equation.length()] = counts[0];
+        return match;
+    }
+    /**
+     * Evaluates the part of an equation between 2 indices, recursing into parentheses in place
+     * @param equation String repesentation of the equation
+     * @param from Index of the first character of the sub-equation
+     * @param to Index after the last character of the sub-equation
+     * @param match Matching closing parenthesis of every opening one
+     * @param spans Number of operators directly inside every parenthesis, see <b>matchParentheses</b>
+     * @param capacity Upper bound on the number of operands of the sub-equation
+     * @param listener Listener receiving every step of the computation
+     * @return Resultant Complex number
+     * @throws Exception
+     */
+    private Complex complexEvaluator(String equation, int from, int to, int[] match, int[] spans, int capacity,
+                                     EvaluationListener listener) throws Exception {
+        Complex[] operands = new Complex[capacity];
+        char[] operators = new char[capacity];
+        int count = 0;
 
+        // start of the text of the current operand, -1 while there is none
+        int start = -1;
         boolean isCurrentOperandNegative = false;
 
-        for(int i = 0; i < equation.length(); i++){
+        for(int i = from; i < to; i++){
             char c = equation.charAt(i);
 
-            if(terminalSymbols.contains(c)){
-                String variable = sb.toString().trim();
+            if(Parser.precedence(c) != 0){
+                String variable = start < 0 ? "" : equation.substring(start, i).trim();
 
-                if(!variable.isEmpty()){
-                    operands.add(isCurrentOperandNegative ?
-                            getOperand(variable).multiply(-1.0) :
-                            getOperand(variable));
-                    sb = new StringBuilder();
-                    isCurrentOperandNegative = false;
-                }else{
-                    if(c == '-') isCurrentOperandNegative = true;
+                if(variable.isEmpty()){
+                    if(c == '-') isCurrentOperandNegative = !isCurrentOperandNegative;
                     else throw new Exception("Invalid equation");
+                    // whitespace before a sign is not part of the operand that follows it
+                    start = -1;
                     continue;
                 }
-                operators.add(c);
-            } else sb.append(c);
-            if(i == equation.length() - 1) {
-                String variable = sb.toString().trim();
-                if(variable.isEmpty()) continue;
-                operands.add(isCurrentOperandNegative ?
-                        getOperand(variable).multiply(-1.0) :
-                        getOperand(variable));
+                if(count > 0 && operators[count - 1] == 0) throw new Exception("Invalid operator: " + variable.charAt(0));
+                operands[count] = isCurrentOperandNegative ? getOperand(variable).multiply(-1.0) : getOperand(variable);
+                operators[count++] = c;
+                start = -1;
                 isCurrentOperandNegative = false;
-            }
-
-            if(c == '(') {
-                try {
-                    i++;
-                    int count = 0;
-                    String function = sb.toString().trim();
-                    function = function.substring(0, function.length() - 1);
-                    StringBuilder subEquation = new StringBuilder();
+            } else if(c == '(') {
+                int close = match[i];
+                String function = start < 0 ? "" : equation.substring(start, i).trim();
+                listener.onSubEquation(equation, i + 1, close);
 
-                    while (equation.charAt(i) != ')' || count != 0) {
-                        if (equation.charAt(i) == '(') count++;
-                        else if (equation.charAt(i) == ')') count--;
-                        subEquation.append(equation.charAt(i));
-                        i++;
-                    }
-                    if (verbose) System.out.println("SubEquation: " + subEquation);
-
-                    Complex operand = complexEvaluator(subEquation.toString(), verbose)
-                            .multiply(isCurrentOperandNegative ? -1.0 : 1.0);
-                    switch (function) {
-                        case "":
-                            operands.add(operand); break;
-                        case "sin": {
-                            if (verbose) System.out.println("Evaluating : sin(" + operand + ")");
-                            operands.add(operand.sin()); break;
-                        }
-                        case "cos": {
-                            if (verbose) System.out.println("Evaluating : cos(" + operand + ")");
-                            operands.add(operand.cos()); break;
-                        }
-                        case "tan": {
-                            if (verbose) System.out.println("Evaluating : tan(" + operand + ")");
-                            operands.add(operand.sin().divide(operand.cos())); break;
-                        }
-                        case "log": {
-                            if (verbose) System.out.println("Evaluating : log(" + operand + ")");
-                            operands.add(operand.log(10)); break;
-                        }
-                        case "ln": {
-                            if (verbose) System.out.println("Evaluating : ln(" + operand + ")");
-                            operands.add(operand.log(Math.E)); break;
-                        }
-                        default: throw new Exception("Function not supported: " + function);
-                    }
-                    i++;
-                    if (i < equation.length()) {
-                        if (equation.charAt(i) != ' ') {
-                            if(terminalSymbols.contains(equation.charAt(i)))
-                                operators.add(equation.charAt(i));
-                            else throw new Exception("Invalid operator: " + equation.charAt(i));
-                        }
-                        else {
-                            i++;
-                            while (i < equation.length() && equation.charAt(i) == ' ') i++;
-                            if (i < equation.length()){
-                                if(terminalSymbols.contains(equation.charAt(i)))
-                                    operators.add(equation.charAt(i));
-                                else throw new Exception("Invalid operator: " + equation.charAt(i));
-                            }
-                        }
-                    }
-                    sb = new StringBuilder();
-                    isCurrentOperandNegative = false;
-                }catch (IndexOutOfBoundsException exc){
-                    throw new Exception("Invalid parenthesis sequence");
+                Complex result;
+                if (function.isEmpty()) result = complexEvaluator(equation, i + 1, close, match, spans, spans[i] + 1, listener);
+                else {
+                    Complex[] arguments = arguments(equation, i + 1, close, match, spans, listener);
+                    MathFunction definition = functions.get(function);
+                    if (definition == null) throw new Exception("Function not supported: " + function);
+                    definition.checkArity(arguments.length);
+                    result = definition.apply(arguments);
+                    // a call is reported with its first argument
+                    Complex operand = arguments.length == 0 ? new Complex(0.0, 0.0) : arguments[0];
+                    listener.onFunction(function, operand.real(), operand.imaginary(), result.real(), result.imaginary());
                 }
+                // the sign applies to the value of the function, not to its argument
+                i = close + 1;
+                while (i < to && equation.charAt(i) == ' ') i++;
+                if (i < to && Parser.precedence(equation.charAt(i)) == 0)
+                    throw new Exception("Invalid operator: " + equation.charAt(i));
+                operands[count] = isCurrentOperandNegative ? result.multiply(-1.0) : result;
+                operators[count++] = i < to ? equation.charAt(i) : 0;
+                start = -1;
+                isCurrentOperandNegative = false;
+            } else if(start < 0) start = i;
+        }
+        String variable = start < 0 ? "" : equation.substring(start, to).trim();
+        if(!variable.isEmpty()) {
+            if(count > 0 && operators[count - 1] == 0) throw new Exception("Invalid operator: " + variable.charAt(0));
+            operands[count] = isCurrentOperandNegative ? getOperand(variable).multiply(-1.0) : getOperand(variable);
+            operators[count++] = 0;
+        }
+        if(count == 0) throw new Exception("Empty equation");
+        if(operators[count - 1] != 0) throw new Exception("Invalid equation");
+        return reduce(operands, operators, count - 1, listener);
+    }
+    /**
+     * Evaluates the comma separated arguments of a function call
+     * @param equation String representation of the equation
+     * @param from Index of the first character after the opening parenthesis
+     * @param to Index of the closing parenthesis
+     * @param match Index of the matching closing parenthesis of every opening one
+     * @param spans Number of operators directly inside every parenthesis, an upper bound for each argument
+     * @param listener Listener receiving every step
+     * @return Values of the arguments, none if the parentheses are empty
+     * @throws Exception
+     */
+    private Complex[] arguments(String equation, int from, int to, int[] match, int[] spans, EvaluationListener listener) throws Exception {
+        List<Complex> arguments = new ArrayList<>(1);
+        int capacity = spans[from - 1] + 1;
+        int start = from;
+        for(int j = from; j < to; j++) {
+            char c = equation.charAt(j);
+            if(c == '(') j = match[j];
+            else if(c == ',') {
+                arguments.add(complexEvaluator(equation, start, j, match, spans, capacity, listener));
+                start = j + 1;
             }
         }
-        // TODO: implement operator precedence
-        for(char operator: terminalSymbols){
-            while(!operators.isEmpty() && operators.contains(operator)){
-                int index = operators.indexOf(operator);
-                Complex operand1 = operands.get(index);
-                Complex operand2 = operands.get(index + 1);
-                operands.set(index, compute(operand1, operand2, operator, verbose));
+        if(!arguments.isEmpty() || !equation.substring(from, to).isBlank())
+            arguments.add(complexEvaluator(equation, start, to, match, spans, capacity, listener));
+        return arguments.toArray(new Complex[0]);
+    }
+    /**
+     * Reduces a sequence of operands and operators in time linear in its length. The operators are
+     * bucketed by precedence and applied level by level, left to right, except that a chain of
+     * <b>^</b> is applied from its right end. Operands live in a linked list so that applying an
+     * operator merges its 2 neighbours in place.
+     * @param operands The operands, the result of an operator is kept in place of its left operand
+     * @param operators <b>operators[k]</b> sits between <b>operands[k]</b> and <b>operands[k + 1]</b>
+     * @param n Number of operators
+     * @param listener Listener receiving every operation
+     * @return Resultant Complex number
+     * @throws Exception
+     */
+    private Complex reduce(Complex[] operands, char[] operators, int n, EvaluationListener listener) throws Exception {
+        // left[k] is the operand currently on the left of operator k, nextOperator[j] the operator right of operand j
+        int[] left = new int[n], right = new int[n], nextOperator = new int[n + 1];
+        int[][] levels = new int[3][n];
+        int[] sizes = new int[3];
+        for(int k = 0; k < n; k++) {
+            left[k] = k;
+            right[k] = k + 1;
+            nextOperator[k] = k;
+            int level = 3 - Parser.precedence(operators[k]);
+            levels[level][sizes[level]++] = k;
+        }
+        nextOperator[n] = -1;
 
-                operands.remove(index + 1);
-                operators.remove(index);
+        for(int level = 0; level < 3; level++) {
+            int[] bucket = levels[level];
+            for(int m = 0; m < sizes[level]; m++) {
+                int end = m;
+                if(Parser.isRightAssociative(operators[bucket[m]]))
+                    while(end + 1 < sizes[level] && bucket[end + 1] == bucket[end] + 1) end++;
+                for(int j = end; j >= m; j--) {
+                    int k = bucket[j], l = left[k], r = right[k];
+                    operands[l] = compute(operands[l], operands[r], operators[k], listener);
+                    int next = nextOperator[r];
+                    if(next >= 0) left[next] = l;
+                    nextOperator[l] = next;
+                }
+                m = end;
             }
         }
-
-        return operands.getFirst();
+        return operands[0];
+    }
+    /**
+     * Parses an equation once so that it can be evaluated repeatedly without re-scanning the string
+     * @param equation String repesentation of the equation
+     * @return Immutable compiled form of the equation
+     * @throws Exception If the equation is malformed
+     */
+    public CompiledExpression compile(String equation) throws Exception {
+        return CompiledExpression.compile(equation, functions);
+    }
+    /**
+     * Evaluates a compiled equation against the <b>variables</b> Map Object
+     * @param expression Compiled form of the equation
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(CompiledExpression expression) throws Exception {
+        return expression.evaluate(this.variables);
+    }
+    /**
+     * Evaluates the compiled form of an equation against the <b>variables</b> Map Object, taken from the
+     * cache of the evaluator, see <b>setCache</b>
+     * @param equation String repesentation of the equation
+     * @return Resultant Complex number
+     * @throws Exception If the equation is malformed, a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(String equation) throws Exception {
+        return evaluateCompiled(equation, this.variables);
+    }
+    /**
+     * Evaluates the compiled form of an equation against per-call values of its variables. The <b>variables</b> Map Object
+     * of the evaluator is neither read nor modified, so a single evaluator can serve concurrent threads.
+     * @param equation String repesentation of the equation
+     * @param values Map Object representing variables to be used while evaluating
+     * @return Resultant Complex number
+     * @throws Exception If the equation is malformed, a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(String equation, Map<String, Complex> values) throws Exception {
+        return evaluateCompiled(equation, values);
     }
     /**
-     * Wrapper for <b>complexEvaluator</b> function
+     * Evaluates an equation at arbitrary precision against the <b>variables</b> Map Object, whose values
+     * are taken as the decimals they print as, see <b>CompiledExpression.evaluate(Map, MathContext)</b>.
+     * A cached compiled form of the equation is reused at every precision.
+     * @param equation String repesentation of the equation
+     * @param mathContext Precision every operation is rounded to
+     * @return Resultant BigComplex number
+     * @throws Exception If the equation is malformed, a variable is missing or the equation divides by zero
+     */
+    public BigComplex evaluate(String equation, MathContext mathContext) throws Exception {
+        CompiledExpression expression = compiled(equation);
+        Map<String, BigComplex> values = new HashMap<>();
+        for(String variable: expression.getVariables()) {
+            Complex value = variables.get(variable);
+            if(value != null) values.put(variable, BigComplex.valueOf(value));
+        }
+        return expression.evaluate(values, mathContext);
+    }
+    /**
+     * Evaluates the compiled form of an equation, recording it in the metrics if there are any
+     */
+    private Complex evaluateCompiled(String equation, Map<String, Complex> values) throws Exception {
+        CompiledExpression expression = compiled(equation);
+        EvaluationMetrics metrics = this.metrics;
+        return metrics == null ? expression.evaluate(values) : metrics.evaluate(expression, values);
+    }
+    private CompiledExpression compiled(String equation) throws Exception {
+        ExpressionCache cache = this.cache;
+        if(cache != null) return cache.get(equation);
+        if(equation == null) throw new Exception("Empty equation");
+        return CompiledExpression.compile(equation, functions);
+    }
+    /**
+     * Wrapper for <b>complexEvaluator</b> function. Unless the computation is shown, the equation is
+     * compiled once through the cache and run as written, with the same result and errors as the interpreter.
      * @param equation String repesentation of the equation
      * @param precision Precision of fractional part of the real and imaginary values
      * @param verbose Whether or not to show the computation
@@ -247,6 +452,36 @@ public class ExpressionEvaluator implements Evaluator {
      * @throws Exception
      */
     public String evaluateEquation(String equation,int precision, boolean verbose) throws Exception {
-        return this.complexEvaluator(equation, verbose).toString(precision);
+        if(verbose) return this.complexEvaluator(equation, true).toString(precision);
+        Complex result;
+        try {
+            result = compiled(equation).evaluateAsWritten(this.variables);
+        } catch (Exception e) {
+            // the interpreter may fail with another message or on another operand, it is the reference
+            result = this.complexEvaluator(equation, false);
+        }
+        return result.toString(precision);
+    }
+    /**
+     * Wrapper for <b>complexEvaluator</b> function reporting every step to a listener
+     * @param equation String repesentation of the equation
+     * @param precision Precision of fractional part of the real and imaginary values
+     * @param listener Listener receiving every step of the computation
+     * @return String value representing the result
+     * @throws Exception
+     */
+    public String evaluateEquation(String equation, int precision, EvaluationListener listener) throws Exception {
+        return this.complexEvaluator(equation, listener).toString(precision);
+    }
+    /**
+     * Wrapper for <b>evaluate</b> at arbitrary precision, unlike the <b>precision</b> of the other
+     * overloads, which only rounds the printed result, the MathContext sets the precision of every operation
+     * @param equation String repesentation of the equation
+     * @param mathContext Precision every operation is rounded to
+     * @return String value representing the result with every digit of its precision
+     * @throws Exception
+     */
+    public String evaluateEquation(String equation, MathContext mathContext) throws Exception {
+        return this.evaluate(equation, mathContext).toString();
     }
 }
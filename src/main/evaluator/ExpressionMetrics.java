@@ -0,0 +1,142 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one equation collected by EvaluationMetrics: how often it was evaluated, how long each
+ * evaluation took and, on a sample of evaluations, how long each of its operators and functions took
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class ExpressionMetrics {
+    /**
+     * Cost of an operator or a function, measured on profiled evaluations
+     * @param symbol Operator or name of the function, <b>-</b> also standing for a negation
+     * @param count Number of times it was measured
+     * @param totalNanos Time spent in it over these measurements
+     */
+    public record OperatorCost(String symbol, long count, long totalNanos) {
+        /**
+         * @return Mean time spent per application in nanoseconds
+         */
+        public double meanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+    }
+
+    /**
+     * Metrics of an equation at a point in time
+     * @param equation The equation
+     * @param evaluations Number of evaluations, failed ones included
+     * @param errors Number of evaluations that failed
+     * @param meanNanos Mean latency of the timed evaluations, a sample of all of them
+     * @param p50Nanos Median latency
+     * @param p99Nanos 99th percentile of the latency
+     * @param p999Nanos 99.9th percentile of the latency
+     * @param maxNanos Longest latency
+     * @param totalNanos Time spent in the timed evaluations, see <b>estimatedTotalNanos</b>
+     * @param operators Cost of every operator and function, most expensive first
+     */
+    public record Snapshot(String equation, long evaluations, long errors, double meanNanos, long p50Nanos,
+                           long p99Nanos, long p999Nanos, long maxNanos, long totalNanos, List<OperatorCost> operators) {
+        /**
+         * @return Time spent in all evaluations, extrapolated from the timed ones
+         */
+        public double estimatedTotalNanos() {
+            return meanNanos * evaluations;
+        }
+    }
+
+    private final String equation;
+    private final LongAdder evaluations = new LongAdder(), errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, LongAdder[]> operators = new ConcurrentHashMap<>();
+
+    ExpressionMetrics(String equation) {
+        this.equation = equation;
+    }
+
+    /**
+     * @return The equation these metrics are about
+     */
+    public String getEquation() {
+        return equation;
+    }
+
+    /**
+     * @return Number of evaluations, failed ones included
+     */
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @return Number of evaluations that failed
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return Latency of the timed evaluations, a random sample of the evaluations that leaves out profiled ones
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Cost of every operator and function measured so far, most expensive first
+     */
+    public List<OperatorCost> getOperatorCosts() {
+        List<OperatorCost> costs = new ArrayList<>();
+        operators.forEach((symbol, cost) -> costs.add(new OperatorCost(symbol, cost[0].sum(), cost[1].sum())));
+        costs.sort(Comparator.comparingLong(OperatorCost::totalNanos).reversed());
+        return costs;
+    }
+
+    /**
+     * @return The metrics at this point in time
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(equation, evaluations.sum(), errors.sum(), latency.getMean(),
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getValueAtPercentile(99.9),
+                latency.getMax(), latency.getTotal(), getOperatorCosts());
+    }
+
+    /**
+     * Forgets every measurement
+     */
+    public void reset() {
+        evaluations.reset();
+        errors.reset();
+        latency.reset();
+        operators.clear();
+    }
+
+    void evaluated() {
+        evaluations.increment();
+    }
+
+    void failed() {
+        errors.increment();
+    }
+
+    void cost(String symbol, long nanos) {
+        LongAdder[] cost = operators.computeIfAbsent(symbol, key -> new LongAdder[] { new LongAdder(), new LongAdder() });
+        cost[0].increment();
+        cost[1].add(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionMetrics[equation=" + equation + ", evaluations=" + getEvaluationCount()
+                + ", errors=" + getErrorCount() + ", mean=" + latency.getMean() + "ns]";
+    }
+}
@@ -0,0 +1,153 @@
+package evaluator;
+
+import complex.Complex;
+
+/**
+ * Preallocated register file for evaluating a FormulaSet row after row without producing any
+ * garbage. The variables of a row are bound once and every equation of the set is evaluated in a
+ * single pass over the shared program. A frame is not thread-safe, every thread should use its own frame.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class FormulaFrame {
+    private final Bindings bindings;
+    private final Program program;
+    private final int[] results;
+    private final double[] registers;
+    private final double[] reals;
+    private boolean realFastPath = true;
+
+    FormulaFrame(Bindings bindings, Program program, int[] results) {
+        this.bindings = bindings;
+        this.program = program;
+        this.results = results;
+        this.registers = new double[program.registers() * 2];
+        this.reals = program.isReal() ? new double[program.registers()] : null;
+        program.load(registers);
+        if(reals != null) program.loadReal(reals);
+    }
+
+    /**
+     * Enables or disables the real fast path, see <b>Frame.setRealFastPath</b>. A row leaving the
+     * real numbers in any equation is evaluated again with complex arithmetic as a whole.
+     * @param enabled Whether the real fast path may be used
+     */
+    public void setRealFastPath(boolean enabled) {
+        this.realFastPath = enabled;
+    }
+
+    /**
+     * @return The bindings used by the methods of this frame that take none
+     */
+    public Bindings getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Setter for a variable by its slot index
+     * @param slot Slot index of the variable, see <b>FormulaSet.getSlot</b>
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(int slot, double real, double imaginary) {
+        bindings.setVariable(slot, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable by its name, variables not used by any equation are ignored
+     * @param variable Name of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        bindings.setVariable(variable, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable holding a real value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, double value) {
+        bindings.setVariable(variable, value);
+    }
+
+    /**
+     * Setter for a variable holding a Complex value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        bindings.setVariable(variable, value);
+    }
+
+    /**
+     * Evaluates every equation and writes the real and imaginary part of result <b>k</b> to
+     * <b>out[2k]</b> and <b>out[2k + 1]</b>
+     * @param out Array with room for twice as many numbers as there are equations
+     * @throws Exception If a variable is not set or an equation divides by zero
+     */
+    public void evaluateInto(double[] out) throws Exception {
+        evaluateInto(bindings, out, 0);
+    }
+
+    /**
+     * Evaluates every equation against the given bindings instead of the ones of the frame
+     * @param values Values of the variables, created by the same FormulaSet as this frame
+     * @param out Array receiving the results
+     * @param offset Index of the real part of the first result in <b>out</b>
+     * @throws Exception If a variable is not set or an equation divides by zero
+     */
+    public void evaluateInto(Bindings values, double[] out, int offset) throws Exception {
+        if(run(values)) {
+            for(int k = 0; k < results.length; k++) {
+                out[offset + 2 * k] = reals[results[k]];
+                out[offset + 2 * k + 1] = 0.0;
+            }
+        } else {
+            for(int k = 0; k < results.length; k++) {
+                out[offset + 2 * k] = registers[2 * results[k]];
+                out[offset + 2 * k + 1] = registers[2 * results[k] + 1];
+            }
+        }
+    }
+
+    /**
+     * Evaluates every equation and writes the real part of result <b>k</b> to <b>out[offset + k]</b>,
+     * for reports whose formulas are known to be real
+     * @param out Array receiving the real parts of the results
+     * @param offset Index of the first result in <b>out</b>
+     * @throws Exception If a variable is not set or an equation divides by zero
+     */
+    public void evaluateRealInto(double[] out, int offset) throws Exception {
+        if(run(bindings)) {
+            for(int k = 0; k < results.length; k++) out[offset + k] = reals[results[k]];
+        } else {
+            for(int k = 0; k < results.length; k++) out[offset + k] = registers[2 * results[k]];
+        }
+    }
+
+    /**
+     * @return <b>true</b> if the results were computed by the real fast path
+     */
+    private boolean run(Bindings values) throws Exception {
+        if(values != bindings && !values.matches(bindings.names))
+            throw new IllegalArgumentException("Bindings of another expression: " + values.getVariables());
+        boolean real = realFastPath && reals != null;
+        for(int i = 0; i < program.variables; i++) {
+            if(!values.bound[i]) throw new Exception("Symbol not found: " + values.names[i]);
+            double re = values.values[2 * i], im = values.values[2 * i + 1];
+            registers[2 * i] = re;
+            registers[2 * i + 1] = im;
+            if(real) {
+                if(im != 0.0) real = false;
+                else reals[i] = re;
+            }
+        }
+        if(real && program.runReal(reals)) return true;
+        program.run(registers);
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import complex.Complex;
+
+/**
+ * Named formulas that may reference each other's results, such as <b>area = pi*r^2</b> and
+ * <b>volume = area*h</b>. A name that is not a formula is an input variable. Formulas are recomputed
+ * in topological order, each one in an IncrementalFrame, and only when an input or a formula they
+ * reference took a new value, so setting one input and evaluating recomputes the formulas downstream
+ * of it and, within each of them, only the subexpressions depending on what changed. A formula whose
+ * value did not change stops the propagation. A formula graph is not thread-safe.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class FormulaGraph {
+    private final Map<String, Formula> formulas = new LinkedHashMap<>();
+    private final Map<String, double[]> inputs = new HashMap<>();
+    // formulas in topological order, and for every name the formulas reading it with the slot they read it from
+    private Formula[] order = new Formula[0];
+    private Map<String, List<Reader>> readers = Map.of();
+
+    private static final class Formula {
+        final String name;
+        final CompiledExpression expression;
+        final IncrementalFrame frame;
+        final double[] value = new double[2];
+        boolean dirty = true, evaluated;
+
+        Formula(String name, CompiledExpression expression) {
+            this.name = name;
+            this.expression = expression;
+            this.frame = expression.newIncrementalFrame();
+        }
+    }
+
+    private record Reader(Formula formula, int slot) {}
+
+    /**
+     * Defines a formula or replaces the one of the same name. An input variable of the same name stops
+     * being one, the formulas reading it get the value of the formula instead.
+     * @param name Name other formulas reference the result by
+     * @param equation String representation of the equation
+     * @throws Exception If the equation is malformed or the formula would depend on itself
+     */
+    public void define(String name, String equation) throws Exception {
+        define(name, CompiledExpression.compile(equation));
+    }
+
+    /**
+     * Defines a formula or replaces the one of the same name
+     * @param name Name other formulas reference the result by
+     * @param expression The compiled equation
+     * @throws Exception If the formula would depend on itself
+     */
+    public void define(String name, CompiledExpression expression) throws Exception {
+        if(name == null || name.isBlank()) throw new IllegalArgumentException("Invalid name: " + name);
+        Formula previous = formulas.put(name, new Formula(name, expression));
+        try {
+            link(name);
+        } catch (Exception e) {
+            if(previous == null) formulas.remove(name);
+            else formulas.put(name, previous);
+            link(name);
+            throw e;
+        }
+        inputs.remove(name);
+        Formula formula = formulas.get(name);
+        // the new formula starts from the current inputs and results, its readers are updated once it is evaluated
+        for(Map.Entry<String, double[]> input: inputs.entrySet())
+            formula.frame.setVariable(input.getKey(), input.getValue()[0], input.getValue()[1]);
+        for(Formula other: order)
+            if(other.evaluated) formula.frame.setVariable(other.name, other.value[0], other.value[1]);
+    }
+
+    /**
+     * Removes a formula that no other formula references
+     * @param name Name of the formula
+     * @return Whether there was such a formula
+     * @throws IllegalArgumentException If another formula references it
+     */
+    public boolean remove(String name) {
+        if(!formulas.containsKey(name)) return false;
+        List<Reader> users = readers.getOrDefault(name, List.of());
+        if(!users.isEmpty())
+            throw new IllegalArgumentException("Formula in use: " + name + " by " + users.getFirst().formula().name);
+        formulas.remove(name);
+        try {
+            link(name);
+        } catch (Exception e) {
+            // removing a formula cannot introduce a cycle
+            throw new IllegalStateException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Setter for an input variable, formulas reading it are recomputed on the next evaluation
+     * unless it already holds the value
+     * @param variable Name of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     * @throws IllegalArgumentException If the name is the one of a formula
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        if(formulas.containsKey(variable)) throw new IllegalArgumentException("Not an input: " + variable);
+        double[] value = inputs.get(variable);
+        if(value == null) inputs.put(variable, new double[] { real, imaginary });
+        else {
+            value[0] = real;
+            value[1] = imaginary;
+        }
+        for(Reader reader: readers.getOrDefault(variable, List.of()))
+            if(reader.formula().frame.update(reader.slot(), real, imaginary)) reader.formula().dirty = true;
+    }
+
+    /**
+     * Setter for an input variable holding a real value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, double value) {
+        setVariable(variable, value, 0.0);
+    }
+
+    /**
+     * Setter for an input variable holding a Complex value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        setVariable(variable, value.real(), value.imaginary());
+    }
+
+    /**
+     * Setter for every input variable found in a Map Object
+     * @param variables Map Object of the variables
+     */
+    public void setVariables(Map<String, Complex> variables) {
+        for(Map.Entry<String, Complex> variable: variables.entrySet())
+            setVariable(variable.getKey(), variable.getValue());
+    }
+
+    /**
+     * Evaluates a formula, after recomputing every formula affected by the variables that changed
+     * @param name Name of the formula
+     * @return Resultant Complex number
+     * @throws Exception If there is no such formula, an input is not set or a formula divides by zero
+     */
+    public Complex evaluate(String name) throws Exception {
+        Formula formula = formulas.get(name);
+        if(formula == null) throw new Exception("Formula not found: " + name);
+        recompute();
+        return new Complex(formula.value[0], formula.value[1]);
+    }
+
+    /**
+     * Evaluates every formula, after recomputing the ones affected by the variables that changed
+     * @return Map Object of the results by name of the formula, in topological order
+     * @throws Exception If an input is not set or a formula divides by zero
+     */
+    public Map<String, Complex> evaluate() throws Exception {
+        recompute();
+        Map<String, Complex> results = new LinkedHashMap<>();
+        for(Formula formula: order) results.put(formula.name, new Complex(formula.value[0], formula.value[1]));
+        return results;
+    }
+
+    /**
+     * @return Names of the formulas in the order they are recomputed, every formula after the ones it references
+     */
+    public List<String> getOrder() {
+        List<String> names = new ArrayList<>(order.length);
+        for(Formula formula: order) names.add(formula.name);
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @param name Name of the formula
+     * @return The compiled equation of the formula or <b>null</b> if there is no such formula
+     */
+    public CompiledExpression getFormula(String name) {
+        Formula formula = formulas.get(name);
+        return formula == null ? null : formula.expression;
+    }
+
+    /**
+     * @return Number of instructions run by every formula since it was defined, for measuring how
+     * much work the incremental evaluations saved
+     */
+    public long getExecutedCount() {
+        long count = 0;
+        for(Formula formula: order) count += formula.frame.getExecutedCount();
+        return count;
+    }
+
+    private void recompute() throws Exception {
+        for(Formula formula: order) {
+            if(!formula.dirty) continue;
+            formula.frame.evaluateInto(formula.value, 0);
+            formula.dirty = false;
+            formula.evaluated = true;
+            for(Reader reader: readers.getOrDefault(formula.name, List.of()))
+                if(reader.formula().frame.update(reader.slot(), formula.value[0], formula.value[1]))
+                    reader.formula().dirty = true;
+        }
+    }
+
+    /**
+     * Sorts the formulas topologically and finds the readers of every name
+     * @param start Name of the formula visited first, so that a cycle is reported from it
+     * @throws Exception If a formula depends on itself
+     */
+    private void link(String start) throws Exception {
+        List<Formula> sorted = new ArrayList<>(formulas.size());
+        Map<String, Boolean> visited = new HashMap<>();
+        if(formulas.containsKey(start)) visit(formulas.get(start), visited, sorted, new ArrayList<>());
+        for(Formula formula: formulas.values()) visit(formula, visited, sorted, new ArrayList<>());
+        Map<String, List<Reader>> links = new HashMap<>();
+        for(Formula formula: sorted) {
+            List<String> variables = formula.expression.getVariables();
+            for(int slot = 0; slot < variables.size(); slot++)
+                links.computeIfAbsent(variables.get(slot), variable -> new ArrayList<>()).add(new Reader(formula, slot));
+        }
+        order = sorted.toArray(new Formula[0]);
+        readers = links;
+    }
+
+    // depth first, visited maps a name to false while its dependencies are being visited and to true once sorted
+    private void visit(Formula formula, Map<String, Boolean> visited, List<Formula> sorted, List<String> path) throws Exception {
+        Boolean done = visited.get(formula.name);
+        if(done == Boolean.TRUE) return;
+        path.add(formula.name);
+        if(done == Boolean.FALSE)
+            throw new Exception("Cyclic formula: " + String.join(" -> ", path.subList(path.indexOf(formula.name), path.size())));
+        visited.put(formula.name, false);
+        for(String variable: formula.expression.getVariables()) {
+            Formula dependency = formulas.get(variable);
+            if(dependency != null) visit(dependency, visited, sorted, path);
+        }
+        visited.put(formula.name, true);
+        path.removeLast();
+        sorted.add(formula);
+    }
+}
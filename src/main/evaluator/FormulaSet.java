@@ -0,0 +1,139 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import complex.Complex;
+
+/**
+ * Immutable, thread-safe set of equations compiled together into one program, for reports that
+ * evaluate many related formulas against the same variables. The equations share one table of
+ * variable slots, so each variable is bound once per row however many formulas read it, and a
+ * subexpression such as <b>sin(x)</b> or <b>x^2</b> that appears in several formulas is evaluated once
+ * per row for all of them. Rows are evaluated by a FormulaFrame, which writes every result into a
+ * primitive array.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class FormulaSet {
+    private final String[] equations;
+    private final String[] variables;
+    private final Program program;
+    // the register holding the result of each formula
+    private final int[] results;
+
+    private FormulaSet(String[] equations, String[] variables, Program program, int[] results) {
+        this.equations = equations;
+        this.variables = variables;
+        this.program = program;
+        this.results = results;
+    }
+
+    /**
+     * Parses equations into one compiled set. Each equation is optimized on its own, as by
+     * <b>CompiledExpression.compile</b>, before the equations are lowered together.
+     * @param equations String representations of the equations
+     * @return Compiled form of the equations
+     * @throws Exception If an equation is malformed
+     */
+    public static FormulaSet compile(String... equations) throws Exception {
+        return compile(Arrays.asList(equations), FunctionRegistry.standard());
+    }
+
+    /**
+     * Parses equations calling the functions of a registry into one compiled set
+     * @param equations String representations of the equations, in the order of their results
+     * @param functions Functions the equations may call
+     * @return Compiled form of the equations
+     * @throws Exception If an equation is malformed or calls a function the registry does not hold
+     */
+    public static FormulaSet compile(List<String> equations, FunctionRegistry functions) throws Exception {
+        if(equations == null || equations.isEmpty()) throw new IllegalArgumentException("Invalid number of equations: 0");
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        List<Node> roots = new ArrayList<>(equations.size());
+        for(String equation: equations) roots.add(Optimizer.optimize(new Parser(equation, functions, slots).parse()));
+        int[] results = new int[roots.size()];
+        Program program = Program.lower(roots, slots.size(), results);
+        return new FormulaSet(equations.toArray(new String[0]), slots.keySet().toArray(new String[0]), program, results);
+    }
+
+    /**
+     * @return Number of equations, each of which has one result
+     */
+    public int size() {
+        return equations.length;
+    }
+
+    /**
+     * @return The equations of the set, in the order of their results
+     */
+    public List<String> getEquations() {
+        return Collections.unmodifiableList(Arrays.asList(equations));
+    }
+
+    /**
+     * @return Names of the variables referenced by any of the equations, in the order of their slot indices
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    /**
+     * @param variable Name of the variable
+     * @return Slot index of the variable or <b>-1</b> if no equation references it
+     */
+    public int getSlot(String variable) {
+        for(int i = 0; i < variables.length; i++)
+            if(variables[i].equals(variable)) return i;
+        return -1;
+    }
+
+    /**
+     * @return Number of instructions run per row, subexpressions shared by several equations counting once
+     */
+    public int getInstructionCount() {
+        return program.opcodes.length;
+    }
+
+    /**
+     * Creates empty bindings whose slots match the variables of the set
+     * @return New Bindings, to be filled by the caller
+     */
+    public Bindings bindings() {
+        return new Bindings(variables);
+    }
+
+    /**
+     * Creates a register file for evaluating the set row after row without allocating
+     * @return A new FormulaFrame, to be used by a single thread at a time
+     */
+    public FormulaFrame newFrame() {
+        return new FormulaFrame(bindings(), program, results);
+    }
+
+    /**
+     * Evaluates every equation against the given values of the variables
+     * @param values Map Object representing variables to be used while evaluating
+     * @return Results of the equations, in their order
+     * @throws Exception If a variable is missing or an equation divides by zero
+     */
+    public Complex[] evaluate(Map<String, Complex> values) throws Exception {
+        FormulaFrame frame = newFrame();
+        if(values != null) frame.getBindings().setVariables(values);
+        double[] out = new double[2 * equations.length];
+        frame.evaluateInto(out);
+        Complex[] complexes = new Complex[equations.length];
+        for(int i = 0; i < complexes.length; i++) complexes[i] = new Complex(out[2 * i], out[2 * i + 1]);
+        return complexes;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("; ", equations);
+    }
+}
@@ -0,0 +1,214 @@
+package evaluator;
+
+import complex.Complex;
+
+/**
+ * Preallocated register file for evaluating a CompiledExpression without producing any garbage.
+ * A frame is cheap to keep around but is not thread-safe, every thread should use its own frame.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class Frame {
+    private final Bindings bindings;
+    private final Program program;
+    private final double[] registers;
+    private final double[] reals;
+    private final CompiledFunction function;
+    private boolean realFastPath = true;
+    private EvaluationListener listener = EvaluationListener.NONE;
+
+    Frame(Bindings bindings, Program program, CompiledFunction function) {
+        this.bindings = bindings;
+        this.program = program;
+        this.function = function;
+        this.registers = new double[program.registers() * 2];
+        this.reals = program.isReal() && function == null ? new double[program.registers()] : null;
+        program.load(registers);
+        if(reals != null) program.loadReal(reals);
+    }
+
+    /**
+     * Enables or disables the real fast path, which is on by default. When the equation has no
+     * imaginary constant and every variable is real, the frame evaluates it with plain double
+     * arithmetic and only falls back to complex arithmetic if an operation leaves the real numbers.
+     * Results of the fast path are at least as accurate as the complex ones but may differ in the last bits.
+     * Frames of the <b>BYTECODE</b> backend always use complex arithmetic.
+     * @param enabled Whether the real fast path may be used
+     */
+    public void setRealFastPath(boolean enabled) {
+        this.realFastPath = enabled;
+    }
+
+    /**
+     * Setter for a listener receiving every instruction this frame runs. Equations are reported as they
+     * are evaluated after constant folding, with shared subexpressions reported once. While a listener
+     * is set, the frame runs every instruction with complex arithmetic in the interpreter, whatever the
+     * backend and the real fast path.
+     * @param listener The listener, <b>EvaluationListener.NONE</b> by default
+     */
+    public void setListener(EvaluationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return The bindings used by the methods of this frame that take none
+     */
+    public Bindings getBindings() {
+        return bindings;
+    }
+
+    /**
+     * Setter for a variable by its slot index
+     * @param slot Slot index of the variable, see <b>CompiledExpression.getSlot</b>
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(int slot, double real, double imaginary) {
+        bindings.setVariable(slot, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable by its name, variables not used by the equation are ignored
+     * @param variable Name of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        bindings.setVariable(variable, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable holding a real value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, double value) {
+        bindings.setVariable(variable, value);
+    }
+
+    /**
+     * Setter for a variable holding a Complex value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        bindings.setVariable(variable, value);
+    }
+
+    /**
+     * Evaluates the equation and writes the real and imaginary part of the result to
+     * <b>out[0]</b> and <b>out[1]</b>
+     * @param out Array receiving the result
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public void evaluateInto(double[] out) throws Exception {
+        evaluateInto(out, 0);
+    }
+
+    /**
+     * Evaluates the equation and writes the real and imaginary part of the result to
+     * <b>out[offset]</b> and <b>out[offset + 1]</b>
+     * @param out Array receiving the result
+     * @param offset Index of the real part of the result in <b>out</b>
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public void evaluateInto(double[] out, int offset) throws Exception {
+        evaluateInto(bindings, out, offset);
+    }
+
+    /**
+     * Evaluates the equation against the given bindings instead of the ones of the frame
+     * @param values Values of the variables, created by the same CompiledExpression as this frame
+     * @param out Array receiving the result
+     * @param offset Index of the real part of the result in <b>out</b>
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public void evaluateInto(Bindings values, double[] out, int offset) throws Exception {
+        if(run(values)) {
+            out[offset] = reals[program.result];
+            out[offset + 1] = 0.0;
+        } else {
+            out[offset] = registers[2 * program.result];
+            out[offset + 1] = registers[2 * program.result + 1];
+        }
+    }
+
+    /**
+     * Evaluates the equation
+     * @return Resultant Complex number
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public Complex evaluate() throws Exception {
+        return evaluate(bindings);
+    }
+
+    /**
+     * Evaluates the equation against the given bindings instead of the ones of the frame
+     * @param values Values of the variables, created by the same CompiledExpression as this frame
+     * @return Resultant Complex number
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public Complex evaluate(Bindings values) throws Exception {
+        if(run(values)) return new Complex(reals[program.result], 0.0);
+        return new Complex(registers[2 * program.result], registers[2 * program.result + 1]);
+    }
+
+    /**
+     * Evaluates the equation with the arithmetic it is evaluated with when no listener is set, the real
+     * fast path included, reporting every instruction to a listener, for profilers that should measure the
+     * same work as unprofiled evaluations. The <b>BYTECODE</b> backend has no boundary between its
+     * instructions, so its frames run the interpreter with complex arithmetic, as the generated code does.
+     * @param values Values of the variables, created by the same CompiledExpression as this frame
+     * @param listener Listener receiving every instruction
+     * @return Resultant Complex number
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    Complex profile(Bindings values, EvaluationListener listener) throws Exception {
+        if(run(values, listener, true)) return new Complex(reals[program.result], 0.0);
+        return new Complex(registers[2 * program.result], registers[2 * program.result + 1]);
+    }
+
+    /**
+     * @return <b>true</b> if the result was computed by the real fast path
+     */
+    private boolean run(Bindings values) throws Exception {
+        return run(values, listener, listener == EvaluationListener.NONE);
+    }
+
+    /**
+     * @param fast Whether the real fast path may be taken while a listener is set
+     * @return <b>true</b> if the result was computed by the real fast path
+     */
+    private boolean run(Bindings values, EvaluationListener listener, boolean fast) throws Exception {
+        if(values != bindings && !values.matches(bindings.names))
+            throw new IllegalArgumentException("Bindings of another expression: " + values.getVariables());
+        boolean traced = listener != EvaluationListener.NONE, real = realFastPath && reals != null && fast;
+        for(int i = 0; i < program.variables; i++) {
+            if(!values.bound[i]) throw new Exception("Symbol not found: " + values.names[i]);
+            if(function != null && !traced) continue;
+            double re = values.values[2 * i], im = values.values[2 * i + 1];
+            registers[2 * i] = re;
+            registers[2 * i + 1] = im;
+            if(real) {
+                if(im != 0.0) real = false;
+                else reals[i] = re;
+            }
+        }
+        if(traced) {
+            // instructions run before the real fast path bails out are reported again, their time was spent
+            if(real && program.runReal(reals, listener)) return true;
+            program.run(registers, listener);
+            return false;
+        }
+        if(function != null) {
+            // the result register is overwritten with the value it would have been given
+            function.evaluate(values.values, registers, 2 * program.result);
+            return false;
+        }
+        if(real && program.runReal(reals)) return true;
+        program.run(registers);
+        return false;
+    }
+}
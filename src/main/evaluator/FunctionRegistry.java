@@ -0,0 +1,85 @@
+package evaluator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable set of the functions an equation may call, by name. The standard registry holds
+ * <b>sin</b>, <b>cos</b>, <b>tan</b>, <b>log</b>, <b>ln</b>, <b>sqrt</b>, <b>exp</b>, <b>sinh</b>,
+ * <b>cosh</b>, <b>abs</b>, <b>arg</b>, <b>conj</b> and the variadic <b>min</b> and <b>max</b>, which
+ * compare real parts. Names are only looked up while an equation is parsed, so a registry holding
+ * many functions costs nothing once the equation is compiled. Since the compiled form of an equation
+ * depends on the registry it was parsed with, each registry other than the standard one is given
+ * its own ExpressionCache by the evaluators using it.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class FunctionRegistry {
+    private static final FunctionRegistry STANDARD = new FunctionRegistry(MathFunction.SIN, MathFunction.COS,
+            MathFunction.TAN, MathFunction.LOG, MathFunction.LN, MathFunction.SQRT, MathFunction.EXP, MathFunction.SINH,
+            MathFunction.COSH, MathFunction.ABS, MathFunction.ARG, MathFunction.CONJ, MathFunction.MIN, MathFunction.MAX);
+
+    private final Map<String, MathFunction> functions;
+
+    private FunctionRegistry(MathFunction... functions) {
+        Map<String, MathFunction> map = new LinkedHashMap<>();
+        for(MathFunction function: functions) map.put(function.getName(), function);
+        this.functions = Collections.unmodifiableMap(map);
+    }
+
+    private FunctionRegistry(Map<String, MathFunction> functions) {
+        this.functions = Collections.unmodifiableMap(functions);
+    }
+
+    /**
+     * @return The registry of the built-in functions, used unless another one is given
+     */
+    public static FunctionRegistry standard() {
+        return STANDARD;
+    }
+
+    /**
+     * @param function Function to be added, replacing the one of the same name
+     * @return A registry holding the functions of this one and the given function
+     */
+    public FunctionRegistry with(MathFunction function) {
+        Map<String, MathFunction> map = new LinkedHashMap<>(functions);
+        map.put(function.getName(), function);
+        return new FunctionRegistry(map);
+    }
+
+    /**
+     * @param name Name of the function to be removed
+     * @return A registry holding the functions of this one except the given one
+     */
+    public FunctionRegistry without(String name) {
+        if(!functions.containsKey(name)) return this;
+        Map<String, MathFunction> map = new LinkedHashMap<>(functions);
+        map.remove(name);
+        return new FunctionRegistry(map);
+    }
+
+    /**
+     * @param name Name of the function as written in an equation
+     * @return The function or <b>null</b> if the registry does not hold one of that name
+     */
+    public MathFunction get(String name) {
+        return functions.get(name);
+    }
+
+    /**
+     * @return Names of the functions, in the order they were added
+     */
+    public Set<String> getNames() {
+        return functions.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return "FunctionRegistry" + functions.keySet();
+    }
+}
@@ -0,0 +1,430 @@
+package evaluator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import complex.Complex;
+
+/**
+ * Evaluates a CompiledExpression over a rectangular grid of the complex plane, one of its variables
+ * taking the value of each point, for domain colouring and contour sampling, or iterates it from each
+ * point until it escapes a radius, as for the Mandelbrot and Julia sets. Rows of the grid are split
+ * into bands evaluated in parallel on a ForkJoinPool, every worker thread running chunks of points
+ * through the column kernels of the BatchEvaluator with its own scratch buffers. While iterating,
+ * the points of a chunk that escaped are dropped from it, so that later iterations only run the
+ * points still inside. Results are written to arrays or straight into a memory-mapped file. A point
+ * where the equation divides by zero, such as a pole of <b>1/z</b>, gets NaN as its value, so one pole
+ * does not abort the whole grid, and stops iterating.
+ * A grid evaluator may be used by several threads as long as its variables are not changed meanwhile.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class GridEvaluator {
+    /**
+     * Rectangle of the complex plane sampled by a grid of <b>width</b> by <b>height</b> points, the
+     * corners included. Points are numbered row by row, row 0 lying on <b>maxImaginary</b> at the top
+     * of an image and column 0 on <b>minReal</b>.
+     * @param minReal Real part of the left edge
+     * @param minImaginary Imaginary part of the bottom edge
+     * @param maxReal Real part of the right edge
+     * @param maxImaginary Imaginary part of the top edge
+     * @param width Number of points per row
+     * @param height Number of rows
+     */
+    public record Region(double minReal, double minImaginary, double maxReal, double maxImaginary, int width, int height) {
+        public Region {
+            if(width <= 0 || height <= 0) throw new IllegalArgumentException("Invalid resolution: " + width + "x" + height);
+        }
+
+        /**
+         * @return Number of points of the grid
+         */
+        public long size() {
+            return (long) width * height;
+        }
+
+        /**
+         * @param column Column of a point
+         * @return Real part of the points of the column
+         */
+        public double real(int column) {
+            return width == 1 ? minReal : minReal + (maxReal - minReal) * column / (width - 1);
+        }
+
+        /**
+         * @param row Row of a point
+         * @return Imaginary part of the points of the row
+         */
+        public double imaginary(int row) {
+            return height == 1 ? maxImaginary : maxImaginary - (maxImaginary - minImaginary) * row / (height - 1);
+        }
+    }
+
+    /**
+     * Iteration rule: the equation is applied to its own result, fed back through <b>variable</b>, until
+     * the result leaves the disc of the given radius or <b>maxIterations</b> is reached
+     * @param variable Variable receiving the previous result, the same as the grid variable for a Julia set
+     * @param start First value of the variable, <b>null</b> to start from the point, as for a Julia set
+     * @param maxIterations Largest number of iterations
+     * @param radius Radius of the escape disc, <b>2</b> for the Mandelbrot set
+     */
+    public record Escape(String variable, Complex start, int maxIterations, double radius) {
+        public Escape {
+            if(maxIterations < 0) throw new IllegalArgumentException("Invalid iterations: " + maxIterations);
+            if(!(radius > 0.0)) throw new IllegalArgumentException("Invalid radius: " + radius);
+        }
+    }
+
+    private final CompiledExpression expression;
+    private final Program program;
+    private final int point, chunkSize;
+    private final double[] values;
+    private final boolean[] bound;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    GridEvaluator(CompiledExpression expression, Program program, String variable, int chunkSize) {
+        if(chunkSize <= 0) throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        if(expression.getSlot(variable) < 0) throw new IllegalArgumentException("Invalid grid variable: " + variable);
+        this.expression = expression;
+        this.program = program;
+        this.point = expression.getSlot(variable);
+        this.chunkSize = chunkSize;
+        this.values = new double[2 * program.variables];
+        this.bound = new boolean[program.variables];
+    }
+
+    /**
+     * Setter for a variable keeping the same value over the whole grid, such as <b>c</b> of a Julia set
+     * @param variable Name of the variable, variables not used by the equation are ignored
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        int slot = expression.getSlot(variable);
+        if(slot < 0) return;
+        values[2 * slot] = real;
+        values[2 * slot + 1] = imaginary;
+        bound[slot] = true;
+    }
+
+    /**
+     * Setter for a variable keeping the same value over the whole grid
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        setVariable(variable, value.real(), value.imaginary());
+    }
+
+    /**
+     * Setter for the pool running the bands of the grid, the common ForkJoinPool by default
+     * @param pool The pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Evaluates the equation at every point of the grid
+     * @param region The grid
+     * @param outReal Receives the real part of the result at each point, row by row
+     * @param outImaginary Receives the imaginary part of the result at each point, may be <b>null</b>
+     * @throws Exception If a variable is not set
+     */
+    public void evaluate(Region region, double[] outReal, double[] outImaginary) throws Exception {
+        check(region, null, outReal.length, outImaginary == null ? Integer.MAX_VALUE : outImaginary.length);
+        run(region, null, new ArrayOutput(outReal, outImaginary, null), null);
+    }
+
+    /**
+     * Evaluates the equation at every point of the grid and writes the results to a file, the real
+     * and imaginary part of each point as little-endian doubles, row by row, 16 bytes per point.
+     * Each band of rows is written through its own memory mapping, so grids larger than the heap can be sampled.
+     * @param region The grid
+     * @param file File to be created or overwritten
+     * @throws Exception If a variable is not set or writing fails
+     */
+    public void evaluate(Region region, Path file) throws Exception {
+        check(region, null, Long.MAX_VALUE, Long.MAX_VALUE);
+        try (FileChannel channel = open(file)) {
+            run(region, null, null, channel);
+        }
+    }
+
+    /**
+     * Iterates the equation from every point of the grid until it escapes
+     * @param region The grid
+     * @param escape The iteration rule
+     * @param iterations Receives the number of iterations after which each point escaped, <b>maxIterations</b>
+     * if it did not, and <b>0</b> if it started outside the disc
+     * @param outReal Receives the real part of the last value of each point, may be <b>null</b>
+     * @param outImaginary Receives the imaginary part of the last value of each point, may be <b>null</b>
+     * @throws Exception If a variable is not set
+     */
+    public void iterate(Region region, Escape escape, int[] iterations, double[] outReal, double[] outImaginary) throws Exception {
+        check(region, escape, iterations.length, Math.min(outReal == null ? Integer.MAX_VALUE : outReal.length,
+                outImaginary == null ? Integer.MAX_VALUE : outImaginary.length));
+        run(region, escape, new ArrayOutput(outReal, outImaginary, iterations), null);
+    }
+
+    /**
+     * Iterates the equation from every point of the grid until it escapes and writes the number of
+     * iterations of each point to a file, as little-endian ints, row by row, 4 bytes per point
+     * @param region The grid
+     * @param escape The iteration rule
+     * @param file File to be created or overwritten
+     * @throws Exception If a variable is not set or writing fails
+     */
+    public void iterate(Region region, Escape escape, Path file) throws Exception {
+        check(region, escape, Long.MAX_VALUE, Long.MAX_VALUE);
+        try (FileChannel channel = open(file)) {
+            run(region, escape, null, channel);
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void check(Region region, Escape escape, long length, long otherLength) throws Exception {
+        if(region.size() > Math.min(length, otherLength))
+            throw new IllegalArgumentException("Output too small for " + region.size() + " points");
+        int iterated = escape == null ? -1 : expression.getSlot(escape.variable());
+        if(escape != null && iterated < 0) throw new Exception("Symbol not found: " + escape.variable());
+        for(int slot = 0; slot < program.variables; slot++)
+            if(slot != point && slot != iterated && !bound[slot])
+                throw new Exception("Symbol not found: " + expression.getVariables().get(slot));
+    }
+
+    private void run(Region region, Escape escape, ArrayOutput arrays, FileChannel file) throws Exception {
+        int iterated = escape == null ? -1 : expression.getSlot(escape.variable());
+        // about 16 bands per thread to balance the load, each holding at least a chunk and small enough to be mapped
+        long bytes = (long) region.width() * (escape == null ? 16 : 4);
+        long rows = Math.max(region.height() / (pool.getParallelism() * 16L), (chunkSize + region.width() - 1) / region.width());
+        rows = Math.max(1, Math.min(rows, (Integer.MAX_VALUE / 2) / bytes));
+        Job job = new Job(region, escape, iterated, arrays, file, bytes, new ConcurrentHashMap<>());
+        try {
+            pool.invoke(new Band(job, 0, region.height(), (int) rows));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record Job(Region region, Escape escape, int iterated, ArrayOutput arrays, FileChannel file, long bytesPerRow,
+                       Map<Thread, Worker> workers) {}
+
+    private final class Band extends RecursiveAction {
+        private final Job job;
+        private final int from, to, rows;
+
+        Band(Job job, int from, int to, int rows) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= rows) {
+                Worker worker = job.workers().computeIfAbsent(Thread.currentThread(), thread -> new Worker());
+                Output output = job.arrays();
+                if(output == null) {
+                    try {
+                        MappedByteBuffer buffer = job.file().map(FileChannel.MapMode.READ_WRITE,
+                                from * job.bytesPerRow(), (to - from) * job.bytesPerRow());
+                        output = new MappedOutput(buffer.order(ByteOrder.LITTLE_ENDIAN), (long) from * job.region().width());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                worker.band(job, from, to, output);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Band(job, from, middle, rows), new Band(job, middle, to, rows));
+        }
+    }
+
+    /**
+     * Scratch registers of a worker thread, one column of <b>chunkSize</b> points per register
+     */
+    private final class Worker {
+        private final double[][] re = new double[program.registers()][chunkSize], im = new double[program.registers()][chunkSize];
+        // index in the grid of each point still iterated
+        private final long[] lanes = new long[chunkSize];
+        // the variables of the first point and the results of a chunk run again point by point
+        private final double[] first = new double[2 * program.variables];
+        private final double[] pointRe = new double[chunkSize], pointIm = new double[chunkSize];
+
+        Worker() {
+            for(int i = 0; i < program.constants.length / 2; i++) {
+                Arrays.fill(re[program.variables + i], program.constants[2 * i]);
+                Arrays.fill(im[program.variables + i], program.constants[2 * i + 1]);
+            }
+            for(int slot = 0; slot < program.variables; slot++) {
+                Arrays.fill(re[slot], values[2 * slot]);
+                Arrays.fill(im[slot], values[2 * slot + 1]);
+            }
+        }
+
+        void band(Job job, int fromRow, int toRow, Output output) {
+            Region region = job.region();
+            long end = (long) toRow * region.width();
+            int column = 0, row = fromRow;
+            for(long start = (long) fromRow * region.width(); start < end; start += chunkSize) {
+                int n = (int) Math.min(chunkSize, end - start);
+                // the grid variable, and the iterated one if it starts from the point, take the coordinates of each point
+                int from = job.iterated() >= 0 && job.escape().start() == null ? job.iterated() : -1;
+                for(int k = 0; k < n; k++) {
+                    double x = region.real(column), y = region.imaginary(row);
+                    re[point][k] = x;
+                    im[point][k] = y;
+                    if(from >= 0) {
+                        re[from][k] = x;
+                        im[from][k] = y;
+                    }
+                    lanes[k] = start + k;
+                    if(++column == region.width()) {
+                        column = 0;
+                        row++;
+                    }
+                }
+                if(job.escape() == null) {
+                    run(n);
+                    double[] resultRe = re[program.result], resultIm = im[program.result];
+                    for(int k = 0; k < n; k++) output.value(start + k, resultRe[k], resultIm[k]);
+                } else iterate(job, n, output);
+            }
+        }
+
+        private void iterate(Job job, int n, Output output) {
+            Escape escape = job.escape();
+            int z = job.iterated();
+            if(escape.start() != null) {
+                Arrays.fill(re[z], 0, n, escape.start().real());
+                Arrays.fill(im[z], 0, n, escape.start().imaginary());
+            }
+            double limit = escape.radius() * escape.radius();
+            // points starting outside the disc escape after 0 iterations
+            int active = compact(z, re[z], im[z], n, limit, 0, output);
+            for(int iteration = 1; iteration <= escape.maxIterations() && active > 0; iteration++) {
+                run(active);
+                active = compact(z, re[program.result], im[program.result], active, limit, iteration, output);
+            }
+            for(int k = 0; k < active; k++) output.escape(lanes[k], escape.maxIterations(), re[z][k], im[z][k]);
+        }
+
+        /**
+         * Runs the program over the first <b>n</b> points of the chunk. A division by zero fails the
+         * whole chunk, which is then run again point by point, a failing point getting NaN as its value.
+         */
+        private void run(int n) {
+            try {
+                BatchKernels.run(program, re, im, n);
+                return;
+            } catch (ArithmeticException e) {
+                // one point is a pole, the others are evaluated on their own below
+            }
+            int variables = program.variables;
+            for(int slot = 0; slot < variables; slot++) {
+                first[2 * slot] = re[slot][0];
+                first[2 * slot + 1] = im[slot][0];
+            }
+            // each point is moved in turn to the first lane and run alone
+            for(int k = 0; k < n; k++) {
+                for(int slot = 0; slot < variables; slot++) {
+                    re[slot][0] = k == 0 ? first[2 * slot] : re[slot][k];
+                    im[slot][0] = k == 0 ? first[2 * slot + 1] : im[slot][k];
+                }
+                try {
+                    BatchKernels.run(program, re, im, 1);
+                    pointRe[k] = re[program.result][0];
+                    pointIm[k] = im[program.result][0];
+                } catch (ArithmeticException e) {
+                    pointRe[k] = Double.NaN;
+                    pointIm[k] = Double.NaN;
+                }
+            }
+            for(int slot = 0; slot < variables; slot++) {
+                re[slot][0] = first[2 * slot];
+                im[slot][0] = first[2 * slot + 1];
+            }
+            System.arraycopy(pointRe, 0, re[program.result], 0, n);
+            System.arraycopy(pointIm, 0, im[program.result], 0, n);
+        }
+
+        /**
+         * Reports the points whose value left the disc and moves the others to the front of the chunk
+         * @return Number of points still iterated
+         */
+        private int compact(int z, double[] valueRe, double[] valueIm, int n, double limit, int iteration, Output output) {
+            int kept = 0;
+            for(int k = 0; k < n; k++) {
+                double a = valueRe[k], b = valueIm[k];
+                // a NaN escapes as well, it would never come back
+                if(!(a * a + b * b <= limit)) {
+                    output.escape(lanes[k], iteration, a, b);
+                    continue;
+                }
+                re[z][kept] = a;
+                im[z][kept] = b;
+                if(point != z) {
+                    re[point][kept] = re[point][k];
+                    im[point][kept] = im[point][k];
+                }
+                lanes[kept++] = lanes[k];
+            }
+            return kept;
+        }
+    }
+
+    private interface Output {
+        void value(long index, double real, double imaginary);
+
+        void escape(long index, int iterations, double real, double imaginary);
+    }
+
+    private record ArrayOutput(double[] real, double[] imaginary, int[] iterations) implements Output {
+        @Override
+        public void value(long index, double re, double im) {
+            real[(int) index] = re;
+            if(imaginary != null) imaginary[(int) index] = im;
+        }
+
+        @Override
+        public void escape(long index, int count, double re, double im) {
+            iterations[(int) index] = count;
+            if(real != null) real[(int) index] = re;
+            if(imaginary != null) imaginary[(int) index] = im;
+        }
+    }
+
+    // writes the points of a band, from the one at index start, into its mapping
+    private record MappedOutput(ByteBuffer buffer, long start) implements Output {
+        @Override
+        public void value(long index, double real, double imaginary) {
+            int offset = (int) (index - start) * 16;
+            buffer.putDouble(offset, real);
+            buffer.putDouble(offset + 8, imaginary);
+        }
+
+        @Override
+        public void escape(long index, int iterations, double real, double imaginary) {
+            buffer.putInt((int) (index - start) * 4, iterations);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package evaluator;
+
+import complex.Complex;
+
+/**
+ * Register file that keeps the value of every subexpression between evaluations and only recomputes
+ * the ones depending on a variable that changed since the previous evaluation. Each variable knows
+ * the instructions reading it, directly or through other instructions, so changing one variable of
+ * an equation over dozens reruns the path from that variable to the result and nothing else, and
+ * evaluating with no change returns the cached result. Setting a variable to the value it already
+ * holds is not a change. Like a Frame, an incremental frame is not thread-safe.
+ * Incremental frames always run the interpreter with complex arithmetic, whatever the backend.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class IncrementalFrame {
+    private final String[] names;
+    private final Program program;
+    private final double[] registers;
+    private final boolean[] bound;
+    private final long[][] dependents;
+    // instructions to be run before the result is up to date
+    private final long[] dirty;
+    private int unbound;
+    private long executed;
+
+    IncrementalFrame(String[] names, Program program) {
+        this.names = names;
+        this.program = program;
+        this.registers = new double[program.registers() * 2];
+        this.bound = new boolean[names.length];
+        this.dependents = program.dependents();
+        this.dirty = new long[(program.opcodes.length + 63) >>> 6];
+        this.unbound = names.length;
+        program.load(registers);
+        for(int i = 0; i < program.opcodes.length; i++) dirty[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * @param variable Name of the variable
+     * @return Slot index of the variable or <b>-1</b> if the equation does not reference it
+     */
+    public int getSlot(String variable) {
+        for(int i = 0; i < names.length; i++)
+            if(names[i].equals(variable)) return i;
+        return -1;
+    }
+
+    /**
+     * Setter for a variable by its slot index, marking the subexpressions depending on it for
+     * recomputation unless it already holds the value
+     * @param slot Slot index of the variable, see <b>CompiledExpression.getSlot</b>
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(int slot, double real, double imaginary) {
+        update(slot, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable by its name, variables not used by the equation are ignored
+     * @param variable Name of the variable
+     * @param real Real part of the value
+     * @param imaginary Imaginary part of the value
+     */
+    public void setVariable(String variable, double real, double imaginary) {
+        int slot = getSlot(variable);
+        if(slot >= 0) update(slot, real, imaginary);
+    }
+
+    /**
+     * Setter for a variable holding a real value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, double value) {
+        setVariable(variable, value, 0.0);
+    }
+
+    /**
+     * Setter for a variable holding a Complex value
+     * @param variable Name of the variable
+     * @param value Value of the variable
+     */
+    public void setVariable(String variable, Complex value) {
+        setVariable(variable, value.real(), value.imaginary());
+    }
+
+    /**
+     * @return Whether a variable changed since the previous evaluation, so the next one has work to do
+     */
+    public boolean isStale() {
+        for(long word: dirty)
+            if(word != 0) return true;
+        return false;
+    }
+
+    /**
+     * @return Number of instructions run by this frame since it was created, for measuring how much
+     * work the incremental evaluations saved
+     */
+    public long getExecutedCount() {
+        return executed;
+    }
+
+    /**
+     * Evaluates the equation, recomputing only what depends on the variables that changed
+     * @return Resultant Complex number
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public Complex evaluate() throws Exception {
+        update();
+        return new Complex(registers[2 * program.result], registers[2 * program.result + 1]);
+    }
+
+    /**
+     * Evaluates the equation and writes the real and imaginary part of the result to
+     * <b>out[offset]</b> and <b>out[offset + 1]</b>
+     * @param out Array receiving the result
+     * @param offset Index of the real part of the result in <b>out</b>
+     * @throws Exception If a variable is not set or the equation divides by zero
+     */
+    public void evaluateInto(double[] out, int offset) throws Exception {
+        update();
+        out[offset] = registers[2 * program.result];
+        out[offset + 1] = registers[2 * program.result + 1];
+    }
+
+    /**
+     * @return Whether the variable took a new value
+     */
+    boolean update(int slot, double real, double imaginary) {
+        int i = 2 * slot;
+        // compared by bits so that NaN equals itself and 0.0 differs from -0.0
+        if(bound[slot] && Double.doubleToRawLongBits(registers[i]) == Double.doubleToRawLongBits(real)
+                && Double.doubleToRawLongBits(registers[i + 1]) == Double.doubleToRawLongBits(imaginary))
+            return false;
+        registers[i] = real;
+        registers[i + 1] = imaginary;
+        if(!bound[slot]) {
+            bound[slot] = true;
+            unbound--;
+        }
+        long[] mask = dependents[slot];
+        for(int w = 0; w < mask.length; w++) dirty[w] |= mask[w];
+        return true;
+    }
+
+    private void update() throws Exception {
+        if(unbound > 0)
+            for(int i = 0; i < names.length; i++)
+                if(!bound[i]) throw new Exception("Symbol not found: " + names[i]);
+        for(int w = 0; w < dirty.length; w++) {
+            long bits = dirty[w];
+            while(bits != 0) {
+                // an instruction is only marked clean once it ran, so a division by zero is retried next time
+                program.run(registers, (w << 6) + Long.numberOfTrailingZeros(bits));
+                dirty[w] = bits &= bits - 1;
+                executed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package evaluator;
+
+import java.util.Map;
+import complex.Complex;
+
+/**
+ * Compiled equation whose evaluations are measured by EvaluationMetrics. It is as thread-safe as the
+ * CompiledExpression it wraps.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class InstrumentedExpression {
+    private final CompiledExpression expression;
+    private final EvaluationMetrics registry;
+    private final ExpressionMetrics metrics;
+
+    InstrumentedExpression(CompiledExpression expression, EvaluationMetrics registry, ExpressionMetrics metrics) {
+        this.expression = expression;
+        this.registry = registry;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The compiled equation, evaluating it directly is not measured
+     */
+    public CompiledExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return Metrics of the equation
+     */
+    public ExpressionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Evaluates the equation against the given values of its variables
+     * @param values Map Object representing variables to be used while evaluating
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(Map<String, Complex> values) throws Exception {
+        Bindings bindings = expression.bindings();
+        if(values != null) bindings.setVariables(values);
+        return evaluate(bindings);
+    }
+
+    /**
+     * Evaluates the equation against per-call bindings
+     * @param bindings Values of the variables, created by <b>bindings()</b>
+     * @return Resultant Complex number
+     * @throws Exception If a variable is missing or the equation divides by zero
+     */
+    public Complex evaluate(Bindings bindings) throws Exception {
+        return registry.evaluate(expression, metrics, bindings);
+    }
+
+    /**
+     * @return New Bindings whose slots match the variables of the equation
+     */
+    public Bindings bindings() {
+        return expression.bindings();
+    }
+
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
@@ -0,0 +1,196 @@
+package evaluator;
+
+/**
+ * Primitive counterparts of the operations of the Complex record. Every kernel reads its
+ * operands from, and writes its result to, a register file where register <b>n</b> keeps
+ * its real part at index <b>2n</b> and its imaginary part at index <b>2n+1</b>.
+ * The formulas mirror the ones of the Complex record so that both paths produce the same bits.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class Kernels {
+    private Kernels() {}
+
+    static void negate(double[] r, int target, int x) {
+        r[target] = r[x] * -1.0;
+        r[target + 1] = r[x + 1] * -1.0;
+    }
+
+    static void add(double[] r, int target, int x, int y) {
+        r[target] = r[x] + r[y];
+        r[target + 1] = r[x + 1] + r[y + 1];
+    }
+
+    static void subtract(double[] r, int target, int x, int y) {
+        r[target] = r[x] - r[y];
+        r[target + 1] = r[x + 1] - r[y + 1];
+    }
+
+    static void multiply(double[] r, int target, int x, int y) {
+        double a = r[x], b = r[x + 1], c = r[y], d = r[y + 1];
+        r[target] = a * c - b * d;
+        r[target + 1] = a * d + b * c;
+    }
+
+    static void divide(double[] r, int target, int x, int y) {
+        double a = r[x], b = r[x + 1], c = r[y], d = r[y + 1];
+        checkDivisor(c, d);
+        double denominator = c * c + d * d;
+        r[target] = (a * c + b * d) / denominator;
+        r[target + 1] = (b * c - a * d) / denominator;
+    }
+
+    static void checkDivisor(double real, double imaginary) {
+        if(real == 0.0 && imaginary == 0.0) throw new ArithmeticException("Division by zero");
+    }
+
+    static void pow(double[] r, int target, int x, int y) {
+        pow(r[x], r[x + 1], r[y], r[y + 1], r, target);
+    }
+
+    // (a+bi)^(c+di), written to r[target] and r[target + 1]
+    static void pow(double a, double b, double c, double d, double[] r, int target) {
+        if(c == 0 && d == 0) {
+            r[target] = 1;
+            r[target + 1] = 0;
+        } else if(d == 0) {
+            double modulus = Math.pow(Math.sqrt(a * a + b * b), c);
+            double argument = c * Math.atan2(b, a);
+            r[target] = modulus * Math.cos(argument);
+            r[target + 1] = modulus * Math.sin(argument);
+        } else {
+            // exp(ln(x) * y)
+            double lnBase = Math.log(Math.E);
+            double p = Math.log(Math.sqrt(a * a + b * b)) / lnBase, q = Math.atan2(b, a) / lnBase;
+            double expReal = Math.exp(p * c - q * d), imaginary = p * d + q * c;
+            r[target] = expReal * Math.cos(imaginary);
+            r[target + 1] = expReal * Math.sin(imaginary);
+        }
+    }
+
+    // repeated squaring, the result starts from the lowest set bit so that no 1+0i factor turns infinities into NaN
+    static void powInt(double[] r, int target, int x, int exponent) {
+        double a = r[x], b = r[x + 1], real = 0, imaginary = 0;
+        boolean first = true;
+        for(int e = exponent; e > 0; e >>= 1) {
+            if((e & 1) != 0) {
+                if(first) {
+                    real = a;
+                    imaginary = b;
+                    first = false;
+                } else {
+                    double t = real * a - imaginary * b;
+                    imaginary = real * b + imaginary * a;
+                    real = t;
+                }
+            }
+            if(e > 1) {
+                double t = a * a - b * b;
+                b = a * b + b * a;
+                a = t;
+            }
+        }
+        r[target] = real;
+        r[target + 1] = imaginary;
+    }
+
+    static double powInt(double x, int exponent) {
+        double result = 0;
+        boolean first = true;
+        for(int e = exponent; e > 0; e >>= 1) {
+            if((e & 1) != 0) {
+                result = first ? x : result * x;
+                first = false;
+            }
+            if(e > 1) x *= x;
+        }
+        return result;
+    }
+
+    static void sin(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        r[target] = Math.sin(a) * Math.cosh(b);
+        r[target + 1] = Math.cos(a) * Math.sinh(b);
+    }
+
+    static void cos(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        r[target] = Math.cos(a) * Math.cosh(b);
+        r[target + 1] = -Math.sin(a) * Math.sinh(b);
+    }
+
+    static void tan(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        double sin = Math.sin(a), cos = Math.cos(a), sinh = Math.sinh(b), cosh = Math.cosh(b);
+        double denominator = cos * cos + sinh * sinh;
+        r[target] = sin * cos / denominator;
+        r[target + 1] = sinh * cosh / denominator;
+    }
+
+    static void sinh(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        r[target] = Math.sinh(a) * Math.cos(b);
+        r[target + 1] = Math.cosh(a) * Math.sin(b);
+    }
+
+    static void cosh(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        r[target] = Math.cosh(a) * Math.cos(b);
+        r[target + 1] = Math.sinh(a) * Math.sin(b);
+    }
+
+    static void exp(double[] r, int target, int x) {
+        double expReal = Math.exp(r[x]), b = r[x + 1];
+        r[target] = expReal * Math.cos(b);
+        r[target + 1] = expReal * Math.sin(b);
+    }
+
+    static void sqrt(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        if(a == 0 && b == 0) {
+            r[target] = 0.0;
+            r[target + 1] = b;
+            return;
+        }
+        double t = Math.sqrt((Math.abs(a) + Math.sqrt(a * a + b * b)) / 2);
+        if(a >= 0) {
+            r[target] = t;
+            r[target + 1] = b / (2 * t);
+        } else {
+            r[target] = Math.abs(b) / (2 * t);
+            r[target + 1] = b < 0 ? -t : t;
+        }
+    }
+
+    static void log(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        r[target] = Math.log10(Math.sqrt(a * a + b * b));
+        r[target + 1] = Math.atan2(b, a) / Math.log10(10);
+    }
+
+    static void ln(double[] r, int target, int x) {
+        double a = r[x], b = r[x + 1];
+        double lnBase = Math.log(Math.E);
+        r[target] = Math.log(Math.sqrt(a * a + b * b)) / lnBase;
+        r[target + 1] = Math.atan2(b, a) / lnBase;
+    }
+
+    /**
+     * Tangent kernel of forward-mode differentiation: writes the <b>n</b> complex derivatives at
+     * <b>t[x]</b> multiplied by <b>c</b> to <b>t[target]</b>, or adds them to it
+     */
+    static void scale(double[] t, int target, int x, int n, double real, double imaginary, boolean add) {
+        for(int k = 0; k < 2 * n; k += 2) {
+            double a = t[x + k], b = t[x + k + 1];
+            double re = real * a - imaginary * b, im = real * b + imaginary * a;
+            if(add) {
+                re += t[target + k];
+                im += t[target + k + 1];
+            }
+            t[target + k] = re;
+            t[target + k + 1] = im;
+        }
+    }
+}
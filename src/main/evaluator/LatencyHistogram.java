@@ -0,0 +1,124 @@
+package evaluator;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with logarithmic buckets, each power of two being split into
+ * 16 linear sub-buckets, so that every recorded value is known to within 6.25%. Buckets are striped
+ * counters created on first use, so threads recording concurrently neither lock nor contend on a
+ * shared counter, and a histogram only holds the buckets its durations fall into.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4, SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // durations of 2^40 ns, about 18 minutes, and above share the last bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration
+     * @param nanos Duration in nanoseconds, negative ones count as 0
+     */
+    public void record(long nanos) {
+        if(nanos < 0) nanos = 0;
+        int index = index(nanos);
+        LongAdder bucket = buckets.get(index);
+        if(bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @return Number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if(bucket != null) count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return Sum of the recorded durations in nanoseconds
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * @return Mean of the recorded durations in nanoseconds, <b>0</b> if there is none
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0.0 : (double) total.sum() / n;
+    }
+
+    /**
+     * @return Longest recorded duration in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100, such as <b>99.9</b>
+     * @return Upper bound of the bucket holding the percentile in nanoseconds, <b>0</b> if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if(!(percentile >= 0.0 && percentile <= 100.0))
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if(bucket != null) n += counts[i] = bucket.sum();
+        }
+        if(n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n)), seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if(seen >= rank) return Math.min(highest(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Forgets every recorded duration. Durations recorded concurrently may be partly kept.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) buckets.set(i, null);
+        total.reset();
+        max.reset();
+    }
+
+    private static int index(long value) {
+        if(value < SUB_BUCKETS) return (int) value;
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if(exponent == MAX_EXPONENT) return BUCKETS - 1;
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    // largest value falling into a bucket
+    private static long highest(int index) {
+        if(index < SUB_BUCKETS) return index;
+        if(index == BUCKETS - 1) return Long.MAX_VALUE;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1, mantissa = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,418 @@
+package evaluator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import complex.BigComplex;
+import complex.Complex;
+import complex.ComplexInterval;
+import complex.Interval;
+
+/**
+ * Function that an equation may call, such as <b>sin</b> or <b>max</b>. A function is resolved to
+ * its definition once, when the equation is compiled, and its kernel is then called directly by the
+ * compiled program, so calling a function costs no lookup by name however many functions a
+ * FunctionRegistry holds. The built-in <b>sin</b>, <b>cos</b>, <b>tan</b>, <b>log</b> and <b>ln</b>
+ * are instructions of their own that every backend inlines. A function may also be given a real
+ * specialization, a derivative, an implementation at arbitrary precision and one in interval
+ * arithmetic. Definitions are
+ * immutable, the <b>with</b> methods return a modified copy.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class MathFunction {
+    /**
+     * Complex implementation of a function, reading its arguments from and writing its result to a
+     * register file where each complex number keeps its real part followed by its imaginary part
+     */
+    @FunctionalInterface
+    public interface Kernel {
+        /**
+         * Must only write <b>r[target]</b> and <b>r[target + 1]</b>
+         * @param r Register file holding the arguments
+         * @param offset Index of the real part of the first argument, argument <b>k</b> is at
+         * <b>r[offset + 2k]</b> and <b>r[offset + 2k + 1]</b>
+         * @param count Number of arguments
+         * @param target Index receiving the real part of the result, followed by its imaginary part
+         */
+        void apply(double[] r, int offset, int count, int target);
+    }
+
+    /**
+     * Specialization of a function to real arguments, used by the real fast path
+     */
+    @FunctionalInterface
+    public interface RealKernel {
+        /**
+         * @param r Array holding the arguments
+         * @param offset Index of the first argument, argument <b>k</b> is at <b>r[offset + k]</b>
+         * @param count Number of arguments
+         * @return Result of the function or <b>NaN</b> if it leaves the real numbers, in which case the
+         * equation is evaluated again with the complex kernel
+         */
+        double apply(double[] r, int offset, int count);
+    }
+
+    /**
+     * Implementation of a function at arbitrary precision, used by <b>CompiledExpression.evaluate</b>
+     * with a MathContext
+     */
+    @FunctionalInterface
+    public interface BigKernel {
+        /**
+         * @param arguments Arguments of the function
+         * @param mc Precision the result is rounded to
+         * @return Result of the function
+         */
+        BigComplex apply(BigComplex[] arguments, MathContext mc);
+    }
+
+    /**
+     * Implementation of a function in interval arithmetic, used by <b>CompiledExpression.enclose</b>
+     */
+    @FunctionalInterface
+    public interface IntervalKernel {
+        /**
+         * @param arguments Rectangles enclosing the arguments of the function
+         * @return A rectangle enclosing the result of the function for any arguments within them
+         */
+        ComplexInterval apply(ComplexInterval[] arguments);
+    }
+
+    static final MathFunction SIN = new MathFunction("sin", 1, 1, true, Program.SIN,
+            (r, offset, count, target) -> Kernels.sin(r, target, offset), (r, offset, count) -> Math.sin(r[offset]),
+            (a, mc) -> a[0].sin(mc), a -> a[0].sin(),
+            x -> new Node.Call(MathFunction.COS, List.of(x)));
+    static final MathFunction COS = new MathFunction("cos", 1, 1, true, Program.COS,
+            (r, offset, count, target) -> Kernels.cos(r, target, offset), (r, offset, count) -> Math.cos(r[offset]),
+            (a, mc) -> a[0].cos(mc), a -> a[0].cos(),
+            x -> new Node.Negate(new Node.Call(MathFunction.SIN, List.of(x))));
+    static final MathFunction TAN = new MathFunction("tan", 1, 1, true, Program.TAN,
+            (r, offset, count, target) -> Kernels.tan(r, target, offset), (r, offset, count) -> Math.tan(r[offset]),
+            (a, mc) -> a[0].tan(mc), a -> a[0].tan(),
+            x -> new Node.Binary('/', new Node.Constant(1.0, 0.0), new Node.IntegerPower(new Node.Call(MathFunction.COS, List.of(x)), 2)));
+    static final MathFunction LOG = new MathFunction("log", 1, 1, true, Program.LOG,
+            (r, offset, count, target) -> Kernels.log(r, target, offset),
+            (r, offset, count) -> Program.isNegative(r[offset]) ? Double.NaN : Math.log10(r[offset]),
+            (a, mc) -> a[0].log(BigDecimal.TEN, mc), a -> a[0].log(10),
+            x -> new Node.Binary('/', new Node.Constant(1.0, 0.0), new Node.Binary('*', x, new Node.Constant(Math.log(10), 0.0))));
+    static final MathFunction LN = new MathFunction("ln", 1, 1, true, Program.LN,
+            (r, offset, count, target) -> Kernels.ln(r, target, offset),
+            (r, offset, count) -> Program.isNegative(r[offset]) ? Double.NaN : Math.log(r[offset]),
+            (a, mc) -> a[0].ln(mc), a -> a[0].ln(),
+            x -> new Node.Binary('/', new Node.Constant(1.0, 0.0), x));
+    static final MathFunction SQRT = new MathFunction("sqrt", 1, 1, true, Program.CALL,
+            (r, offset, count, target) -> Kernels.sqrt(r, target, offset), (r, offset, count) -> Math.sqrt(r[offset]),
+            (a, mc) -> a[0].sqrt(mc), a -> a[0].sqrt(),
+            x -> new Node.Binary('/', new Node.Constant(0.5, 0.0), new Node.Call(MathFunction.SQRT, List.of(x))));
+    static final MathFunction EXP = new MathFunction("exp", 1, 1, true, Program.CALL,
+            (r, offset, count, target) -> Kernels.exp(r, target, offset), (r, offset, count) -> Math.exp(r[offset]),
+            (a, mc) -> a[0].exp(mc), a -> a[0].exp(),
+            x -> new Node.Call(MathFunction.EXP, List.of(x)));
+    static final MathFunction SINH = new MathFunction("sinh", 1, 1, true, Program.CALL,
+            (r, offset, count, target) -> Kernels.sinh(r, target, offset), (r, offset, count) -> Math.sinh(r[offset]),
+            (a, mc) -> a[0].sinh(mc), a -> a[0].sinh(),
+            x -> new Node.Call(MathFunction.COSH, List.of(x)));
+    static final MathFunction COSH = new MathFunction("cosh", 1, 1, true, Program.CALL,
+            (r, offset, count, target) -> Kernels.cosh(r, target, offset), (r, offset, count) -> Math.cosh(r[offset]),
+            (a, mc) -> a[0].cosh(mc), a -> a[0].cosh(),
+            x -> new Node.Call(MathFunction.SINH, List.of(x)));
+    static final MathFunction ABS = new MathFunction("abs", 1, 1, true, Program.CALL, (r, offset, count, target) -> {
+        r[target] = Math.sqrt(r[offset] * r[offset] + r[offset + 1] * r[offset + 1]);
+        r[target + 1] = 0.0;
+    }, (r, offset, count) -> Math.abs(r[offset]), (a, mc) -> BigComplex.valueOf(a[0].mod(mc)),
+            a -> new ComplexInterval(a[0].mod(), Interval.ZERO), null);
+    // a negative real argument may carry an imaginary part of -0.0, whose argument is -pi, so it takes the complex path
+    static final MathFunction ARG = new MathFunction("arg", 1, 1, true, Program.CALL, (r, offset, count, target) -> {
+        r[target] = Math.atan2(r[offset + 1], r[offset]);
+        r[target + 1] = 0.0;
+    }, (r, offset, count) -> Double.isNaN(r[offset]) || Program.isNegative(r[offset]) ? Double.NaN : 0.0,
+            (a, mc) -> BigComplex.valueOf(a[0].arg(mc)),
+            a -> new ComplexInterval(a[0].arg(), Interval.ZERO), null);
+    static final MathFunction CONJ = new MathFunction("conj", 1, 1, true, Program.CALL, (r, offset, count, target) -> {
+        r[target] = r[offset];
+        r[target + 1] = -r[offset + 1];
+    }, (r, offset, count) -> r[offset], (a, mc) -> a[0].conjugate(), a -> a[0].conjugate(), null);
+    static final MathFunction MIN = new MathFunction("min", 1, Integer.MAX_VALUE, true, Program.CALL,
+            (r, offset, count, target) -> select(r, offset, count, target, -1), (r, offset, count) -> {
+        double min = r[offset];
+        for(int k = 1; k < count; k++) min = Math.min(min, r[offset + k]);
+        return min;
+    }, (a, mc) -> select(a, -1), a -> select(a, -1), null);
+    static final MathFunction MAX = new MathFunction("max", 1, Integer.MAX_VALUE, true, Program.CALL,
+            (r, offset, count, target) -> select(r, offset, count, target, 1), (r, offset, count) -> {
+        double max = r[offset];
+        for(int k = 1; k < count; k++) max = Math.max(max, r[offset + k]);
+        return max;
+    }, (a, mc) -> select(a, 1), a -> select(a, 1), null);
+
+    private final String name;
+    private final int minArity, maxArity;
+    private final boolean pure;
+    // the dedicated instruction of a built-in function, CALL for every other one
+    final int opcode;
+    final Kernel kernel;
+    final RealKernel realKernel;
+    final BigKernel bigKernel;
+    final IntervalKernel intervalKernel;
+    private final UnaryOperator<Node> derivative;
+    // the derivative lowered with the argument in slot 0, for forward-mode differentiation
+    private volatile Program derivativeProgram;
+
+    private MathFunction(String name, int minArity, int maxArity, boolean pure, int opcode, Kernel kernel,
+                         RealKernel realKernel, BigKernel bigKernel, IntervalKernel intervalKernel,
+                         UnaryOperator<Node> derivative) {
+        this.name = name;
+        this.minArity = minArity;
+        this.maxArity = maxArity;
+        this.pure = pure;
+        this.opcode = opcode;
+        this.kernel = kernel;
+        this.realKernel = realKernel;
+        this.bigKernel = bigKernel;
+        this.intervalKernel = intervalKernel;
+        this.derivative = derivative;
+    }
+
+    /**
+     * Defines a pure function taking a fixed number of arguments, without a real specialization or derivative
+     * @param name Name of the function as written in an equation
+     * @param arity Number of arguments
+     * @param kernel Complex implementation of the function
+     * @return The function
+     */
+    public static MathFunction of(String name, int arity, Kernel kernel) {
+        if(arity < 0) throw new IllegalArgumentException("Invalid arity: " + arity);
+        return new MathFunction(checkName(name), arity, arity, true, Program.CALL, kernel, null, null, null, null);
+    }
+
+    /**
+     * Defines a pure function taking any number of arguments from a minimum on, such as <b>max</b>
+     * @param name Name of the function as written in an equation
+     * @param minArity Smallest number of arguments
+     * @param kernel Complex implementation of the function
+     * @return The function
+     */
+    public static MathFunction variadic(String name, int minArity, Kernel kernel) {
+        if(minArity < 0) throw new IllegalArgumentException("Invalid arity: " + minArity);
+        return new MathFunction(checkName(name), minArity, Integer.MAX_VALUE, true, Program.CALL, kernel, null, null, null, null);
+    }
+
+    /**
+     * Defines a pure function of one argument from an operation on Complex numbers, which is
+     * simpler to write than a Kernel but allocates on every call
+     * @param name Name of the function as written in an equation
+     * @param function Implementation of the function
+     * @return The function
+     */
+    public static MathFunction of(String name, UnaryOperator<Complex> function) {
+        return of(name, 1, (r, offset, count, target) -> {
+            Complex result = function.apply(new Complex(r[offset], r[offset + 1]));
+            r[target] = result.real();
+            r[target + 1] = result.imaginary();
+        });
+    }
+
+    /**
+     * @param realKernel Specialization of the function to real arguments, <b>null</b> for none, in which
+     * case equations calling the function always run with complex arithmetic
+     * @return A copy of this function with the given real specialization
+     */
+    public MathFunction withRealKernel(RealKernel realKernel) {
+        return new MathFunction(name, minArity, maxArity, pure, Program.CALL, kernel, realKernel, bigKernel, intervalKernel, derivative);
+    }
+
+    /**
+     * @param bigKernel Implementation of the function at arbitrary precision, <b>null</b> for none, in
+     * which case equations calling the function cannot be evaluated with a MathContext
+     * @return A copy of this function with the given arbitrary-precision implementation
+     */
+    public MathFunction withBigKernel(BigKernel bigKernel) {
+        return new MathFunction(name, minArity, maxArity, pure, Program.CALL, kernel, realKernel, bigKernel, intervalKernel, derivative);
+    }
+
+    /**
+     * @param intervalKernel Implementation of the function in interval arithmetic, <b>null</b> for none, in
+     * which case the enclosure of a call is the whole complex plane
+     * @return A copy of this function with the given interval implementation
+     */
+    public MathFunction withIntervalKernel(IntervalKernel intervalKernel) {
+        return new MathFunction(name, minArity, maxArity, pure, Program.CALL, kernel, realKernel, bigKernel, intervalKernel, derivative);
+    }
+
+    /**
+     * An impure function, such as a random number generator, is called every time it is evaluated:
+     * calls with constant arguments are not folded at compile time and identical calls are not
+     * shared. An IncrementalFrame still only calls it again when its arguments change.
+     * @param pure Whether the function always returns the same result for the same arguments
+     * @return A copy of this function with the given purity
+     */
+    public MathFunction withPure(boolean pure) {
+        return new MathFunction(name, minArity, maxArity, pure, Program.CALL, kernel, realKernel, bigKernel, intervalKernel, derivative);
+    }
+
+    /**
+     * @param derivative Derivative of a function of one argument, written as an equation in the
+     * variable <b>x</b> that may call the functions of <b>FunctionRegistry.standard()</b>,
+     * for example <b>2*x*cos(x^2)</b>
+     * @return A copy of this function with the given derivative
+     * @throws Exception If the derivative is malformed or uses another variable
+     * @throws IllegalStateException If the function does not take a single argument
+     */
+    public MathFunction withDerivative(String derivative) throws Exception {
+        if(minArity != 1 || maxArity != 1) throw new IllegalStateException("Not a function of one argument: " + name);
+        Parser parser = new Parser(derivative, FunctionRegistry.standard());
+        Node template = parser.parse();
+        for(String variable: parser.variables())
+            if(!variable.equals("x")) throw new Exception("Symbol not found: " + variable);
+        return new MathFunction(name, minArity, maxArity, pure, Program.CALL, kernel, realKernel,
+                bigKernel, intervalKernel, x -> substitute(template, x));
+    }
+
+    /**
+     * @return Name of the function as written in an equation
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Smallest number of arguments
+     */
+    public int getMinArity() {
+        return minArity;
+    }
+
+    /**
+     * @return Largest number of arguments, <b>Integer.MAX_VALUE</b> for a variadic function
+     */
+    public int getMaxArity() {
+        return maxArity;
+    }
+
+    /**
+     * @return Whether the function always returns the same result for the same arguments, see <b>withPure</b>
+     */
+    public boolean isPure() {
+        return pure;
+    }
+
+    /**
+     * @return Whether equations calling the function can be differentiated
+     */
+    public boolean isDifferentiable() {
+        return derivative != null;
+    }
+
+    /**
+     * @param arguments Arguments of the function
+     * @return Result of applying the function to the arguments
+     * @throws IllegalArgumentException If the function does not take that many arguments
+     */
+    public Complex apply(Complex... arguments) {
+        if(arguments.length < minArity || arguments.length > maxArity)
+            throw new IllegalArgumentException("Invalid number of arguments for " + name + ": " + arguments.length);
+        double[] r = new double[2 * arguments.length + 2];
+        for(int k = 0; k < arguments.length; k++) {
+            r[2 * k] = arguments[k].real();
+            r[2 * k + 1] = arguments[k].imaginary();
+        }
+        kernel.apply(r, 0, arguments.length, 2 * arguments.length);
+        return new Complex(r[2 * arguments.length], r[2 * arguments.length + 1]);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * @param count Number of arguments of a call
+     * @throws Exception If the function does not take that many arguments
+     */
+    void checkArity(int count) throws Exception {
+        if(count == 0 && minArity > 0) throw new Exception("Empty equation");
+        if(count < minArity || count > maxArity)
+            throw new Exception("Invalid number of arguments for " + name + ": " + count);
+    }
+
+    /**
+     * @param argument Argument of the function
+     * @return Derivative of the function at the argument, to be simplified by the Optimizer
+     * or <b>null</b> if the function cannot be differentiated
+     */
+    Node derivative(Node argument) {
+        return derivative == null ? null : derivative.apply(argument);
+    }
+
+    /**
+     * @return The derivative lowered with its argument in variable slot 0, lowered on first use, or
+     * <b>null</b> if the function cannot be differentiated
+     */
+    Program derivativeProgram() {
+        Program program = derivativeProgram;
+        if(program == null && derivative != null)
+            derivativeProgram = program = Program.lower(Optimizer.optimize(derivative.apply(new Node.Variable("x", 0))), 1);
+        return program;
+    }
+
+    /**
+     * Selects the argument of the smallest or largest real part, the first one among equal real parts
+     * and the first one whose real part is NaN, as <b>Math.min</b> and <b>Math.max</b> do for real arguments
+     */
+    private static void select(double[] r, int offset, int count, int target, int sign) {
+        int best = offset;
+        for(int k = 0; k < count && !Double.isNaN(r[best]); k++) {
+            int i = offset + 2 * k;
+            if(Double.isNaN(r[i]) || sign * Double.compare(r[i], r[best]) > 0) best = i;
+        }
+        r[target] = r[best];
+        r[target + 1] = r[best + 1];
+    }
+
+    // the arbitrary-precision counterpart of select, BigDecimal has no NaN
+    private static BigComplex select(BigComplex[] arguments, int sign) {
+        BigComplex best = arguments[0];
+        for(BigComplex argument: arguments)
+            if(sign * argument.real().compareTo(best.real()) > 0) best = argument;
+        return best;
+    }
+
+    // the interval counterpart of select: the hull of every argument whose real part may be the smallest or largest
+    private static ComplexInterval select(ComplexInterval[] arguments, int sign) {
+        double bound = sign < 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        for(ComplexInterval argument: arguments)
+            bound = sign < 0 ? Math.min(bound, argument.real().hi()) : Math.max(bound, argument.real().lo());
+        Interval real = null, imaginary = null;
+        for(ComplexInterval argument: arguments) {
+            if(sign < 0 ? argument.real().lo() > bound : argument.real().hi() < bound) continue;
+            real = real == null ? argument.real() : real.hull(argument.real());
+            imaginary = imaginary == null ? argument.imaginary() : imaginary.hull(argument.imaginary());
+        }
+        return new ComplexInterval(real, imaginary);
+    }
+
+    private static Node substitute(Node node, Node x) {
+        return switch (node) {
+            case Node.Constant constant -> constant;
+            case Node.Variable variable -> x;
+            case Node.Negate negate -> new Node.Negate(substitute(negate.operand(), x));
+            case Node.IntegerPower power -> new Node.IntegerPower(substitute(power.base(), x), power.exponent());
+            case Node.Binary binary -> new Node.Binary(binary.operator(), substitute(binary.left(), x), substitute(binary.right(), x));
+            case Node.Call call -> new Node.Call(call.function(), call.arguments().stream().map(argument -> substitute(argument, x)).toList());
+        };
+    }
+
+    private static String checkName(String name) {
+        if(name == null || name.isEmpty()) throw new IllegalArgumentException("Invalid name: " + name);
+        for(int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if(c == '(' || c == ')' || c == ',' || Character.isWhitespace(c) || Parser.precedence(c) != 0)
+                throw new IllegalArgumentException("Invalid name: " + name);
+        }
+        return name;
+    }
+}
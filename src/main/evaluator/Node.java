@@ -0,0 +1,55 @@
+package evaluator;
+
+import java.util.List;
+
+/**
+ * Node of the syntax tree produced by the {@link Parser}
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+sealed interface Node permits Node.Constant, Node.Variable, Node.Negate, Node.Binary, Node.Call, Node.IntegerPower {
+
+    /**
+     * Literal value such as <b>2.5</b>, <b>pi</b> or <b>3i</b>
+     * @param real Real part of the literal
+     * @param imaginary Imaginary part of the literal
+     */
+    record Constant(double real, double imaginary) implements Node {}
+
+    /**
+     * Reference to a variable, resolved to a slot index at compile time
+     * @param name Name of the variable
+     * @param slot Index of the variable in the slot table of the expression
+     */
+    record Variable(String name, int slot) implements Node {}
+
+    /**
+     * Unary minus applied to an operand
+     * @param operand The negated operand
+     */
+    record Negate(Node operand) implements Node {}
+
+    /**
+     * Binary operation between 2 operands
+     * @param operator One of the operators <b>+ - * / ^</b>
+     * @param left First operand
+     * @param right Second operand
+     */
+    record Binary(char operator, Node left, Node right) implements Node {}
+
+    /**
+     * Function applied to its arguments
+     * @param function The function to be applied
+     * @param arguments Arguments of the function
+     */
+    record Call(MathFunction function, List<Node> arguments) implements Node {}
+
+    /**
+     * Operand raised to a small positive integer power, computed by repeated squaring
+     * @param base The operand
+     * @param exponent The power
+     */
+    record IntegerPower(Node base, int exponent) implements Node {}
+}
@@ -0,0 +1,112 @@
+package evaluator;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Turns a syntax tree back into an equation that the {@link Parser} reads as the same tree,
+ * writing only the parentheses required by the precedence of the operators
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class NodePrinter {
+    private NodePrinter() {}
+
+    /**
+     * @param node Root of the syntax tree
+     * @return String representation of the equation
+     */
+    static String print(Node node) {
+        StringBuilder sb = new StringBuilder();
+        print(node, sb);
+        return sb.toString();
+    }
+
+    private static void print(Node node, StringBuilder sb) {
+        switch (node) {
+            case Node.Constant constant -> constant(constant.real(), constant.imaginary(), sb);
+            case Node.Variable variable -> sb.append(variable.name());
+            case Node.Negate negate -> {
+                sb.append('-');
+                operand(negate.operand(), !(negate.operand() instanceof Node.Variable || negate.operand() instanceof Node.Call), sb);
+            }
+            case Node.Call call -> {
+                sb.append(call.function().getName()).append('(');
+                for(int k = 0; k < call.arguments().size(); k++) {
+                    if(k > 0) sb.append(", ");
+                    print(call.arguments().get(k), sb);
+                }
+                sb.append(')');
+            }
+            case Node.IntegerPower power -> {
+                operand(power.base(), precedence(power.base()) <= Parser.precedence('^'), sb);
+                sb.append('^').append(power.exponent());
+            }
+            case Node.Binary binary -> {
+                // the left spine is printed in a loop, its opening parentheses all come first
+                List<Node.Binary> spine = Optimizer.spine(binary);
+                boolean[] parenthesized = new boolean[spine.size()];
+                for(int i = 0; i < spine.size(); i++) {
+                    Node left = spine.get(i).left();
+                    parenthesized[i] = left(spine.get(i).operator(), left);
+                    if(parenthesized[i]) sb.append('(');
+                }
+                print(spine.getLast().left(), sb);
+                for(int i = spine.size() - 1; i >= 0; i--) {
+                    if(parenthesized[i]) sb.append(')');
+                    char operator = spine.get(i).operator();
+                    int precedence = Parser.precedence(operator);
+                    sb.append(operator);
+                    Node right = spine.get(i).right();
+                    operand(right, Parser.isRightAssociative(operator) ? precedence(right) < precedence
+                            : precedence(right) <= precedence, sb);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether the left operand of an operator needs parentheses, an operand of equal
+     * precedence does when the operator groups from the right
+     */
+    private static boolean left(char operator, Node left) {
+        int precedence = Parser.precedence(operator);
+        return Parser.isRightAssociative(operator) ? precedence(left) <= precedence : precedence(left) < precedence;
+    }
+
+    private static void operand(Node node, boolean parenthesize, StringBuilder sb) {
+        if(parenthesize) sb.append('(');
+        print(node, sb);
+        if(parenthesize) sb.append(')');
+    }
+
+    /**
+     * @return Precedence of the operator at the root of a subtree, <b>Integer.MAX_VALUE</b> for a primary
+     */
+    private static int precedence(Node node) {
+        return switch (node) {
+            case Node.Binary binary -> Parser.precedence(binary.operator());
+            case Node.IntegerPower power -> Parser.precedence('^');
+            default -> Integer.MAX_VALUE;
+        };
+    }
+
+    private static void constant(double real, double imaginary, StringBuilder sb) {
+        if(imaginary == 0.0) number(real, sb);
+        else if(real == 0.0) number(imaginary, sb).append('i');
+        else {
+            number(real, sb.append('('));
+            if(imaginary >= 0 || Double.isNaN(imaginary)) sb.append('+');
+            number(imaginary, sb).append("i)");
+        }
+    }
+
+    // exponents are written out in full, since the sign of 1.0E-5 would be read as an operator
+    private static StringBuilder number(double value, StringBuilder sb) {
+        if(Double.isNaN(value) || Double.isInfinite(value)) return sb.append(value);
+        if(value == 0.0) return sb.append(Double.doubleToRawLongBits(value) < 0 ? "-0" : "0");
+        return sb.append(new BigDecimal(Double.toString(value)).stripTrailingZeros().toPlainString());
+    }
+}
@@ -0,0 +1,161 @@
+package evaluator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import complex.Complex;
+
+/**
+ * Simplification pass run over the syntax tree at compile time. Constant subtrees, including the
+ * calls of pure functions with constant arguments, are folded,
+ * identities such as <b>x*1</b>, <b>x+0</b> and <b>x^1</b> are removed and small integer powers
+ * are strength-reduced to repeated squaring instead of the polar form of <b>Complex.pow</b>.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class Optimizer {
+    /**
+     * Largest power turned into repeated squaring
+     */
+    static final int MAX_INTEGER_POWER = 64;
+
+    private Optimizer() {}
+
+    /**
+     * @param node Root of the syntax tree
+     * @return Root of the simplified syntax tree
+     */
+    static Node optimize(Node node) {
+        return switch (node) {
+            case Node.Constant constant -> constant;
+            case Node.Variable variable -> variable;
+            case Node.IntegerPower power -> new Node.IntegerPower(optimize(power.base()), power.exponent());
+            case Node.Negate negate -> {
+                Node operand = optimize(negate.operand());
+                if(operand instanceof Node.Constant c) yield constant(value(c).multiply(-1.0));
+                if(operand instanceof Node.Negate inner) yield inner.operand();
+                yield new Node.Negate(operand);
+            }
+            case Node.Call call -> {
+                List<Node> arguments = new ArrayList<>(call.arguments().size());
+                boolean constant = call.function().isPure();
+                for(Node argument: call.arguments()) {
+                    Node optimized = optimize(argument);
+                    arguments.add(optimized);
+                    constant &= optimized instanceof Node.Constant;
+                }
+                // impure functions are called at every evaluation, even with constant arguments
+                if(constant) {
+                    Complex[] values = new Complex[arguments.size()];
+                    for(int k = 0; k < values.length; k++) values[k] = value((Node.Constant) arguments.get(k));
+                    yield constant(call.function().apply(values));
+                }
+                yield new Node.Call(call.function(), arguments);
+            }
+            case Node.Binary binary -> {
+                List<Node.Binary> spine = spine(binary);
+                Node left = optimize(spine.getLast().left());
+                for(int i = spine.size() - 1; i >= 0; i--)
+                    left = binary(spine.get(i).operator(), left, optimize(spine.get(i).right()));
+                yield left;
+            }
+        };
+    }
+
+    /**
+     * Long sums and products parse into left-deep trees, which are walked along their left
+     * spine in a loop rather than recursively so that thousands of terms do not overflow the stack
+     * @param binary Root of the tree
+     * @return The binary operations from the root down the left spine
+     */
+    static List<Node.Binary> spine(Node.Binary binary) {
+        List<Node.Binary> spine = new ArrayList<>();
+        Node node = binary;
+        while(node instanceof Node.Binary b) {
+            spine.add(b);
+            node = b.left();
+        }
+        return spine;
+    }
+
+    private static Node binary(char operator, Node left, Node right) {
+        if(left instanceof Node.Constant a && right instanceof Node.Constant b) {
+            Complex x = value(a), y = value(b);
+            switch (operator) {
+                case '+': return constant(x.add(y));
+                case '-': return constant(x.subtract(y));
+                case '*': return constant(x.multiply(y));
+                case '^': return constant(x.pow(y));
+                // a division by zero is left in place to fail at evaluation time
+                case '/': if(y.real() != 0.0 || y.imaginary() != 0.0) return constant(x.divide(y));
+            }
+        }
+        switch (operator) {
+            case '+':
+                if(is(left, 0.0)) return right;
+                if(is(right, 0.0)) return left;
+                break;
+            case '-':
+                if(is(right, 0.0)) return left;
+                break;
+            case '*':
+                if(is(left, 1.0)) return right;
+                if(is(right, 1.0)) return left;
+                break;
+            case '/':
+                if(is(right, 1.0)) return left;
+                break;
+            case '^':
+                // the base is only dropped if evaluating it cannot fail, as in (1/(x-x))^0
+                if(is(right, 0.0) && cannotFail(left)) return new Node.Constant(1.0, 0.0);
+                if(is(right, 1.0)) return left;
+                if(right instanceof Node.Constant c && c.imaginary() == 0.0 && c.real() >= 2
+                        && c.real() <= MAX_INTEGER_POWER && c.real() == Math.rint(c.real()))
+                    return new Node.IntegerPower(left, (int) c.real());
+                break;
+        }
+        return new Node.Binary(operator, left, right);
+    }
+
+    /**
+     * @param node Root of a subtree
+     * @return <b>true</b> if the subtree neither divides nor calls a function, the only operations that may
+     * throw at evaluation time
+     */
+    static boolean cannotFail(Node node) {
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while(!pending.isEmpty()) {
+            switch (pending.pop()) {
+                case Node.Constant constant -> {}
+                case Node.Variable variable -> {}
+                case Node.Negate negate -> pending.push(negate.operand());
+                case Node.IntegerPower power -> pending.push(power.base());
+                case Node.Binary binary -> {
+                    if(binary.operator() == '/') return false;
+                    pending.push(binary.left());
+                    pending.push(binary.right());
+                }
+                case Node.Call call -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean is(Node node, double value) {
+        return node instanceof Node.Constant c && c.real() == value && c.imaginary() == 0.0;
+    }
+
+    private static Complex value(Node.Constant constant) {
+        return new Complex(constant.real(), constant.imaginary());
+    }
+
+    private static Node constant(Complex value) {
+        return new Node.Constant(value.real(), value.imaginary());
+    }
+}
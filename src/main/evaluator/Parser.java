@@ -0,0 +1,222 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass precedence climbing parser that turns an equation into a syntax tree.
+ * <b>^</b> binds tightest and is right associative, followed by <b>*</b> and <b>/</b> and then
+ * by <b>+</b> and <b>-</b>, both left associative, the same rules as <b>complexEvaluator</b>
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class Parser {
+    private final CharSequence equation;
+    private final FunctionRegistry functions;
+    private final Map<String, Integer> slots;
+    private int position;
+
+    /**
+     * @param equation Text of the equation to be parsed
+     */
+    Parser(CharSequence equation) {
+        this(equation, FunctionRegistry.standard());
+    }
+
+    /**
+     * @param equation Text of the equation to be parsed
+     * @param functions Functions the equation may call
+     */
+    Parser(CharSequence equation, FunctionRegistry functions) {
+        this(equation, functions, new LinkedHashMap<>());
+    }
+
+    /**
+     * @param equation Text of the equation to be parsed
+     * @param functions Functions the equation may call
+     * @param slots Slot indices of the variables, shared by the parsers of equations evaluated together,
+     * a new variable is given the next free slot
+     */
+    Parser(CharSequence equation, FunctionRegistry functions, Map<String, Integer> slots) {
+        this.equation = equation;
+        this.functions = functions;
+        this.slots = slots;
+    }
+
+    /**
+     * @return Names of the variables in the order of their slot indices
+     */
+    String[] variables() {
+        return slots.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Parses the whole equation
+     * @return Root of the syntax tree
+     * @throws Exception If the equation is malformed
+     */
+    Node parse() throws Exception {
+        if (equation == null || equation.isEmpty() || isBlank())
+            throw new Exception("Empty equation");
+        Node root = parseExpression(1);
+        skipWhitespace();
+        if(position < equation.length()) {
+            if(equation.charAt(position) == ')') throw new Exception("Invalid parenthesis sequence");
+            throw new Exception("Invalid operator: " + equation.charAt(position));
+        }
+        return root;
+    }
+
+    /**
+     * @param operator Character to be checked
+     * @return Binding power of the operator, <b>0</b> if it is not one of <b>+ - * / ^</b>
+     */
+    static int precedence(char operator) {
+        return switch (operator) {
+            case '+', '-' -> 1;
+            case '*', '/' -> 2;
+            case '^' -> 3;
+            default -> 0;
+        };
+    }
+
+    /**
+     * @param operator One of the operators <b>+ - * / ^</b>
+     * @return Whether a chain of the operator groups from the right, as <b>2^3^2</b> = <b>2^(3^2)</b>
+     */
+    static boolean isRightAssociative(char operator) {
+        return operator == '^';
+    }
+
+    private Node parseExpression(int minPrecedence) throws Exception {
+        Node left = parseUnary();
+        while(true) {
+            skipWhitespace();
+            if(position >= equation.length()) return left;
+            char operator = equation.charAt(position);
+            int precedence = precedence(operator);
+            if(precedence == 0 || precedence < minPrecedence) return left;
+            position++;
+            left = new Node.Binary(operator, left, parseExpression(isRightAssociative(operator) ? precedence : precedence + 1));
+        }
+    }
+
+    private Node parseUnary() throws Exception {
+        skipWhitespace();
+        if(position >= equation.length()) throw new Exception("Invalid equation");
+        char c = equation.charAt(position);
+        if(c == '-') {
+            position++;
+            return new Node.Negate(parseUnary());
+        }
+        if(precedence(c) != 0) throw new Exception("Invalid equation");
+        if(c == ')') throw new Exception("Invalid parenthesis sequence");
+        if(c == '(') return parseGroup();
+
+        String atom = readAtom();
+        // a comma with nothing before it, as in max(,x)
+        if(atom.isEmpty()) throw new Exception("Empty equation");
+        skipWhitespace();
+        if(position < equation.length() && equation.charAt(position) == '(') {
+            MathFunction function = functions.get(atom);
+            if(function == null) throw new Exception("Function not supported: " + atom);
+            return new Node.Call(function, parseArguments(function));
+        }
+        return operand(atom);
+    }
+
+    private Node parseGroup() throws Exception {
+        position++;
+        skipWhitespace();
+        if(position < equation.length() && equation.charAt(position) == ')')
+            throw new Exception("Empty equation");
+        Node inner = parseExpression(1);
+        skipWhitespace();
+        if(position >= equation.length() || equation.charAt(position) != ')')
+            throw new Exception("Invalid parenthesis sequence");
+        position++;
+        return inner;
+    }
+
+    private List<Node> parseArguments(MathFunction function) throws Exception {
+        position++;
+        skipWhitespace();
+        List<Node> arguments = new ArrayList<>(1);
+        if(position < equation.length() && equation.charAt(position) == ')') position++;
+        else while(true) {
+            arguments.add(parseExpression(1));
+            skipWhitespace();
+            char c = position < equation.length() ? equation.charAt(position++) : 0;
+            if(c == ')') break;
+            if(c != ',') throw new Exception("Invalid parenthesis sequence");
+        }
+        function.checkArity(arguments.size());
+        return arguments;
+    }
+
+    private String readAtom() {
+        int start = position;
+        while(position < equation.length()) {
+            char c = equation.charAt(position);
+            if(c == '(' || c == ')' || c == ',' || Character.isWhitespace(c) || precedence(c) != 0) break;
+            position++;
+        }
+        return equation.subSequence(start, position).toString();
+    }
+
+    /**
+     * Resolves an atom the same way as <b>getOperand</b> does, except that unknown
+     * symbols become variables instead of failing
+     */
+    private Node operand(String atom) {
+        if(atom.equals("pi")) return new Node.Constant(Math.PI, 0.0);
+        if(atom.equals("e")) return new Node.Constant(Math.E, 0.0);
+        if(atom.charAt(atom.length() - 1) == 'i') {
+            if(atom.length() == 1) return new Node.Constant(0.0, 1.0);
+            String t = atom.substring(0, atom.length() - 1);
+            if(t.equals("pi")) return new Node.Constant(0.0, Math.PI);
+            if(t.equals("e")) return new Node.Constant(0.0, Math.E);
+            Double value = number(t);
+            if(value != null) return new Node.Constant(0.0, value);
+        } else {
+            Double value = number(atom);
+            if(value != null) return new Node.Constant(value, 0.0);
+        }
+        Integer slot = slots.get(atom);
+        if(slot == null) {
+            slot = slots.size();
+            slots.put(atom, slot);
+        }
+        return new Node.Variable(atom, slot);
+    }
+
+    /**
+     * @param text An atom of the equation
+     * @return Value of the atom or <b>null</b> if it is not a number
+     */
+    static Double number(String text) {
+        // variable names are rejected up front, a thrown exception costs as much as the rest of the parse
+        char c = text.isEmpty() ? ' ' : text.charAt(0);
+        if(!(c >= '0' && c <= '9') && c != '.' && !text.equals("Infinity") && !text.equals("NaN")) return null;
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void skipWhitespace() {
+        while(position < equation.length() && Character.isWhitespace(equation.charAt(position)))
+            position++;
+    }
+
+    private boolean isBlank() {
+        for(int i = 0; i < equation.length(); i++)
+            if(!Character.isWhitespace(equation.charAt(i))) return false;
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package evaluator;
+
+import java.io.PrintStream;
+import complex.ComplexFormat;
+
+/**
+ * Prints every step of an evaluation as the verbose mode of ExpressionEvaluator does, for example
+ * <b>Evaluating : (0.31 + 0.95i) ^ 4.0</b>. Each step is printed with a single call to
+ * <b>println</b>, so steps of concurrent evaluations do not interleave within a line.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class PrintStreamListener implements EvaluationListener {
+    private final PrintStream out;
+    private final ComplexFormat format;
+
+    /**
+     * Prints operands with 2 fractional digits, as <b>Complex.toString()</b> does
+     * @param out Stream the steps are printed to
+     */
+    public PrintStreamListener(PrintStream out) {
+        this(out, 2);
+    }
+
+    /**
+     * @param out Stream the steps are printed to
+     * @param precision Precision of fractional part of the real and imaginary values of the operands
+     */
+    public PrintStreamListener(PrintStream out, int precision) {
+        this.out = out;
+        this.format = new ComplexFormat(precision);
+    }
+
+    @Override
+    public void onSubEquation(CharSequence equation, int from, int to) {
+        out.println(new StringBuilder(14 + to - from).append("SubEquation: ").append(equation, from, to));
+    }
+
+    @Override
+    public void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                            double rightImaginary, double resultReal, double resultImaginary) {
+        StringBuilder sb = new StringBuilder(64).append("Evaluating : ");
+        format.format(leftReal, leftImaginary, sb).append(' ').append(operator).append(' ');
+        out.println(format.format(rightReal, rightImaginary, sb));
+    }
+
+    @Override
+    public void onFunction(String function, double argumentReal, double argumentImaginary,
+                           double resultReal, double resultImaginary) {
+        StringBuilder sb = new StringBuilder(48).append("Evaluating : ").append(function).append('(');
+        out.println(format.format(argumentReal, argumentImaginary, sb).append(')'));
+    }
+}
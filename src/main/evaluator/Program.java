@@ -0,0 +1,722 @@
+package evaluator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import complex.BigComplex;
+import complex.ComplexInterval;
+import complex.Interval;
+
+/**
+ * Flat register code lowered from a syntax tree. The register file starts with one
+ * register per variable slot, followed by the constants of the equation and then by one
+ * register per instruction, so evaluating a program is a single forward pass that
+ * neither allocates nor dispatches on strings. Identical subtrees are lowered to a single
+ * instruction, turning the tree into a DAG whose every distinct subexpression is evaluated once.
+ * A function without an instruction of its own is called through its kernel by a <b>CALL</b>
+ * instruction, whose right operand is the index of its call site in <b>functions</b> and
+ * <b>arguments</b>. The arguments of a call of several functions are gathered into scratch
+ * registers after the instruction registers, so that its kernel finds them side by side.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+final class Program {
+    static final int NEGATE = 0, ADD = 1, SUBTRACT = 2, MULTIPLY = 3, DIVIDE = 4, POWER = 5,
+            SIN = 6, COS = 7, TAN = 8, LOG = 9, LN = 10, POWER_INT = 11, CALL = 12;
+
+    final int variables;
+    final double[] constants;
+    final int[] opcodes, left, right;
+    final int result;
+    // the function and argument registers of every call site
+    final MathFunction[] functions;
+    final int[][] arguments;
+    private final int scratch;
+
+    private Program(int variables, double[] constants, int[] opcodes, int[] left, int[] right, int result,
+                    MathFunction[] functions, int[][] arguments) {
+        this.variables = variables;
+        this.constants = constants;
+        this.opcodes = opcodes;
+        this.left = left;
+        this.right = right;
+        this.result = result;
+        this.functions = functions;
+        this.arguments = arguments;
+        int scratch = 0;
+        for(int[] registers: arguments)
+            if(registers.length != 1) scratch = Math.max(scratch, registers.length);
+        this.scratch = scratch;
+    }
+
+    /**
+     * Lowers a syntax tree into register code
+     * @param root Root of the syntax tree
+     * @param variables Number of variable slots of the equation
+     * @return The lowered program
+     */
+    static Program lower(Node root, int variables) {
+        return lower(root, variables, true);
+    }
+
+    /**
+     * Lowers a syntax tree into register code
+     * @param root Root of the syntax tree
+     * @param variables Number of variable slots of the equation
+     * @param shared Whether identical subtrees share one instruction
+     * @return The lowered program
+     */
+    static Program lower(Node root, int variables, boolean shared) {
+        Builder builder = new Builder(variables, shared);
+        int result = builder.emit(root);
+        return builder.build(result);
+    }
+
+    /**
+     * Lowers several syntax trees into one program, in which identical subtrees of different trees
+     * share one instruction
+     * @param roots Roots of the syntax trees
+     * @param variables Number of variable slots shared by the trees
+     * @param results Array receiving the register holding the value of each tree
+     * @return The lowered program, whose <b>result</b> is the register of the last tree
+     */
+    static Program lower(List<Node> roots, int variables, int[] results) {
+        Builder builder = new Builder(variables, true);
+        for(int i = 0; i < roots.size(); i++) results[i] = builder.emit(roots.get(i));
+        Program program = builder.build(results[roots.size() - 1]);
+        for(int i = 0; i < results.length; i++) results[i] = Builder.resolve(results[i], program.base());
+        return program;
+    }
+
+    /**
+     * @return Index of the first register written by an instruction
+     */
+    int base() {
+        return variables + constants.length / 2;
+    }
+
+    /**
+     * @return Total number of registers needed to run the program
+     */
+    int registers() {
+        return base() + opcodes.length + scratch;
+    }
+
+    /**
+     * Fills the constant registers of a register file, which only needs to be done once
+     * @param r Register file with room for <b>registers()</b> registers
+     */
+    void load(double[] r) {
+        System.arraycopy(constants, 0, r, variables * 2, constants.length);
+    }
+
+    /**
+     * Runs every instruction over the register file
+     * @param r Register file whose variable and constant registers are already filled
+     */
+    void run(double[] r) {
+        int target = base() * 2;
+        for(int i = 0; i < opcodes.length; i++, target += 2)
+            execute(opcodes[i], r, target, left[i] * 2, right[i] * 2);
+    }
+
+    /**
+     * Runs every instruction over the register file, reporting each one to a listener
+     * @param r Register file whose variable and constant registers are already filled
+     * @param listener Listener receiving every instruction
+     */
+    void run(double[] r, EvaluationListener listener) {
+        int target = base() * 2;
+        for(int i = 0; i < opcodes.length; i++, target += 2) {
+            int opcode = opcodes[i], x = left[i] * 2, y = right[i] * 2;
+            if(opcode == DIVIDE && r[y] == 0.0 && r[y + 1] == 0.0)
+                listener.onOperation('/', r[x], r[x + 1], r[y], r[y + 1], Double.NaN, Double.NaN);
+            execute(opcode, r, target, x, y);
+            switch (opcode) {
+                case NEGATE, SIN, COS, TAN, LOG, LN ->
+                        listener.onFunction(symbol(opcode), r[x], r[x + 1], r[target], r[target + 1]);
+                // a call is reported with its first argument
+                case CALL -> listener.onFunction(functions[right[i]].getName(), r[x], r[x + 1], r[target], r[target + 1]);
+                default -> listener.onOperation(symbol(opcode).charAt(0), r[x], r[x + 1], r[y], r[y + 1],
+                        r[target], r[target + 1]);
+            }
+        }
+    }
+
+    /**
+     * Runs a single instruction over the register file
+     * @param r Register file whose operand registers of the instruction are already filled
+     * @param instruction Index of the instruction
+     */
+    void run(double[] r, int instruction) {
+        execute(opcodes[instruction], r, (base() + instruction) * 2, left[instruction] * 2, right[instruction] * 2);
+    }
+
+    /**
+     * Runs every instruction over the register file together with the derivatives of every register
+     * with respect to each of the <b>n</b> variables, as forward-mode dual numbers. The derivatives of
+     * register <b>j</b> with respect to variable <b>k</b> are kept at <b>t[2(jn + k)]</b> and <b>t[2(jn + k) + 1]</b>.
+     * @param r Register file whose variable and constant registers are already filled
+     * @param t Derivatives whose variable and constant registers are already filled, <b>1</b> for a
+     * variable with respect to itself and <b>0</b> otherwise
+     * @param n Number of variables
+     * @param scratch Register files of the derivatives of the functions called, see <b>dualScratch</b>
+     */
+    void runDual(double[] r, double[] t, int n, double[][] scratch) {
+        int target = base();
+        for(int i = 0; i < opcodes.length; i++, target++) {
+            int opcode = opcodes[i], x = left[i], y = right[i];
+            execute(opcode, r, 2 * target, 2 * x, 2 * y);
+            int tt = 2 * n * target, tx = 2 * n * x, ty = 2 * n * y;
+            double a = r[2 * x], b = r[2 * x + 1], c = r[2 * y], d = r[2 * y + 1];
+            double re = r[2 * target], im = r[2 * target + 1];
+            switch (opcode) {
+                case NEGATE -> Kernels.scale(t, tt, tx, n, -1.0, 0.0, false);
+                case ADD -> {
+                    Kernels.scale(t, tt, tx, n, 1.0, 0.0, false);
+                    Kernels.scale(t, tt, ty, n, 1.0, 0.0, true);
+                }
+                case SUBTRACT -> {
+                    Kernels.scale(t, tt, tx, n, 1.0, 0.0, false);
+                    Kernels.scale(t, tt, ty, n, -1.0, 0.0, true);
+                }
+                case MULTIPLY -> {
+                    Kernels.scale(t, tt, tx, n, c, d, false);
+                    Kernels.scale(t, tt, ty, n, a, b, true);
+                }
+                case DIVIDE -> {
+                    // (tx - result * ty) / y
+                    double denominator = c * c + d * d, p = c / denominator, q = -d / denominator;
+                    Kernels.scale(t, tt, tx, n, p, q, false);
+                    Kernels.scale(t, tt, ty, n, -(re * p - im * q), -(re * q + im * p), true);
+                }
+                case POWER -> {
+                    // x^y * (y * tx / x + ln(x) * ty), with the limits at a base of 0 for a constant exponent
+                    double p, q;
+                    if(a == 0.0 && b == 0.0) {
+                        p = c == 1.0 && d == 0.0 ? 1.0 : c > 1.0 || c == 0.0 && d == 0.0 ? 0.0 : Double.NaN;
+                        q = Double.isNaN(p) ? Double.NaN : 0.0;
+                    } else {
+                        double denominator = a * a + b * b, u = re * c - im * d, v = re * d + im * c;
+                        p = (u * a + v * b) / denominator;
+                        q = (v * a - u * b) / denominator;
+                    }
+                    Kernels.scale(t, tt, tx, n, p, q, false);
+                    if(re != 0.0 || im != 0.0) {
+                        double lnModulus = Math.log(Math.sqrt(a * a + b * b)), argument = Math.atan2(b, a);
+                        Kernels.scale(t, tt, ty, n, re * lnModulus - im * argument, re * argument + im * lnModulus, true);
+                    }
+                }
+                case POWER_INT -> {
+                    // m * x^(m-1), the result divided by x
+                    double m = c, denominator = a * a + b * b;
+                    if(denominator == 0.0) Kernels.scale(t, tt, tx, n, 0.0, 0.0, false);
+                    else Kernels.scale(t, tt, tx, n, m * (re * a + im * b) / denominator, m * (im * a - re * b) / denominator, false);
+                }
+                case SIN -> Kernels.scale(t, tt, tx, n, Math.cos(a) * Math.cosh(b), -Math.sin(a) * Math.sinh(b), false);
+                case COS -> Kernels.scale(t, tt, tx, n, -Math.sin(a) * Math.cosh(b), -Math.cos(a) * Math.sinh(b), false);
+                // 1 / cos(x)^2 = 1 + tan(x)^2
+                case TAN -> Kernels.scale(t, tt, tx, n, 1.0 + re * re - im * im, 2.0 * re * im, false);
+                case LN, LOG -> {
+                    double denominator = (a * a + b * b) * (opcode == LOG ? Math.log(10) : 1.0);
+                    Kernels.scale(t, tt, tx, n, a / denominator, -b / denominator, false);
+                }
+                case CALL -> {
+                    MathFunction function = functions[y];
+                    int[] registers = arguments[y];
+                    double[] s = scratch[y];
+                    if(s != null) {
+                        Program derivative = function.derivativeProgram();
+                        s[0] = a;
+                        s[1] = b;
+                        derivative.run(s);
+                        Kernels.scale(t, tt, tx, n, s[2 * derivative.result], s[2 * derivative.result + 1], false);
+                    } else {
+                        // the call does not depend on the variables as long as none of its arguments does
+                        Arrays.fill(t, tt, tt + 2 * n, 0.0);
+                        for(int register: registers)
+                            for(int k = 2 * n * register; k < 2 * n * (register + 1); k++)
+                                if(t[k] != 0.0) throw new ArithmeticException("Function not differentiable: " + function);
+                    }
+                }
+                default -> throw new IllegalStateException("Invalid opcode: " + opcode);
+            }
+        }
+    }
+
+    /**
+     * Creates the register files <b>runDual</b> evaluates the derivatives of the called functions in,
+     * once per frame rather than once per call
+     * @return For every call site of a differentiable function of one argument, a register file of its
+     * derivative with the constants loaded, <b>null</b> for the other call sites
+     */
+    double[][] dualScratch() {
+        double[][] scratch = new double[functions.length][];
+        for(int site = 0; site < functions.length; site++) {
+            Program derivative = arguments[site].length == 1 ? functions[site].derivativeProgram() : null;
+            if(derivative == null) continue;
+            scratch[site] = new double[2 * derivative.registers()];
+            derivative.load(scratch[site]);
+        }
+        return scratch;
+    }
+
+    /**
+     * Finds the instructions whose value depends on each variable. Instructions only read registers written
+     * before them, so running the instructions of a set in increasing order brings all of them up to date.
+     * @return For every variable slot, the instructions reading it directly or through other instructions,
+     * as a bit set of <b>(opcodes.length + 63) / 64</b> words
+     */
+    long[][] dependents() {
+        int base = base();
+        long[][] dependents = new long[variables][(opcodes.length + 63) >>> 6];
+        boolean[] reached = new boolean[registers()];
+        for(int slot = 0; slot < variables; slot++) {
+            Arrays.fill(reached, false);
+            reached[slot] = true;
+            for(int i = 0; i < opcodes.length; i++)
+                if(opcodes[i] == CALL ? reachesAny(reached, arguments[right[i]])
+                        : reached[left[i]] || isBinary(opcodes[i]) && reached[right[i]]) {
+                    reached[base + i] = true;
+                    dependents[slot][i >>> 6] |= 1L << i;
+                }
+        }
+        return dependents;
+    }
+
+    private static boolean reachesAny(boolean[] reached, int[] registers) {
+        for(int register: registers)
+            if(reached[register]) return true;
+        return false;
+    }
+
+    // unary instructions leave their right operand at register 0, which may be a variable
+    private static boolean isBinary(int opcode) {
+        return switch (opcode) {
+            case NEGATE, SIN, COS, TAN, LOG, LN -> false;
+            default -> true;
+        };
+    }
+
+    private void execute(int opcode, double[] r, int target, int x, int y) {
+        switch (opcode) {
+            case NEGATE -> Kernels.negate(r, target, x);
+            case ADD -> Kernels.add(r, target, x, y);
+            case SUBTRACT -> Kernels.subtract(r, target, x, y);
+            case MULTIPLY -> Kernels.multiply(r, target, x, y);
+            case DIVIDE -> Kernels.divide(r, target, x, y);
+            case POWER -> Kernels.pow(r, target, x, y);
+            case POWER_INT -> Kernels.powInt(r, target, x, (int) r[y]);
+            case SIN -> Kernels.sin(r, target, x);
+            case COS -> Kernels.cos(r, target, x);
+            case TAN -> Kernels.tan(r, target, x);
+            case LOG -> Kernels.log(r, target, x);
+            case LN -> Kernels.ln(r, target, x);
+            case CALL -> call(r, target, y >> 1);
+            default -> throw new IllegalStateException("Invalid opcode: " + opcode);
+        }
+    }
+
+    private void call(double[] r, int target, int site) {
+        int[] registers = arguments[site];
+        if(registers.length == 1) {
+            functions[site].kernel.apply(r, 2 * registers[0], 1, target);
+            return;
+        }
+        int offset = 2 * (base() + opcodes.length);
+        for(int k = 0; k < registers.length; k++) {
+            r[offset + 2 * k] = r[2 * registers[k]];
+            r[offset + 2 * k + 1] = r[2 * registers[k] + 1];
+        }
+        functions[site].kernel.apply(r, offset, registers.length, target);
+    }
+
+    /**
+     * @param opcode Opcode of an instruction
+     * @return Operator or name of the function the instruction applies, <b>-</b> for a negation
+     */
+    static String symbol(int opcode) {
+        return switch (opcode) {
+            case NEGATE, SUBTRACT -> "-";
+            case ADD -> "+";
+            case MULTIPLY -> "*";
+            case DIVIDE -> "/";
+            case POWER, POWER_INT -> "^";
+            case SIN -> MathFunction.SIN.getName();
+            case COS -> MathFunction.COS.getName();
+            case TAN -> MathFunction.TAN.getName();
+            case LOG -> MathFunction.LOG.getName();
+            case LN -> MathFunction.LN.getName();
+            default -> throw new IllegalStateException("Invalid opcode: " + opcode);
+        };
+    }
+
+    /**
+     * Type inference for the real fast path: a program is real when none of its constants has an
+     * imaginary part and every function it calls has a real specialization, since every operator
+     * and function then maps real operands to real results unless it escapes its real domain,
+     * which <b>runReal</b> detects at run time. A program calling an impure function is never real,
+     * as the complex run after <b>runReal</b> bails out would call it a second time.
+     * @return Whether the program can be run with <b>runReal</b>
+     */
+    boolean isReal() {
+        for(int i = 1; i < constants.length; i += 2)
+            if(constants[i] != 0.0) return false;
+        for(MathFunction function: functions)
+            if(function.realKernel == null || !function.isPure()) return false;
+        return true;
+    }
+
+    /**
+     * Fills the constant registers of a real register file
+     * @param r Register file with one double per register
+     */
+    void loadReal(double[] r) {
+        for(int i = 0; i < constants.length / 2; i++)
+            r[variables + i] = constants[2 * i];
+    }
+
+    /**
+     * Runs every instruction with plain double arithmetic over a register file holding one double
+     * per register. Stops as soon as an operation would leave the real numbers, which happens for
+     * the logarithm of a negative number or a negative base raised to a fractional power.
+     * @param r Register file whose variable and constant registers are already filled
+     * @return <b>false</b> if the program must be run with complex arithmetic instead
+     */
+    boolean runReal(double[] r) {
+        return runReal(r, 0, opcodes.length);
+    }
+
+    /**
+     * Runs every instruction like <b>runReal(double[])</b>, reporting each one to a listener
+     * @param r Register file whose variable and constant registers are already filled
+     * @param listener Listener receiving every instruction run before the program leaves the real numbers
+     * @return <b>false</b> if the program must be run with complex arithmetic instead
+     */
+    boolean runReal(double[] r, EvaluationListener listener) {
+        int target = base();
+        for(int i = 0; i < opcodes.length; i++, target++) {
+            int opcode = opcodes[i];
+            double x = r[left[i]], y = r[right[i]];
+            if(opcode == DIVIDE && y == 0.0) listener.onOperation('/', x, 0.0, y, 0.0, Double.NaN, Double.NaN);
+            if(!runReal(r, i, i + 1)) return false;
+            switch (opcode) {
+                case NEGATE, SIN, COS, TAN, LOG, LN -> listener.onFunction(symbol(opcode), x, 0.0, r[target], 0.0);
+                case CALL -> listener.onFunction(functions[right[i]].getName(), x, 0.0, r[target], 0.0);
+                default -> listener.onOperation(symbol(opcode).charAt(0), x, 0.0, y, 0.0, r[target], 0.0);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the instructions from index <b>from</b> to index <b>to</b> with plain double arithmetic
+     */
+    private boolean runReal(double[] r, int from, int to) {
+        int target = base() + from;
+        for(int i = from; i < to; i++, target++) {
+            double x = r[left[i]], y = r[right[i]];
+            switch (opcodes[i]) {
+                case NEGATE -> r[target] = x * -1.0;
+                case ADD -> r[target] = x + y;
+                case SUBTRACT -> r[target] = x - y;
+                case MULTIPLY -> r[target] = x * y;
+                case DIVIDE -> {
+                    if(y == 0.0) throw new ArithmeticException("Division by zero");
+                    r[target] = x / y;
+                }
+                case POWER -> {
+                    if(y == 0.0) r[target] = 1.0;
+                    else if(isNegative(x) && y != Math.rint(y)) return false;
+                    else r[target] = Math.pow(x, y);
+                }
+                case POWER_INT -> r[target] = Kernels.powInt(x, (int) y);
+                case SIN -> r[target] = Math.sin(x);
+                case COS -> r[target] = Math.cos(x);
+                case TAN -> r[target] = Math.tan(x);
+                case LOG -> {
+                    if(isNegative(x)) return false;
+                    r[target] = Math.log10(x);
+                }
+                case LN -> {
+                    if(isNegative(x)) return false;
+                    r[target] = Math.log(x);
+                }
+                case CALL -> {
+                    double value = callReal(r, right[i]);
+                    if(Double.isNaN(value)) return false;
+                    r[target] = value;
+                }
+                default -> throw new IllegalStateException("Invalid opcode: " + opcodes[i]);
+            }
+        }
+        return true;
+    }
+
+    private double callReal(double[] r, int site) {
+        int[] registers = arguments[site];
+        if(registers.length == 1) return functions[site].realKernel.apply(r, registers[0], 1);
+        int offset = base() + opcodes.length;
+        for(int k = 0; k < registers.length; k++) r[offset + k] = r[registers[k]];
+        return functions[site].realKernel.apply(r, offset, registers.length);
+    }
+
+    /**
+     * Fills the constant registers of an arbitrary-precision register file with the decimal values
+     * the constants print as. A constant equal to the double nearest to <b>pi</b> or <b>e</b> stands
+     * for that constant and is given its value at the precision, which is cached per MathContext.
+     * @param r Register file with one BigComplex per register
+     * @param mc Precision of <b>pi</b> and <b>e</b>
+     */
+    void loadBig(BigComplex[] r, MathContext mc) {
+        for(int i = 0; i < constants.length / 2; i++)
+            r[variables + i] = new BigComplex(decimal(constants[2 * i], mc), decimal(constants[2 * i + 1], mc));
+    }
+
+    private static BigDecimal decimal(double value, MathContext mc) {
+        if(value == Math.PI) return BigComplex.pi(mc);
+        if(value == Math.E) return BigComplex.e(mc);
+        return BigComplex.decimal(value);
+    }
+
+    /**
+     * Runs every instruction with BigComplex arithmetic, each result rounded to a MathContext
+     * @param r Register file whose variable and constant registers are already filled
+     * @param mc Precision of every result
+     * @throws ArithmeticException If the equation divides by zero, takes the logarithm of zero or calls
+     * a function without an arbitrary-precision implementation
+     */
+    void runBig(BigComplex[] r, MathContext mc) {
+        int target = base();
+        for(int i = 0; i < opcodes.length; i++, target++) {
+            BigComplex x = r[left[i]], y = r[right[i]];
+            r[target] = switch (opcodes[i]) {
+                case NEGATE -> x.negate();
+                case ADD -> x.add(y, mc);
+                case SUBTRACT -> x.subtract(y, mc);
+                case MULTIPLY -> x.multiply(y, mc);
+                case DIVIDE -> x.divide(y, mc);
+                case POWER -> x.pow(y, mc);
+                case POWER_INT -> x.pow(y.real().intValue(), mc);
+                case SIN -> x.sin(mc);
+                case COS -> x.cos(mc);
+                case TAN -> x.tan(mc);
+                case LOG -> x.log(BigDecimal.TEN, mc);
+                case LN -> x.ln(mc);
+                case CALL -> callBig(r, right[i], mc);
+                default -> throw new IllegalStateException("Invalid opcode: " + opcodes[i]);
+            };
+        }
+    }
+
+    private BigComplex callBig(BigComplex[] r, int site, MathContext mc) {
+        MathFunction function = functions[site];
+        if(function.bigKernel == null)
+            throw new ArithmeticException("Function not supported at arbitrary precision: " + function.getName());
+        int[] registers = arguments[site];
+        BigComplex[] values = new BigComplex[registers.length];
+        for(int k = 0; k < registers.length; k++) values[k] = r[registers[k]];
+        return function.bigKernel.apply(values, mc);
+    }
+
+    /**
+     * Fills the constant registers of an interval register file with rectangles enclosing the decimal
+     * values the constants print as, which are points when the double is that decimal, and the true
+     * values of <b>pi</b> and <b>e</b> for the doubles nearest to them
+     * @param r Register file with one ComplexInterval per register
+     */
+    void loadInterval(ComplexInterval[] r) {
+        for(int i = 0; i < constants.length / 2; i++)
+            r[variables + i] = new ComplexInterval(interval(constants[2 * i]), interval(constants[2 * i + 1]));
+    }
+
+    private static Interval interval(double value) {
+        if(value == Math.PI) return new Interval(value, Math.nextUp(value));
+        if(value == Math.E) return new Interval(value, Math.nextUp(value));
+        int sign = BigComplex.decimal(value).compareTo(new BigDecimal(value));
+        return sign == 0 ? Interval.of(value) : sign > 0 ? new Interval(value, Math.nextUp(value)) : new Interval(Math.nextDown(value), value);
+    }
+
+    /**
+     * Runs every instruction in interval arithmetic, each result a rectangle enclosing the exact result
+     * for any values within the rectangles of the variables
+     * @param r Register file whose variable and constant registers are already filled
+     * @throws ArithmeticException If the equation divides by exactly zero
+     */
+    void runInterval(ComplexInterval[] r) {
+        int target = base();
+        for(int i = 0; i < opcodes.length; i++, target++) {
+            ComplexInterval x = r[left[i]], y = r[right[i]];
+            r[target] = switch (opcodes[i]) {
+                case NEGATE -> x.negate();
+                case ADD -> x.add(y);
+                case SUBTRACT -> x.subtract(y);
+                case MULTIPLY -> x.multiply(y);
+                case DIVIDE -> x.divide(y);
+                case POWER -> x.pow(y);
+                case POWER_INT -> x.pow((int) y.real().lo());
+                case SIN -> x.sin();
+                case COS -> x.cos();
+                case TAN -> x.tan();
+                case LOG -> x.log(10);
+                case LN -> x.ln();
+                case CALL -> callInterval(r, right[i]);
+                default -> throw new IllegalStateException("Invalid opcode: " + opcodes[i]);
+            };
+        }
+    }
+
+    // a function without an interval implementation may return anything
+    private ComplexInterval callInterval(ComplexInterval[] r, int site) {
+        MathFunction function = functions[site];
+        if(function.intervalKernel == null) return ComplexInterval.ENTIRE;
+        int[] registers = arguments[site];
+        ComplexInterval[] values = new ComplexInterval[registers.length];
+        for(int k = 0; k < registers.length; k++) values[k] = r[registers[k]];
+        return function.intervalKernel.apply(values);
+    }
+
+    // -0.0 counts as negative because its complex argument is pi
+    static boolean isNegative(double x) {
+        return Double.doubleToRawLongBits(x) < 0 && !Double.isNaN(x);
+    }
+
+    private static final class Builder {
+        private final int variables;
+        private final List<double[]> constants = new ArrayList<>();
+        private final List<int[]> instructions = new ArrayList<>();
+        private final List<MathFunction> functions = new ArrayList<>();
+        private final List<int[]> arguments = new ArrayList<>();
+        private final Map<Constant, Integer> constantRegisters = new HashMap<>();
+        private final Map<Object, Integer> emitted;
+
+        Builder(int variables, boolean shared) {
+            this.variables = variables;
+            this.emitted = shared ? new HashMap<>() : null;
+        }
+
+        /**
+         * Emits the instructions of a subtree
+         * @return Register holding the value of the subtree, instruction registers are
+         * numbered from 0 and shifted past the constants in <b>build</b>
+         */
+        int emit(Node node) {
+            return switch (node) {
+                case Node.Variable variable -> variable.slot();
+                case Node.Constant constant -> constant(constant.real(), constant.imaginary());
+                case Node.Negate negate -> instruction(NEGATE, emit(negate.operand()), 0);
+                case Node.Call call -> call(call);
+                // the exponent lives in a constant register so that every instruction reads registers only
+                case Node.IntegerPower power -> instruction(POWER_INT, emit(power.base()), constant(power.exponent(), 0.0));
+                case Node.Binary binary -> {
+                    List<Node.Binary> spine = Optimizer.spine(binary);
+                    int x = emit(spine.getLast().left());
+                    for(int i = spine.size() - 1; i >= 0; i--) {
+                        int y = emit(spine.get(i).right());
+                        x = instruction(opcode(spine.get(i).operator()), x, y);
+                    }
+                    yield x;
+                }
+            };
+        }
+
+        private int constant(double real, double imaginary) {
+            // compared by bits, as Double.compare does, so that 0.0 and -0.0 stay apart
+            Constant key = new Constant(Double.doubleToLongBits(real), Double.doubleToLongBits(imaginary));
+            Integer register = constantRegisters.get(key);
+            if(register != null) return register;
+            constants.add(new double[] { real, imaginary });
+            constantRegisters.put(key, variables + constants.size() - 1);
+            return variables + constants.size() - 1;
+        }
+
+        private int call(Node.Call call) {
+            MathFunction function = call.function();
+            if(function.opcode != CALL) return instruction(function.opcode, emit(call.arguments().getFirst()), 0);
+            int[] registers = new int[call.arguments().size()];
+            for(int k = 0; k < registers.length; k++) registers[k] = emit(call.arguments().get(k));
+            // an impure function is called at each of its calls
+            Call key = emitted == null || !function.isPure() ? null : new Call(function, Arrays.stream(registers).boxed().toList());
+            if(key != null) {
+                Integer register = emitted.get(key);
+                if(register != null) return register;
+            }
+            functions.add(function);
+            arguments.add(registers);
+            instructions.add(new int[] { CALL, registers.length == 0 ? 0 : registers[0], functions.size() - 1 });
+            int register = -instructions.size();
+            if(key != null) emitted.put(key, register);
+            return register;
+        }
+
+        private int instruction(int opcode, int x, int y) {
+            // operands of a commutative operation are ordered, which gives the same bits either way
+            if((opcode == ADD || opcode == MULTIPLY) && x > y) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            // operands are already shared, so equal subtrees end up with equal keys
+            Instruction key = emitted == null ? null : new Instruction(opcode, x, y);
+            if(key != null) {
+                Integer register = emitted.get(key);
+                if(register != null) return register;
+            }
+            instructions.add(new int[] { opcode, x, y });
+            // negative until the number of constants is known
+            int register = -instructions.size();
+            if(key != null) emitted.put(key, register);
+            return register;
+        }
+
+        Program build(int result) {
+            int base = variables + constants.size();
+            int[] opcodes = new int[instructions.size()], left = new int[opcodes.length], right = new int[opcodes.length];
+            for(int i = 0; i < opcodes.length; i++) {
+                int[] instruction = instructions.get(i);
+                opcodes[i] = instruction[0];
+                left[i] = resolve(instruction[1], base);
+                right[i] = resolve(instruction[2], base);
+            }
+            double[] values = new double[constants.size() * 2];
+            for(int i = 0; i < constants.size(); i++) {
+                values[2 * i] = constants.get(i)[0];
+                values[2 * i + 1] = constants.get(i)[1];
+            }
+            int[][] registers = new int[arguments.size()][];
+            for(int i = 0; i < registers.length; i++) {
+                registers[i] = arguments.get(i).clone();
+                for(int k = 0; k < registers[i].length; k++) registers[i][k] = resolve(registers[i][k], base);
+            }
+            return new Program(variables, values, opcodes, left, right, resolve(result, base),
+                    functions.toArray(new MathFunction[0]), registers);
+        }
+
+        private static int resolve(int register, int base) {
+            return register < 0 ? base - register - 1 : register;
+        }
+
+        private record Constant(long real, long imaginary) {}
+
+        private record Instruction(int opcode, int x, int y) {}
+
+        private record Call(MathFunction function, List<Integer> registers) {}
+
+        private static int opcode(char operator) {
+            return switch (operator) {
+                case '+' -> ADD;
+                case '-' -> SUBTRACT;
+                case '*' -> MULTIPLY;
+                case '/' -> DIVIDE;
+                case '^' -> POWER;
+                default -> throw new ArithmeticException("Invalid operator: " + operator);
+            };
+        }
+    }
+}
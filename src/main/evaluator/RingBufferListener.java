@@ -0,0 +1,192 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import complex.Complex;
+
+/**
+ * Keeps the latest events of evaluations in preallocated arrays, overwriting the oldest ones once
+ * full, so that tracing can stay enabled in production at the cost of a few stores per event.
+ * Concurrent evaluations may share a ring buffer, each event claims its own entry, and a snapshot
+ * taken while evaluations run leaves out the entries that are being written.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class RingBufferListener implements EvaluationListener {
+    /**
+     * Kind of a recorded event
+     */
+    public enum Type { SUB_EQUATION, OPERATION, FUNCTION }
+
+    /**
+     * Event recorded by a RingBufferListener
+     * @param type Kind of the event
+     * @param symbol Operator, name of the function or text of the sub-equation
+     * @param left First operand or argument, <b>null</b> for a sub-equation
+     * @param right Second operand, <b>null</b> unless the event is an operation
+     * @param result Result, <b>null</b> for a sub-equation
+     */
+    public record Entry(Type type, String symbol, Complex left, Complex right, Complex result) {
+        @Override
+        public String toString() {
+            return switch (type) {
+                case SUB_EQUATION -> "SubEquation: " + symbol;
+                case OPERATION -> "Evaluating : " + left + " " + symbol + " " + right + " = " + result;
+                case FUNCTION -> "Evaluating : " + symbol + "(" + left + ") = " + result;
+            };
+        }
+    }
+
+    private final int capacity;
+    private final AtomicLong next = new AtomicLong();
+    // sequence of the first event not cleared
+    private volatile long cleared;
+    // one more than the sequence of the event held by each entry, negated while the entry is being written
+    private final AtomicLongArray published;
+    private final byte[] types;
+    private final char[] operators;
+    private final String[] functions;
+    private final CharSequence[] equations;
+    private final int[] ranges;
+    // left, right and result of every entry, real and imaginary parts interleaved
+    private final double[] values;
+
+    /**
+     * @param capacity Number of latest events kept
+     */
+    public RingBufferListener(int capacity) {
+        if(capacity <= 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.capacity = capacity;
+        this.types = new byte[capacity];
+        this.operators = new char[capacity];
+        this.functions = new String[capacity];
+        this.equations = new CharSequence[capacity];
+        this.ranges = new int[2 * capacity];
+        this.values = new double[6 * capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * @return Number of latest events kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of events recorded since the buffer was created or cleared, including overwritten ones
+     */
+    public long getCount() {
+        return next.get() - cleared;
+    }
+
+    /**
+     * Forgets every recorded event
+     */
+    public void clear() {
+        cleared = next.get();
+    }
+
+    /**
+     * @return The recorded events that were not overwritten, oldest first
+     */
+    public List<Entry> snapshot() {
+        long end = next.get(), start = Math.max(cleared, end - capacity);
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        double[] v = new double[6];
+        for(long sequence = start; sequence < end; sequence++) {
+            int i = (int) (sequence % capacity);
+            // an entry still being written, or already claimed again, is skipped
+            if(published.get(i) != sequence + 1) continue;
+            Type type = Type.values()[types[i]];
+            char operator = operators[i];
+            String function = functions[i];
+            CharSequence equation = equations[i];
+            int from = ranges[2 * i], to = ranges[2 * i + 1];
+            System.arraycopy(values, 6 * i, v, 0, 6);
+            VarHandle.acquireFence();
+            if(published.get(i) != sequence + 1) continue;
+            entries.add(switch (type) {
+                // the text is only copied now, the listener keeps a reference to the equation
+                case SUB_EQUATION -> new Entry(type, equation.subSequence(from, to).toString(), null, null, null);
+                case OPERATION -> new Entry(type, String.valueOf(operator), new Complex(v[0], v[1]),
+                        new Complex(v[2], v[3]), new Complex(v[4], v[5]));
+                case FUNCTION -> new Entry(type, function, new Complex(v[0], v[1]), null, new Complex(v[4], v[5]));
+            });
+        }
+        return entries;
+    }
+
+    /**
+     * Claims the entry of the next event and marks it as being written until <b>publish</b> is called.
+     * Only one writer owns an entry at a time: a writer waits for an older one to publish, and drops
+     * its event if a newer one already claimed the entry.
+     * @return Sequence of the event, -1 if the event was dropped
+     */
+    private long claim(Type type) {
+        long sequence = next.getAndIncrement();
+        int i = (int) (sequence % capacity);
+        for(;;) {
+            long owner = published.get(i);
+            if(owner < 0) {
+                if(-owner > sequence + 1) return -1;
+                Thread.onSpinWait();
+            }
+            else if(owner > sequence + 1) return -1;
+            else if(published.compareAndSet(i, owner, -(sequence + 1))) break;
+        }
+        VarHandle.storeStoreFence();
+        types[i] = (byte) type.ordinal();
+        return sequence;
+    }
+
+    private void publish(long sequence) {
+        published.compareAndSet((int) (sequence % capacity), -(sequence + 1), sequence + 1);
+    }
+
+    @Override
+    public void onSubEquation(CharSequence equation, int from, int to) {
+        long sequence = claim(Type.SUB_EQUATION);
+        if(sequence < 0) return;
+        int i = (int) (sequence % capacity);
+        equations[i] = equation;
+        ranges[2 * i] = from;
+        ranges[2 * i + 1] = to;
+        publish(sequence);
+    }
+
+    @Override
+    public void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                            double rightImaginary, double resultReal, double resultImaginary) {
+        long sequence = claim(Type.OPERATION);
+        if(sequence < 0) return;
+        int i = (int) (sequence % capacity), v = 6 * i;
+        operators[i] = operator;
+        values[v] = leftReal;
+        values[v + 1] = leftImaginary;
+        values[v + 2] = rightReal;
+        values[v + 3] = rightImaginary;
+        values[v + 4] = resultReal;
+        values[v + 5] = resultImaginary;
+        publish(sequence);
+    }
+
+    @Override
+    public void onFunction(String function, double argumentReal, double argumentImaginary,
+                           double resultReal, double resultImaginary) {
+        long sequence = claim(Type.FUNCTION);
+        if(sequence < 0) return;
+        int i = (int) (sequence % capacity), v = 6 * i;
+        functions[i] = function;
+        values[v] = argumentReal;
+        values[v + 1] = argumentImaginary;
+        values[v + 4] = resultReal;
+        values[v + 5] = resultImaginary;
+        publish(sequence);
+    }
+}
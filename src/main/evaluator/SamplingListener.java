@@ -0,0 +1,56 @@
+package evaluator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Forwards a random sample of the events of an evaluation to another listener, so that an expensive
+ * listener such as a PrintStreamListener can stay attached under load. Each event is forwarded with
+ * probability <b>1 / period</b>, drawn from a thread-local generator, so threads share no state.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class SamplingListener implements EvaluationListener {
+    private final EvaluationListener delegate;
+    private final int period;
+
+    /**
+     * @param delegate Listener receiving the sampled events
+     * @param period Average number of events per forwarded event, <b>1</b> forwards every event
+     */
+    public SamplingListener(EvaluationListener delegate, int period) {
+        if(period <= 0) throw new IllegalArgumentException("Invalid period: " + period);
+        this.delegate = delegate;
+        this.period = period;
+    }
+
+    /**
+     * @return Average number of events per forwarded event
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    private boolean sampled() {
+        return period == 1 || ThreadLocalRandom.current().nextInt(period) == 0;
+    }
+
+    @Override
+    public void onSubEquation(CharSequence equation, int from, int to) {
+        if(sampled()) delegate.onSubEquation(equation, from, to);
+    }
+
+    @Override
+    public void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                            double rightImaginary, double resultReal, double resultImaginary) {
+        if(sampled())
+            delegate.onOperation(operator, leftReal, leftImaginary, rightReal, rightImaginary, resultReal, resultImaginary);
+    }
+
+    @Override
+    public void onFunction(String function, double argumentReal, double argumentImaginary,
+                           double resultReal, double resultImaginary) {
+        if(sampled()) delegate.onFunction(function, argumentReal, argumentImaginary, resultReal, resultImaginary);
+    }
+}
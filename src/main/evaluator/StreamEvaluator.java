@@ -0,0 +1,469 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import complex.Complex;
+import complex.ComplexFormat;
+
+/**
+ * Evaluates files or streams holding one equation per line, or a CSV of an equation followed by
+ * the values of its variables, and writes one result per line. Input is read through a memory-mapped
+ * window or a fixed buffer and parsed straight from the bytes, output is written in batches, so memory
+ * stays bounded whatever the size of the input. Text is read as ISO-8859-1, one byte per character.
+ * A line that fails to evaluate produces the message of the error in place of its result.
+ * A stream evaluator must be used by one thread at a time.
+ * @author Saptarshi Dey
+ * @since October 2026
+ * @version 1.0
+ */
+
+public final class StreamEvaluator {
+    /**
+     * Size of the input and output buffers when none is given
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    // rows of a CSV that share an equation are evaluated column-wise in blocks of this many rows
+    private static final int BLOCK_SIZE = 4096;
+    private static final long MAPPED_WINDOW = 64L << 20;
+
+    private final Map<String, Complex> variables;
+    private final ExpressionCache cache;
+    private ComplexFormat format = new ComplexFormat(4);
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private long errors;
+    // the bytes of the last line evaluated and its frame or folded value, reused while the same line repeats
+    private byte[] lastLine = new byte[64];
+    private int lastLength = -1;
+    private Frame lastFrame;
+    private Complex lastValue;
+
+    /**
+     * Default constructor
+     */
+    public StreamEvaluator() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * @param variables Map Object of variables available to every line, a CSV column of the same name takes precedence
+     */
+    public StreamEvaluator(Map<String, Complex> variables) {
+        this(variables, new ExpressionCache(ExpressionCache.DEFAULT_CAPACITY));
+    }
+
+    /**
+     * @param variables Map Object of variables available to every line, a CSV column of the same name takes precedence
+     * @param cache Cache of the equations of CSV rows, whose functions lines are parsed with
+     */
+    public StreamEvaluator(Map<String, Complex> variables, ExpressionCache cache) {
+        this.variables = variables;
+        this.cache = cache;
+    }
+
+    /**
+     * Setter for the precision of the results, see <b>Complex.toString(int)</b>
+     * @param precision Precision of fractional part of the real and imaginary values
+     */
+    public void setPrecision(int precision) {
+        this.format = new ComplexFormat(precision);
+    }
+
+    /**
+     * Setter for the size of the input and output buffers of channels, files are mapped in larger windows
+     * @param bufferSize Size in bytes, lines longer than this grow the input buffer
+     */
+    public void setBufferSize(int bufferSize) {
+        if(bufferSize <= 0) throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @return Number of lines whose evaluation failed since this evaluator was created
+     */
+    public long getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * Evaluates a file holding one equation per line
+     * @param input File to be read, it is memory-mapped
+     * @param output File receiving one result per line, created or truncated
+     * @return Number of lines evaluated
+     * @throws IOException If reading or writing fails
+     */
+    public long evaluateLines(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            return evaluateLines(new Lines(in), new Output(out, bufferSize));
+        }
+    }
+
+    /**
+     * Evaluates a stream holding one equation per line, such as <b>Channels.newChannel(System.in)</b>
+     * @param input Channel to be read until its end
+     * @param output Channel receiving one result per line, it is not closed
+     * @return Number of lines evaluated
+     * @throws IOException If reading or writing fails
+     */
+    public long evaluateLines(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        return evaluateLines(new Lines(input, bufferSize), new Output(output, bufferSize));
+    }
+
+    /**
+     * Evaluates a CSV file whose header names the variables, as in <b>equation,x,y</b>, and whose
+     * rows hold an equation followed by the values of the variables, as in <b>x^2+y,1.5,-2</b>
+     * @param input File to be read, it is memory-mapped
+     * @param output File receiving one result per row, created or truncated
+     * @return Number of rows evaluated
+     * @throws IOException If reading or writing fails
+     */
+    public long evaluateCsv(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            return evaluateCsv(new Lines(in), new Output(out, bufferSize));
+        }
+    }
+
+    /**
+     * Evaluates a CSV stream, see <b>evaluateCsv(Path, Path)</b>
+     * @param input Channel to be read until its end
+     * @param output Channel receiving one result per row, it is not closed
+     * @return Number of rows evaluated
+     * @throws IOException If reading or writing fails
+     */
+    public long evaluateCsv(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        return evaluateCsv(new Lines(input, bufferSize), new Output(output, bufferSize));
+    }
+
+    private long evaluateLines(Lines lines, Output output) throws IOException {
+        ByteSequence line = new ByteSequence();
+        // the variables may have changed since the last call
+        this.lastLength = -1;
+        long count = 0;
+        while(lines.next()) {
+            try {
+                output.write(evaluate(line.set(lines.buffer, lines.start, lines.end)));
+            } catch (Exception e) {
+                output.error(e);
+            }
+            count++;
+        }
+        output.flush();
+        return count;
+    }
+
+    /**
+     * Evaluates an equation read from the input without going through a String. A line repeating the
+     * one before it reuses its frame, compared byte by byte.
+     */
+    private Complex evaluate(ByteSequence equation) throws Exception {
+        if(equation.contentEquals(lastLine, lastLength)) return lastFrame == null ? lastValue : lastFrame.evaluate();
+        lastLength = -1;
+        Parser parser = new Parser(equation, cache.getFunctions());
+        Node root = Optimizer.optimize(parser.parse());
+        // an equation without variables is folded down to its value
+        if(root instanceof Node.Constant constant) {
+            lastFrame = null;
+            lastValue = new Complex(constant.real(), constant.imaginary());
+        } else {
+            Bindings bindings = new Bindings(parser.variables());
+            bindings.setVariables(variables);
+            lastFrame = new Frame(bindings, Program.lower(root, bindings.names.length), null);
+        }
+        Complex result = lastFrame == null ? lastValue : lastFrame.evaluate();
+        lastLine = equation.copyTo(lastLine);
+        lastLength = equation.length();
+        return result;
+    }
+
+    private long evaluateCsv(Lines lines, Output output) throws IOException {
+        if(!lines.next()) {
+            output.flush();
+            return 0;
+        }
+        List<String> header = new ArrayList<>();
+        for(int from = lines.start, i = lines.start; i <= lines.end; i++)
+            if(i == lines.end || lines.buffer.get(i) == ',') {
+                header.add(new ByteSequence().set(lines.buffer, from, i).toString().trim());
+                from = i + 1;
+            }
+        Block block = new Block(header.subList(1, header.size()).toArray(new String[0]), output);
+
+        ByteSequence formula = new ByteSequence(), field = new ByteSequence();
+        long count = 0;
+        while(lines.next()) {
+            count++;
+            ByteBuffer buffer = lines.buffer;
+            int end = formulaEnd(buffer, lines.start, lines.end);
+            formula.set(buffer, lines.start, end);
+            if(!formula.contentEquals(block.formula)) block.compile(formula);
+            if(block.error != null) {
+                block.flush();
+                output.error(block.error);
+                continue;
+            }
+            int column = 0, from = end + 1;
+            try {
+                for(int i = from; i <= lines.end && end < lines.end; i++)
+                    if(i == lines.end || buffer.get(i) == ',') {
+                        double value = ComplexFormat.parseDouble(field.set(buffer, from, i));
+                        block.value(column++, value);
+                        from = i + 1;
+                    }
+            } catch (NumberFormatException e) {
+                block.flush();
+                output.error(new NumberFormatException("Invalid number in column " + (column + 2)));
+                continue;
+            }
+            if(column != header.size() - 1) {
+                block.flush();
+                output.error(new Exception("Expected " + (header.size() - 1) + " values but found " + column));
+                continue;
+            }
+            block.add();
+        }
+        block.flush();
+        output.flush();
+        return count;
+    }
+
+    // the equation ends at the first comma outside of parentheses
+    private static int formulaEnd(ByteBuffer buffer, int from, int to) {
+        int depth = 0;
+        for(int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if(b == '(') depth++;
+            else if(b == ')') depth--;
+            else if(b == ',' && depth == 0) return i;
+        }
+        return to;
+    }
+
+    /**
+     * Rows of a CSV sharing the same equation, gathered into columns and evaluated by a BatchEvaluator
+     */
+    private final class Block {
+        private final String[] columns;
+        private final Output output;
+        private final double[][] values;
+        private final double[] outReal = new double[BLOCK_SIZE], outImaginary = new double[BLOCK_SIZE];
+        private byte[] formula;
+        private Exception error;
+        private CompiledExpression expression;
+        private BatchEvaluator batch;
+        // column of every variable of the expression, -1 for one taken from the variables Map Object
+        private int[] slots;
+        private int rows;
+
+        Block(String[] columns, Output output) {
+            this.columns = columns;
+            this.output = output;
+            this.values = new double[columns.length][BLOCK_SIZE];
+        }
+
+        void compile(ByteSequence text) throws IOException {
+            flush();
+            formula = text.toBytes();
+            error = null;
+            try {
+                expression = cache.get(text.toString());
+            } catch (Exception e) {
+                error = e;
+                return;
+            }
+            batch = expression.newBatch();
+            List<String> names = expression.getVariables();
+            slots = new int[names.size()];
+            for(int slot = 0; slot < slots.length; slot++) {
+                slots[slot] = List.of(columns).indexOf(names.get(slot));
+                if(slots[slot] >= 0) batch.bind(slot, values[slots[slot]], null);
+                else {
+                    Complex value = variables.get(names.get(slot));
+                    if(value == null) {
+                        error = new Exception("Symbol not found: " + names.get(slot));
+                        return;
+                    }
+                    double[] real = new double[BLOCK_SIZE], imaginary = new double[BLOCK_SIZE];
+                    Arrays.fill(real, value.real());
+                    Arrays.fill(imaginary, value.imaginary());
+                    batch.bind(slot, real, imaginary);
+                }
+            }
+        }
+
+        void value(int column, double value) {
+            // surplus values are counted by the caller and reported
+            if(column < values.length) values[column][rows] = value;
+        }
+
+        void add() throws IOException {
+            if(++rows == BLOCK_SIZE) flush();
+        }
+
+        /**
+         * Evaluates the gathered rows and writes their results
+         */
+        void flush() throws IOException {
+            if(rows == 0) return;
+            try {
+                batch.evaluate(0, rows, outReal, outImaginary);
+                for(int row = 0; row < rows; row++) output.write(outReal[row], outImaginary[row]);
+            } catch (Exception e) {
+                // a row failed, the block is evaluated again row by row to tell which
+                Frame frame = expression.newFrame();
+                frame.getBindings().setVariables(variables);
+                for(int row = 0; row < rows; row++) {
+                    for(int slot = 0; slot < slots.length; slot++)
+                        if(slots[slot] >= 0) frame.setVariable(slot, values[slots[slot]][row], 0.0);
+                    try {
+                        output.write(frame.evaluate());
+                    } catch (Exception rowError) {
+                        output.error(rowError);
+                    }
+                }
+            }
+            rows = 0;
+        }
+    }
+
+    /**
+     * Lines of an input, read through a memory-mapped window of a file or a buffer filled from a channel
+     */
+    private static final class Lines {
+        private final FileChannel file;
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer;
+        // position of the buffer in the file
+        private long offset;
+        private boolean exhausted;
+        // current line, without its line terminator
+        int start, end;
+        private int next;
+
+        Lines(FileChannel file) {
+            this.file = file;
+            this.channel = null;
+            this.buffer = ByteBuffer.allocate(0);
+        }
+
+        Lines(ReadableByteChannel channel, int size) {
+            this.file = null;
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(size).limit(0);
+        }
+
+        /**
+         * Moves to the next line
+         * @return <b>false</b> at the end of the input
+         */
+        boolean next() throws IOException {
+            while(true) {
+                int limit = buffer.limit();
+                for(int i = next; i < limit; i++)
+                    if(buffer.get(i) == '\n') {
+                        line(next, i);
+                        next = i + 1;
+                        return true;
+                    }
+                if(exhausted) {
+                    if(next >= limit) return false;
+                    line(next, limit);
+                    next = limit;
+                    return true;
+                }
+                fill();
+            }
+        }
+
+        private void line(int from, int to) {
+            start = from;
+            end = to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+        }
+
+        /**
+         * Keeps the unread part of the buffer and reads or maps what follows it
+         */
+        private void fill() throws IOException {
+            int unread = buffer.limit() - next;
+            if(file != null) {
+                offset += next;
+                long remaining = file.size() - offset;
+                long size = Math.min(remaining, Math.max(MAPPED_WINDOW, 2L * unread));
+                if(size > Integer.MAX_VALUE) throw new IOException("Line too long at offset " + offset);
+                buffer = file.map(FileChannel.MapMode.READ_ONLY, offset, size);
+                exhausted = offset + size == file.size();
+            } else {
+                buffer.position(next);
+                if(unread == buffer.capacity()) {
+                    // a line longer than the buffer, which grows to hold it
+                    ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else buffer.compact();
+                int read = 0;
+                while(buffer.hasRemaining() && (read = channel.read(buffer)) == 0);
+                exhausted = read < 0;
+                buffer.flip();
+            }
+            next = 0;
+        }
+    }
+
+    /**
+     * Batches results into a buffer written to the output channel whenever it fills up
+     */
+    private final class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+        private final StringBuilder text = new StringBuilder(64);
+
+        Output(WritableByteChannel channel, int size) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(Math.max(size, 256));
+        }
+
+        void write(Complex result) throws IOException {
+            write(result.real(), result.imaginary());
+        }
+
+        void write(double real, double imaginary) throws IOException {
+            text.setLength(0);
+            line(format.format(real, imaginary, text));
+        }
+
+        void error(Exception e) throws IOException {
+            errors++;
+            line(e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+
+        private void line(CharSequence text) throws IOException {
+            if(buffer.remaining() < text.length() + 1) flush();
+            // a line longer than the whole buffer is written in several parts
+            for(int i = 0; i < text.length(); i++) {
+                if(!buffer.hasRemaining()) flush();
+                buffer.put((byte) text.charAt(i));
+            }
+            if(!buffer.hasRemaining()) flush();
+            buffer.put((byte) '\n');
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
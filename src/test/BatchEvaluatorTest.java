@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.BatchEvaluator;
+import evaluator.CompiledExpression;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEvaluatorTest {
+    static final int ROWS = 2_000;
+
+    double[] re = new double[ROWS], im = new double[ROWS];
+    {
+        for (int i = 0; i < ROWS; i++) {
+            re[i] = Math.cos(i * 0.01) * (1 + i % 7);
+            im[i] = Math.sin(i * 0.013);
+        }
+    }
+
+    String[] equations = {
+            "x^4+x^3+x^2+x+1",
+            "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))",
+            "(1+i)^(x-i)+ln(x)/log(x+10)", "2^x - x^0.5"
+    };
+
+    @Test
+    void MatchesScalarEvaluation() throws Exception {
+        double[] outRe = new double[ROWS], outIm = new double[ROWS];
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            for (boolean real : new boolean[] { true, false }) {
+                BatchEvaluator batch = compiled.newBatch(100);
+                batch.bind("x", re, real ? null : im);
+                batch.evaluate(outRe, outIm);
+                for (int i = 0; i < ROWS; i++) {
+                    Complex expected = compiled.evaluate(Map.of("x", new Complex(re[i], real ? 0.0 : im[i])));
+                    assertEquals(expected.real(), outRe[i], 1e-9 * Math.max(1.0, Math.abs(expected.real())), equation);
+                    assertEquals(expected.imaginary(), outIm[i], 1e-9 * Math.max(1.0, Math.abs(expected.imaginary())), equation);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ParallelMatchesSequential() throws Exception {
+        int rows = 200_000;
+        double[] x = new double[rows], y = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            x[i] = i * 1e-4;
+            y[i] = Math.cos(i);
+        }
+        BatchEvaluator batch = CompiledExpression.compile("sin(x)*y^2 + (1+i)^x").newBatch();
+        batch.bind("x", x, null);
+        batch.bind("y", y, x);
+        double[] re = new double[rows], im = new double[rows];
+        double[] parallelRe = new double[rows], parallelIm = new double[rows];
+        batch.evaluate(re, im);
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            batch.evaluateParallel(parallelRe, parallelIm, pool);
+        }
+        assertArrayEquals(re, parallelRe);
+        assertArrayEquals(im, parallelIm);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Arrays.fill(parallelRe, 0.0);
+            batch.evaluateParallel(parallelRe, null, executor, 3);
+            assertArrayEquals(re, parallelRe);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void EvaluatesRange() throws Exception {
+        BatchEvaluator batch = CompiledExpression.compile("2*x").newBatch();
+        double[] out = new double[ROWS];
+        batch.bind("x", re, null);
+        batch.evaluate(10, 20, out, null);
+        assertEquals(0.0, out[9]);
+        assertEquals(2 * re[10], out[10]);
+        assertEquals(0.0, out[20]);
+        assertThrows(Exception.class, () -> CompiledExpression.compile("x+y").newBatch().evaluate(out, null));
+    }
+}
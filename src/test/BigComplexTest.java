@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+
+import complex.BigComplex;
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionEvaluator;
+import evaluator.FunctionRegistry;
+import evaluator.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigComplexTest {
+    MathContext digits50 = new MathContext(50);
+    String[] equations = {
+            "x^2+3*x-1/x", "sin(x)*cos(x)-tan(x)", "log(x)+ln(x)", "exp(x)/sqrt(x)", "sinh(x)-cosh(x)", "(1+x)^2.5",
+            "x^(1+i)", "abs(x-3)+arg(x)", "max(x, 1, -x)-min(x^2, 2*x)", "e^x-2*pi*x"
+    };
+
+    @Test
+    void ComputesConstantsAtPrecision() throws Exception {
+        assertEquals("3.1415926535897932384626433832795028841971693993751", BigComplex.pi(digits50).toString());
+        assertEquals("2.7182818284590452353602874713526624977572470937000", BigComplex.e(digits50).toString());
+        // a narrower precision is rounded from the cached value in its own rounding mode
+        assertEquals("3.1415926535897932384", BigComplex.pi(new MathContext(20, RoundingMode.FLOOR)).toString());
+        assertEquals("3.1415926535897932385", BigComplex.pi(new MathContext(20, RoundingMode.CEILING)).toString());
+        assertEquals("2.718281828459045235360287471352662497757247093699959574966967627724",
+                BigComplex.e(new MathContext(67)).toString());
+        assertEquals("2.3025850929940456840179914546843642076011014886288", evaluate("ln(10)", digits50));
+        assertEquals("-0.50636564110975879365655761045978543206503272129066", evaluate("sin(100)", digits50));
+        assertEquals("1.4142135623730950488016887242096980785696718753769", evaluate("sqrt(2)", digits50));
+        assertEquals("6.2831853071795864769252867665590057683943387987502", evaluate("2*pi", digits50));
+        assertTrue(evaluate("exp(1000)", digits50).startsWith("1.9700711140170469938888793522433231253169379853238E+434"));
+    }
+
+    @Test
+    void EvaluatesDecimalsExactly() throws Exception {
+        assertEquals("0.3", evaluate("0.1+0.2", MathContext.DECIMAL128));
+        assertEquals("0.7", evaluate("0.1+0.2*3", MathContext.UNLIMITED));
+        assertEquals("32i", evaluate("(1+i)^10", MathContext.DECIMAL128));
+        assertEquals("(-14.625 + 5.5i)", evaluate("(1.5+2i)^3", MathContext.UNLIMITED));
+        assertEquals("0.3333333", evaluate("1/3", MathContext.DECIMAL32));
+        assertEquals("2i", evaluate("sqrt(-4)", MathContext.DECIMAL64));
+
+        CompiledExpression expression = CompiledExpression.compile("x^2 - 0.01");
+        BigComplex x = BigComplex.valueOf(new BigDecimal("0.1"));
+        assertTrue(expression.evaluate(Map.of("x", x), MathContext.DECIMAL128).isZero());
+        assertEquals("Symbol not found: x",
+                assertThrows(Exception.class, () -> expression.evaluate(Map.of(), MathContext.DECIMAL128)).getMessage());
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class, () -> evaluate("1/0", digits50)).getMessage());
+        assertThrows(ArithmeticException.class, () -> evaluate("ln(0)", digits50));
+        assertThrows(IllegalArgumentException.class, () -> evaluate("sin(1)", MathContext.UNLIMITED));
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(Map.of("x", new Complex(0.1, 0.0)));
+        assertEquals("0.01", evaluator.evaluateEquation("x^2", MathContext.DECIMAL64));
+        assertEquals("0.01", evaluator.evaluateEquation("x^2", 2, false));
+    }
+
+    @Test
+    void AgreesWithDoublePath() throws Exception {
+        Complex[] values = { new Complex(0.5, 0.0), new Complex(2.0, 0.3), new Complex(-1.5, -0.7) };
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            for (Complex value : values) {
+                Complex expected = compiled.evaluate(Map.of("x", value));
+                Complex actual = compiled.evaluate(Map.of("x", BigComplex.valueOf(value)), MathContext.DECIMAL128).toComplex();
+                assertEquals(expected.real(), actual.real(), 1e-12 * (1 + expected.mod()), equation);
+                assertEquals(expected.imaginary(), actual.imaginary(), 1e-12 * (1 + expected.mod()), equation);
+            }
+        }
+    }
+
+    @Test
+    void CallsArbitraryPrecisionKernels() throws Exception {
+        MathFunction square = MathFunction.of("sq", 1, (r, offset, count, target) -> {
+            double a = r[offset], b = r[offset + 1];
+            r[target] = a * a - b * b;
+            r[target + 1] = 2 * a * b;
+        });
+        assertEquals("Function not supported at arbitrary precision: sq", assertThrows(ArithmeticException.class,
+                () -> CompiledExpression.compile("sq(x)", FunctionRegistry.standard().with(square))
+                        .evaluate(Map.of("x", BigComplex.ONE), digits50)).getMessage());
+
+        FunctionRegistry functions = FunctionRegistry.standard()
+                .with(square.withBigKernel((arguments, mc) -> arguments[0].multiply(arguments[0], mc)));
+        CompiledExpression expression = CompiledExpression.compile("sq(x) + sq(x)", functions);
+        BigComplex x = new BigComplex(new BigDecimal("1.1"), new BigDecimal("0.2"));
+        assertEquals("(2.34 + 0.88i)", expression.evaluate(Map.of("x", x), digits50).toString());
+        // the compiled form is reused at every precision, each call is rounded to 1.2 + 0.44i before the sum
+        assertEquals("(2.4 + 0.88i)", expression.evaluate(Map.of("x", x), new MathContext(2)).toString());
+    }
+
+    private static String evaluate(String equation, MathContext mathContext) throws Exception {
+        return CompiledExpression.compile(equation).evaluate(Map.of(), mathContext).toString();
+    }
+}
@@ -0,0 +1,237 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.Backend;
+import evaluator.Bindings;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledExpressionTest {
+    Map<String, Complex> variables = new HashMap<>() {{
+        // fifth root of unity
+        put("x", new Complex(Math.cos(2.0 * Math.PI / 5.0), Math.sin(2.0 * Math.PI / 5.0)));
+    }};
+
+    String[] equations = {
+            "-1.3+e^(2.3-1.2)-sin(pi)",
+            "3^-1+2^-2", "(1+i)^(2-i)+2^-i",
+            "1.2+(4.5-2.2/0.5+(3.45-2.22))+3.5-2.1",
+            "x^4+x^3+x^2+x+1",
+            "sin(2*x)-2*sin(x)*cos(x)",
+            "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))",
+            "2 + (  log(5) -   log(3)  )    /  log(4)",
+            "4^(x+1) - 4^(x-1)", "-cos(x)*-2", "ln(e^2)/2"
+    };
+
+    @Test
+    void MatchesComplexEvaluator() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        for (String equation : equations) {
+            CompiledExpression compiled = exp.compile(equation);
+            assertEquals(exp.complexEvaluator(equation, false).toString(4),
+                    compiled.evaluate(variables).toString(4), equation);
+        }
+    }
+
+    @Test
+    void ReusedWithDifferentValues() throws Exception {
+        CompiledExpression compiled = CompiledExpression.compile("x^2 + 2*x*y + y^2");
+        assertEquals(List.of("x", "y"), compiled.getVariables());
+        for (int i = 0; i < 10; i++) {
+            Complex result = compiled.evaluate(Map.of("x", new Complex(i, 0.0), "y", new Complex(1.0, 0.0)));
+            assertEquals((i + 1.0) * (i + 1.0), result.real(), 1e-9);
+        }
+    }
+
+    @Test
+    void FrameMatchesEvaluate() throws Exception {
+        double[] out = new double[2];
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            Frame frame = compiled.newFrame();
+            frame.setVariable("x", variables.get("x"));
+            frame.evaluateInto(out);
+            Complex expected = compiled.evaluate(variables);
+            assertEquals(expected.real(), out[0], equation);
+            assertEquals(expected.imaginary(), out[1], equation);
+        }
+    }
+
+    @Test
+    void FrameDoesNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        Frame frame = CompiledExpression.compile(equations[6]).newFrame();
+        double[] out = new double[2];
+        for (int i = 0; i < 20_000; i++) {
+            frame.setVariable(0, i * 1e-4, 0.5);
+            frame.evaluateInto(out);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            frame.setVariable(0, i * 1e-5, 0.5);
+            frame.evaluateInto(out);
+        }
+        assertTrue(threads.getCurrentThreadAllocatedBytes() - before < 16_384);
+    }
+
+    @Test
+    void RealFastPath() throws Exception {
+        CompiledExpression compiled = CompiledExpression.compile("x^0.5 + ln(x) - 4^(x+1) + sin(x)/x");
+        Frame real = compiled.newFrame(), complex = compiled.newFrame();
+        complex.setRealFastPath(false);
+        for (double x : new double[] { 0.5, 2.0, -2.0, 3.7 }) {
+            real.setVariable("x", x);
+            complex.setVariable("x", x);
+            Complex expected = complex.evaluate(), actual = real.evaluate();
+            assertEquals(expected.real(), actual.real(), 1e-9 * Math.abs(expected.real()));
+            assertEquals(expected.imaginary(), actual.imaginary(), 1e-9);
+        }
+        // negative base with an integer power stays real and exact
+        Frame cube = CompiledExpression.compile("x^3").newFrame();
+        cube.setVariable("x", -2.0);
+        assertEquals(new Complex(-8.0, 0.0), cube.evaluate());
+    }
+
+    @Test
+    void SharedBetweenThreads() throws Exception {
+        CompiledExpression compiled = CompiledExpression.compile("x^2 - y");
+        int slotX = compiled.getSlot("x"), slotY = compiled.getSlot("y");
+        List<Future<Complex>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                int n = i;
+                results.add(executor.submit(() -> {
+                    Bindings bindings = compiled.bindings();
+                    bindings.setVariable(slotX, n, 0.0);
+                    bindings.setVariable(slotY, 0.0, n);
+                    return compiled.evaluate(bindings);
+                }));
+            }
+            for (int i = 0; i < results.size(); i++)
+                assertEquals(new Complex((double) i * i, -i), results.get(i).get());
+        }
+    }
+
+    @Test
+    void ReportsErrors() throws Exception {
+        assertEquals("Invalid parenthesis sequence",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("(2+3")).getMessage());
+        assertEquals("Function not supported: foo",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("foo(2)")).getMessage());
+        assertEquals("Symbol not found: y",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("x+y").evaluate(variables)).getMessage());
+        assertThrows(ArithmeticException.class, () -> CompiledExpression.compile("1/(x-x)").evaluate(variables));
+    }
+
+    @Test
+    void OptimizesConstants() throws Exception {
+        assertEquals("6.283185307179586*x", CompiledExpression.compile("2*pi*x").getOptimizedForm());
+        assertEquals("x", CompiledExpression.compile("(x*1+0)^1/1").getOptimizedForm());
+        assertEquals("1", CompiledExpression.compile("(x+1)^0").getOptimizedForm());
+        assertEquals("(x+1)^4-sin(x)", CompiledExpression.compile("(x+1)^(2*2)-sin(x)").getOptimizedForm());
+        assertFalse(CompiledExpression.compile(equations[0]).getOptimizedForm().matches(".*[a-z(].*"));
+        // a constant division by zero is not folded and still fails when evaluated
+        assertThrows(ArithmeticException.class, () -> CompiledExpression.compile("x+1/0").evaluate(variables));
+        // nor is a power of zero whose base may fail
+        assertEquals("(1/(x-x))^0", CompiledExpression.compile("(1/(x-x))^0").getOptimizedForm());
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class,
+                () -> CompiledExpression.compile("(1/(x-x))^0").evaluate(variables)).getMessage());
+
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            CompiledExpression reparsed = CompiledExpression.compile(compiled.getOptimizedForm());
+            assertEquals(compiled.getOptimizedForm(), reparsed.getOptimizedForm(), equation);
+            assertEquals(compiled.evaluate(variables).toString(4), reparsed.evaluate(variables).toString(4), equation);
+        }
+        // repeated squaring agrees with the polar form of the complex power
+        Complex x = variables.get("x"), polar = x.pow(7.0);
+        Complex squared = CompiledExpression.compile("x^7").evaluate(variables);
+        assertEquals(polar.real(), squared.real(), 1e-12);
+        assertEquals(polar.imaginary(), squared.imaginary(), 1e-12);
+    }
+
+    @Test
+    void SharesCommonSubexpressions() throws Exception {
+        double[] shared = new double[2], unshared = new double[2];
+        for (String equation : new String[] { "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))",
+                "sin(2*x)-2*sin(x)*cos(x)", "x*y+y*x-(x*y)^2", "1/(x-x)+x" }) {
+            Frame optimized = CompiledExpression.compile(equation).newFrame();
+            Frame plain = CompiledExpression.compile(equation, false).newFrame();
+            optimized.setVariable("x", 0.7, -0.2);
+            plain.setVariable("x", 0.7, -0.2);
+            optimized.setVariable("y", 1.5, 0.0);
+            plain.setVariable("y", 1.5, 0.0);
+            if (equation.startsWith("1/")) {
+                assertThrows(ArithmeticException.class, () -> optimized.evaluateInto(shared));
+                continue;
+            }
+            optimized.evaluateInto(shared);
+            plain.evaluateInto(unshared);
+            assertArrayEquals(unshared, shared, 1e-12, equation);
+        }
+        // tan(x) is evaluated once, and so is x*y, whichever way round it is written
+        assertEquals(9, CompiledExpression.compile("sin(cos(x+tan(x)))+cos(sin(x)-tan(x))", false).getInstructionCount());
+        assertEquals(8, CompiledExpression.compile("sin(cos(x+tan(x)))+cos(sin(x)-tan(x))").getInstructionCount());
+        assertEquals(6, CompiledExpression.compile("x*y+y*x-(x*y)^2", false).getInstructionCount());
+        assertEquals(4, CompiledExpression.compile("x*y+y*x-(x*y)^2").getInstructionCount());
+        assertEquals("2*x", CompiledExpression.compile("2*x", false).getOptimizedForm());
+    }
+
+    @Test
+    void BytecodeMatchesInterpreter() throws Exception {
+        List<String> all = new ArrayList<>(List.of(equations));
+        all.addAll(List.of("x^7-x^2/(x+1)", "tan(x)*log(x)^-0.5", "-(x-2i)*x", "x", "3"));
+        double[] interpreted = new double[2], generated = new double[2];
+        for (String equation : all) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            CompiledExpression bytecode = compiled.withBackend(Backend.BYTECODE);
+            assertEquals(Backend.BYTECODE, bytecode.getBackend(), equation);
+            assertSame(bytecode, bytecode.withBackend(Backend.BYTECODE));
+            assertEquals(Backend.INTERPRETER, bytecode.withBackend(Backend.INTERPRETER).getBackend());
+            Frame interpreter = compiled.newFrame(), frame = bytecode.newFrame();
+            interpreter.setRealFastPath(false);
+            interpreter.getBindings().setVariables(variables);
+            frame.getBindings().setVariables(variables);
+            interpreter.evaluateInto(interpreted);
+            frame.evaluateInto(generated);
+            assertArrayEquals(interpreted, generated, equation);
+            assertEquals(compiled.evaluate(variables).toString(4), bytecode.evaluate(variables).toString(4), equation);
+        }
+        CompiledExpression reciprocal = CompiledExpression.compile("1/x").withBackend(Backend.BYTECODE);
+        reciprocal.getFunction().evaluate(new double[] { 0.0, 2.0 }, generated);
+        assertArrayEquals(new double[] { 0.0, -0.5 }, generated);
+        assertThrows(ArithmeticException.class, () -> reciprocal.getFunction().evaluate(new double[2], generated));
+        assertEquals("Symbol not found: x",
+                assertThrows(Exception.class, () -> reciprocal.evaluate(Map.of())).getMessage());
+    }
+
+    @Test
+    void LegacyMatchesCompiled() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        assertEquals(512.0, exp.complexEvaluator("2^3^2", false).real(), 1e-9);
+        assertEquals(1.0, exp.complexEvaluator("8/4/2", false).real(), 1e-12);
+        assertEquals(-4.0, exp.complexEvaluator("1-2-3", false).real(), 1e-12);
+
+        StringBuilder sum = new StringBuilder("1");
+        for (int i = 1; i < 20_000; i++) sum.append(i % 2 == 0 ? "+" : "-").append(i % 7).append("*x^2^0.5/2");
+        for (String equation : new String[] { "2^3^2", "2^3^0.5^2*x-1/4/2+7-3-x^2^1", "-(2+3)*x^-1", "--3+x",
+                "4-x*2/3*2^x^2/5+1", sum.toString() }) {
+            Complex legacy = exp.complexEvaluator(equation, false), compiled = CompiledExpression.compile(equation).evaluate(variables);
+            // folding and the real fast path may change the last bits
+            assertEquals(legacy.real(), compiled.real(), 1e-9 * (1 + legacy.mod()), equation);
+            assertEquals(legacy.imaginary(), compiled.imaginary(), 1e-9 * (1 + legacy.mod()), equation);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import complex.ComplexFormat;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexFormatTest {
+    // Complex.toString(int) as it was written with String.format
+    private static String reference(double real, double imaginary, int precision) {
+        double t_real = Double.parseDouble(String.format(Locale.ROOT, "%." + precision + "f", real));
+        double t_imaginary = Double.parseDouble(String.format(Locale.ROOT, "%." + precision + "f", imaginary));
+        if (t_real == 0.0 && t_imaginary == 0.0)
+            return String.format(Locale.ROOT, "%." + precision + "f", t_real);
+        if (t_real == 0.0)
+            return imaginary + "i";
+        if (t_imaginary == 0.0)
+            return Double.toString(t_real);
+        if (t_imaginary == 1.0)
+            return "(" + t_real + " + i)";
+        String imaginary_part = imaginary < 0.0 ? String.format(Locale.ROOT, "- %." + precision + "fi", -imaginary)
+                : String.format(Locale.ROOT, "+ %." + precision + "fi", imaginary);
+        return "(" + t_real + " " + imaginary_part + ")";
+    }
+
+    @Test
+    void MatchesStringFormat() {
+        Random random = new Random(42);
+        double[] specials = { 0.0, -0.0, 0.5, 2.5, 0.125, 0.005, 0.015, 1.005, -0.001, 2.675, 1.0, 1e15, 1e20, 1e300,
+                Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int i = 0; i < 200_000; i++) {
+            int precision = random.nextInt(i % 10 == 0 ? 20 : 7);
+            double real, imaginary;
+            switch (i % 4) {
+                case 0 -> {
+                    real = specials[random.nextInt(specials.length)];
+                    imaginary = specials[random.nextInt(specials.length)] * (random.nextBoolean() ? 1 : -1);
+                }
+                // exact ties at the last digit and values next to them
+                case 1 -> {
+                    real = (random.nextInt(2001) - 1000) / 8.0 + 0.5 / Math.pow(10, precision);
+                    imaginary = Math.nextUp((random.nextInt(21) - 10) * 0.5 / Math.pow(10, precision));
+                }
+                case 2 -> {
+                    real = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+                    imaginary = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+                }
+                default -> {
+                    real = Double.longBitsToDouble(random.nextLong());
+                    imaginary = Double.longBitsToDouble(random.nextLong());
+                }
+            }
+            assertEquals(reference(real, imaginary, precision), new Complex(real, imaginary).toString(precision),
+                    real + ", " + imaginary + " at " + precision);
+        }
+    }
+
+    @Test
+    void FormatsIntoBuffers() throws Exception {
+        ComplexFormat format = new ComplexFormat(3);
+        assertEquals("(1.5 - 2.250i)", format.format(new Complex(1.5, -2.25)));
+        assertEquals("(1.8834 - 1.1667i)", new Complex(1.88341, -1.16672).toString(4));
+        assertEquals("-0.000", format.format(new Complex(-0.0001, 0.0002)));
+
+        StringBuilder sb = new StringBuilder("x = ");
+        assertEquals("x = (2.0 + i)", format.format(2.0, 1.0001, sb).toString());
+        format.format(0.0, -3.0, (Appendable) sb);
+        assertEquals("x = (2.0 + i)-3.0i", sb.toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        format.format(-0.5, 0.0, buffer);
+        assertEquals("-0.5", new String(buffer.array(), 0, buffer.position(), StandardCharsets.ISO_8859_1));
+        assertThrows(BufferOverflowException.class, () -> format.format(1.5, 2.25, buffer));
+        assertEquals(4, buffer.position());
+
+        assertThrows(IllegalArgumentException.class, () -> new ComplexFormat(-1));
+    }
+
+    @Test
+    void ParsesComplexLiterals() {
+        assertEquals(new Complex(2.5, 0), ComplexFormat.parse("2.5"));
+        assertEquals(new Complex(0, -3), ComplexFormat.parse("-3i"));
+        assertEquals(new Complex(1, -2.5), ComplexFormat.parse("1-2.5i"));
+        assertEquals(new Complex(1.5, -2), ComplexFormat.parse(" (1.5 - 2.00i) "));
+        assertEquals(new Complex(2, 1), ComplexFormat.parse("(2.0 + i)"));
+        assertEquals(new Complex(1e3, 1e-2), ComplexFormat.parse("1e3+1E-2i"));
+        assertEquals(new Complex(Double.NaN, Double.NaN), ComplexFormat.parse("(NaN + NaNi)"));
+        assertEquals(new Complex(0, Double.POSITIVE_INFINITY), ComplexFormat.parse("Infinityi"));
+        for (String text : new String[] { "", "()", "1+", "2i3", "1 2", "ii", "1+2", "(1+2i", "abc" })
+            assertThrows(NumberFormatException.class, () -> ComplexFormat.parse(text), text);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            String number = Double.toString(random.nextGaussian() * Math.pow(10, random.nextInt(60) - 30));
+            assertEquals(Double.parseDouble(number), ComplexFormat.parseDouble(number), number);
+            String text = new Complex(random.nextGaussian(), random.nextGaussian()).toString(6);
+            assertEquals(text, ComplexFormat.parse(text).toString(6));
+        }
+    }
+}
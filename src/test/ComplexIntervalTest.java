@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+
+import complex.BigComplex;
+import complex.Complex;
+import complex.ComplexInterval;
+import complex.Interval;
+import evaluator.CompiledExpression;
+import evaluator.FunctionRegistry;
+import evaluator.MathFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexIntervalTest {
+    MathContext digits50 = new MathContext(50);
+    String[] equations = {
+            "x^2+3*x-1/x", "sin(x)*cos(x)-tan(x)", "log(x)+ln(x)", "exp(x)/sqrt(x)", "sinh(x)-cosh(x)", "(1+x)^2.5",
+            "x^(1+i)", "abs(x-3)+arg(x)", "max(x, 1, -x)-min(x^2, 2*x)", "e^x-2*pi*x", "0.1*x^7-sin(100*x)"
+    };
+
+    @Test
+    void RoundsBoundsOutwards() {
+        Interval third = Interval.ONE.divide(Interval.of(3));
+        assertTrue(third.lo() < third.hi());
+        assertEquals(Math.nextUp(third.lo()), third.hi());
+        assertEquals(Interval.of(6), Interval.of(2).multiply(Interval.of(3)));
+        assertEquals(new Interval(-8, 12), new Interval(-2, 3).multiply(new Interval(-1, 4)));
+        // a product lost to underflow is widened rather than taken for an exact zero
+        Interval tiny = Interval.of(1e-200).multiply(Interval.of(1e-200));
+        assertNotEquals(Interval.ZERO, tiny);
+        assertTrue(tiny.lo() <= 0 && tiny.hi() > 0);
+        assertTrue(Interval.ONE.divide(Interval.of(1e308)).divide(Interval.of(1e10)).hi() > 0);
+        assertEquals(Interval.ENTIRE, Interval.ONE.divide(new Interval(-1, 1)));
+        assertEquals(new Interval(Double.MAX_VALUE, Double.POSITIVE_INFINITY), Interval.of(Double.MAX_VALUE).add(Interval.of(Double.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> new Interval(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Interval.of(Double.NaN));
+
+        ComplexInterval z = new ComplexInterval(new Interval(1, 2), new Interval(-1, 1));
+        assertEquals(new ComplexInterval(Interval.ENTIRE, Interval.ZERO),
+                ComplexInterval.ONE.divide(new ComplexInterval(new Interval(-1, 1), Interval.ZERO)));
+        assertEquals(ComplexInterval.ENTIRE, ComplexInterval.ONE.divide(new ComplexInterval(new Interval(-1, 1), new Interval(-1, 1))));
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class,
+                () -> z.divide(ComplexInterval.of(0, 0))).getMessage());
+        for(double re = 1; re <= 2; re += 0.25)
+            for(double im = -1; im <= 1; im += 0.25) {
+                Complex value = new Complex(re, im);
+                assertTrue(z.sin().contains(value.sin()));
+                assertTrue(z.exp().contains(value.exp()));
+                assertTrue(z.multiply(z).contains(value.multiply(value)));
+                assertTrue(z.reciprocal().contains(new Complex(1, 0).divide(value)));
+            }
+    }
+
+    @Test
+    void EnclosesExactValues() throws Exception {
+        Complex[] values = { new Complex(0.5, 0.0), new Complex(2.0, 0.3), new Complex(-1.5, -0.7) };
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            for (Complex value : values) {
+                ComplexInterval enclosure = compiled.enclose(Map.of("x", ComplexInterval.of(value)));
+                BigComplex exact = compiled.evaluate(Map.of("x", BigComplex.valueOf(value)), digits50);
+                assertTrue(contains(enclosure, exact), equation + " at " + value + ": " + enclosure + " misses " + exact);
+                assertTrue(enclosure.width() < 1e-10 * (1 + exact.toComplex().mod()), equation + ": " + enclosure);
+            }
+        }
+        assertEquals(ComplexInterval.of(7, 0), CompiledExpression.compile("x*2+1").enclose(Map.of("x", ComplexInterval.of(3, 0))));
+        // 0.1 is not a double, its enclosure holds one tenth
+        assertTrue(contains(CompiledExpression.compile("0.1").enclose(Map.of()), BigComplex.valueOf(new BigDecimal("0.1"))));
+        assertEquals("Symbol not found: x",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("x+1").enclose(Map.of())).getMessage());
+    }
+
+    @Test
+    void EscalatesOnlyWideEnclosures() throws Exception {
+        CompiledExpression cancelling = CompiledExpression.compile("(10000000000000000 + x) - 10000000000000000");
+        assertEquals(0.0, cancelling.evaluate(Map.of("x", new Complex(1, 0))).real());
+        assertTrue(cancelling.enclose(Map.of("x", ComplexInterval.of(1, 0))).width() >= 1);
+        assertEquals(new Complex(1, 0), cancelling.evaluateCertified(Map.of("x", new Complex(1, 0)), 1e-12, MathContext.DECIMAL128));
+
+        CompiledExpression stable = CompiledExpression.compile("sin(x)^2 + cos(x)^2");
+        Complex result = stable.evaluateCertified(Map.of("x", new Complex(0.3, 0.0)), 1e-12, MathContext.DECIMAL128);
+        assertEquals(1.0, result.real(), 1e-12);
+        assertEquals(0.0, result.imaginary());
+        assertThrows(IllegalArgumentException.class, () -> stable.evaluateCertified(Map.of("x", new Complex(0.3, 0.0)), 0, digits50));
+
+        // x*x underflows to zero, the enclosure is too wide to trust and the result is recomputed
+        Complex large = CompiledExpression.compile("x*x*1e300*1e300")
+                .evaluateCertified(Map.of("x", new Complex(1e-200, 0.0)), 1e-12, MathContext.DECIMAL128);
+        assertEquals(1e200, large.real(), 1e188);
+    }
+
+    @Test
+    void CallsIntervalKernels() throws Exception {
+        MathFunction square = MathFunction.of("sq", 1, (r, offset, count, target) -> {
+            double a = r[offset], b = r[offset + 1];
+            r[target] = a * a - b * b;
+            r[target + 1] = 2 * a * b;
+        }).withBigKernel((arguments, mc) -> arguments[0].multiply(arguments[0], mc));
+        Map<String, ComplexInterval> x = Map.of("x", ComplexInterval.of(3, 0));
+        assertEquals(ComplexInterval.ENTIRE,
+                CompiledExpression.compile("sq(x)", FunctionRegistry.standard().with(square)).enclose(x));
+        // without an interval kernel the certified evaluation still succeeds through the fallback
+        assertEquals(new Complex(9, 0), CompiledExpression.compile("sq(x)", FunctionRegistry.standard().with(square))
+                .evaluateCertified(Map.of("x", new Complex(3, 0)), 1e-12, digits50));
+
+        FunctionRegistry functions = FunctionRegistry.standard().with(square.withIntervalKernel(arguments -> arguments[0].pow(2)));
+        assertEquals(ComplexInterval.of(18, 0), CompiledExpression.compile("sq(x) + sq(x)", functions).enclose(x));
+    }
+
+    private static boolean contains(ComplexInterval enclosure, BigComplex value) {
+        return contains(enclosure.real(), value.real()) && contains(enclosure.imaginary(), value.imaginary());
+    }
+
+    private static boolean contains(Interval interval, BigDecimal value) {
+        return (interval.lo() == Double.NEGATIVE_INFINITY || new BigDecimal(interval.lo()).compareTo(value) <= 0)
+                && (interval.hi() == Double.POSITIVE_INFINITY || new BigDecimal(interval.hi()).compareTo(value) >= 0);
+    }
+}
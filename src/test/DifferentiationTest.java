@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+import evaluator.GradientFrame;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifferentiationTest {
+    String[] equations = {
+            "x^4+x^3+x^2+x+1", "sin(2*x)-2*sin(x)*cos(x)*y", "sin(cos(x+tan(x)))+cos(sin(x)-tan(y))",
+            "-ln(x)*log(2)/-(3-x)^2", "x^y - (1+i)^(2-x)", "(x*y - 3)/(x + y*y) + x^0.5", "tan(x/y)^3 - 2^x"
+    };
+
+    @Test
+    void DerivesSimplifiedEquations() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile("x^3+2*x");
+        assertEquals("3*x^2+2", expression.derivative("x").getEquation());
+        assertEquals("6*x", expression.derivative("x").derivative("x").getEquation());
+        assertEquals("0", expression.derivative("y").getEquation());
+        assertEquals("cos(x)*y", CompiledExpression.compile("sin(x)*y").derivative("x").getEquation());
+        assertEquals("1/cos(x)^2", CompiledExpression.compile("tan(x)").derivative("x").getEquation());
+
+        // the derivative keeps the slots of the equation
+        CompiledExpression derivative = CompiledExpression.compile("x*y^2").derivative("y");
+        assertEquals(List.of("x", "y"), derivative.getVariables());
+        var bindings = CompiledExpression.compile("x*y^2").bindings();
+        bindings.setVariable("x", 3.0);
+        bindings.setVariable("y", 2.0);
+        assertEquals(new Complex(12.0, 0.0), derivative.evaluate(bindings));
+    }
+
+    @Test
+    void MatchesFiniteDifferences() throws Exception {
+        Complex x = new Complex(0.7, 0.3), y = new Complex(1.3, -0.2);
+        for (String equation : equations) {
+            CompiledExpression expression = CompiledExpression.compile(equation);
+            List<CompiledExpression> gradient = expression.gradient();
+            for (int slot = 0; slot < gradient.size(); slot++) {
+                // log is only holomorphic as log10 on positive reals, which the legacy function is not elsewhere
+                Complex[] at = equation.contains("log") ? new Complex[] { new Complex(0.7, 0.0), new Complex(1.3, 0.0) }
+                        : new Complex[] { x, y };
+                Complex exact = evaluate(gradient.get(slot), at), approximate = difference(expression, at, slot);
+                assertEquals(approximate.real(), exact.real(), 1e-6 * (1 + exact.mod()), equation + " d" + slot);
+                assertEquals(approximate.imaginary(), exact.imaginary(), 1e-6 * (1 + exact.mod()), equation + " d" + slot);
+            }
+        }
+    }
+
+    @Test
+    void EvaluatesGradientsInOnePass() throws Exception {
+        Complex[] at = { new Complex(0.7, 0.3), new Complex(1.3, -0.2) };
+        for (String equation : equations) {
+            CompiledExpression expression = CompiledExpression.compile(equation);
+            GradientFrame frame = expression.newGradientFrame();
+            List<String> variables = expression.getVariables();
+            for (int slot = 0; slot < variables.size(); slot++) frame.setVariable(slot, at[slot].real(), at[slot].imaginary());
+            assertEquals(evaluate(expression, at).toString(12), frame.evaluate().toString(12), equation);
+            Complex[] gradient = frame.getGradient();
+            double[] out = new double[2 * (variables.size() + 1)];
+            frame.evaluateInto(out, 0);
+            for (int slot = 0; slot < variables.size(); slot++) {
+                Complex symbolic = evaluate(expression.derivative(variables.get(slot)), at);
+                assertEquals(symbolic.real(), gradient[slot].real(), 1e-12 * (1 + symbolic.mod()), equation + " d" + slot);
+                assertEquals(symbolic.imaginary(), gradient[slot].imaginary(), 1e-12 * (1 + symbolic.mod()), equation + " d" + slot);
+                assertEquals(gradient[slot], new Complex(out[2 * slot + 2], out[2 * slot + 3]));
+            }
+        }
+
+        GradientFrame frame = CompiledExpression.compile("x^2/y").newGradientFrame();
+        frame.setVariable("x", 3.0);
+        assertThrows(Exception.class, frame::evaluate);
+        frame.setVariable("y", 2.0);
+        assertEquals(new Complex(4.5, 0.0), frame.evaluate());
+        assertEquals(new Complex(3.0, 0.0), frame.getDerivative("x"));
+        assertEquals(new Complex(-2.25, 0.0), frame.getDerivative("y"));
+        assertEquals(new Complex(0.0, 0.0), frame.getDerivative("z"));
+
+        // Newton's method on x^3 - 2 converges to the cube root of 2
+        GradientFrame newton = CompiledExpression.compile("x^3 - 2").newGradientFrame();
+        double root = 1.0;
+        for (int i = 0; i < 8; i++) {
+            newton.setVariable("x", root);
+            root -= newton.evaluate().real() / newton.getDerivative("x").real();
+        }
+        assertEquals(Math.cbrt(2.0), root, 1e-15);
+    }
+
+    private static Complex evaluate(CompiledExpression expression, Complex[] at) throws Exception {
+        Frame frame = expression.newFrame();
+        frame.setRealFastPath(false);
+        for (int slot = 0; slot < expression.getVariables().size(); slot++) frame.setVariable(slot, at[slot].real(), at[slot].imaginary());
+        return frame.evaluate();
+    }
+
+    // central difference along the real axis, which for a holomorphic equation is its complex derivative
+    private static Complex difference(CompiledExpression expression, Complex[] at, int slot) throws Exception {
+        double h = 1e-6;
+        Complex[] plus = at.clone(), minus = at.clone();
+        plus[slot] = at[slot].add(new Complex(h, 0.0));
+        minus[slot] = at[slot].subtract(new Complex(h, 0.0));
+        return evaluate(expression, plus).subtract(evaluate(expression, minus)).multiply(1.0 / (2 * h));
+    }
+}
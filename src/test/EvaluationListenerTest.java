@@ -0,0 +1,202 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.Backend;
+import evaluator.Bindings;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationListener;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.PrintStreamListener;
+import evaluator.RingBufferListener;
+import evaluator.SamplingListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationListenerTest {
+    Map<String, Complex> variables = new HashMap<>() {{
+        put("x", new Complex(Math.cos(2.0 * Math.PI / 5.0), Math.sin(2.0 * Math.PI / 5.0)));
+    }};
+
+    String[] equations = {
+            "x^4+x^3+x^2+x+1", "sin(2*x)-2*sin(x)*cos(x)", "sin(cos(x+tan(x)))+cos(sin(x)-tan(x))",
+            "-ln(x)*log(2)/-(3-x)^2", "2^3^2-(1+i)^(2-i)"
+    };
+
+    // operations reported by the listener, as operator or function name
+    private static class Recorder implements EvaluationListener {
+        final List<String> events = new ArrayList<>();
+        final double[] last = new double[2];
+
+        @Override
+        public void onOperation(char operator, double leftReal, double leftImaginary, double rightReal,
+                                double rightImaginary, double resultReal, double resultImaginary) {
+            events.add(String.valueOf(operator));
+            last[0] = resultReal;
+            last[1] = resultImaginary;
+        }
+
+        @Override
+        public void onFunction(String function, double argumentReal, double argumentImaginary,
+                               double resultReal, double resultImaginary) {
+            events.add(function);
+            last[0] = resultReal;
+            last[1] = resultImaginary;
+        }
+    }
+
+    @Test
+    void PrintsTheVerboseTrace() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        PrintStream originalOut = System.out;
+        for (String equation : equations) {
+            ByteArrayOutputStream verbose = new ByteArrayOutputStream(), listened = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(verbose, true, StandardCharsets.UTF_8));
+            try {
+                exp.complexEvaluator(equation, true);
+            } finally {
+                System.setOut(originalOut);
+            }
+            PrintStream out = new PrintStream(listened, true, StandardCharsets.UTF_8);
+            assertEquals(exp.evaluateEquation(equation, 4, false), exp.evaluateEquation(equation, 4, new PrintStreamListener(out)));
+            assertEquals(verbose.toString(StandardCharsets.UTF_8), listened.toString(StandardCharsets.UTF_8), equation);
+        }
+
+        // a division by zero is reported before it fails
+        ByteArrayOutputStream listened = new ByteArrayOutputStream();
+        assertThrows(ArithmeticException.class,
+                () -> exp.complexEvaluator("2/(x-x)", new PrintStreamListener(new PrintStream(listened, true, StandardCharsets.UTF_8))));
+        assertTrue(listened.toString(StandardCharsets.UTF_8).trim().endsWith("Evaluating : 2.0 / 0.00"));
+    }
+
+    @Test
+    void RecordsLatestEvents() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        RingBufferListener ring = new RingBufferListener(4);
+        Complex result = exp.complexEvaluator(equations[2], ring);
+        assertEquals(15, ring.getCount());
+        List<RingBufferListener.Entry> entries = ring.snapshot();
+        assertEquals(4, entries.size());
+        assertEquals(RingBufferListener.Type.FUNCTION, entries.get(2).type());
+        assertEquals("cos", entries.get(2).symbol());
+        assertEquals(RingBufferListener.Type.OPERATION, entries.get(3).type());
+        assertEquals(result, entries.get(3).result());
+
+        ring.clear();
+        exp.complexEvaluator("2*(x+1)", ring);
+        assertEquals(List.of("SubEquation: x+1", "Evaluating : (0.31 + 0.95i) + 1.0 = (1.31 + 0.95i)",
+                "Evaluating : 2.0 * (1.31 + 0.95i) = (2.62 + 1.90i)"), ring.snapshot().stream().map(Object::toString).toList());
+    }
+
+    @Test
+    void SnapshotsWhileRecording() throws Exception {
+        RingBufferListener ring = new RingBufferListener(2);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            double value = t + 1;
+            writers[t] = new Thread(() -> {
+                for (int k = 0; k < 200_000; k++) ring.onOperation('+', value, 0, value, 0, 2 * value, 0);
+            });
+            writers[t].start();
+        }
+        // an entry is only reported once it is written whole
+        while (writers[0].isAlive())
+            for (RingBufferListener.Entry entry : ring.snapshot())
+                assertEquals(entry.left().add(entry.right()), entry.result(), entry.toString());
+        for (Thread writer : writers) writer.join();
+        assertEquals(2, ring.snapshot().size());
+    }
+
+    @Test
+    void SnapshotsWhileWrappingAround() throws Exception {
+        // every event lands on the same entry, writers of superseded events must not publish it
+        RingBufferListener ring = new RingBufferListener(1);
+        Thread[] writers = new Thread[8];
+        for (int t = 0; t < writers.length; t++) {
+            double value = t + 1;
+            writers[t] = new Thread(() -> {
+                for (int k = 0; k < 100_000; k++) {
+                    ring.onOperation('+', value, -value, value, -value, 2 * value, -2 * value);
+                    ring.onFunction("twice", value, value, 2 * value, 2 * value);
+                }
+            });
+            writers[t].start();
+        }
+        while (writers[0].isAlive())
+            for (RingBufferListener.Entry entry : ring.snapshot()) {
+                if (entry.type() == RingBufferListener.Type.OPERATION) {
+                    assertEquals("+", entry.symbol(), entry.toString());
+                    assertEquals(entry.left(), entry.right(), entry.toString());
+                    assertEquals(entry.left().add(entry.right()), entry.result(), entry.toString());
+                }
+                else {
+                    assertEquals("twice", entry.symbol(), entry.toString());
+                    assertEquals(entry.left().add(entry.left()), entry.result(), entry.toString());
+                }
+            }
+        for (Thread writer : writers) writer.join();
+        assertEquals(1, ring.snapshot().size());
+        assertEquals(8 * 200_000, ring.getCount());
+    }
+
+    @Test
+    void TracesCompiledEquations() throws Exception {
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            for (Backend backend : Backend.values()) {
+                CompiledExpression expression = compiled.withBackend(backend);
+                Bindings bindings = expression.bindings();
+                bindings.setVariables(variables);
+                Recorder recorder = new Recorder();
+                Complex result = expression.evaluate(bindings, recorder);
+                assertEquals(expression.evaluate(variables).toString(6), result.toString(6), equation);
+                // an equation folded down to a constant runs no instruction
+                if (!recorder.events.isEmpty())
+                    assertEquals(result, new Complex(recorder.last[0], recorder.last[1]), equation);
+            }
+        }
+        // the shared tan(x) and the folded 2*3 are not reported
+        Recorder recorder = new Recorder();
+        CompiledExpression.compile("sin(x+tan(x))-tan(x)*(2*3)").evaluate(bindings("x", 0.5), recorder);
+        assertEquals(List.of("tan", "+", "sin", "*", "-"), recorder.events);
+
+        assertThrows(ArithmeticException.class, () -> CompiledExpression.compile("1/(x-x)").evaluate(bindings("x", 2), recorder));
+        assertEquals("/", recorder.events.get(recorder.events.size() - 1));
+        assertTrue(Double.isNaN(recorder.last[0]));
+    }
+
+    private static Bindings bindings(String variable, double value) throws Exception {
+        Bindings bindings = CompiledExpression.compile(variable).bindings();
+        bindings.setVariable(variable, value);
+        return bindings;
+    }
+
+    @Test
+    void SamplesEvents() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        exp.setCache(new ExpressionCache(16));
+        Recorder all = new Recorder(), sampled = new Recorder();
+        exp.complexEvaluator(equations[0], new SamplingListener(all, 1));
+        assertEquals(7, all.events.size());
+
+        SamplingListener sampling = new SamplingListener(sampled, 10);
+        for (int i = 0; i < 10_000; i++) exp.complexEvaluator(equations[0], sampling);
+        assertTrue(sampled.events.size() > 5_000 && sampled.events.size() < 9_000, "sampled " + sampled.events.size());
+        assertThrows(IllegalArgumentException.class, () -> new SamplingListener(all, 0));
+
+        // the interpreter leaves the cache to the compiled form
+        exp.complexEvaluator(equations[0], EvaluationListener.NONE);
+        assertEquals(0, exp.getCache().getHitCount() + exp.getCache().getMissCount());
+        exp.evaluate(equations[0]);
+        exp.evaluate(equations[0]);
+        assertEquals(1, exp.getCache().getHitCount());
+    }
+}
@@ -0,0 +1,148 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationMetrics;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.ExpressionMetrics;
+import evaluator.InstrumentedExpression;
+import evaluator.LatencyHistogram;
+import evaluator.RingBufferListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationMetricsTest {
+    Map<String, Complex> variables = new HashMap<>() {{
+        put("x", new Complex(Math.cos(2.0 * Math.PI / 5.0), Math.sin(2.0 * Math.PI / 5.0)));
+    }};
+
+    @Test
+    void CountsAndTimesEvaluations() throws Exception {
+        EvaluationMetrics metrics = new EvaluationMetrics(1, 0);
+        InstrumentedExpression expression = metrics.instrument(CompiledExpression.compile("x^4 + x^3+x^2+x+1"));
+        for (int i = 0; i < 100; i++)
+            assertEquals(expression.getExpression().evaluate(variables), expression.evaluate(variables));
+        InstrumentedExpression failing = metrics.instrument(CompiledExpression.compile("1/(x-x)"));
+        assertThrows(ArithmeticException.class, () -> failing.evaluate(variables));
+
+        ExpressionMetrics polynomial = metrics.getMetrics("x^4+x^3+x^2+x+1");
+        assertSame(expression.getMetrics(), polynomial);
+        assertEquals(100, polynomial.getEvaluationCount());
+        assertEquals(0, polynomial.getErrorCount());
+        assertEquals(100, polynomial.getLatency().getCount());
+        assertTrue(polynomial.getOperatorCosts().isEmpty());
+        assertEquals(1, metrics.getMetrics("1/(x-x)").getErrorCount());
+        assertEquals(101, metrics.getEvaluationCount());
+        assertEquals(1, metrics.getErrorCount());
+
+        ExpressionMetrics.Snapshot snapshot = polynomial.snapshot();
+        assertTrue(snapshot.p50Nanos() <= snapshot.p99Nanos() && snapshot.p99Nanos() <= snapshot.maxNanos());
+        assertEquals(snapshot.totalNanos(), snapshot.meanNanos() * 100, 1e-6);
+        assertEquals("x^4+x^3+x^2+x+1", metrics.getExpressions().get(0).equation());
+
+        // counted but neither timed nor profiled
+        metrics.setTimingPeriod(0);
+        expression.evaluate(variables);
+        assertEquals(101, polynomial.getEvaluationCount());
+        assertEquals(100, polynomial.getLatency().getCount());
+        assertThrows(IllegalArgumentException.class, () -> metrics.setProfilePeriod(-1));
+
+        metrics.reset();
+        assertNull(metrics.getMetrics("1/(x-x)"));
+    }
+
+    @Test
+    void BoundsPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (long nanos = 1; nanos <= 10_000; nanos++) histogram.record(nanos);
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000.5, histogram.getMean(), 1e-9);
+        for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+            long value = histogram.getValueAtPercentile(percentile), exact = (long) (percentile * 100);
+            // each bucket spans at most 1/16 of its values
+            assertTrue(value >= exact && value <= exact + exact / 16 + 1, percentile + " -> " + value);
+        }
+        assertEquals(10_000, histogram.getValueAtPercentile(100));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void ProfilesOperators() throws Exception {
+        EvaluationMetrics metrics = new EvaluationMetrics(0, 1);
+        InstrumentedExpression expression = metrics.instrument(CompiledExpression.compile("sin(x)^2+cos(x)^2"));
+        for (int i = 0; i < 10; i++) assertEquals(1.0, expression.evaluate(variables).real(), 1e-12);
+        // profiled evaluations take the real fast path of the others, to the last bit
+        InstrumentedExpression power = new EvaluationMetrics(0, 1).instrument(CompiledExpression.compile("x^y - sin(x)"));
+        // the polar form of the complex power leaves an imaginary part in (-0.7)^3
+        Map<String, Complex> real = Map.of("x", new Complex(-0.7, 0.0), "y", new Complex(3.0, 0.0));
+        assertEquals(power.getExpression().evaluate(real), power.evaluate(real));
+        assertEquals(List.of("-", "^", "sin"), power.getMetrics().getOperatorCosts().stream()
+                .map(ExpressionMetrics.OperatorCost::symbol).sorted().toList());
+
+        List<ExpressionMetrics.OperatorCost> costs = expression.getMetrics().getOperatorCosts();
+        assertEquals(List.of("+", "^", "cos", "sin"), costs.stream().map(ExpressionMetrics.OperatorCost::symbol).sorted().toList());
+        for (ExpressionMetrics.OperatorCost cost : costs)
+            assertEquals(cost.symbol().equals("^") ? 20 : 10, cost.count(), cost.symbol());
+        // profiled evaluations are left out of the latency
+        assertEquals(0, expression.getMetrics().getLatency().getCount());
+        assertEquals(costs.size(), metrics.getOperatorCosts().size());
+    }
+
+    @Test
+    void MeasuresEvaluatorAndJmx() throws Exception {
+        EvaluationMetrics metrics = new EvaluationMetrics();
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        exp.setCache(new ExpressionCache(16));
+        exp.evaluate("x*2", variables);
+        assertNull(metrics.getMetrics("x*2"));
+
+        exp.setMetrics(metrics);
+        for (int i = 0; i < 5; i++) exp.evaluate("x * 2", variables);
+        exp.evaluate("x*2");
+        // evaluateEquation and the interpreter are not measured
+        exp.evaluateEquation("x*2", 4, false);
+        exp.complexEvaluator("x*2", new RingBufferListener(4));
+        assertEquals(6, metrics.getMetrics("x*2").getEvaluationCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register();
+        try {
+            assertSame(name, metrics.register());
+            assertEquals(6L, server.getAttribute(name, "EvaluationCount"));
+            CompositeData[] expressions = (CompositeData[]) server.getAttribute(name, "Expressions");
+            assertEquals("x*2", expressions[0].get("equation"));
+            assertEquals(6L, expressions[0].get("evaluations"));
+            server.setAttribute(name, new Attribute("TimingPeriod", 4));
+            assertEquals(4, metrics.getTimingPeriod());
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, metrics.getEvaluationCount());
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+
+        // an equation compiled without the cache is recorded under its normalized text
+        exp.setCache(null);
+        exp.evaluate("x + 1");
+        assertEquals(1, metrics.getMetrics("x + 1").getEvaluationCount());
+        assertSame(metrics.getMetrics("x+1"), metrics.getMetrics("x + 1"));
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.EvaluationService;
+import evaluator.ExpressionCache;
+import evaluator.FunctionRegistry;
+import evaluator.MathFunction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationServiceTest {
+    String[] equations = { "x^2 + sin(y)", "ln(x) - y", "sqrt(x*y)" };
+
+    @Test
+    void BatchesConcurrentRequests() throws Exception {
+        try (EvaluationService service = new EvaluationService();
+             ExecutorService clients = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int client = t;
+                tasks.add(clients.submit(() -> {
+                    List<CompletableFuture<Complex>> futures = new ArrayList<>();
+                    List<Complex> expected = new ArrayList<>();
+                    for (int i = 0; i < 2000; i++) {
+                        String equation = equations[i % equations.length];
+                        // every other request is complex, the rest take the real fast path
+                        Map<String, Complex> values = Map.of("x", new Complex(1 + i * 1e-3, i % 2 * 0.5), "y", new Complex(client - 1.5, 0));
+                        futures.add(service.submit(equation, values));
+                        expected.add(CompiledExpression.compile(equation).evaluate(values));
+                    }
+                    for (int i = 0; i < futures.size(); i++) {
+                        Complex actual = futures.get(i).get(10, TimeUnit.SECONDS);
+                        assertEquals(expected.get(i).real(), actual.real(), 1e-12 * (1 + actual.mod()));
+                        assertEquals(expected.get(i).imaginary(), actual.imaginary(), 1e-12 * (1 + actual.mod()));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) task.get();
+            assertEquals(8000, service.getRequestCount());
+            assertEquals(8000, service.getLatency().getCount());
+            assertTrue(service.getBatchCount() < 8000, service.toString());
+            assertEquals(0, service.getPendingCount());
+        }
+    }
+
+    @Test
+    void FailsOnlyFailingRequests() throws Exception {
+        try (EvaluationService service = new EvaluationService(new ExpressionCache(16), null, 8, Duration.ofMillis(1), 100)) {
+            CompletableFuture<Complex> ok = service.submit("1/x", Map.of("x", new Complex(4, 0)));
+            CompletableFuture<Complex> zero = service.submit("1/x", Map.of("x", new Complex(0, 0)));
+            CompletableFuture<Complex> missing = service.submit("1/x", Map.of("y", new Complex(1, 0)));
+            CompletableFuture<Complex> malformed = service.submit("1/(x", Map.of("x", new Complex(1, 0)));
+            assertEquals(new Complex(0.25, 0), ok.get(10, TimeUnit.SECONDS));
+            assertEquals("Division by zero", assertThrows(ExecutionException.class, zero::get).getCause().getMessage());
+            assertEquals("Symbol not found: x", assertThrows(ExecutionException.class, missing::get).getCause().getMessage());
+            assertTrue(malformed.isCompletedExceptionally());
+            assertEquals(3, service.getRequestCount());
+
+            Map<String, Complex> unbound = new HashMap<>();
+            unbound.put("x", null);
+            assertEquals("Symbol not found: x", assertThrows(ExecutionException.class,
+                    () -> service.submit("1/x", unbound).get(10, TimeUnit.SECONDS)).getCause().getMessage());
+        }
+    }
+
+    @Test
+    void CompletesRequestsOfFailedBatches() throws Exception {
+        MathFunction broken = MathFunction.of("broken", 1, (r, offset, count, target) -> {
+            throw new AssertionError("broken kernel");
+        });
+        CompiledExpression expression = CompiledExpression.compile("broken(x)", FunctionRegistry.standard().with(broken));
+        ConcurrentLinkedQueue<Runnable> batches = new ConcurrentLinkedQueue<>();
+        EvaluationService service = new EvaluationService(new ExpressionCache(16), batches::add, 2, Duration.ofMillis(1), 2);
+        CompletableFuture<Complex> first = service.submit(expression, Map.of("x", new Complex(1, 0)));
+        CompletableFuture<Complex> second = service.submit(expression, Map.of("x", new Complex(2, 0)));
+        assertThrows(AssertionError.class, () -> batches.poll().run());
+        // the failure reaches every request of the batch and releases their permits
+        assertEquals("broken kernel", assertThrows(ExecutionException.class, first::get).getCause().getMessage());
+        assertEquals("broken kernel", assertThrows(ExecutionException.class, second::get).getCause().getMessage());
+        assertEquals(0, service.getPendingCount());
+        service.close();
+    }
+
+    @Test
+    void RejectsRequestsBeyondTheBound() throws Exception {
+        ConcurrentLinkedQueue<Runnable> batches = new ConcurrentLinkedQueue<>();
+        EvaluationService service = new EvaluationService(new ExpressionCache(16), batches::add, 4, Duration.ofMillis(1), 2);
+        CompiledExpression expression = CompiledExpression.compile("x+1");
+        CompletableFuture<Complex> first = service.submit(expression, Map.of("x", new Complex(1, 0)));
+        CompletableFuture<Complex> second = service.submit(expression, Map.of("x", new Complex(2, 0)));
+        CompletableFuture<Complex> third = service.submit(expression, Map.of("x", new Complex(3, 0)));
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(ExecutionException.class, third::get).getCause());
+        assertEquals(1, service.getRejectedCount());
+        assertEquals(2, service.getPendingCount());
+
+        // the batch is handed to the executor once the linger time has passed
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (batches.isEmpty() && System.nanoTime() < deadline) Thread.sleep(1);
+        batches.poll().run();
+        assertEquals(new Complex(2, 0), first.get());
+        assertEquals(new Complex(3, 0), second.get());
+        assertEquals(1, service.getBatchCount());
+        assertEquals(0, service.getPendingCount());
+
+        service.close();
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(ExecutionException.class,
+                () -> service.submit(expression, Map.of("x", new Complex(1, 0))).get()).getCause());
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationService(null, null, 0, Duration.ZERO, 1));
+    }
+}
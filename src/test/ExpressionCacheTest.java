@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCacheTest {
+    @Test
+    void CountsHitsAndMisses() throws Exception {
+        ExpressionCache cache = new ExpressionCache(64);
+        CompiledExpression first = cache.get("sin(x) + 2 * x");
+        assertSame(first, cache.get("sin(x)+2*x"));
+        assertSame(first, cache.get("  sin (x)+ 2*x\t"));
+        assertNotSame(first, cache.get("sin(x)+3*x"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+        assertThrows(Exception.class, () -> cache.get("sin(x"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void EvictsLeastRecentlyUsed() throws Exception {
+        ExpressionCache cache = new ExpressionCache(1);
+        CompiledExpression first = cache.get("x+1");
+        cache.get("x+2");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotSame(first, cache.get("x+1"));
+
+        ExpressionCache bounded = new ExpressionCache(100);
+        for (int i = 0; i < 1_000; i++)
+            bounded.get("x+" + i);
+        assertEquals(100, bounded.size());
+        assertEquals(900, bounded.getEvictionCount());
+    }
+
+    @Test
+    void UsedByCompiledEvaluation() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator();
+        ExpressionCache cache = new ExpressionCache(16);
+        exp.setCache(cache);
+        exp.setVariable("x", 2.0);
+        for (int i = 0; i < 10; i++)
+            assertEquals(new Complex(17.0, 0.0), exp.evaluate("x^4 + 1"));
+        assertEquals(9, cache.getHitCount());
+        // evaluateEquation shares the compiled form, the interpreter does not go through the cache
+        assertEquals("17.0", exp.evaluateEquation("x^4 + 1", 2, false));
+        assertEquals(10, cache.getHitCount());
+        exp.complexEvaluator("x^4 + 1", false);
+        assertEquals(10, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertNotNull(new ExpressionEvaluator().getCache());
+        assertEquals(new Complex(5.0, 0.0), exp.evaluate("x^2+1", Map.of("x", new Complex(2.0, 0.0))));
+    }
+
+    @Test
+    void EvaluateEquationMatchesTheInterpreter() throws Exception {
+        ExpressionEvaluator exp = new ExpressionEvaluator(new HashMap<>(Map.of("x", new Complex(-0.7, 0.0), "y", new Complex(3.0, 0.0))));
+        // x^2 keeps the tiny imaginary part of the polar power, x/y and 0*cos(y) their last bits and signs
+        String[] equations = { "x^2", "x^y-sin(x)", "(x+y)^3", "x/y", "tan(x)/x", "sin(x-x)*cos(y)", "x^-3" };
+        for (String equation : equations)
+            assertEquals(exp.complexEvaluator(equation, false).toString(17), exp.evaluateEquation(equation, 17, false), equation);
+        // malformed equations fail with the message of the interpreter
+        for (String equation : new String[] { "2 3", "sin(", "x(", "max(,x)", ",", "-", "q+1", "(1/(x-x))^0" }) {
+            String expected = assertThrows(Exception.class, () -> exp.complexEvaluator(equation, false)).getMessage();
+            assertEquals(expected, assertThrows(Exception.class, () -> exp.evaluateEquation(equation, 4, false)).getMessage(), equation);
+        }
+    }
+}
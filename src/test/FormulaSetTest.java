@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.FormulaFrame;
+import evaluator.FormulaSet;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaSetTest {
+    String[] equations = {
+            "sin(x)*y + x^2", "x^2 - cos(y)", "sin(x)/(1+x^2)", "ln(y) + 2*z", "sin(x)*y + x^2", "3"
+    };
+
+    @Test
+    void AgreesWithSeparateExpressions() throws Exception {
+        FormulaSet set = FormulaSet.compile(equations);
+        assertEquals(List.of("x", "y", "z"), set.getVariables());
+        assertEquals(2, set.getSlot("z"));
+        assertEquals(-1, set.getSlot("w"));
+        FormulaFrame frame = set.newFrame();
+        double[] out = new double[2 * set.size()];
+        Complex[][] rows = {
+                { new Complex(0.5, 0.0), new Complex(2.0, 0.0), new Complex(-1.0, 0.0) },
+                { new Complex(0.5, 0.3), new Complex(-2.0, 0.0), new Complex(4.0, 1.0) }
+        };
+        for (Complex[] row : rows) {
+            Map<String, Complex> values = Map.of("x", row[0], "y", row[1], "z", row[2]);
+            frame.getBindings().setVariables(values);
+            frame.evaluateInto(out);
+            Complex[] results = set.evaluate(values);
+            for (int k = 0; k < equations.length; k++) {
+                Complex expected = CompiledExpression.compile(equations[k]).evaluate(values);
+                assertEquals(expected.real(), out[2 * k], 1e-12, equations[k]);
+                assertEquals(expected.imaginary(), out[2 * k + 1], 1e-12, equations[k]);
+                assertEquals(out[2 * k], results[k].real());
+                assertEquals(out[2 * k + 1], results[k].imaginary());
+            }
+        }
+        frame.setVariable("y", 2.0);
+        double[] reals = new double[set.size() + 1];
+        frame.setVariable("x", 0.5, 0.0);
+        frame.setVariable("z", -1.0);
+        frame.evaluateRealInto(reals, 1);
+        assertEquals(0.0, reals[0]);
+        assertEquals(3.0, reals[6]);
+        assertEquals(Math.sin(0.5) * 2 + 0.25, reals[1], 1e-15);
+    }
+
+    @Test
+    void SharesSubexpressionsAcrossEquations() throws Exception {
+        int separate = 0;
+        for (String equation : equations) separate += FormulaSet.compile(equation).getInstructionCount();
+        FormulaSet set = FormulaSet.compile(equations);
+        // sin(x) and x^2 are evaluated once, and the repeated equation costs nothing
+        assertEquals(separate - 7, set.getInstructionCount());
+    }
+
+    @Test
+    void ReportsErrors() throws Exception {
+        FormulaSet set = FormulaSet.compile("x+1", "1/y");
+        FormulaFrame frame = set.newFrame();
+        frame.setVariable("x", 1.0);
+        assertEquals("Symbol not found: y", assertThrows(Exception.class, () -> frame.evaluateInto(new double[4])).getMessage());
+        frame.setVariable("y", 0.0);
+        assertEquals("Division by zero", assertThrows(ArithmeticException.class, () -> frame.evaluateInto(new double[4])).getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> frame.evaluateInto(FormulaSet.compile("z").bindings(), new double[2], 0));
+        assertThrows(Exception.class, () -> FormulaSet.compile("x+1", "sin("));
+        assertThrows(IllegalArgumentException.class, () -> FormulaSet.compile());
+    }
+}
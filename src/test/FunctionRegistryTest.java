@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.BatchEvaluator;
+import evaluator.CompiledExpression;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.Frame;
+import evaluator.FunctionRegistry;
+import evaluator.GradientFrame;
+import evaluator.MathFunction;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FunctionRegistryTest {
+    String[] equations = {
+            "sqrt(x)*exp(-x)", "sinh(x)-cosh(x)/2", "abs(x-3)+arg(x)", "conj(x)*x", "max(x, 1, -x)-min(x^2, 2*x, 3)",
+            "tan(x)+sqrt(x^2+1)", "min(sin(x), cos(x))"
+    };
+
+    @Test
+    void EvaluatesStandardFunctions() throws Exception {
+        assertEquals(new Complex(0.0, 2.0), CompiledExpression.compile("sqrt(-4)").evaluate());
+        assertEquals(new Complex(5.0, 0.0), CompiledExpression.compile("abs(3+4i)").evaluate());
+        assertEquals(new Complex(-Math.PI / 2, 0.0), CompiledExpression.compile("arg(-2i)").evaluate());
+        assertEquals(new Complex(1.0, -2.0), CompiledExpression.compile("conj(1+2i)").evaluate());
+        assertEquals(new Complex(3.0, 0.0), CompiledExpression.compile("max(1, 3, 2)").evaluate());
+        assertEquals(new Complex(-1.0, 1.0), CompiledExpression.compile("min(2, -1+i, 0)").evaluate());
+        assertEquals(-1.0, CompiledExpression.compile("exp(i*pi)").evaluate().real(), 1e-15);
+        assertEquals("Invalid number of arguments for sin: 2",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("sin(x, 2)")).getMessage());
+        assertEquals("Empty equation", assertThrows(Exception.class, () -> CompiledExpression.compile("max()")).getMessage());
+        assertEquals("max(x, 2)", CompiledExpression.compile("max(x,2)").getOptimizedForm());
+
+        // tan is computed directly and agrees with the quotient of sine and cosine
+        Complex x = new Complex(0.7, -1.3), tan = x.sin().divide(x.cos());
+        assertEquals(tan.real(), x.tan().real(), 1e-15);
+        assertEquals(tan.imaginary(), x.tan().imaginary(), 1e-15);
+    }
+
+    @Test
+    void BackendsAgree() throws Exception {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        PrintStream out = System.out;
+        for (String equation : equations) {
+            CompiledExpression compiled = CompiledExpression.compile(equation);
+            double[] re = { 0.5, 2.0, -1.5, 0.0 }, im = { 0.0, 0.3, -0.7, 0.0 };
+            double[] outRe = new double[re.length], outIm = new double[re.length];
+            for (boolean real : new boolean[] { true, false }) {
+                BatchEvaluator batch = compiled.newBatch();
+                batch.bind("x", re, real ? null : im);
+                batch.evaluate(outRe, outIm);
+                for (int i = 0; i < re.length; i++) {
+                    Complex value = new Complex(re[i], real ? 0.0 : im[i]);
+                    Frame frame = compiled.newFrame();
+                    frame.setRealFastPath(false);
+                    frame.setVariable("x", value);
+                    Complex expected = frame.evaluate();
+                    assertClose(expected, compiled.evaluate(Map.of("x", value)), equation);
+                    assertClose(expected, new Complex(outRe[i], outIm[i]), equation);
+                    evaluator.setVariable("x", value);
+                    try {
+                        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                        assertClose(expected, evaluator.complexEvaluator(equation, true), equation);
+                    } finally {
+                        System.setOut(out);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void CallsUserDefinedFunctions() throws Exception {
+        MathFunction square = MathFunction.of("sq", 1, (r, offset, count, target) -> {
+            double a = r[offset], b = r[offset + 1];
+            r[target] = a * a - b * b;
+            r[target + 1] = 2 * a * b;
+        }).withRealKernel((r, offset, count) -> r[offset] * r[offset]).withDerivative("2*x");
+        MathFunction sum = MathFunction.variadic("sum", 0, (r, offset, count, target) -> {
+            double a = 0, b = 0;
+            for (int k = 0; k < count; k++) {
+                a += r[offset + 2 * k];
+                b += r[offset + 2 * k + 1];
+            }
+            r[target] = a;
+            r[target + 1] = b;
+        });
+        FunctionRegistry functions = FunctionRegistry.standard().with(square).with(sum);
+        assertEquals("Function not supported: sq",
+                assertThrows(Exception.class, () -> CompiledExpression.compile("sq(x)")).getMessage());
+
+        CompiledExpression expression = CompiledExpression.compile("sq(x+1) + sum(2, sq(3)) + sum()", functions);
+        assertEquals("sq(x+1)+11", expression.getOptimizedForm());
+        assertEquals(new Complex(20.0, 0.0), expression.evaluate(Map.of("x", new Complex(2.0, 0.0))));
+        assertEquals(new Complex(11.0, 2.0), expression.evaluate(Map.of("x", new Complex(0.0, 1.0))));
+        assertEquals("2*(x+1)", expression.derivative("x").getEquation());
+        GradientFrame gradient = expression.newGradientFrame();
+        gradient.setVariable("x", 2.0);
+        assertEquals(new Complex(20.0, 0.0), gradient.evaluate());
+        assertEquals(new Complex(6.0, 0.0), gradient.getDerivative("x"));
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator(Map.of("x", new Complex(0.0, 1.0)));
+        evaluator.setFunctions(functions);
+        assertSame(functions, evaluator.getFunctions());
+        assertEquals(new Complex(-1.0, 0.0), evaluator.complexEvaluator("sq(x)", false));
+        evaluator.setCache(new ExpressionCache(16));
+        evaluator.setFunctions(functions);
+        assertSame(functions, evaluator.getCache().getFunctions());
+        assertEquals(new Complex(-1.0, 0.0), evaluator.evaluate("sq(x)"));
+        assertEquals(new Complex(-1.0, 0.0), evaluator.complexEvaluator("sum(sq(x), 0)", false));
+        assertThrows(ArithmeticException.class, () -> CompiledExpression.compile("sum(x, 1)", functions).derivative("x"));
+        assertThrows(ArithmeticException.class, () -> CompiledExpression.compile("abs(x)").derivative("x"));
+    }
+
+    @Test
+    void FoldsOnlyPureFunctions() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MathFunction counter = MathFunction.of("count", 0, (r, offset, count, target) -> {
+            r[target] = calls.incrementAndGet();
+            r[target + 1] = 0.0;
+        });
+        // a pure call with constant arguments is folded at compile time and shared otherwise
+        CompiledExpression pure = CompiledExpression.compile("count() + sqrt(x)*sqrt(x)", FunctionRegistry.standard().with(counter));
+        assertEquals(1, calls.get());
+        assertEquals("1+sqrt(x)*sqrt(x)", pure.getOptimizedForm());
+        pure.evaluate(Map.of("x", new Complex(4.0, 0.0)));
+        assertEquals(1, calls.get());
+
+        CompiledExpression impure = CompiledExpression.compile("count() + count()",
+                FunctionRegistry.standard().with(counter.withPure(false)));
+        assertEquals(1, calls.get());
+        assertEquals(new Complex(5.0, 0.0), impure.evaluate());
+        assertEquals(3, calls.get());
+
+        // an impure call is not repeated when the real fast path leaves the real numbers
+        MathFunction realCounter = counter.withRealKernel((r, offset, count) -> calls.incrementAndGet()).withPure(false);
+        CompiledExpression escaping = CompiledExpression.compile("count() + sqrt(x)", FunctionRegistry.standard().with(realCounter));
+        assertEquals(new Complex(4.0, 2.0), escaping.evaluate(Map.of("x", new Complex(-4.0, 0.0))));
+        assertEquals(4, calls.get());
+    }
+
+    private static void assertClose(Complex expected, Complex actual, String message) {
+        assertEquals(expected.real(), actual.real(), 1e-12 * (1 + expected.mod()), message);
+        assertEquals(expected.imaginary(), actual.imaginary(), 1e-12 * (1 + expected.mod()), message);
+    }
+}
@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.Frame;
+import evaluator.GridEvaluator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridEvaluatorTest {
+    GridEvaluator.Region region = new GridEvaluator.Region(-2.0, -1.25, 0.75, 1.25, 61, 37);
+
+    @Test
+    void SamplesEveryPoint() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile("sin(z)*w + ln(z^2+1)");
+        GridEvaluator grid = expression.newGrid("z", 100);
+        assertThrows(Exception.class, () -> grid.evaluate(region, new double[(int) region.size()], null));
+        grid.setVariable("w", new Complex(0.5, -2.0));
+        double[] re = new double[(int) region.size()], im = new double[re.length];
+        grid.evaluate(region, re, im);
+
+        Frame frame = expression.newFrame();
+        frame.setVariable("w", 0.5, -2.0);
+        for (int row = 0; row < region.height(); row++)
+            for (int column = 0; column < region.width(); column++) {
+                frame.setVariable("z", region.real(column), region.imaginary(row));
+                Complex expected = frame.evaluate();
+                int i = row * region.width() + column;
+                assertEquals(expected, new Complex(re[i], im[i]), row + ", " + column);
+            }
+        assertEquals(-2.0, region.real(0));
+        assertEquals(0.75, region.real(60));
+        assertEquals(1.25, region.imaginary(0));
+        assertThrows(IllegalArgumentException.class, () -> grid.evaluate(region, new double[10], null));
+        assertThrows(IllegalArgumentException.class, () -> new GridEvaluator.Region(0, 0, 1, 1, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> expression.newGrid("x"));
+    }
+
+    @Test
+    void ContinuesPastPoles() throws Exception {
+        // the centre of the 5x5 grid is the origin, where 1/z divides by zero
+        GridEvaluator.Region square = new GridEvaluator.Region(-1, -1, 1, 1, 5, 5);
+        double[] re = new double[25], im = new double[25];
+        GridEvaluator grid = CompiledExpression.compile("1/z").newGrid("z", 8);
+        grid.evaluate(square, re, im);
+        for (int i = 0; i < 25; i++) {
+            if (i == 12) {
+                assertTrue(Double.isNaN(re[i]) && Double.isNaN(im[i]));
+                continue;
+            }
+            Complex z = new Complex(square.real(i % 5), square.imaginary(i / 5));
+            assertEquals(new Complex(1, 0).divide(z), new Complex(re[i], im[i]), "point " + i);
+        }
+        // the pole escapes after its first iteration, the other points keep iterating
+        int[] iterations = new int[25];
+        grid.iterate(square, new GridEvaluator.Escape("z", null, 4, 10), iterations, null, null);
+        assertEquals(1, iterations[12]);
+        assertEquals(4, iterations[0]);
+    }
+
+    @Test
+    void CountsEscapeIterations() throws Exception {
+        // Mandelbrot: c takes the point, z starts from 0
+        GridEvaluator mandelbrot = CompiledExpression.compile("z^2+c").newGrid("c", 64);
+        GridEvaluator.Escape escape = new GridEvaluator.Escape("z", new Complex(0.0, 0.0), 100, 2.0);
+        int[] iterations = new int[(int) region.size()];
+        double[] re = new double[iterations.length], im = new double[iterations.length];
+        mandelbrot.iterate(region, escape, iterations, re, im);
+        for (int row = 0; row < region.height(); row++)
+            for (int column = 0; column < region.width(); column++) {
+                int i = row * region.width() + column;
+                double cr = region.real(column), ci = region.imaginary(row), zr = 0, zi = 0;
+                int n = 0;
+                while (n < 100) {
+                    double t = zr * zr - zi * zi + cr;
+                    zi = 2 * zr * zi + ci;
+                    zr = t;
+                    n++;
+                    if (!(zr * zr + zi * zi <= 4.0)) break;
+                }
+                assertEquals(n, iterations[i], row + ", " + column);
+                assertEquals(zr, re[i], 1e-9 * (1 + Math.abs(zr)));
+                assertEquals(zi, im[i], 1e-9 * (1 + Math.abs(zi)));
+            }
+        // the origin is in the set, -2 + 1.25i escapes at once
+        assertEquals(100, iterations[18 * 61 + 44]);
+        assertEquals(1, iterations[0]);
+
+        // Julia: z starts from the point, c is fixed
+        GridEvaluator julia = CompiledExpression.compile("z^2+c").newGrid("z");
+        julia.setVariable("c", -0.8, 0.156);
+        GridEvaluator.Region square = new GridEvaluator.Region(-3, -3, 3, 3, 7, 7);
+        int[] counts = new int[49];
+        julia.iterate(square, new GridEvaluator.Escape("z", null, 50, 2.0), counts, null, null);
+        assertEquals(0, counts[0]);
+        assertTrue(counts[24] > 1);
+    }
+
+    @Test
+    void WritesMappedFiles(@TempDir Path directory) throws Exception {
+        GridEvaluator grid = CompiledExpression.compile("z^3 - 1").newGrid("z", 32);
+        double[] re = new double[(int) region.size()], im = new double[re.length];
+        grid.evaluate(region, re, im);
+        Path values = directory.resolve("values.bin");
+        grid.evaluate(region, values);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(values)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(16 * region.size(), buffer.capacity());
+        for (int i = 0; i < re.length; i++) {
+            assertEquals(re[i], buffer.getDouble(16 * i));
+            assertEquals(im[i], buffer.getDouble(16 * i + 8));
+        }
+
+        GridEvaluator mandelbrot = CompiledExpression.compile("z^2+c").newGrid("c");
+        GridEvaluator.Escape escape = new GridEvaluator.Escape("z", new Complex(0.0, 0.0), 50, 2.0);
+        int[] iterations = new int[(int) region.size()];
+        mandelbrot.iterate(region, escape, iterations, null, null);
+        Path counts = directory.resolve("counts.bin");
+        mandelbrot.iterate(region, escape, counts);
+        buffer = ByteBuffer.wrap(Files.readAllBytes(counts)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < iterations.length; i++) assertEquals(iterations[i], buffer.getInt(4 * i));
+    }
+}
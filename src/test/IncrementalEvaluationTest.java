@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+
+import complex.Complex;
+import evaluator.CompiledExpression;
+import evaluator.FormulaGraph;
+import evaluator.Frame;
+import evaluator.IncrementalFrame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalEvaluationTest {
+    String equation = "sin(a)^2*b + cos(c)/(d+1) + a*b*c*d - ln(e+2)";
+
+    @Test
+    void RecomputesOnlyWhatChanged() throws Exception {
+        CompiledExpression expression = CompiledExpression.compile(equation.replace("e+2", "f+2"));
+        IncrementalFrame incremental = expression.newIncrementalFrame();
+        assertThrows(Exception.class, incremental::evaluate);
+        String[] names = { "a", "b", "c", "d", "f" };
+        double[] values = { 0.5, -1.5, 2.0, 3.0, 0.25 };
+        for (int i = 0; i < names.length; i++) incremental.setVariable(names[i], values[i]);
+        assertEquals(full(expression, map(names, values)), incremental.evaluate());
+        long executed = incremental.getExecutedCount();
+
+        // nothing changed, nothing is run
+        incremental.setVariable("a", 0.5);
+        assertFalse(incremental.isStale());
+        assertEquals(full(expression, map(names, values)), incremental.evaluate());
+        assertEquals(executed, incremental.getExecutedCount());
+
+        // f only reaches ln(f+2) and the final subtraction
+        values[4] = 4.0;
+        incremental.setVariable("f", values[4]);
+        assertTrue(incremental.isStale());
+        assertEquals(full(expression, map(names, values)), incremental.evaluate());
+        assertEquals(executed + 3, incremental.getExecutedCount());
+
+        // random updates agree with a full evaluation to the last bit
+        Random random = new Random(17);
+        for (int n = 0; n < 1000; n++) {
+            int slot = random.nextInt(names.length);
+            values[slot] = random.nextDouble() * 4 - 2;
+            incremental.setVariable(names[slot], values[slot]);
+            assertEquals(full(expression, map(names, values)), incremental.evaluate());
+        }
+        assertTrue(incremental.getExecutedCount() < 1000L * expression.getOptimizedForm().length() / 4);
+    }
+
+    @Test
+    void RetriesAfterDivisionByZero() throws Exception {
+        IncrementalFrame incremental = CompiledExpression.compile("x/(y-1)+x").newIncrementalFrame();
+        incremental.setVariable("x", 2.0);
+        incremental.setVariable("y", 1.0);
+        assertThrows(ArithmeticException.class, incremental::evaluate);
+        assertThrows(ArithmeticException.class, incremental::evaluate);
+        incremental.setVariable("y", 3.0);
+        assertEquals(new Complex(3.0, 0.0), incremental.evaluate());
+        // constant and variable results have no instruction to run
+        assertEquals(new Complex(4.0, 0.0), CompiledExpression.compile("2*2").newIncrementalFrame().evaluate());
+    }
+
+    @Test
+    void EvaluatesFormulasInTopologicalOrder() throws Exception {
+        FormulaGraph graph = new FormulaGraph();
+        graph.define("volume", "area*h");
+        graph.define("area", "pi*r^2");
+        graph.define("ratio", "volume/area + h");
+        assertEquals(List.of("area", "volume", "ratio"), graph.getOrder());
+        assertThrows(Exception.class, () -> graph.evaluate("volume"));
+
+        graph.setVariables(Map.of("r", new Complex(2.0, 0.0), "h", new Complex(3.0, 0.0)));
+        assertEquals(12.0 * Math.PI, graph.evaluate("volume").real(), 1e-12);
+        assertEquals(6.0, graph.evaluate("ratio").real(), 1e-12);
+
+        // h does not reach area
+        long executed = graph.getExecutedCount();
+        graph.setVariable("h", 5.0);
+        Map<String, Complex> results = graph.evaluate();
+        assertEquals(List.of("area", "volume", "ratio"), List.copyOf(results.keySet()));
+        assertEquals(20.0 * Math.PI, results.get("volume").real(), 1e-12);
+        assertEquals(10.0, results.get("ratio").real(), 1e-12);
+        assertEquals(executed + 3, graph.getExecutedCount());
+
+        // r = -2 leaves area unchanged, which stops the propagation
+        executed = graph.getExecutedCount();
+        graph.setVariable("r", -2.0);
+        graph.evaluate();
+        assertEquals(executed + 2, graph.getExecutedCount());
+
+        graph.define("area", "r^2");
+        assertEquals(20.0, graph.evaluate("volume").real(), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> graph.setVariable("area", 1.0));
+        assertThrows(IllegalArgumentException.class, () -> graph.remove("area"));
+
+        Exception cycle = assertThrows(Exception.class, () -> graph.define("h", "ratio*2"));
+        assertEquals("Cyclic formula: h -> ratio -> volume -> h", cycle.getMessage());
+        // the graph is left as it was
+        assertEquals(List.of("area", "volume", "ratio"), graph.getOrder());
+        assertEquals(10.0, graph.evaluate("ratio").real(), 1e-12);
+        assertTrue(graph.remove("ratio"));
+        assertNull(graph.getFormula("ratio"));
+        assertThrows(Exception.class, () -> graph.evaluate("ratio"));
+    }
+
+    // the incremental frame runs complex arithmetic only, so the real fast path is left out
+    private static Complex full(CompiledExpression expression, Map<String, Complex> values) throws Exception {
+        Frame frame = expression.newFrame();
+        frame.setRealFastPath(false);
+        values.forEach(frame::setVariable);
+        return frame.evaluate();
+    }
+
+    private static Map<String, Complex> map(String[] names, double[] values) {
+        Map<String, Complex> map = new HashMap<>();
+        for (int i = 0; i < names.length; i++) map.put(names[i], new Complex(values[i], 0.0));
+        return map;
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import complex.Complex;
+import evaluator.ExpressionCache;
+import evaluator.ExpressionEvaluator;
+import evaluator.StreamEvaluator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamEvaluatorTest {
+    String[] equations = {
+            "-1.3+e^(2.3-1.2)-sin(pi)",
+            "3^-1+2^-2", "(1+i)^(2-i)+2^-i",
+            "1.2+(4.5-2.2/0.5+(3.45-2.22))+3.5-2.1",
+            "x^4+x^3+x^2+x+1", "1/(x-x)", "foo(2)", "2 + (  log(5) -   log(3)  )    /  log(4)"
+    };
+
+    Map<String, Complex> variables = Map.of("x", new Complex(0.3, 0.95));
+
+    private List<String> expected(List<String> lines) {
+        ExpressionEvaluator exp = new ExpressionEvaluator(variables);
+        List<String> results = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                results.add(exp.evaluateEquation(line, 4, false));
+            } catch (Exception e) {
+                results.add(e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    @Test
+    void EvaluatesLinesFromChannels() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) lines.add(equations[i % equations.length]);
+        byte[] input = (String.join("\r\n", lines)).getBytes(StandardCharsets.ISO_8859_1);
+
+        StreamEvaluator stream = new StreamEvaluator(variables);
+        // a buffer shorter than some lines makes it grow and refill often
+        stream.setBufferSize(16);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(500, stream.evaluateLines(Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(output)));
+        assertEquals(expected(lines), List.of(output.toString(StandardCharsets.ISO_8859_1).split("\n")));
+        assertEquals(lines.stream().filter(line -> line.equals("1/(x-x)") || line.equals("foo(2)")).count(), stream.getErrorCount());
+    }
+
+    @Test
+    void CompilesRepeatedLinesOnce() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) lines.add(i % 10 < 7 ? "x^4+x^3+x^2+x+1" : "sin(x) * 2");
+        // an error message longer than the output buffer is written whole
+        String missing = "y".repeat(1000);
+        lines.add(missing + "+1");
+        ExpressionCache cache = new ExpressionCache(16);
+        StreamEvaluator stream = new StreamEvaluator(variables, cache);
+        stream.setBufferSize(16);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] input = String.join("\n", lines).getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(101, stream.evaluateLines(Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(output)));
+        List<String> results = List.of(output.toString(StandardCharsets.ISO_8859_1).split("\n"));
+        assertEquals(expected(lines), results);
+        assertEquals("Symbol not found: " + missing, results.get(100));
+        // lines are parsed straight from the buffer, the cache is left to CSV rows
+        assertEquals(0, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    void EvaluatesMappedFiles(@TempDir Path directory) throws Exception {
+        Path input = directory.resolve("equations.txt"), output = directory.resolve("results.txt");
+        Files.write(input, List.of(equations));
+        StreamEvaluator stream = new StreamEvaluator(variables);
+        assertEquals(equations.length, stream.evaluateLines(input, output));
+        assertEquals(expected(List.of(equations)), Files.readAllLines(output));
+
+        Files.write(input, new byte[0]);
+        assertEquals(0, stream.evaluateLines(input, output));
+        assertEquals(0, Files.size(output));
+    }
+
+    @Test
+    void EvaluatesCsv(@TempDir Path directory) throws Exception {
+        Path input = directory.resolve("rows.csv"), output = directory.resolve("results.csv");
+        List<String> rows = new ArrayList<>(List.of("equation, a, b"));
+        List<String> equations = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            double a = i * 0.25 - 3, b = (i + 1) * 0.5;
+            String equation = i < 6_000 ? "a^2-b/a" : i % 3 == 0 ? "ln(a)*x" : "sin(a)+b";
+            rows.add(equation + "," + a + "," + b);
+            equations.add(equation.replace("a", "(" + a + ")").replace("b", "(" + b + ")"));
+        }
+        rows.add("a+b,1,oops");
+        rows.add("a+b,1");
+        rows.add("y+a,1,2");
+        Files.write(input, rows);
+
+        StreamEvaluator stream = new StreamEvaluator(variables);
+        assertEquals(10_003, stream.evaluateCsv(input, output));
+        List<String> results = Files.readAllLines(output);
+        List<String> expected = expected(equations);
+        expected.addAll(List.of("Invalid number in column 3", "Expected 2 values but found 1", "Symbol not found: y"));
+        assertEquals(expected.size(), results.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), results.get(i), rows.get(i + 1));
+    }
+}